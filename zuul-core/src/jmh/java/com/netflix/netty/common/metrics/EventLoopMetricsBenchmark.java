@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.netty.common.metrics;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The metrics updates for one request on a new connection. Run with the gc profiler to see the allocation per request,
+ * which is none for {@link EventLoopMetrics}, against setting tagged gauges looked up in the registry.
+ */
+@State(Scope.Thread)
+public class EventLoopMetricsBenchmark {
+
+    private EventLoopMetrics metrics;
+    private Registry registry;
+    private Id requestsId;
+    private Id connectionsId;
+    private int requests;
+    private int connections;
+
+    @Setup
+    public void setUp() {
+        registry = new DefaultRegistry();
+        metrics = new EventLoopMetrics(registry, "benchmark");
+        requestsId = registry.createId("benchmark.requests.current");
+        connectionsId = registry.createId("benchmark.connections.current");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int eventLoopMetrics() {
+        metrics.incrementCurrentConnections();
+        metrics.incrementCurrentRequests();
+        metrics.decrementCurrentRequests();
+        metrics.decrementCurrentConnections();
+        return metrics.currentHttpRequestsCount();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int taggedRegistryGauges() {
+        registry.gauge(connectionsId.withTag("eventloop", "benchmark")).set(++connections);
+        registry.gauge(requestsId.withTag("eventloop", "benchmark")).set(++requests);
+        registry.gauge(requestsId.withTag("eventloop", "benchmark")).set(--requests);
+        registry.gauge(connectionsId.withTag("eventloop", "benchmark")).set(--connections);
+        return requests;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.message;
+
+import com.netflix.zuul.message.http.HttpHeaderNamesCache;
+import io.netty.util.AsciiString;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Looks up a typical request's header names, as they come off the wire: some in standard case, some lower case
+ * (HTTP/2), and a few that aren't well known.
+ */
+@State(Scope.Thread)
+public class HeaderNameLookupBenchmark {
+
+    private static final String[] NAMES = {
+        "Host",
+        "user-agent",
+        "Accept",
+        "accept-encoding",
+        "Accept-Language",
+        "Cookie",
+        "X-Forwarded-For",
+        "x-forwarded-proto",
+        "Content-Type",
+        "content-length",
+        "X-Custom-Client-Id",
+        "x-device-type",
+    };
+
+    private String[] names;
+    private AsciiString[] asciiNames;
+    private HttpHeaderNamesCache cache;
+
+    @Setup
+    public void setUp() {
+        names = NAMES.clone();
+        asciiNames = new AsciiString[names.length];
+        for (int i = 0; i < names.length; i++) {
+            asciiNames[i] = AsciiString.of(names[i]);
+        }
+        cache = new HttpHeaderNamesCache(100, 30);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void cache(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(cache.get(name));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void newHeaderName(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(new HeaderName(name).getNormalised());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void knownHeaderNames(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(KnownHeaderNames.get(name));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void knownHeaderNames_asciiString(Blackhole blackhole) {
+        for (AsciiString name : asciiNames) {
+            blackhole.consume(KnownHeaderNames.get(name));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void asciiString_toLowerCase(Blackhole blackhole) {
+        for (AsciiString name : asciiNames) {
+            blackhole.consume(name.toLowerCase().toString());
+        }
+    }
+}
@@ -34,12 +34,15 @@ public class HeadersBenchmark {
 
     @State(Scope.Thread)
     public static class AddHeaders {
-        @Param({"0", "1", "5", "10", "30"})
+        @Param({"0", "1", "5", "10", "30", "50", "100"})
         public int count;
 
         @Param({"10"})
         public int nameLength;
 
+        @Param({"false", "true"})
+        public boolean hashIndexed;
+
         private String[] stringNames;
         private HeaderName[] names;
         private String[] values;
@@ -66,7 +69,7 @@ public class HeadersBenchmark {
         @BenchmarkMode(Mode.AverageTime)
         @OutputTimeUnit(TimeUnit.NANOSECONDS)
         public Headers addHeaders_string() {
-            Headers headers = new Headers();
+            Headers headers = newHeaders(hashIndexed);
             for (int i = 0; i < count; i++) {
                 headers.add(stringNames[i], values[i]);
             }
@@ -77,7 +80,7 @@ public class HeadersBenchmark {
         @BenchmarkMode(Mode.AverageTime)
         @OutputTimeUnit(TimeUnit.NANOSECONDS)
         public Headers addHeaders_headerName() {
-            Headers headers = new Headers();
+            Headers headers = newHeaders(hashIndexed);
             for (int i = 0; i < count; i++) {
                 headers.add(names[i], values[i]);
             }
@@ -87,20 +90,25 @@ public class HeadersBenchmark {
 
     @State(Scope.Thread)
     public static class GetSetHeaders {
-        @Param({"1", "5", "10", "30"})
+        @Param({"1", "5", "10", "30", "50", "100"})
         public int count;
 
         @Param({"10"})
         public int nameLength;
 
+        @Param({"false", "true"})
+        public boolean hashIndexed;
+
         private String[] stringNames;
         private HeaderName[] names;
         private String[] values;
+        private HeaderName missing;
         Headers headers;
 
         @Setup
         public void setUp() {
-            headers = new Headers();
+            headers = newHeaders(hashIndexed);
+            missing = new HeaderName("not-present");
             stringNames = new String[count];
             names = new HeaderName[stringNames.length];
             values = new String[stringNames.length];
@@ -146,6 +154,20 @@ public class HeadersBenchmark {
             return headers.getAll(names[count - 1]);
         }
 
+        @Benchmark
+        @BenchmarkMode(Mode.AverageTime)
+        @OutputTimeUnit(TimeUnit.NANOSECONDS)
+        public String getFirst_last() {
+            return headers.getFirst(names[count - 1]);
+        }
+
+        @Benchmark
+        @BenchmarkMode(Mode.AverageTime)
+        @OutputTimeUnit(TimeUnit.NANOSECONDS)
+        public boolean contains_missing() {
+            return headers.contains(missing);
+        }
+
         @Benchmark
         @BenchmarkMode(Mode.AverageTime)
         @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -162,4 +184,8 @@ public class HeadersBenchmark {
     public Headers newHeaders() {
         return new Headers();
     }
+
+    private static Headers newHeaders(boolean hashIndexed) {
+        return hashIndexed ? Headers.hashIndexed(10) : new Headers();
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.netty.common.accesslog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Turns {@link AccessLogRecord}s into the bytes written to an access log by {@link AsyncAccessLogPublisher}.
+ *
+ * <p>An encoder is only called from the publisher's writer thread, so it can keep buffers between records and need
+ * not be thread safe. Each encoder should be used by a single publisher.
+ */
+public interface AccessLogEncoder {
+
+    /**
+     * Writes out the record, including whatever separates it from the next one.
+     */
+    void encode(AccessLogRecord record, OutputStream out) throws IOException;
+
+    /**
+     * Returns the encoder for a format name: {@code text} (the default), {@code json} or {@code binary}.
+     */
+    static AccessLogEncoder forFormat(String format) {
+        return switch (format) {
+            case "text" -> new TextAccessLogEncoder();
+            case "json" -> new JsonLinesAccessLogEncoder();
+            case "binary" -> new BinaryAccessLogEncoder();
+            default -> throw new IllegalArgumentException("Unknown access log format: " + format);
+        };
+    }
+}
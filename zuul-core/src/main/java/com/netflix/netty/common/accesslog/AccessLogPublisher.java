@@ -24,8 +24,8 @@ import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Locale;
 import java.util.function.BiFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,13 +34,13 @@ public class AccessLogPublisher {
     private static final char DELIM = '\t';
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
-    private static final List<String> LOG_REQ_HEADERS = new DynamicStringListProperty(
+    static final List<String> LOG_REQ_HEADERS = new DynamicStringListProperty(
                     "zuul.access.log.requestheaders",
                     "host,x-forwarded-for,x-forwarded-proto,x-forwarded-host,x-forwarded-port,user-agent")
             .get();
-    private static final List<String> LOG_RESP_HEADERS =
+    static final List<String> LOG_RESP_HEADERS =
             new DynamicStringListProperty("zuul.access.log.responseheaders", "server,via,content-type").get();
-    private static final DynamicIntProperty URI_LENGTH_LIMIT =
+    static final DynamicIntProperty URI_LENGTH_LIMIT =
             new DynamicIntProperty("zuul.access.log.uri.length.limit", Integer.MAX_VALUE);
 
     private final Logger logger;
@@ -63,54 +63,87 @@ public class AccessLogPublisher {
             Long durationNs,
             Long requestBodySize,
             Long responseBodySize) {
-        StringBuilder sb = new StringBuilder(512);
-
-        String dateTimeStr = dateTime != null ? dateTime.format(DATE_TIME_FORMATTER) : "-----T-:-:-";
-        String remoteIpStr = (remoteIp != null && !remoteIp.isEmpty()) ? remoteIp : "-";
-        String port = localPort != null ? localPort.toString() : "-";
-        String method = request != null ? request.method().toString().toUpperCase(Locale.ROOT) : "-";
-        String uri = request != null ? request.uri() : "-";
-        if (uri.length() > URI_LENGTH_LIMIT.get()) {
-            uri = uri.substring(0, URI_LENGTH_LIMIT.get());
-        }
-        String status = response != null ? String.valueOf(response.status().code()) : "-";
-
         String requestId = null;
         try {
             requestId = requestIdProvider.apply(channel, request);
         } catch (Exception ex) {
             LOG.error(
-                    "requestIdProvider failed in AccessLogPublisher method={}, uri={}, status={}", method, uri, status);
+                    "requestIdProvider failed in AccessLogPublisher method={}, uri={}, status={}",
+                    request != null ? request.method() : "-",
+                    request != null ? request.uri() : "-",
+                    response != null ? response.status().code() : "-");
+        }
+
+        publish(new AccessLogRecord(
+                request,
+                response,
+                dateTime,
+                localPort != null ? localPort : AccessLogRecord.NONE,
+                remoteIp,
+                durationNs != null ? durationNs : AccessLogRecord.NONE,
+                requestBodySize != null ? requestBodySize : AccessLogRecord.NONE,
+                responseBodySize != null ? responseBodySize : AccessLogRecord.NONE,
+                requestId));
+    }
+
+    /**
+     * Writes out the record. Called on the event loop, once per request.
+     */
+    void publish(AccessLogRecord record) {
+        StringBuilder sb = new StringBuilder(512);
+        format(record, sb);
+
+        // Write to logger.
+        String access = sb.toString();
+        logger.info(access);
+        LOG.debug(access);
+    }
+
+    /**
+     * Appends the access log line for the record, without a line separator.
+     */
+    static void format(AccessLogRecord record, StringBuilder sb) {
+        HttpRequest request = record.request;
+        HttpResponse response = record.response;
+
+        if (record.dateTime != null) {
+            appendDateTime(record.dateTime, sb);
+        } else {
+            sb.append("-----T-:-:-");
         }
-        requestId = requestId != null ? requestId : "-";
+        sb.append(DELIM);
+
+        String remoteIp = record.remoteIp;
+        sb.append(remoteIp != null && !remoteIp.isEmpty() ? remoteIp : "-").append(DELIM);
+        appendOrDash(record.localPort, sb, true).append(DELIM);
+        if (request != null) {
+            String method = request.method().name();
+            for (int i = 0; i < method.length(); i++) {
+                sb.append(Character.toUpperCase(method.charAt(i)));
+            }
+            String uri = request.uri();
+            int uriLength = Math.min(uri.length(), URI_LENGTH_LIMIT.get());
+            sb.append(DELIM).append(uri, 0, uriLength).append(DELIM);
+        } else {
+            sb.append('-').append(DELIM).append('-').append(DELIM);
+        }
+        if (response != null) {
+            sb.append(response.status().code());
+        } else {
+            sb.append('-');
+        }
+        sb.append(DELIM);
 
         // Convert duration to microseconds.
-        String durationStr = (durationNs != null && durationNs > 0) ? String.valueOf(durationNs / 1000) : "-";
-
-        String requestBodySizeStr = (requestBodySize != null && requestBodySize > 0) ? requestBodySize.toString() : "-";
-        String responseBodySizeStr =
-                (responseBodySize != null && responseBodySize > 0) ? responseBodySize.toString() : "-";
-
-        // Build the line.
-        sb.append(dateTimeStr)
-                .append(DELIM)
-                .append(remoteIpStr)
-                .append(DELIM)
-                .append(port)
-                .append(DELIM)
-                .append(method)
-                .append(DELIM)
-                .append(uri)
-                .append(DELIM)
-                .append(status)
-                .append(DELIM)
-                .append(durationStr)
-                .append(DELIM)
-                .append(responseBodySizeStr)
-                .append(DELIM)
-                .append(requestId)
-                .append(DELIM)
-                .append(requestBodySizeStr);
+        if (record.durationNs > 0) {
+            sb.append(record.durationNs / 1000);
+        } else {
+            sb.append('-');
+        }
+        sb.append(DELIM);
+        appendOrDash(record.responseBodySize, sb, false).append(DELIM);
+        sb.append(record.requestId != null ? record.requestId : "-").append(DELIM);
+        appendOrDash(record.requestBodySize, sb, false);
 
         if (request != null && request.headers() != null) {
             includeMatchingHeaders(sb, LOG_REQ_HEADERS, request.headers());
@@ -119,17 +152,65 @@ public class AccessLogPublisher {
         if (response != null && response.headers() != null) {
             includeMatchingHeaders(sb, LOG_RESP_HEADERS, response.headers());
         }
+    }
 
-        // Write to logger.
-        String access = sb.toString();
-        logger.info(access);
-        LOG.debug(access);
+    private static StringBuilder appendOrDash(long value, StringBuilder sb, boolean zeroAllowed) {
+        if (value > 0 || (zeroAllowed && value == 0)) {
+            return sb.append(value);
+        }
+        return sb.append('-');
+    }
+
+    /**
+     * Same output as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}, without the intermediate objects.
+     */
+    static void appendDateTime(LocalDateTime dateTime, StringBuilder sb) {
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            DATE_TIME_FORMATTER.formatTo(dateTime, sb);
+            return;
+        }
+        appendPadded(year, 4, sb).append('-');
+        appendPadded(dateTime.getMonthValue(), 2, sb).append('-');
+        appendPadded(dateTime.getDayOfMonth(), 2, sb).append('T');
+        appendPadded(dateTime.getHour(), 2, sb).append(':');
+        appendPadded(dateTime.getMinute(), 2, sb).append(':');
+        appendPadded(dateTime.getSecond(), 2, sb);
+        int nanos = dateTime.getNano();
+        if (nanos > 0) {
+            // As many digits as needed, without trailing zeros.
+            int digits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digits--;
+            }
+            appendPadded(nanos, digits, sb.append('.'));
+        }
+    }
+
+    private static StringBuilder appendPadded(int value, int width, StringBuilder sb) {
+        for (int bound = 10, i = 1; i < width; i++, bound *= 10) {
+            if (value < bound) {
+                sb.append('0');
+            }
+        }
+        return sb.append(value);
     }
 
-    void includeMatchingHeaders(StringBuilder builder, List<String> requiredHeaders, HttpHeaders headers) {
+    static void includeMatchingHeaders(StringBuilder builder, List<String> requiredHeaders, HttpHeaders headers) {
         for (String headerName : requiredHeaders) {
-            String value = headerAsString(headers, headerName);
-            builder.append(DELIM).append('\"').append(value).append('\"');
+            builder.append(DELIM).append('\"');
+            Iterator<String> values = headers.valueStringIterator(headerName);
+            if (!values.hasNext()) {
+                builder.append('-');
+            }
+            while (values.hasNext()) {
+                builder.append(values.next());
+                if (values.hasNext()) {
+                    builder.append(',');
+                }
+            }
+            builder.append('\"');
         }
     }
 
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.netty.common.accesslog;
+
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import java.time.LocalDateTime;
+import javax.annotation.Nullable;
+
+/**
+ * What gets logged for one request, captured on the event loop and formatted later.
+ */
+public final class AccessLogRecord {
+    /**
+     * Stands in for a number that isn't known.
+     */
+    public static final long NONE = -1;
+
+    @Nullable
+    final HttpRequest request;
+
+    @Nullable
+    final HttpResponse response;
+
+    @Nullable
+    final LocalDateTime dateTime;
+
+    final long localPort;
+
+    @Nullable
+    final String remoteIp;
+
+    final long durationNs;
+    final long requestBodySize;
+    final long responseBodySize;
+
+    @Nullable
+    final String requestId;
+
+    AccessLogRecord(
+            @Nullable HttpRequest request,
+            @Nullable HttpResponse response,
+            @Nullable LocalDateTime dateTime,
+            long localPort,
+            @Nullable String remoteIp,
+            long durationNs,
+            long requestBodySize,
+            long responseBodySize,
+            @Nullable String requestId) {
+        this.request = request;
+        this.response = response;
+        this.dateTime = dateTime;
+        this.localPort = localPort;
+        this.remoteIp = remoteIp;
+        this.durationNs = durationNs;
+        this.requestBodySize = requestBodySize;
+        this.responseBodySize = responseBodySize;
+        this.requestId = requestId;
+    }
+
+    @Nullable
+    public HttpRequest getRequest() {
+        return request;
+    }
+
+    @Nullable
+    public HttpResponse getResponse() {
+        return response;
+    }
+
+    @Nullable
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    /**
+     * @return the local port, or {@link #NONE}
+     */
+    public long getLocalPort() {
+        return localPort;
+    }
+
+    @Nullable
+    public String getRemoteIp() {
+        return remoteIp;
+    }
+
+    /**
+     * @return the duration in nanoseconds, or {@link #NONE}
+     */
+    public long getDurationNs() {
+        return durationNs;
+    }
+
+    /**
+     * @return the request body size in bytes, or {@link #NONE}
+     */
+    public long getRequestBodySize() {
+        return requestBodySize;
+    }
+
+    /**
+     * @return the response body size in bytes, or {@link #NONE}
+     */
+    public long getResponseBodySize() {
+        return responseBodySize;
+    }
+
+    @Nullable
+    public String getRequestId() {
+        return requestId;
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.netty.common.accesslog;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.netflix.config.DynamicIntProperty;
+import com.netflix.config.DynamicLongProperty;
+import com.netflix.config.DynamicStringProperty;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpRequest;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link AccessLogPublisher} that keeps the event loop out of formatting and IO. The event loop only captures a
+ * record of the request and puts it on a lock-free ring. A writer thread of its own encodes records into reusable
+ * buffers, and writes them to the file in batches. If the writer falls behind and the ring fills up, records are
+ * dropped and counted, rather than the event loop being held up.
+ *
+ * <p>Records are written with an {@link AccessLogEncoder}, by default the one for
+ * {@code zuul.access.log.async.format}: the usual tab delimited {@code text}, {@code json} lines, or length-prefixed
+ * {@code binary}.
+ *
+ * <p>The file is rotated once it reaches {@code zuul.access.log.async.rotate.bytes}: it is renamed with a {@code .1}
+ * suffix, older ones move up a number, and at most {@code zuul.access.log.async.rotate.files} are kept.
+ */
+public class AsyncAccessLogPublisher extends AccessLogPublisher implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncAccessLogPublisher.class);
+
+    private static final DynamicIntProperty QUEUE_CAPACITY =
+            new DynamicIntProperty("zuul.access.log.async.queue.capacity", 64 * 1024);
+    private static final DynamicIntProperty BUFFER_BYTES =
+            new DynamicIntProperty("zuul.access.log.async.buffer.bytes", 256 * 1024);
+    private static final DynamicLongProperty ROTATE_BYTES =
+            new DynamicLongProperty("zuul.access.log.async.rotate.bytes", 512L * 1024 * 1024);
+    private static final DynamicIntProperty ROTATE_FILES =
+            new DynamicIntProperty("zuul.access.log.async.rotate.files", 5);
+    private static final DynamicStringProperty FORMAT =
+            new DynamicStringProperty("zuul.access.log.async.format", "text");
+
+    // How long the writer sleeps when there's nothing to write, and so how stale the file can be.
+    private static final long IDLE_PARK_NS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Path file;
+    private final MpscRing<AccessLogRecord> ring;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter writeErrors;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    // Only used by the writer thread.
+    private final AccessLogEncoder encoder;
+    private final ByteBuffer out;
+    private final OutputStream outStream = new BufferOutputStream();
+
+    @Nullable
+    private FileChannel channel;
+
+    private long fileBytes;
+
+    public AsyncAccessLogPublisher(Path file, BiFunction<Channel, HttpRequest, String> requestIdProvider)
+            throws IOException {
+        this(file, requestIdProvider, Spectator.globalRegistry());
+    }
+
+    public AsyncAccessLogPublisher(
+            Path file, BiFunction<Channel, HttpRequest, String> requestIdProvider, Registry registry)
+            throws IOException {
+        this(file, requestIdProvider, registry, AccessLogEncoder.forFormat(FORMAT.get()));
+    }
+
+    public AsyncAccessLogPublisher(
+            Path file,
+            BiFunction<Channel, HttpRequest, String> requestIdProvider,
+            Registry registry,
+            AccessLogEncoder encoder)
+            throws IOException {
+        this(file, requestIdProvider, registry, encoder, QUEUE_CAPACITY.get(), BUFFER_BYTES.get());
+    }
+
+    @VisibleForTesting
+    AsyncAccessLogPublisher(
+            Path file,
+            BiFunction<Channel, HttpRequest, String> requestIdProvider,
+            Registry registry,
+            AccessLogEncoder encoder,
+            int queueCapacity,
+            int bufferBytes)
+            throws IOException {
+        super(AsyncAccessLogPublisher.class.getName(), requestIdProvider);
+        this.file = file;
+        this.encoder = encoder;
+        this.ring = new MpscRing<>(queueCapacity);
+        this.out = ByteBuffer.allocateDirect(bufferBytes);
+        this.dropped = registry.counter("zuul.access.log.dropped");
+        this.written = registry.counter("zuul.access.log.written");
+        this.writeErrors = registry.counter("zuul.access.log.write.errors");
+        PolledMeter.using(registry).withName("zuul.access.log.queued").monitorValue(ring, MpscRing::size);
+
+        open();
+        this.writer = new Thread(this::drain, "zuul-access-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    void publish(AccessLogRecord record) {
+        if (!running || !ring.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Stops taking records, and returns once those already queued are written out.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                AccessLogRecord record = ring.poll();
+                if (record != null) {
+                    write(record);
+                    continue;
+                }
+                // Caught up, so write out what we have, rather than wait for the buffer to fill.
+                flush();
+                if (!running && ring.size() == 0) {
+                    break;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NS);
+            }
+        } finally {
+            closeChannel();
+        }
+    }
+
+    private void write(AccessLogRecord record) {
+        try {
+            encoder.encode(record, outStream);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to encode access log record", e);
+            dropped.increment();
+            return;
+        }
+        written.increment();
+    }
+
+    private void flush() {
+        if (out.position() == 0) {
+            return;
+        }
+        out.flip();
+        try {
+            FileChannel channel = this.channel;
+            if (channel == null) {
+                channel = open();
+            }
+            while (out.hasRemaining()) {
+                fileBytes += channel.write(out);
+            }
+            if (fileBytes >= ROTATE_BYTES.get()) {
+                rotate();
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to write access log to {}", file, e);
+            writeErrors.increment();
+            // Try again from scratch on the next write.
+            closeChannel();
+        } finally {
+            out.clear();
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        FileChannel channel =
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+        this.channel = channel;
+        return channel;
+    }
+
+    private void rotate() throws IOException {
+        closeChannel();
+        int files = ROTATE_FILES.get();
+        if (files <= 0) {
+            Files.deleteIfExists(file);
+        } else {
+            Files.deleteIfExists(rotated(files));
+            for (int i = files - 1; i >= 1; i--) {
+                Path from = rotated(i);
+                if (Files.exists(from)) {
+                    Files.move(from, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path rotated(int n) {
+        return file.resolveSibling(file.getFileName() + "." + n);
+    }
+
+    private void closeChannel() {
+        FileChannel channel = this.channel;
+        this.channel = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.debug("Failed to close access log {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * Copies what encoders write into the buffer, writing the buffer out to the file whenever it fills up.
+     */
+    private final class BufferOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+            if (!out.hasRemaining()) {
+                AsyncAccessLogPublisher.this.flush();
+            }
+            out.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                if (!out.hasRemaining()) {
+                    AsyncAccessLogPublisher.this.flush();
+                }
+                int n = Math.min(len, out.remaining());
+                out.put(b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.netty.common.accesslog;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * A compact binary format, with each record prefixed by its length, so that records can be skipped without being
+ * decoded.
+ *
+ * <p>A record is a 4 byte big-endian length, followed by that many bytes of:
+ *
+ * <ul>
+ *   <li>a version byte, {@value #VERSION}
+ *   <li>a flags byte: {@value #HAS_TIME} if there's a time, {@value #HAS_REQUEST} if there's a request, and
+ *       {@value #HAS_RESPONSE} if there's a response
+ *   <li>if there's a time, the seconds since the epoch, as though the local time were UTC, as a zig-zag varint, and
+ *       then the nanoseconds as a varint
+ *   <li>the remote IP, a string
+ *   <li>the local port, a number
+ *   <li>if there's a request, the method and the URI, both strings
+ *   <li>if there's a response, the status code, a varint
+ *   <li>the duration in nanoseconds, the response body size, the request ID and the request body size
+ *   <li>if there's a request, its configured headers, and then if there's a response, its configured headers
+ * </ul>
+ *
+ * <p>Varints are unsigned LEB128, as in protobuf. A number is a varint of the value plus one, so that zero means it
+ * isn't known. A string is a varint of the length of its UTF-8 bytes plus one, followed by the bytes, so that zero
+ * means it is missing. Headers are a varint count of the configured header names, and then for each name in the order
+ * they're configured, a varint count of values followed by the values as strings.
+ */
+public final class BinaryAccessLogEncoder implements AccessLogEncoder {
+    static final int VERSION = 1;
+    static final int HAS_TIME = 1;
+    static final int HAS_REQUEST = 2;
+    static final int HAS_RESPONSE = 4;
+
+    private static final int LENGTH_BYTES = 4;
+
+    // Reused for every record, and grown as needed. The length goes in front, once it's known.
+    private byte[] buf = new byte[1024];
+    private int pos;
+
+    @Override
+    public void encode(AccessLogRecord record, OutputStream out) throws IOException {
+        pos = LENGTH_BYTES;
+        HttpRequest request = record.request;
+        HttpResponse response = record.response;
+        LocalDateTime dateTime = record.dateTime;
+
+        writeByte(VERSION);
+        writeByte((dateTime != null ? HAS_TIME : 0)
+                | (request != null ? HAS_REQUEST : 0)
+                | (response != null ? HAS_RESPONSE : 0));
+        if (dateTime != null) {
+            long seconds = dateTime.toEpochSecond(ZoneOffset.UTC);
+            writeVarint((seconds << 1) ^ (seconds >> 63));
+            writeVarint(dateTime.getNano());
+        }
+        writeString(record.remoteIp);
+        writeNumber(record.localPort);
+        if (request != null) {
+            writeString(request.method().name());
+            String uri = request.uri();
+            writeString(uri, Math.min(uri.length(), AccessLogPublisher.URI_LENGTH_LIMIT.get()));
+        }
+        if (response != null) {
+            writeVarint(response.status().code());
+        }
+        writeNumber(record.durationNs);
+        writeNumber(record.responseBodySize);
+        writeString(record.requestId);
+        writeNumber(record.requestBodySize);
+        if (request != null) {
+            writeHeaders(AccessLogPublisher.LOG_REQ_HEADERS, request.headers());
+        }
+        if (response != null) {
+            writeHeaders(AccessLogPublisher.LOG_RESP_HEADERS, response.headers());
+        }
+
+        int length = pos - LENGTH_BYTES;
+        buf[0] = (byte) (length >>> 24);
+        buf[1] = (byte) (length >>> 16);
+        buf[2] = (byte) (length >>> 8);
+        buf[3] = (byte) length;
+        out.write(buf, 0, pos);
+    }
+
+    private void writeHeaders(List<String> names, @Nullable HttpHeaders headers) {
+        writeVarint(names.size());
+        for (String name : names) {
+            if (headers == null) {
+                writeVarint(0);
+                continue;
+            }
+            int count = 0;
+            for (Iterator<String> values = headers.valueStringIterator(name); values.hasNext(); values.next()) {
+                count++;
+            }
+            writeVarint(count);
+            if (count > 0) {
+                for (Iterator<String> values = headers.valueStringIterator(name); values.hasNext(); ) {
+                    writeString(values.next());
+                }
+            }
+        }
+    }
+
+    private void writeNumber(long value) {
+        writeVarint(value < 0 ? 0 : value + 1);
+    }
+
+    private void writeString(@Nullable String value) {
+        if (value == null) {
+            writeVarint(0);
+        } else {
+            writeString(value, value.length());
+        }
+    }
+
+    private void writeString(String value, int length) {
+        // Most of what's logged is ASCII, which can be copied as is.
+        int i = 0;
+        while (i < length && value.charAt(i) < 0x80) {
+            i++;
+        }
+        if (i == length) {
+            writeVarint(length + 1);
+            ensure(length);
+            for (int j = 0; j < length; j++) {
+                buf[pos++] = (byte) value.charAt(j);
+            }
+            return;
+        }
+        byte[] bytes = value.substring(0, length).getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length + 1L);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private void writeVarint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+    }
+
+    private void writeByte(int value) {
+        ensure(1);
+        buf[pos++] = (byte) value;
+    }
+
+    private void ensure(int bytes) {
+        if (buf.length - pos < bytes) {
+            byte[] grown = new byte[Math.max(buf.length * 2, pos + bytes)];
+            System.arraycopy(buf, 0, grown, 0, pos);
+            buf = grown;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.netty.common.accesslog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * One JSON object per line, e.g.
+ *
+ * <pre>{@code
+ * {"time":"2026-01-02T03:04:05","remoteIp":"10.0.0.1","localPort":7001,"method":"GET","uri":"/path","status":200,
+ *  "durationUs":1500,"responseBodySize":42,"requestId":"req-1","requestHeaders":{"host":["example.com"]}}
+ * }</pre>
+ *
+ * <p>Unlike the text format, values that aren't known are left out rather than written as {@code -}, and each of the
+ * configured headers is an array of its values, left out if the message doesn't have it.
+ *
+ * <p>Each record is generated into a scratch buffer, and only copied to the output once it is complete, so that a
+ * record that fails part way through leaves nothing behind, however large it is. The generator and the buffer are kept
+ * from one record to the next.
+ */
+public final class JsonLinesAccessLogEncoder implements AccessLogEncoder {
+    private static final JsonFactory FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            // Leave it to the publisher to decide when to write out.
+            .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)
+            .build();
+
+    private static final int SCRATCH_BYTES = 1024;
+    // Past this, the buffer is dropped after the record rather than holding on to an unusually large one's memory.
+    private static final int MAX_RETAINED_SCRATCH_BYTES = 64 * 1024;
+
+    private final StringBuilder time = new StringBuilder(32);
+    private char[] chars = new char[32];
+
+    private ByteArrayOutputStream scratch = new ByteArrayOutputStream(SCRATCH_BYTES);
+
+    @Nullable
+    private JsonGenerator generator;
+
+    @Override
+    public void encode(AccessLogRecord record, OutputStream out) throws IOException {
+        JsonGenerator gen = generator();
+        scratch.reset();
+        try {
+            write(record, gen);
+        } catch (IOException | RuntimeException e) {
+            // Drops the half written record, and the generator, which is left in the middle of an object.
+            generator = null;
+            scratch.reset();
+            throw e;
+        }
+        scratch.writeTo(out);
+
+        if (scratch.size() > MAX_RETAINED_SCRATCH_BYTES) {
+            gen.close();
+            generator = null;
+            scratch = new ByteArrayOutputStream(SCRATCH_BYTES);
+        }
+    }
+
+    private void write(AccessLogRecord record, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+
+        if (record.dateTime != null) {
+            time.setLength(0);
+            AccessLogPublisher.appendDateTime(record.dateTime, time);
+            int length = time.length();
+            if (chars.length < length) {
+                chars = new char[length];
+            }
+            time.getChars(0, length, chars, 0);
+            gen.writeFieldName("time");
+            gen.writeString(chars, 0, length);
+        }
+        if (record.remoteIp != null && !record.remoteIp.isEmpty()) {
+            gen.writeStringField("remoteIp", record.remoteIp);
+        }
+        if (record.localPort >= 0) {
+            gen.writeNumberField("localPort", record.localPort);
+        }
+
+        HttpRequest request = record.request;
+        HttpResponse response = record.response;
+        if (request != null) {
+            gen.writeStringField("method", request.method().name());
+            String uri = request.uri();
+            int uriLength = Math.min(uri.length(), AccessLogPublisher.URI_LENGTH_LIMIT.get());
+            gen.writeStringField("uri", uriLength < uri.length() ? uri.substring(0, uriLength) : uri);
+        }
+        if (response != null) {
+            gen.writeNumberField("status", response.status().code());
+        }
+        if (record.durationNs >= 0) {
+            gen.writeNumberField("durationUs", record.durationNs / 1000);
+        }
+        if (record.responseBodySize >= 0) {
+            gen.writeNumberField("responseBodySize", record.responseBodySize);
+        }
+        if (record.requestId != null) {
+            gen.writeStringField("requestId", record.requestId);
+        }
+        if (record.requestBodySize >= 0) {
+            gen.writeNumberField("requestBodySize", record.requestBodySize);
+        }
+        if (request != null && request.headers() != null) {
+            writeHeaders(gen, "requestHeaders", AccessLogPublisher.LOG_REQ_HEADERS, request.headers());
+        }
+        if (response != null && response.headers() != null) {
+            writeHeaders(gen, "responseHeaders", AccessLogPublisher.LOG_RESP_HEADERS, response.headers());
+        }
+
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+        // Hands the generator's buffered output to the scratch buffer.
+        gen.flush();
+    }
+
+    private static void writeHeaders(JsonGenerator gen, String field, List<String> names, HttpHeaders headers)
+            throws IOException {
+        gen.writeObjectFieldStart(field);
+        for (String name : names) {
+            Iterator<String> values = headers.valueStringIterator(name);
+            if (!values.hasNext()) {
+                continue;
+            }
+            gen.writeArrayFieldStart(name);
+            while (values.hasNext()) {
+                gen.writeString(values.next());
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+
+    private JsonGenerator generator() throws IOException {
+        JsonGenerator gen = generator;
+        if (gen == null) {
+            gen = FACTORY.createGenerator(scratch);
+            // Records are separated by the new line written after each one, not the default space.
+            gen.setRootValueSeparator(null);
+            generator = gen;
+        }
+        return gen;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.netty.common.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+
+/**
+ * Bounded, lock-free queue for many producers and a single consumer. Producers claim a slot by bumping the producer
+ * index, and then fill it; the consumer takes slots in order, and frees them. Offering to a full ring fails rather
+ * than waits.
+ */
+final class MpscRing<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    // Only written by the consumer.
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    MpscRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * @return false if the ring is full, in which case the element was not added
+     */
+    boolean offer(E element) {
+        while (true) {
+            long producer = producerIndex.get();
+            if (producer - consumerIndex.get() > mask) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(producer, producer + 1)) {
+                slots.lazySet((int) producer & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes the next element, if there is one. Only to be called by the consumer.
+     */
+    @Nullable
+    E poll() {
+        long consumer = consumerIndex.get();
+        int slot = (int) consumer & mask;
+        // Null if empty, or if the producer that claimed the slot hasn't filled it yet.
+        E element = slots.get(slot);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(slot, null);
+        consumerIndex.lazySet(consumer + 1);
+        return element;
+    }
+
+    int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
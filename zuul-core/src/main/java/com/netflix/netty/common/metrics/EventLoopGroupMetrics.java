@@ -17,30 +17,39 @@
 package com.netflix.netty.common.metrics;
 
 import com.netflix.spectator.api.Registry;
+import io.netty.util.concurrent.FastThreadLocal;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Hands each event loop its own {@link EventLoopMetrics}, created along with its gauges the first time the event loop
+ * asks for them, and found through a {@link FastThreadLocal} after that.
+ *
  * User: michaels@netflix.com
  * Date: 2/7/17
  * Time: 3:17 PM
  */
 @Singleton
 public class EventLoopGroupMetrics {
-    private final ThreadLocal<EventLoopMetrics> metricsForCurrentThread;
-    private final Map<Thread, EventLoopMetrics> byEventLoop = new HashMap<>();
+    private final FastThreadLocal<EventLoopMetrics> metricsForCurrentThread;
+    // Added to by each event loop, and read from anywhere.
+    private final Map<Thread, EventLoopMetrics> byEventLoop = new ConcurrentHashMap<>();
 
     @Inject
     public EventLoopGroupMetrics(Registry registry) {
 
-        this.metricsForCurrentThread = ThreadLocal.withInitial(() -> {
-            String name = nameForCurrentEventLoop();
-            EventLoopMetrics metrics = new EventLoopMetrics(registry, name);
-            byEventLoop.put(Thread.currentThread(), metrics);
-            return metrics;
-        });
+        this.metricsForCurrentThread = new FastThreadLocal<>() {
+            @Override
+            protected EventLoopMetrics initialValue() {
+                String name = nameForCurrentEventLoop();
+                EventLoopMetrics metrics = new EventLoopMetrics(registry, name);
+                byEventLoop.put(Thread.currentThread(), metrics);
+                return metrics;
+            }
+        };
     }
 
     public Map<Thread, Integer> connectionsPerEventLoop() {
@@ -18,9 +18,16 @@ package com.netflix.netty.common.metrics;
 
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Counts the requests and connections on one event loop.
+ *
+ * <p>The gauges are registered once, tagged with the event loop's name, and read the counts when the registry polls
+ * them, so the counts are all that is updated per request or connection. Only the event loop updates its own counts,
+ * which is why a plain ordered store is enough, rather than an atomic read-modify-write.
+ *
  * User: michaels@netflix.com
  * Date: 2/7/17
  * Time: 3:18 PM
@@ -30,16 +37,15 @@ public class EventLoopMetrics implements EventLoopGroupMetrics.EventLoopInfo {
     public final AtomicInteger currentRequests = new AtomicInteger(0);
     public final AtomicInteger currentConnections = new AtomicInteger(0);
 
-    private final Registry registry;
-    private final Id currentRequestsId;
-    private final Id currentConnectionsId;
-
     public EventLoopMetrics(Registry registry, String eventLoopName) {
         this.name = eventLoopName;
 
-        this.registry = registry;
-        this.currentRequestsId = this.registry.createId("server.eventloop.http.requests.current");
-        this.currentConnectionsId = this.registry.createId("server.eventloop.connections.current");
+        Id currentRequestsId =
+                registry.createId("server.eventloop.http.requests.current").withTag("eventloop", name);
+        Id currentConnectionsId =
+                registry.createId("server.eventloop.connections.current").withTag("eventloop", name);
+        PolledMeter.using(registry).withId(currentRequestsId).monitorValue(currentRequests);
+        PolledMeter.using(registry).withId(currentConnectionsId).monitorValue(currentConnections);
     }
 
     @Override
@@ -53,26 +59,23 @@ public class EventLoopMetrics implements EventLoopGroupMetrics.EventLoopInfo {
     }
 
     public void incrementCurrentRequests() {
-        int value = this.currentRequests.incrementAndGet();
-        updateGauge(currentRequestsId, value);
+        add(currentRequests, 1);
     }
 
     public void decrementCurrentRequests() {
-        int value = this.currentRequests.decrementAndGet();
-        updateGauge(currentRequestsId, value);
+        add(currentRequests, -1);
     }
 
     public void incrementCurrentConnections() {
-        int value = this.currentConnections.incrementAndGet();
-        updateGauge(currentConnectionsId, value);
+        add(currentConnections, 1);
     }
 
     public void decrementCurrentConnections() {
-        int value = this.currentConnections.decrementAndGet();
-        updateGauge(currentConnectionsId, value);
+        add(currentConnections, -1);
     }
 
-    private void updateGauge(Id gaugeId, int value) {
-        registry.gauge(gaugeId.withTag("eventloop", name)).set(value);
+    private static void add(AtomicInteger count, int delta) {
+        // Only ever written by this event loop, so there is no race between the get and the set.
+        count.lazySet(count.get() + delta);
     }
 }
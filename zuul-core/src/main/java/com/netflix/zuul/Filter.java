@@ -58,6 +58,15 @@ public @interface Filter {
      */
     Class<? extends FilterConstraint>[] constraints() default {};
 
+    /**
+     * Request path prefixes this filter applies to, e.g. {@code "/api/"}. If any are given, the filter is left out of
+     * the chain for requests whose original path starts with none of them, and its shouldFilter() is never called for
+     * those requests.  Prefixes match whole path segments, so {@code "/api"} matches {@code /api} and {@code /api/x}
+     * but not {@code /apix}, and paths are matched with {@code .} and {@code ..} segments resolved and repeated
+     * slashes collapsed.  Not applicable to endpoint filters.
+     */
+    String[] pathPrefixes() default {};
+
     @Target({ElementType.PACKAGE})
     @Retention(RetentionPolicy.CLASS)
     @Documented
@@ -73,6 +73,13 @@ public class CommonContextKeys {
 
     public static final String GZIPPER = "gzipper";
     public static final String OVERRIDE_GZIP_REQUESTED = "overrideGzipRequested";
+    public static final String CONTENT_ENCODER = "contentEncoder";
+
+    /**
+     * Set on responses whose compressed body can be cached, to the id to cache it under.
+     */
+    public static final SessionContext.Key<String> COMPRESSED_RESPONSE_CACHE_ID =
+            SessionContext.newKey("_compressed_response_cache_id");
 
     /* Netty-specific keys */
     public static final String NETTY_HTTP_REQUEST = "_netty_http_request";
@@ -20,12 +20,15 @@ import com.netflix.config.DynamicPropertyFactory;
 import com.netflix.zuul.filters.FilterError;
 import com.netflix.zuul.message.http.HttpResponseMessage;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.IdentityHashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
@@ -50,6 +53,9 @@ public final class SessionContext implements Cloneable {
             .getIntProperty("com.netflix.zuul.context.SessionContext.eventProperties.initialSize", 128)
             .get();
 
+    // Declared ahead of the keys below, which need it.
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+
     private static final SessionContext.Key<String> KEY_UUID = SessionContext.newKey("_uuid");
     private static final SessionContext.Key<String> KEY_VIP = SessionContext.newKey("routeVIP");
     private static final SessionContext.Key<String> KEY_ENDPOINT = SessionContext.newKey("_endpoint");
@@ -66,14 +72,28 @@ public final class SessionContext implements Cloneable {
     private boolean errorResponseSent = false;
     private boolean cancelled = false;
 
-    private final Map<String, Object> map;
-    private final IdentityHashMap<Key<?>, Object> typedMap;
+    private final int initialMapSize;
+    private final int initialEventPropertiesSize;
+
+    // Most filters only use typed keys, so these are only created once used.
+    @Nullable
+    private Map<String, Object> map;
+
+    @Nullable
+    private Map<String, Object> eventProperties;
+
+    // Typed values, indexed by Key#slot, with their keys alongside.
+    private @Nullable Object[] values;
+    private @Nullable Key<?>[] keys;
+    private int typedSize;
+
     private final StringBuilder filterExecutionSummary;
-    private final Map<String, Object> eventProperties;
     private final List<FilterError> filterErrors;
 
     /**
      * A Key is type-safe, identity-based key into the Session Context.
+     *
+     * Each key gets its own slot when created, so looking a value up is an array access.
      * @param <T>
      */
     public static final class Key<T> {
@@ -83,9 +103,12 @@ public final class SessionContext implements Cloneable {
         @Nullable
         private final Supplier<T> defaultValueSupplier;
 
-        private Key(String name, @Nullable Supplier<T> defaultValueSupplier) {
+        private final int slot;
+
+        private Key(String name, @Nullable Supplier<T> defaultValueSupplier, int slot) {
             this.name = Objects.requireNonNull(name, "name");
             this.defaultValueSupplier = defaultValueSupplier;
+            this.slot = slot;
         }
 
         @Override
@@ -124,19 +147,30 @@ public final class SessionContext implements Cloneable {
     }
 
     public SessionContext(int initialMapSize, int initialEventPropertiesSize) {
-        this.map = new HashMap<>(initialMapSize);
-        this.typedMap = new IdentityHashMap<>(initialMapSize);
+        this.initialMapSize = initialMapSize;
+        this.initialEventPropertiesSize = initialEventPropertiesSize;
+        // Keys are normally all created by the time requests come in, so this doesn't need to grow.
+        int slots = NEXT_SLOT.get();
+        this.values = new Object[slots];
+        this.keys = new Key<?>[slots];
         this.filterExecutionSummary = new StringBuilder();
-        this.eventProperties = new HashMap<>(initialEventPropertiesSize);
         this.filterErrors = new ArrayList<>();
     }
 
+    /**
+     * Creates a new key. Every key takes up a slot in each context for good, so keys should be created once and
+     * kept, e.g. in a static field, rather than created per request.
+     */
     public static <T> Key<T> newKey(String name) {
         return newKey(name, null);
     }
 
+    /**
+     * Creates a new key, see {@link #newKey(String)}.
+     */
     public static <T> Key<T> newKey(String name, @Nullable Supplier<T> defaultValueSupplier) {
-        return new Key<>(name, defaultValueSupplier);
+        Objects.requireNonNull(name, "name");
+        return new Key<>(name, defaultValueSupplier, NEXT_SLOT.getAndIncrement());
     }
 
     /**
@@ -144,7 +178,7 @@ public final class SessionContext implements Cloneable {
      */
     @Nullable
     public Object get(String key) {
-        return map.get(key);
+        return map != null ? map.get(key) : null;
     }
 
     /**
@@ -153,7 +187,7 @@ public final class SessionContext implements Cloneable {
     @Nullable
     @SuppressWarnings("unchecked")
     public <T> T get(Key<T> key) {
-        T value = (T) typedMap.get(key);
+        T value = (T) getTyped(key);
         if (value == null) {
             value = key.defaultValue();
         }
@@ -176,7 +210,7 @@ public final class SessionContext implements Cloneable {
     public <T> T getOrDefault(Key<T> key, T defaultValue) {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(defaultValue, "defaultValue");
-        T value = (T) typedMap.get(Objects.requireNonNull(key));
+        T value = (T) getTyped(key);
         if (value != null) {
             return value;
         }
@@ -187,21 +221,21 @@ public final class SessionContext implements Cloneable {
      * Returns the value for the given string key, or {@code defaultValue} if absent.
      */
     public Object getOrDefault(String key, Object defaultValue) {
-        return map.getOrDefault(key, defaultValue);
+        return map != null ? map.getOrDefault(key, defaultValue) : defaultValue;
     }
 
     /**
      * Checks for the existence of the string key in the context.
      */
     public boolean containsKey(String key) {
-        return map.containsKey(key);
+        return map != null && map.containsKey(key);
     }
 
     /**
      * Checks for the existence of the key in the context.
      */
     public <T> boolean containsKey(Key<T> key) {
-        return typedMap.containsKey(Objects.requireNonNull(key, "key"));
+        return getTyped(Objects.requireNonNull(key, "key")) != null;
     }
 
     /**
@@ -209,7 +243,7 @@ public final class SessionContext implements Cloneable {
      */
     @Nullable
     public Object put(String key, Object value) {
-        return map.put(key, value);
+        return map().put(key, value);
     }
 
     /**
@@ -223,7 +257,7 @@ public final class SessionContext implements Cloneable {
         Objects.requireNonNull(value, "value");
 
         @SuppressWarnings("unchecked")
-        T res = (T) typedMap.put(key, value);
+        T res = (T) putTyped(key, value);
         return res;
     }
 
@@ -231,13 +265,20 @@ public final class SessionContext implements Cloneable {
      * Removes the entry for the given string key only if it is currently mapped to the value.
      */
     public boolean remove(String key, Object value) {
-        return map.remove(key, value);
+        return map != null && map.remove(key, value);
     }
 
+    /**
+     * Removes the entry for the key only if it is currently mapped to this very value.
+     */
     public <T> boolean remove(Key<T> key, T value) {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(value, "value");
-        return typedMap.remove(key, value);
+        if (getTyped(key) != value) {
+            return false;
+        }
+        removeTyped(key);
+        return true;
     }
 
     /**
@@ -245,23 +286,71 @@ public final class SessionContext implements Cloneable {
      */
     @Nullable
     public Object remove(String key) {
-        return map.remove(key);
+        return map != null ? map.remove(key) : null;
     }
 
     @Nullable
     public <T> T remove(Key<T> key) {
         Objects.requireNonNull(key, "key");
         @SuppressWarnings("unchecked")
-        T res = (T) typedMap.remove(key);
+        T res = (T) removeTyped(key);
         return res;
     }
 
     public Set<Key<?>> keys() {
-        return Set.copyOf(typedMap.keySet());
+        Set<Key<?>> present = new HashSet<>(typedSize);
+        for (Key<?> key : keys) {
+            if (key != null) {
+                present.add(key);
+            }
+        }
+        return Collections.unmodifiableSet(present);
     }
 
     public int size() {
-        return map.size() + typedMap.size();
+        return (map != null ? map.size() : 0) + typedSize;
+    }
+
+    @Nullable
+    private Object getTyped(Key<?> key) {
+        return key.slot < values.length ? values[key.slot] : null;
+    }
+
+    @Nullable
+    private Object putTyped(Key<?> key, Object value) {
+        if (key.slot >= values.length) {
+            // A key created after this context was. Take the room for any others created since too.
+            int length = Math.max(key.slot + 1, NEXT_SLOT.get());
+            values = Arrays.copyOf(values, length);
+            keys = Arrays.copyOf(keys, length);
+        }
+        Object previous = values[key.slot];
+        values[key.slot] = value;
+        keys[key.slot] = key;
+        if (previous == null) {
+            typedSize++;
+        }
+        return previous;
+    }
+
+    @Nullable
+    private Object removeTyped(Key<?> key) {
+        Object previous = getTyped(key);
+        if (previous != null) {
+            values[key.slot] = null;
+            keys[key.slot] = null;
+            typedSize--;
+        }
+        return previous;
+    }
+
+    private Map<String, Object> map() {
+        Map<String, Object> map = this.map;
+        if (map == null) {
+            map = new HashMap<>(initialMapSize);
+            this.map = map;
+        }
+        return map;
     }
 
     /**
@@ -270,10 +359,16 @@ public final class SessionContext implements Cloneable {
     @Override
     public SessionContext clone() {
         SessionContext copy = new SessionContext();
-        copy.map.putAll(this.map);
-        copy.typedMap.putAll(this.typedMap);
+        if (map != null) {
+            copy.map().putAll(map);
+        }
+        copy.values = Arrays.copyOf(values, Math.max(values.length, copy.values.length));
+        copy.keys = Arrays.copyOf(keys, copy.values.length);
+        copy.typedSize = typedSize;
         copy.filterExecutionSummary.append(this.filterExecutionSummary);
-        copy.eventProperties.putAll(this.eventProperties);
+        if (eventProperties != null) {
+            copy.getEventProperties().putAll(eventProperties);
+        }
         copy.filterErrors.addAll(this.filterErrors);
         copy.brownoutMode = brownoutMode;
         copy.shouldStopFilterProcessing = shouldStopFilterProcessing;
@@ -500,6 +595,11 @@ public final class SessionContext implements Cloneable {
     }
 
     public Map<String, Object> getEventProperties() {
+        Map<String, Object> eventProperties = this.eventProperties;
+        if (eventProperties == null) {
+            eventProperties = new HashMap<>(initialEventPropertiesSize);
+            this.eventProperties = eventProperties;
+        }
         return eventProperties;
     }
 
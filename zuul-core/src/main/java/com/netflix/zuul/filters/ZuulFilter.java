@@ -87,6 +87,19 @@ public interface ZuulFilter<I extends ZuulMessage, O extends ZuulMessage> extend
         }
     }
 
+    /**
+     * The request path prefixes this filter is scoped to, or an empty array if it applies to all paths.
+     * See {@link Filter#pathPrefixes()}.
+     */
+    default String[] pathPrefixes() {
+        Filter annotation = getClass().getAnnotation(Filter.class);
+        if (annotation != null) {
+            return annotation.pathPrefixes();
+        } else {
+            return new String[0];
+        }
+    }
+
     /**
      * Whether this filter's shouldFilter() method should be checked, and apply() called, even
      * if SessionContext.stopFilterProcessing has been set.
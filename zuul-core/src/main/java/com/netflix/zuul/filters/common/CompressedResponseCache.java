@@ -0,0 +1,304 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.filters.common;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.netflix.config.CachedDynamicLongProperty;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.zuul.context.CommonContextKeys;
+import com.netflix.zuul.message.ZuulMessage;
+import com.netflix.zuul.util.ContentEncoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpContent;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the compressed bodies of responses that don't change from one request to the next, so that they are
+ * compressed once rather than on every request. Endpoints opt in by setting
+ * {@link CommonContextKeys#COMPRESSED_RESPONSE_CACHE_ID} on their responses, see
+ * {@link com.netflix.zuul.filters.http.HttpSyncEndpoint#isCompressedResponseCacheable()}.
+ *
+ * <p>Entries are keyed by the endpoint, a hash of the uncompressed body, the content encoding and the compression
+ * level, so a response that does change, or is configured to compress differently, simply misses. The cache is
+ * bounded by the total size of the compressed bodies, evicting the least recently used. Bodies are kept in pooled
+ * direct buffers, and each response gets a retained duplicate of the cached buffer rather than a copy.
+ */
+public final class CompressedResponseCache {
+
+    private static final CachedDynamicLongProperty MAX_BYTES =
+            new CachedDynamicLongProperty("zuul.compression.cache.max.bytes", 32 * 1024 * 1024);
+
+    // Anything bigger is unlikely to be the kind of small, hot response this is meant for.
+    private static final CachedDynamicLongProperty MAX_ENTRY_BYTES =
+            new CachedDynamicLongProperty("zuul.compression.cache.max.entry.bytes", 1024 * 1024);
+
+    private static final CompressedResponseCache INSTANCE = new CompressedResponseCache(
+            MAX_BYTES::get, MAX_ENTRY_BYTES::get, PooledByteBufAllocator.DEFAULT, Spectator.globalRegistry());
+
+    private final LongSupplier maxBytes;
+    private final LongSupplier maxEntryBytes;
+    private final ByteBufAllocator alloc;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    // Guarded by this. In access order, so the eldest entry is the least recently used.
+    private final LinkedHashMap<Key, ByteBuf> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+
+    @VisibleForTesting
+    CompressedResponseCache(
+            LongSupplier maxBytes, LongSupplier maxEntryBytes, ByteBufAllocator alloc, Registry registry) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.alloc = alloc;
+        this.hits = registry.counter("zuul.compression.cache", "result", "hit");
+        this.misses = registry.counter("zuul.compression.cache", "result", "miss");
+        this.evictions = registry.counter("zuul.compression.cache.evictions");
+        PolledMeter.using(registry).withName("zuul.compression.cache.bytes").monitorValue(this, CompressedResponseCache::getSizeBytes);
+    }
+
+    public static CompressedResponseCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the encoder to compress the response's body with. If the response is cacheable, and the same body has
+     * been compressed with the same encoding and level before, the encoder replays the cached result; otherwise the
+     * encoder from {@code encoderFactory} is used, and its output cached if possible.
+     *
+     * @param level the compression level the encoder from {@code encoderFactory} uses
+     */
+    public ContentEncoder getEncoder(
+            ZuulMessage response, String encoding, int level, Supplier<ContentEncoder> encoderFactory) {
+        String cacheId = response.getContext().get(CommonContextKeys.COMPRESSED_RESPONSE_CACHE_ID);
+        // The body has to be complete up front to know what it hashes to.
+        if (cacheId == null || !response.hasCompleteBody()) {
+            return encoderFactory.get();
+        }
+
+        Key key = new Key(cacheId, hash(response.getBodyContents()), encoding, level);
+        ByteBuf cached = get(key);
+        if (cached != null) {
+            return new CachedEncoder(encoding, cached);
+        }
+        return new CachingEncoder(key, encoderFactory.get());
+    }
+
+    @Nullable
+    @VisibleForTesting
+    synchronized ByteBuf get(Key key) {
+        ByteBuf cached = entries.get(key);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        // Duplicated while still holding the lock, so that the entry can't be evicted and released in between.
+        return cached.retainedDuplicate();
+    }
+
+    @VisibleForTesting
+    synchronized void put(Key key, ByteBuf compressed) {
+        ByteBuf previous = entries.put(key, compressed);
+        sizeBytes += compressed.readableBytes();
+        if (previous != null) {
+            sizeBytes -= previous.readableBytes();
+            previous.release();
+        }
+
+        long max = maxBytes.getAsLong();
+        Iterator<Map.Entry<Key, ByteBuf>> it = entries.entrySet().iterator();
+        while (sizeBytes > max && it.hasNext()) {
+            ByteBuf evicted = it.next().getValue();
+            it.remove();
+            sizeBytes -= evicted.readableBytes();
+            evicted.release();
+            evictions.increment();
+        }
+    }
+
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public synchronized void clear() {
+        entries.values().forEach(ByteBuf::release);
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    private static HashCode hash(Iterable<HttpContent> body) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (HttpContent chunk : body) {
+            ByteBuf content = chunk.content();
+            if (content.nioBufferCount() == 1) {
+                hasher.putBytes(content.nioBuffer());
+            } else {
+                for (ByteBuffer nio : content.nioBuffers()) {
+                    hasher.putBytes(nio);
+                }
+            }
+        }
+        return hasher.hash();
+    }
+
+    @VisibleForTesting
+    record Key(String cacheId, HashCode bodyHash, String encoding, int level) {}
+
+    /**
+     * Serves a cached body, which it hands out whole once the original body has been written.
+     */
+    private static final class CachedEncoder implements ContentEncoder {
+        private final String encoding;
+
+        @Nullable
+        private ByteBuf cached;
+
+        private boolean finished;
+
+        CachedEncoder(String encoding, ByteBuf cached) {
+            this.encoding = encoding;
+            this.cached = cached;
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return encoding;
+        }
+
+        @Override
+        public void write(HttpContent chunk) {
+            chunk.release();
+        }
+
+        @Override
+        public void finish() {
+            finished = true;
+        }
+
+        @Override
+        public ByteBuf getByteBuf() {
+            ByteBuf buf = cached;
+            if (!finished || buf == null) {
+                return Unpooled.EMPTY_BUFFER;
+            }
+            cached = null;
+            return buf;
+        }
+
+        @Override
+        public void close() {
+            if (cached != null) {
+                cached.release();
+                cached = null;
+            }
+        }
+    }
+
+    /**
+     * Copies the delegate's output aside as it is handed out, and caches it once the body is finished.
+     */
+    private final class CachingEncoder implements ContentEncoder {
+        private final Key key;
+        private final ContentEncoder delegate;
+
+        // Allocated on the first output, so that nothing is held by encoders that never get that far.
+        @Nullable
+        private ByteBuf recorded;
+
+        private boolean recording = true;
+        private boolean finished;
+
+        CachingEncoder(Key key, ContentEncoder delegate) {
+            this.key = key;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return delegate.getContentEncoding();
+        }
+
+        @Override
+        public void write(HttpContent chunk) {
+            delegate.write(chunk);
+        }
+
+        @Override
+        public void finish() {
+            delegate.finish();
+            finished = true;
+        }
+
+        @Override
+        public ByteBuf getByteBuf() {
+            ByteBuf buf = delegate.getByteBuf();
+            if (!recording) {
+                return buf;
+            }
+            ByteBuf recorded = this.recorded;
+            int recordedBytes = recorded != null ? recorded.readableBytes() : 0;
+            if (recordedBytes + buf.readableBytes() > maxEntryBytes.getAsLong()) {
+                // Too big to be worth caching.
+                stopRecording();
+                return buf;
+            }
+            if (recorded == null) {
+                recorded = alloc.directBuffer();
+                this.recorded = recorded;
+            }
+            recorded.writeBytes(buf, buf.readerIndex(), buf.readableBytes());
+            if (finished) {
+                this.recorded = null;
+                recording = false;
+                // Trimmed, as the buffer is likely to have grown well past what it holds.
+                put(key, recorded.capacity(recorded.readableBytes()));
+            }
+            return buf;
+        }
+
+        @Override
+        public void close() {
+            stopRecording();
+            delegate.close();
+        }
+
+        private void stopRecording() {
+            recording = false;
+            if (recorded != null) {
+                recorded.release();
+                recorded = null;
+            }
+        }
+    }
+}
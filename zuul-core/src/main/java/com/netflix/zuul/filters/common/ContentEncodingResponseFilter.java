@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.filters.common;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.netflix.config.CachedDynamicBooleanProperty;
+import com.netflix.config.CachedDynamicIntProperty;
+import com.netflix.config.DynamicStringListProperty;
+import com.netflix.config.DynamicStringSetProperty;
+import com.netflix.zuul.Filter;
+import com.netflix.zuul.context.CommonContextKeys;
+import com.netflix.zuul.filters.FilterType;
+import com.netflix.zuul.filters.http.HttpOutboundSyncFilter;
+import com.netflix.zuul.message.Headers;
+import com.netflix.zuul.message.ZuulMessage;
+import com.netflix.zuul.message.http.HttpHeaderNames;
+import com.netflix.zuul.message.http.HttpResponseMessage;
+import com.netflix.zuul.util.ContentEncoder;
+import com.netflix.zuul.util.Gzipper;
+import com.netflix.zuul.util.HttpUtils;
+import com.netflix.zuul.util.NettyContentEncoder;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.LastHttpContent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Deflater;
+import javax.annotation.Nullable;
+
+/**
+ * Compresses response bodies with whichever of Brotli, zstd and gzip the client prefers, going by the q-values in its
+ * Accept-Encoding header. Use it instead of {@link GZipResponseFilter}, not alongside it. Like that filter, it should
+ * run as late as possible to ensure the final encoded body length is considered.
+ *
+ * <p>The level for each coding can be set per content type, e.g. {@code zuul.compression.br.level.application/json},
+ * falling back to {@code zuul.compression.br.level}. Brotli and zstd are only offered when their native libraries
+ * (brotli4j and zstd-jni) are on the classpath.
+ *
+ * <p>You can just subclass this in your project, and use as-is.
+ */
+@Filter(order = 110, type = FilterType.OUTBOUND)
+public class ContentEncodingResponseFilter extends HttpOutboundSyncFilter {
+    private static final String BR = HttpHeaderValues.BR.toString();
+    private static final String ZSTD = HttpHeaderValues.ZSTD.toString();
+    private static final String GZIP = HttpHeaderValues.GZIP.toString();
+
+    private static final CachedDynamicBooleanProperty ENABLED =
+            new CachedDynamicBooleanProperty("zuul.response.compression.filter.enabled", true);
+
+    // In order of preference, for when the client accepts several equally.
+    private static final DynamicStringListProperty ENCODINGS =
+            new DynamicStringListProperty("zuul.compression.encodings", "br,zstd,gzip");
+
+    private static final DynamicStringSetProperty COMPRESSIBLE_CONTENT_TYPES = new DynamicStringSetProperty(
+            "zuul.compression.contenttypes", GZipResponseFilter.DEFAULT_COMPRESSIBLE_CONTENT_TYPES, ",");
+
+    private static final CachedDynamicIntProperty MIN_BODY_SIZE =
+            new CachedDynamicIntProperty("zuul.min.compression.body.size", 860);
+
+    // Brotli quality 4 and zstd level 3 compress better than gzip's default level at a similar CPU cost.
+    private static final CachedDynamicIntProperty BR_LEVEL = new CachedDynamicIntProperty("zuul.compression.br.level", 4);
+    private static final CachedDynamicIntProperty ZSTD_LEVEL =
+            new CachedDynamicIntProperty("zuul.compression.zstd.level", 3);
+    private static final CachedDynamicIntProperty GZIP_LEVEL =
+            new CachedDynamicIntProperty("zuul.compression.gzip.level", Deflater.DEFAULT_COMPRESSION);
+
+    private static final int UNSET_LEVEL = Integer.MIN_VALUE;
+
+    // Only ever holds compressible content types, so is bounded by the configured set.
+    private static final ConcurrentMap<String, CachedDynamicIntProperty> CONTENT_TYPE_LEVELS =
+            new ConcurrentHashMap<>();
+
+    @Override
+    public boolean shouldFilter(HttpResponseMessage response) {
+        if (!ENABLED.get() || !response.hasBody() || response.getContext().isInBrownoutMode()) {
+            return false;
+        }
+
+        if (response.getContext().get(CommonContextKeys.CONTENT_ENCODER) != null) {
+            return true;
+        }
+
+        String contentType = getCompressibleContentType(response);
+        if (contentType == null
+                || HttpUtils.isCompressed(response.getHeaders())
+                || !isRightSizeForCompression(response)) {
+            return false;
+        }
+
+        String encoding = negotiateEncoding(response);
+        if (encoding == null) {
+            return false;
+        }
+        int level = getLevel(encoding, contentType);
+        ContentEncoder encoder = CompressedResponseCache.getInstance()
+                .getEncoder(response, encoding, level, () -> getEncoder(encoding, level));
+        response.getContext().set(CommonContextKeys.CONTENT_ENCODER, encoder);
+        return true;
+    }
+
+    /**
+     * @return the chosen coding, or null to leave the body as is
+     */
+    @Nullable
+    protected String negotiateEncoding(HttpResponseMessage response) {
+        // A flag on SessionContext can be set to override normal mechanism of checking if client accepts gzip.
+        Boolean overrideIsGzipRequested =
+                (Boolean) response.getContext().get(CommonContextKeys.OVERRIDE_GZIP_REQUESTED);
+        if (overrideIsGzipRequested != null) {
+            return overrideIsGzipRequested ? GZIP : null;
+        }
+        return HttpUtils.negotiateContentEncoding(response.getInboundRequest().getHeaders(), getSupportedEncodings());
+    }
+
+    @VisibleForTesting
+    List<String> getSupportedEncodings() {
+        List<String> configured = ENCODINGS.get();
+        List<String> supported = new ArrayList<>(configured.size());
+        for (String encoding : configured) {
+            String normalized = encoding.trim().toLowerCase(Locale.ROOT);
+            if (normalized.equals(GZIP)
+                    || (normalized.equals(BR) && NettyContentEncoder.isBrotliAvailable())
+                    || (normalized.equals(ZSTD) && NettyContentEncoder.isZstdAvailable())) {
+                supported.add(normalized);
+            }
+        }
+        return supported;
+    }
+
+    protected ContentEncoder getEncoder(String encoding, int level) {
+        if (encoding.equals(BR)) {
+            return NettyContentEncoder.brotli(level);
+        } else if (encoding.equals(ZSTD)) {
+            return NettyContentEncoder.zstd(level);
+        } else if (encoding.equals(GZIP)) {
+            return new Gzipper(level);
+        }
+        throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+    }
+
+    protected int getLevel(String encoding, String contentType) {
+        CachedDynamicIntProperty defaultLevel;
+        if (encoding.equals(BR)) {
+            defaultLevel = BR_LEVEL;
+        } else if (encoding.equals(ZSTD)) {
+            defaultLevel = ZSTD_LEVEL;
+        } else if (encoding.equals(GZIP)) {
+            defaultLevel = GZIP_LEVEL;
+        } else {
+            throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+        }
+        CachedDynamicIntProperty level = CONTENT_TYPE_LEVELS.computeIfAbsent(
+                encoding + '/' + contentType,
+                key -> new CachedDynamicIntProperty(
+                        "zuul.compression." + encoding + ".level." + contentType, UNSET_LEVEL));
+        return level.get() == UNSET_LEVEL ? defaultLevel.get() : level.get();
+    }
+
+    @VisibleForTesting
+    boolean isRightSizeForCompression(HttpResponseMessage response) {
+        Integer bodySize = HttpUtils.getBodySizeIfKnown(response);
+        // bodySize == null is chunked encoding which is eligible for compression
+        return (bodySize == null) || (bodySize >= MIN_BODY_SIZE.get());
+    }
+
+    @Nullable
+    private static String getCompressibleContentType(HttpResponseMessage response) {
+        String ct = response.getHeaders().getFirst(HttpHeaderNames.CONTENT_TYPE);
+        if (ct == null) {
+            return null;
+        }
+        int charsetIndex = ct.indexOf(';');
+        if (charsetIndex > 0) {
+            ct = ct.substring(0, charsetIndex);
+        }
+        ct = ct.trim().toLowerCase(Locale.ROOT);
+        return COMPRESSIBLE_CONTENT_TYPES.get().contains(ct) ? ct : null;
+    }
+
+    @Override
+    public HttpResponseMessage apply(HttpResponseMessage response) {
+        ContentEncoder encoder = (ContentEncoder) response.getContext().get(CommonContextKeys.CONTENT_ENCODER);
+        Headers respHeaders = response.getHeaders();
+        respHeaders.set(HttpHeaderNames.CONTENT_ENCODING, encoder.getContentEncoding());
+        respHeaders.remove(HttpHeaderNames.CONTENT_LENGTH);
+        // The body now depends on the client's Accept-Encoding, which caches need to know about.
+        if (!variesByAcceptEncoding(respHeaders)) {
+            respHeaders.add(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING.getName());
+        }
+        return response;
+    }
+
+    private static boolean variesByAcceptEncoding(Headers headers) {
+        for (String vary : headers.getAll(HttpHeaderNames.VARY)) {
+            String lowerCased = vary.toLowerCase(Locale.ROOT);
+            if (lowerCased.contains("accept-encoding") || lowerCased.trim().equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public HttpContent processContentChunk(ZuulMessage resp, HttpContent chunk) {
+        ContentEncoder encoder = (ContentEncoder) resp.getContext().get(CommonContextKeys.CONTENT_ENCODER);
+        encoder.write(chunk);
+        if (chunk instanceof LastHttpContent) {
+            encoder.finish();
+            return new DefaultLastHttpContent(encoder.getByteBuf());
+        } else {
+            return new DefaultHttpContent(encoder.getByteBuf());
+        }
+    }
+}
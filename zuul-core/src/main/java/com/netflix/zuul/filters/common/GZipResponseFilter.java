@@ -29,13 +29,16 @@ import com.netflix.zuul.message.ZuulMessage;
 import com.netflix.zuul.message.http.HttpHeaderNames;
 import com.netflix.zuul.message.http.HttpRequestInfo;
 import com.netflix.zuul.message.http.HttpResponseMessage;
+import com.netflix.zuul.util.ContentEncoder;
 import com.netflix.zuul.util.Gzipper;
 import com.netflix.zuul.util.HttpUtils;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.LastHttpContent;
 import java.util.Locale;
+import java.util.zip.Deflater;
 
 /**
  * General-purpose filter for gzipping/ungzipping response bodies if requested/needed.  This should be run as late as
@@ -47,13 +50,14 @@ import java.util.Locale;
  */
 @Filter(order = 110, type = FilterType.OUTBOUND)
 public class GZipResponseFilter extends HttpOutboundSyncFilter {
-    private static final DynamicStringSetProperty GZIPPABLE_CONTENT_TYPES = new DynamicStringSetProperty(
-            "zuul.gzip.contenttypes",
+    static final String DEFAULT_COMPRESSIBLE_CONTENT_TYPES =
             "text/html,application/x-javascript,text/css,application/javascript,text/javascript,text/plain,text/xml,"
                     + "application/json,application/vnd.ms-fontobject,application/x-font-opentype,application/x-font-truetype,"
                     + "application/x-font-ttf,application/xml,font/eot,font/opentype,font/otf,image/svg+xml,image/vnd.microsoft.icon,"
-                    + "text/event-stream",
-            ",");
+                    + "text/event-stream";
+
+    private static final DynamicStringSetProperty GZIPPABLE_CONTENT_TYPES =
+            new DynamicStringSetProperty("zuul.gzip.contenttypes", DEFAULT_COMPRESSIBLE_CONTENT_TYPES, ",");
 
     // https://webmasters.stackexchange.com/questions/31750/what-is-recommended-minimum-object-size-for-gzip-performance-benefits
     private static final CachedDynamicIntProperty MIN_BODY_SIZE_FOR_GZIP =
@@ -90,13 +94,22 @@ public class GZipResponseFilter extends HttpOutboundSyncFilter {
                 && !isResponseCompressed
                 && isRightSizeForGzip(response);
         if (shouldGzip) {
-            response.getContext().set(CommonContextKeys.GZIPPER, getGzipper());
+            ContentEncoder gzipper = CompressedResponseCache.getInstance()
+                    .getEncoder(response, HttpHeaderValues.GZIP.toString(), getGzipLevel(), this::getGzipper);
+            response.getContext().set(CommonContextKeys.GZIPPER, gzipper);
         }
         return shouldGzip;
     }
 
     protected Gzipper getGzipper() {
-        return new Gzipper();
+        return new Gzipper(getGzipLevel());
+    }
+
+    /**
+     * The level {@link #getGzipper()} compresses at, which compressed responses are cached by.
+     */
+    protected int getGzipLevel() {
+        return Deflater.DEFAULT_COMPRESSION;
     }
 
     @VisibleForTesting
@@ -129,7 +142,7 @@ public class GZipResponseFilter extends HttpOutboundSyncFilter {
 
     @Override
     public HttpContent processContentChunk(ZuulMessage resp, HttpContent chunk) {
-        Gzipper gzipper = (Gzipper) resp.getContext().get(CommonContextKeys.GZIPPER);
+        ContentEncoder gzipper = (ContentEncoder) resp.getContext().get(CommonContextKeys.GZIPPER);
         gzipper.write(chunk);
         if (chunk instanceof LastHttpContent) {
             gzipper.finish();
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.filters.endpoint;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.netflix.config.CachedDynamicBooleanProperty;
+import com.netflix.config.CachedDynamicIntProperty;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.zuul.origins.NettyOrigin;
+import com.netflix.zuul.origins.OriginName;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Decides when {@link ProxyEndpoint} sends a hedged attempt, i.e. a second attempt to another server of the origin for
+ * an idempotent request whose response is slower to arrive than usual.
+ *
+ * <p>The hedge delay is a percentile of the time the origin took to respond to recent attempts, taken over the last
+ * {@value #SAMPLES} responses and re-computed every {@value #RECOMPUTE_INTERVAL}. There's no delay, and so no hedging,
+ * until the origin has responded {@value #SAMPLES} times.
+ *
+ * <p>Hedges are limited to a percentage of requests with a token bucket: each request adds that percentage of a token,
+ * and each hedge takes a whole one. This stops hedging from multiplying the load on an origin that is slow for every
+ * request, rather than just at the tail.
+ */
+public final class HedgePolicy {
+
+    private static final CachedDynamicBooleanProperty ENABLED =
+            new CachedDynamicBooleanProperty("zuul.origin.hedge.enabled", false);
+    private static final CachedDynamicIntProperty PERCENTILE =
+            new CachedDynamicIntProperty("zuul.origin.hedge.percentile", 95);
+    private static final CachedDynamicIntProperty MIN_DELAY_MS =
+            new CachedDynamicIntProperty("zuul.origin.hedge.min.delay.ms", 10);
+    private static final CachedDynamicIntProperty BUDGET_PERCENT =
+            new CachedDynamicIntProperty("zuul.origin.hedge.budget.percent", 5);
+
+    @VisibleForTesting
+    static final int SAMPLES = 256;
+
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    /** Tokens are counted in thousandths, so that a request can add a fraction of one. */
+    private static final long TOKEN = 1000;
+
+    /** At most this many hedges can be sent in a burst. */
+    private static final long MAX_TOKENS = 10 * TOKEN;
+
+    private static final ConcurrentMap<OriginName, HedgePolicy> POLICIES = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    private final AtomicLong tokens = new AtomicLong();
+    private volatile long delayMs = -1;
+
+    private final Counter hedged;
+    private final Counter won;
+    private final Counter budgetExhausted;
+
+    @VisibleForTesting
+    HedgePolicy(Registry registry, String originId) {
+        this.hedged = registry.counter("zuul.origin.hedge", "id", originId, "result", "sent");
+        this.won = registry.counter("zuul.origin.hedge", "id", originId, "result", "won");
+        this.budgetExhausted = registry.counter("zuul.origin.hedge", "id", originId, "result", "budgetExhausted");
+    }
+
+    public static HedgePolicy forOrigin(NettyOrigin origin) {
+        return POLICIES.computeIfAbsent(
+                origin.getName(),
+                name -> new HedgePolicy(origin.getSpectatorRegistry(), name.getMetricId()));
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED.get();
+    }
+
+    /**
+     * Records how long, in ms, the origin took to respond to a request, counting from when the request was first sent
+     * rather than from when the attempt that responded was.
+     */
+    public void recordResponseTime(long durationMs) {
+        int count = sampleCount.getAndIncrement();
+        samples.lazySet(count & (SAMPLES - 1), durationMs);
+        if ((count & (RECOMPUTE_INTERVAL - 1)) == RECOMPUTE_INTERVAL - 1 && (count >= SAMPLES - 1 || count < 0)) {
+            // count < 0 once it wraps around, by when the samples are long since filled.
+            recomputeDelay();
+        }
+    }
+
+    /**
+     * Adds to the hedge budget for a request to the origin.
+     */
+    public void recordRequest() {
+        long deposit = BUDGET_PERCENT.get() * TOKEN / 100;
+        tokens.accumulateAndGet(deposit, (current, add) -> Math.min(current + add, MAX_TOKENS));
+    }
+
+    /**
+     * Returns how long, in ms, to wait for a response before hedging, or -1 if the origin hasn't responded often
+     * enough to know.
+     */
+    public long hedgeDelayMs() {
+        return delayMs;
+    }
+
+    /**
+     * Takes a hedge out of the budget, or returns false if the budget is used up.
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN) {
+                budgetExhausted.increment();
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN));
+        hedged.increment();
+        return true;
+    }
+
+    /**
+     * Records that a hedge responded before the attempt it was sent alongside.
+     */
+    public void recordWon() {
+        won.increment();
+    }
+
+    private void recomputeDelay() {
+        long[] sorted = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int percentile = Math.max(1, Math.min(PERCENTILE.get(), 100));
+        long value = sorted[(SAMPLES * percentile + 99) / 100 - 1];
+        delayMs = Math.max(value, MIN_DELAY_MS.get());
+    }
+}
@@ -76,16 +76,19 @@ import com.netflix.zuul.util.VipUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
 import io.perfmark.PerfMark;
 import io.perfmark.TaskCloseable;
 import java.net.InetAddress;
@@ -97,6 +100,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nonnull;
@@ -149,6 +153,19 @@ public class ProxyEndpoint extends SyncZuulFilterAdapter<HttpRequestMessage, Htt
     protected List<RequestStat> requestStats = new ArrayList<>();
     protected RequestStat currentRequestStat;
 
+    /* Hedging related state, see HedgePolicy */
+    @Nullable
+    private HedgePolicy hedgePolicy;
+
+    @Nullable
+    private ScheduledFuture<?> hedgeTimer;
+
+    @Nullable
+    private Hedge hedge;
+
+    // How long after the first attempt the current attempt started, once a hedge has taken the first one's place.
+    private long currentAttemptStartOffsetMs;
+
     public static final Set<String> IDEMPOTENT_HTTP_METHODS = Sets.newHashSet("GET", "HEAD", "OPTIONS");
     private static final DynamicIntegerSetProperty RETRIABLE_STATUSES_FOR_IDEMPOTENT_METHODS =
             new DynamicIntegerSetProperty("zuul.retry.allowed.statuses.idempotent", "500");
@@ -295,6 +312,7 @@ public class ProxyEndpoint extends SyncZuulFilterAdapter<HttpRequestMessage, Htt
 
     @Override
     public void finish(boolean error) {
+        cancelHedge();
         Channel origCh = unlinkFromOrigin();
 
         while (concurrentReqCount.get() > 0) {
@@ -494,11 +512,15 @@ public class ProxyEndpoint extends SyncZuulFilterAdapter<HttpRequestMessage, Htt
             timeLeftForAttempt = originTimeoutManager.computeReadTimeout(zuulRequest, attemptNum);
 
             currentRequestStat = createRequestStat();
+            currentAttemptStartOffsetMs = 0;
             origin.preRequestChecks(zuulRequest);
             concurrentReqCount.incrementAndGet();
 
             // update RPS trackers
             updateOriginRpsTrackers(origin, attemptNum);
+            if (attemptNum == 1 && RetryBudget.isEnabled()) {
+                RetryBudget.forOrigin(origin).recordFirstAttempt();
+            }
 
             // We pass this AtomicReference<Server> here and the origin impl will assign the chosen server to it.
             promise = origin.connectToOrigin(
@@ -632,6 +654,8 @@ public class ProxyEndpoint extends SyncZuulFilterAdapter<HttpRequestMessage, Htt
 
         originConn = conn;
         channelCtx.read();
+
+        scheduleHedge();
     }
 
     protected void syncClientAndOriginChannels(Channel clientChannel, Channel originChannel) {
@@ -665,8 +689,19 @@ public class ProxyEndpoint extends SyncZuulFilterAdapter<HttpRequestMessage, Htt
         return (attemptNum <= maxAllowedRetries) && isRemoteZuulRetriesBelowRetryLimit(maxAllowedRetries);
     }
 
+    /**
+     * Takes a retry out of the origin's {@link RetryBudget}, if enabled, so it should only be called once everything
+     * else allows the retry or hedge to go ahead.
+     */
+    private boolean tryAcquireRetryBudget() {
+        return !RetryBudget.isEnabled() || RetryBudget.forOrigin(origin).tryAcquire();
+    }
+
     public void errorFromOrigin(Throwable ex) {
         try {
+            // Retrying, if possible, goes through the usual path rather than waiting on a hedge.
+            cancelHedge();
+
             // Flag that there was an origin server related error for the loadbalancer to choose
             // whether to circuit-trip this server.
             if (originConn != null) {
@@ -742,7 +777,7 @@ public class ProxyEndpoint extends SyncZuulFilterAdapter<HttpRequestMessage, Htt
                 origin.adjustRetryPolicyIfNeeded(zuulRequest);
             }
 
-            if (retryable && isBelowRetryLimit()) {
+            if (retryable && isBelowRetryLimit() && tryAcquireRetryBudget()) {
                 // retry request with different origin
                 passport.add(PassportState.ORIGIN_RETRY_START);
                 proxyRequestToOrigin();
@@ -826,6 +861,298 @@ public class ProxyEndpoint extends SyncZuulFilterAdapter<HttpRequestMessage, Htt
         return true;
     }
 
+    @Nullable
+    private HedgePolicy hedgePolicy() {
+        if (hedgePolicy == null
+                && origin != null
+                && HedgePolicy.isEnabled()
+                && IDEMPOTENT_HTTP_METHODS.contains(zuulRequest.getMethod().toUpperCase(Locale.ROOT))) {
+            hedgePolicy = HedgePolicy.forOrigin(origin);
+        }
+        return hedgePolicy;
+    }
+
+    /**
+     * Schedules a hedge for when the first attempt takes longer than usual to respond.
+     */
+    private void scheduleHedge() {
+        HedgePolicy policy = hedgePolicy();
+        if (policy == null || attemptNum != 1) {
+            return;
+        }
+        policy.recordRequest();
+        long delayMs = policy.hedgeDelayMs();
+        if (delayMs >= 0) {
+            long elapsedMs = currentRequestStat != null ? currentRequestStat.duration() : 0;
+            hedgeTimer = channelCtx
+                    .channel()
+                    .eventLoop()
+                    .schedule(this::onHedgeDelayElapsed, Math.max(delayMs - elapsedMs, 0), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void onHedgeDelayElapsed() {
+        hedgeTimer = null;
+        try {
+            methodBinding.bind(this::hedgeIfStillWaiting);
+        } catch (Exception ex) {
+            logger.warn("Error hedging request to origin, UUID {}", context.getUUID(), ex);
+        }
+    }
+
+    private void hedgeIfStillWaiting() {
+        HedgePolicy policy = hedgePolicy;
+        if (policy == null
+                || originConn == null
+                || startedSendingResponseToClient
+                || context.isCancelled()
+                || !zuulRequest.hasCompleteBody()
+                || !isBelowRetryLimit()
+                || !policy.tryAcquire()
+                || !tryAcquireRetryBudget()) {
+            return;
+        }
+        attemptNum += 1;
+        Hedge newHedge = new Hedge(policy, attemptNum);
+        hedge = newHedge;
+        newHedge.start();
+    }
+
+    private void cancelHedge() {
+        ScheduledFuture<?> timer = hedgeTimer;
+        if (timer != null) {
+            hedgeTimer = null;
+            timer.cancel(false);
+        }
+        Hedge loser = hedge;
+        if (loser != null) {
+            hedge = null;
+            loser.cancel();
+        }
+    }
+
+    /**
+     * A second attempt for the same request, sent to another server while the current attempt is still waiting for a
+     * response. Its response receiver is unlinked from this endpoint until the hedge's response headers arrive first,
+     * at which point the hedge takes the place of the current attempt, which is cancelled. If the current attempt
+     * responds or fails first, the hedge is cancelled instead.
+     *
+     * <p>While the hedge is in flight, this sits in front of its response receiver to watch for the response, or for
+     * the hedge failing.
+     */
+    private final class Hedge extends ChannelInboundHandlerAdapter
+            implements GenericFutureListener<Future<PooledConnection>> {
+        private static final String HANDLER_NAME = "_origin_hedge";
+
+        private final HedgePolicy policy;
+        private final int attempt;
+        private final AtomicReference<DiscoveryResult> server = new AtomicReference<>(DiscoveryResult.EMPTY);
+        private final AtomicReference<InetAddress> hostAddr = new AtomicReference<>();
+
+        private Duration readTimeout;
+        private long startOffsetMs;
+
+        @Nullable
+        private RequestStat stat;
+
+        @Nullable
+        private RequestAttempt requestAttempt;
+
+        @Nullable
+        private PooledConnection conn;
+
+        @Nullable
+        private OriginResponseReceiver receiver;
+
+        Hedge(HedgePolicy policy, int attempt) {
+            this.policy = policy;
+            this.attempt = attempt;
+        }
+
+        void start() {
+            try {
+                readTimeout = originTimeoutManager.computeReadTimeout(zuulRequest, attempt);
+                origin.preRequestChecks(zuulRequest);
+            } catch (Exception ex) {
+                logger.debug("Not hedging request to origin, UUID {}", context.getUUID(), ex);
+                hedge = null;
+                return;
+            }
+
+            startOffsetMs =
+                    currentAttemptStartOffsetMs + (currentRequestStat != null ? currentRequestStat.duration() : 0);
+            stat = createRequestStat();
+            // The current attempt's stat stays in the context unless the hedge wins.
+            RequestStat.putInSessionContext(currentRequestStat, context);
+            concurrentReqCount.incrementAndGet();
+            updateOriginRpsTrackers(origin, attempt);
+
+            Promise<PooledConnection> promise;
+            try {
+                promise = origin.connectToOrigin(
+                        zuulRequest, channelCtx.channel().eventLoop(), attempt, passport, server, hostAddr);
+            } catch (Exception ex) {
+                logger.warn("Error while connecting hedge to origin, UUID {}", context.getUUID(), ex);
+                end(ex);
+                return;
+            }
+            requestAttempt = origin.newRequestAttempt(server.get(), hostAddr.get(), context, attempt);
+            requestAttempts.add(requestAttempt);
+
+            if (promise.isDone()) {
+                operationComplete(promise);
+            } else {
+                promise.addListener(this);
+            }
+        }
+
+        @Override
+        public void operationComplete(Future<PooledConnection> connectResult) {
+            if (!connectResult.isSuccess()) {
+                end(connectResult.cause());
+                return;
+            }
+            PooledConnection newConn = connectResult.getNow();
+            // A hedge to the server that is already slow to respond wouldn't help.
+            if (hedge != this || Objects.equals(server.get(), chosenServer.get())) {
+                newConn.setConnectionState(PooledConnection.ConnectionState.WRITE_READY);
+                newConn.release();
+                end(null);
+                return;
+            }
+            try {
+                methodBinding.bind(() -> write(newConn));
+            } catch (Exception ex) {
+                logger.warn("Error writing hedged request to origin, UUID {}", context.getUUID(), ex);
+                end(ex);
+                newConn.getChannel().close();
+            }
+        }
+
+        private void write(PooledConnection newConn) {
+            Channel ch = newConn.getChannel();
+            passport.setOnChannel(ch);
+            ch.attr(ClientTimeoutHandler.ORIGIN_RESPONSE_READ_TIMEOUT).set(readTimeout);
+            requestAttempt.setReadTimeout(readTimeout.toMillis());
+            stat.server(server.get());
+            origin.onRequestStartWithServer(zuulRequest, server.get(), attempt);
+            preWriteToOrigin(server.get(), zuulRequest);
+
+            OriginResponseReceiver newReceiver = getOriginResponseReceiver();
+            newReceiver.unlinkFromClientRequest();
+            ChannelPipeline pipeline = ch.pipeline();
+            pipeline.addBefore(
+                    DefaultOriginChannelInitializer.CONNECTION_POOL_HANDLER,
+                    OriginResponseReceiver.CHANNEL_HANDLER_NAME,
+                    newReceiver);
+            pipeline.addBefore(OriginResponseReceiver.CHANNEL_HANDLER_NAME, HANDLER_NAME, this);
+            conn = newConn;
+            receiver = newReceiver;
+
+            ch.write(zuulRequest);
+            writeBufferedBodyContent(zuulRequest, ch);
+            ch.flush();
+
+            syncClientAndOriginChannels(channelCtx.channel(), ch);
+            ch.read();
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof HttpResponse && hedge == this) {
+                win();
+            }
+            // Off the pipeline before the response is handled, in case that returns the connection to the pool.
+            ctx.pipeline().remove(this);
+            ctx.fireChannelRead(msg);
+        }
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+            if (evt instanceof HttpLifecycleChannelHandler.CompleteEvent || evt instanceof IdleStateEvent) {
+                end(null);
+            }
+            ctx.fireUserEventTriggered(evt);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            end(cause);
+            ctx.fireExceptionCaught(cause);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            end(null);
+            ctx.fireChannelInactive();
+        }
+
+        /**
+         * Takes the place of the current attempt, which is cancelled.
+         */
+        private void win() {
+            hedge = null;
+            policy.recordWon();
+
+            PooledConnection loser = originConn;
+            if (currentRequestAttempt != null && currentRequestStat != null) {
+                currentRequestAttempt.complete(-1, currentRequestStat.duration(), null);
+            }
+            unlinkFromOrigin();
+            if (loser != null) {
+                // The loser's response may still be on its way, so the connection can't go back to the pool.
+                loser.flagShouldClose();
+                loser.getChannel().close();
+            }
+
+            originConn = conn;
+            originResponseReceiver = receiver;
+            receiver.linkToClientRequest(ProxyEndpoint.this);
+            chosenServer.set(server.get());
+            chosenHostAddr.set(hostAddr.get());
+            timeLeftForAttempt = readTimeout;
+            currentRequestStat = stat;
+            currentAttemptStartOffsetMs = startOffsetMs;
+            currentRequestAttempt = requestAttempt;
+            RequestStat.putInSessionContext(stat, context);
+            context.put(CommonContextKeys.ORIGIN_CHANNEL, conn.getChannel());
+            context.set(POOLED_ORIGIN_CONNECTION_KEY, conn);
+        }
+
+        /**
+         * Cancels the hedge after the current attempt has responded or failed first.
+         */
+        void cancel() {
+            end(null);
+            if (conn != null) {
+                conn.flagShouldClose();
+                conn.getChannel().close();
+            }
+            // Otherwise it is still connecting, and the connection goes back to the pool once it is made.
+        }
+
+        /**
+         * Ends the hedge without it taking the place of the current attempt. May be called more than once.
+         */
+        private void end(@Nullable Throwable cause) {
+            if (hedge == this) {
+                hedge = null;
+            }
+            if (stat == null || stat.isFinished()) {
+                return;
+            }
+            if (requestAttempt != null) {
+                requestAttempt.complete(-1, stat.duration(), cause);
+            }
+            if (requestStats.remove(stat)) {
+                stat.finalAttempt(false);
+            }
+            stat.finishIfNotAlready();
+            origin.recordProxyRequestEnd();
+            concurrentReqCount.decrementAndGet();
+        }
+    }
+
     public void responseFromOrigin(HttpResponse originResponse) {
         try (TaskCloseable ignore = PerfMark.traceTask("ProxyEndpoint.responseFromOrigin")) {
             PerfMark.attachTag("uuid", zuulRequest, r -> r.getContext().getUUID());
@@ -841,11 +1168,17 @@ public class ProxyEndpoint extends SyncZuulFilterAdapter<HttpRequestMessage, Htt
     }
 
     private void processResponseFromOrigin(HttpResponse originResponse) {
+        cancelHedge();
         if (HttpLifecycleChannelHandler.isInterimResponse(originResponse)) {
             handleInterimResponse(originResponse);
         } else if (originResponse.status().code() >= 500) {
             handleOriginNonSuccessResponse(originResponse, chosenServer.get());
         } else {
+            HedgePolicy policy = hedgePolicy();
+            if (policy != null && currentRequestStat != null) {
+                // Counted from the first attempt, or a hedge that won would make the origin look quicker than it is.
+                policy.recordResponseTime(currentAttemptStartOffsetMs + currentRequestStat.duration());
+            }
             handleOriginSuccessResponse(originResponse, chosenServer.get());
         }
     }
@@ -895,10 +1228,7 @@ public class ProxyEndpoint extends SyncZuulFilterAdapter<HttpRequestMessage, Htt
         int respStatus = httpResponse.status().code();
         HttpResponseMessage zuulResponse = new HttpResponseMessageImpl(zuulCtx, zuulRequest, respStatus);
 
-        Headers respHeaders = zuulResponse.getHeaders();
-        for (Map.Entry<String, String> entry : httpResponse.headers()) {
-            respHeaders.add(entry.getKey(), entry.getValue());
-        }
+        zuulResponse.getHeaders().addAll(httpResponse.headers());
 
         // Try to decide if this response has a body or not based on the headers (as we won't yet have
         // received any of the content).
@@ -984,7 +1314,7 @@ public class ProxyEndpoint extends SyncZuulFilterAdapter<HttpRequestMessage, Htt
             origin.adjustRetryPolicyIfNeeded(zuulRequest);
         }
 
-        if (retryable5xxResponse && isBelowRetryLimit()) {
+        if (retryable5xxResponse && isBelowRetryLimit() && tryAcquireRetryBudget()) {
             logger.debug(
                     "Retrying: status={}, attemptNum={}, maxRetries={}, startedSendingResponseToClient={},"
                             + " hasCompleteBody={}, method={}",
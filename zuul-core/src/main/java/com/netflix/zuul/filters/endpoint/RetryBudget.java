@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.filters.endpoint;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.netflix.config.CachedDynamicBooleanProperty;
+import com.netflix.config.CachedDynamicIntProperty;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.zuul.origins.NettyOrigin;
+import com.netflix.zuul.origins.OriginName;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the retries {@link ProxyEndpoint} makes to an origin to a percentage of its first attempts, so that when an
+ * origin degrades, retries don't multiply the load on it just when it can least take it.
+ *
+ * <p>Attempts are counted over a sliding window of {@value #WINDOW_SECONDS} one-second buckets, each of which holds
+ * {@link LongAdder}s so that the event loops don't contend on a counter. On top of the percentage, a few retries per
+ * second are always allowed, so that an origin with little traffic can still be retried.
+ *
+ * <p>The check and the count of a retry aren't atomic, so the budget can be overrun by a retry or two per event loop.
+ */
+public final class RetryBudget {
+
+    private static final CachedDynamicBooleanProperty ENABLED =
+            new CachedDynamicBooleanProperty("zuul.origin.retry.budget.enabled", false);
+    private static final CachedDynamicIntProperty PERCENT =
+            new CachedDynamicIntProperty("zuul.origin.retry.budget.percent", 10);
+    private static final CachedDynamicIntProperty MIN_PER_SECOND =
+            new CachedDynamicIntProperty("zuul.origin.retry.budget.min.per.second", 10);
+
+    @VisibleForTesting
+    static final int WINDOW_SECONDS = 10;
+
+    private static final ConcurrentMap<OriginName, RetryBudget> BUDGETS = new ConcurrentHashMap<>();
+
+    private final LongSupplier clock;
+    private final Bucket[] buckets = new Bucket[WINDOW_SECONDS];
+    private final Counter retried;
+    private final Counter exhausted;
+
+    @VisibleForTesting
+    RetryBudget(Registry registry, String originId, LongSupplier clock) {
+        this.clock = clock;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.retried = registry.counter("zuul.origin.retry.budget", "id", originId, "result", "retried");
+        this.exhausted = registry.counter("zuul.origin.retry.budget", "id", originId, "result", "exhausted");
+    }
+
+    public static RetryBudget forOrigin(NettyOrigin origin) {
+        return BUDGETS.computeIfAbsent(
+                origin.getName(),
+                name -> new RetryBudget(origin.getSpectatorRegistry(), name.getMetricId(), System::currentTimeMillis));
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED.get();
+    }
+
+    /**
+     * Records a first attempt to the origin, which adds to the retries allowed.
+     */
+    public void recordFirstAttempt() {
+        bucket(currentSecond()).firstAttempts.increment();
+    }
+
+    /**
+     * Takes a retry out of the budget, or returns false if the budget is used up.
+     */
+    public boolean tryAcquire() {
+        long second = currentSecond();
+        long firstAttempts = 0;
+        long retries = 0;
+        for (Bucket bucket : buckets) {
+            long bucketSecond = bucket.second.get();
+            if (bucketSecond > second - WINDOW_SECONDS && bucketSecond <= second) {
+                firstAttempts += bucket.firstAttempts.sum();
+                retries += bucket.retries.sum();
+            }
+        }
+
+        long allowed = firstAttempts * PERCENT.get() / 100 + (long) MIN_PER_SECOND.get() * WINDOW_SECONDS;
+        if (retries >= allowed) {
+            exhausted.increment();
+            return false;
+        }
+        bucket(second).retries.increment();
+        retried.increment();
+        return true;
+    }
+
+    private long currentSecond() {
+        return clock.getAsLong() / 1000;
+    }
+
+    private Bucket bucket(long second) {
+        Bucket bucket = buckets[(int) (second % WINDOW_SECONDS)];
+        long bucketSecond = bucket.second.get();
+        if (bucketSecond != second && bucket.second.compareAndSet(bucketSecond, second)) {
+            // Counts added between the compareAndSet and the resets are lost, which the budget can live with.
+            bucket.firstAttempts.reset();
+            bucket.retries.reset();
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        final AtomicLong second = new AtomicLong(-1);
+        final LongAdder firstAttempts = new LongAdder();
+        final LongAdder retries = new LongAdder();
+    }
+}
@@ -17,6 +17,7 @@
 package com.netflix.zuul.filters.http;
 
 import com.netflix.config.CachedDynamicBooleanProperty;
+import com.netflix.zuul.context.CommonContextKeys;
 import com.netflix.zuul.context.SessionContext;
 import com.netflix.zuul.filters.Endpoint;
 import com.netflix.zuul.filters.SyncZuulFilter;
@@ -47,18 +48,35 @@ public abstract class HttpSyncEndpoint extends Endpoint<HttpRequestMessage, Http
         return HttpResponseMessageImpl.defaultErrorResponse(request);
     }
 
+    /**
+     * Whether the compressed form of this endpoint's responses can be cached and reused for later responses with the
+     * same body, see {@link com.netflix.zuul.filters.common.CompressedResponseCache}. Worth enabling for endpoints
+     * that serve the same few bodies over and over, such as health checks or static documents.
+     */
+    protected boolean isCompressedResponseCacheable() {
+        return false;
+    }
+
     @Override
     public CompletableFuture<HttpResponseMessage> applyAsync(HttpRequestMessage input) {
         if (WAIT_FOR_LASTCONTENT.get() && !input.hasCompleteBody()) {
             // defer completion until we have received the full request body from the client,
             // so that we can't potentially corrupt the clients' http state on this connection
-            HttpResponseMessage response = this.apply(input);
+            HttpResponseMessage response = applyAndMarkCacheable(input);
             CompletableFuture<HttpResponseMessage> future = new CompletableFuture<>();
             input.getContext().put(KEY_FOR_SUBSCRIBER, new ResponseState(response, future));
             return future;
         } else {
-            return CompletableFuture.completedFuture(this.apply(input));
+            return CompletableFuture.completedFuture(applyAndMarkCacheable(input));
+        }
+    }
+
+    private HttpResponseMessage applyAndMarkCacheable(HttpRequestMessage input) {
+        HttpResponseMessage response = this.apply(input);
+        if (response != null && isCompressedResponseCacheable()) {
+            response.getContext().put(CommonContextKeys.COMPRESSED_RESPONSE_CACHE_ID, filterName());
         }
+        return response;
     }
 
     @Override
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.message;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.netflix.config.CachedDynamicBooleanProperty;
+import com.netflix.config.CachedDynamicIntProperty;
+import com.netflix.config.CachedDynamicLongProperty;
+import com.netflix.config.DynamicStringProperty;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.buffer.UnpooledDirectByteBuf;
+import io.netty.handler.codec.http.HttpContent;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the part of a buffered body past the first {@code zuul.message.body.spill.memory.bytes} in a memory-mapped
+ * temp file, rather than in direct memory, so that large bodies can be buffered for retries without holding on to
+ * direct memory for the length of the request.
+ *
+ * <p>The file is mapped a segment at a time, and each spilled chunk's content is copied into the segment and replaced
+ * with a slice of it. The chunks are still {@link ByteBuf}s, so they are read, filtered and written out to the origin
+ * (on each retry too) like any other, straight from the page cache. A segment stops counting against the budget
+ * once it, and every slice of it, has been released, and is unmapped when collected.
+ *
+ * <p>Across the node, at most {@code zuul.message.body.spill.max.bytes} are mapped at a time. Past that, chunks stay
+ * in memory as before. The file is deleted once the body is disposed, though the disk space is only freed once the
+ * last of its segments is unmapped.
+ */
+final class BodySpill implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(BodySpill.class);
+
+    static final CachedDynamicBooleanProperty ENABLED =
+            new CachedDynamicBooleanProperty("zuul.message.body.spill.enabled", false);
+    static final CachedDynamicIntProperty MEMORY_BYTES =
+            new CachedDynamicIntProperty("zuul.message.body.spill.memory.bytes", 64 * 1024);
+    private static final CachedDynamicLongProperty MAX_BYTES =
+            new CachedDynamicLongProperty("zuul.message.body.spill.max.bytes", 1024L * 1024 * 1024);
+    private static final DynamicStringProperty DIR =
+            new DynamicStringProperty("zuul.message.body.spill.dir", System.getProperty("java.io.tmpdir"));
+
+    private static final int SEGMENT_BYTES = 1024 * 1024;
+
+    // Bytes mapped across the node.
+    private static final AtomicLong MAPPED_BYTES = new AtomicLong();
+    private static final Counter OVER_BUDGET =
+            Spectator.globalRegistry().counter("zuul.message.body.spill.overBudget");
+
+    static {
+        PolledMeter.using(Spectator.globalRegistry())
+                .withName("zuul.message.body.spill.mappedBytes")
+                .monitorValue(MAPPED_BYTES);
+    }
+
+    @Nullable
+    private FileChannel channel;
+
+    @Nullable
+    private Segment segment;
+
+    private long fileBytes;
+
+    /**
+     * Moves the chunk's content to the file, releasing the chunk.
+     *
+     * @return the chunk with its content in the file, or null if it couldn't be spilled, in which case the chunk is
+     *     left as it is
+     */
+    @Nullable
+    HttpContent spill(HttpContent chunk) {
+        ByteBuf content = chunk.content();
+        int length = content.readableBytes();
+        if (length == 0) {
+            return null;
+        }
+        Segment segment = segmentFor(length);
+        if (segment == null) {
+            return null;
+        }
+        int offset = segment.writerIndex();
+        segment.writeBytes(content, content.readerIndex(), length);
+        HttpContent spilled = chunk.replace(segment.retainedSlice(offset, length));
+        chunk.release();
+        return spilled;
+    }
+
+    @Nullable
+    private Segment segmentFor(int length) {
+        Segment segment = this.segment;
+        if (segment != null && segment.writableBytes() >= length) {
+            return segment;
+        }
+        if (segment != null) {
+            // Its slices keep it mapped for as long as they're needed.
+            this.segment = null;
+            segment.release();
+        }
+
+        int size = Math.max(SEGMENT_BYTES, length);
+        if (!reserve(size)) {
+            OVER_BUDGET.increment();
+            return null;
+        }
+        try {
+            FileChannel channel = this.channel;
+            if (channel == null) {
+                Path file = Files.createTempFile(Paths.get(DIR.get()), "zuul-body-", ".spill");
+                channel = FileChannel.open(
+                        file,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+                this.channel = channel;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, fileBytes, size);
+            fileBytes += size;
+            segment = new Segment(mapped, size);
+            this.segment = segment;
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            MAPPED_BYTES.addAndGet(-size);
+            LOG.warn("Failed to spill body to {}, keeping it in memory", DIR.get(), e);
+            return null;
+        }
+    }
+
+    private static boolean reserve(int size) {
+        long max = MAX_BYTES.get();
+        while (true) {
+            long mapped = MAPPED_BYTES.get();
+            if (mapped + size > max) {
+                return false;
+            }
+            if (MAPPED_BYTES.compareAndSet(mapped, mapped + size)) {
+                return true;
+            }
+        }
+    }
+
+    @VisibleForTesting
+    static long mappedBytes() {
+        return MAPPED_BYTES.get();
+    }
+
+    /**
+     * Deletes the file. Chunks already spilled can still be read, until they're released.
+     */
+    @Override
+    public void close() {
+        Segment segment = this.segment;
+        this.segment = null;
+        if (segment != null) {
+            segment.release();
+        }
+        FileChannel channel = this.channel;
+        this.channel = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.debug("Failed to close body spill file", e);
+            }
+        }
+    }
+
+    /**
+     * A mapped region of the file, which stops counting against the budget once it and all of its slices are
+     * released, and is unmapped once the mapping is collected.
+     */
+    private static final class Segment extends UnpooledDirectByteBuf {
+        private final int size;
+
+        Segment(MappedByteBuffer mapped, int size) {
+            super(UnpooledByteBufAllocator.DEFAULT, mapped, size);
+            this.size = size;
+            // Starts empty, to be filled by the spilled chunks.
+            clear();
+        }
+
+        @Override
+        protected void deallocate() {
+            super.deallocate();
+            MAPPED_BYTES.addAndGet(-size);
+        }
+    }
+}
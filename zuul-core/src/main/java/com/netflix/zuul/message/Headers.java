@@ -19,11 +19,15 @@ import com.google.common.annotations.VisibleForTesting;
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Spectator;
 import com.netflix.zuul.exception.ZuulException;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.AsciiString;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -42,13 +46,30 @@ import lombok.NonNull;
  *
  * There are methods for getting and setting headers by String AND by HeaderName. When possible, use the HeaderName
  * variants and cache the HeaderName instances somewhere, to avoid case-insensitive String comparisons.
+ *
+ * Headers copied from Netty with {@link #addAll(HttpHeaders)} keep Netty's names and values, e.g. {@link AsciiString}s,
+ * and only turn them into Strings once read. Those that are never read are passed on as they are by
+ * {@link #copyTo(HttpHeaders)}.
+ *
+ * Headers created with {@link #hashIndexed(int)} also keep a hash index of the names once there are more than a few
+ * entries, so that looking a name up doesn't take a scan over all of them. They behave exactly the same otherwise.
  */
 public final class Headers {
     private static final int ABSENT = -1;
 
-    private final List<String> originalNames;
-    private final List<String> names;
-    private final List<String> values;
+    // Below this, a scan is about as quick as a hash lookup, and cheaper than keeping the index up to date.
+    private static final int MIN_INDEXED_SIZE = 8;
+
+    // Strings, or whatever CharSequences Netty handed us until they are read.
+    private final List<CharSequence> originalNames;
+    private final List<CharSequence> names;
+    private final List<CharSequence> values;
+
+    private final boolean hashIndexed;
+
+    // Built on demand, and dropped whenever entries are removed.
+    @Nullable
+    private NameIndex index;
 
     private static final Counter invalidHeaderCounter =
             Spectator.globalRegistry().counter("zuul.header.invalid.char");
@@ -57,22 +78,43 @@ public final class Headers {
         return new Headers(Objects.requireNonNull(original, "original"));
     }
 
+    /**
+     * Creates headers that keep a hash index of their names, for when there are many of them to look up.
+     */
+    public static Headers hashIndexed(int initialSize) {
+        return new Headers(initialSize, true);
+    }
+
     public Headers() {
         originalNames = new ArrayList<>();
         names = new ArrayList<>();
         values = new ArrayList<>();
+        hashIndexed = false;
     }
 
     public Headers(int initialSize) {
+        this(initialSize, false);
+    }
+
+    private Headers(int initialSize, boolean hashIndexed) {
         originalNames = new ArrayList<>(initialSize);
         names = new ArrayList<>(initialSize);
         values = new ArrayList<>(initialSize);
+        this.hashIndexed = hashIndexed;
     }
 
     private Headers(Headers original) {
         originalNames = new ArrayList<>(original.originalNames);
         names = new ArrayList<>(original.names);
         values = new ArrayList<>(original.values);
+        hashIndexed = original.hashIndexed;
+    }
+
+    /**
+     * Whether these headers keep a hash index of their names, see {@link #hashIndexed(int)}.
+     */
+    public boolean isHashIndexed() {
+        return hashIndexed;
     }
 
     /**
@@ -81,7 +123,7 @@ public final class Headers {
      */
     @Nullable
     public String getFirst(String headerName) {
-        String normalName = HeaderName.normalize(Objects.requireNonNull(headerName, "headerName"));
+        String normalName = normalize(Objects.requireNonNull(headerName, "headerName"));
         return getFirstNormal(normalName);
     }
 
@@ -123,19 +165,15 @@ public final class Headers {
 
     @Nullable
     private String getFirstNormal(String name) {
-        for (int i = 0; i < size(); i++) {
-            if (name(i).equals(name)) {
-                return value(i);
-            }
-        }
-        return null;
+        int i = findNormal(name);
+        return i != ABSENT ? value(i) : null;
     }
 
     /**
      * Returns all header values associated with the name.
      */
     public List<String> getAll(String headerName) {
-        String normalName = HeaderName.normalize(Objects.requireNonNull(headerName, "headerName"));
+        String normalName = normalize(Objects.requireNonNull(headerName, "headerName"));
         return getAllNormal(normalName);
     }
 
@@ -148,9 +186,22 @@ public final class Headers {
     }
 
     private List<String> getAllNormal(String normalName) {
+        NameIndex index = index();
+        if (index != null) {
+            int i = index.first(normalName, names);
+            if (i == ABSENT) {
+                return Collections.emptyList();
+            }
+            List<String> results = new ArrayList<>(1);
+            for (; i != ABSENT; i = index.next(i)) {
+                results.add(value(i));
+            }
+            return Collections.unmodifiableList(results);
+        }
+
         List<String> results = null;
         for (int i = 0; i < size(); i++) {
-            if (name(i).equals(normalName)) {
+            if (nameEquals(i, normalName)) {
                 if (results == null) {
                     results = new ArrayList<>(1);
                 }
@@ -205,7 +256,7 @@ public final class Headers {
      * If value is {@code null}, then not added, but any existing header of same name is removed.
      */
     public void set(String headerName, @Nullable String value) {
-        String normalName = HeaderName.normalize(Objects.requireNonNull(headerName, "headerName"));
+        String normalName = normalize(Objects.requireNonNull(headerName, "headerName"));
         setNormal(headerName, normalName, value);
     }
 
@@ -227,7 +278,7 @@ public final class Headers {
      * @throws ZuulException on invalid name or value
      */
     public void setAndValidate(String headerName, @Nullable String value) {
-        String normalName = HeaderName.normalize(Objects.requireNonNull(headerName, "headerName"));
+        String normalName = normalize(Objects.requireNonNull(headerName, "headerName"));
         setNormal(validateField(headerName), validateField(normalName), validateField(value));
     }
 
@@ -264,7 +315,7 @@ public final class Headers {
     public void setIfValid(String headerName, @Nullable String value) {
         Objects.requireNonNull(headerName, "headerName");
         if (isValid(headerName) && isValid(value)) {
-            String normalName = HeaderName.normalize(headerName);
+            String normalName = normalize(headerName);
             setNormal(headerName, normalName, value);
         }
     }
@@ -280,6 +331,10 @@ public final class Headers {
         if (value != null) {
             value(i, value);
             originalName(i, originalName);
+            if (index != null && index.next(i) == ABSENT) {
+                // That was the only entry, so there's nothing to clear.
+                return;
+            }
             i++;
         }
         clearMatchingStartingAt(i, normalName, /* removed= */ null);
@@ -289,6 +344,10 @@ public final class Headers {
      * Returns the first index entry that has a matching name.  Returns {@link #ABSENT} if absent.
      */
     private int findNormal(String normalName) {
+        NameIndex index = index();
+        if (index != null) {
+            return index.first(normalName, names);
+        }
         return findNormal(normalName, size());
     }
 
@@ -297,7 +356,7 @@ public final class Headers {
      */
     private int findNormal(String normalName, int limit) {
         for (int i = 0; i < limit; i++) {
-            if (name(i).equals(normalName)) {
+            if (nameEquals(i, normalName)) {
                 return i;
             }
         }
@@ -313,10 +372,8 @@ public final class Headers {
         // At the end, all values at and values are garbage and are removed.
         int w = i;
         for (int r = i; r < size(); r++) {
-            if (!name(r).equals(normalName)) {
-                originalName(w, originalName(r));
-                name(w, name(r));
-                value(w, value(r));
+            if (!nameEquals(r, normalName)) {
+                move(r, w);
                 w++;
             } else if (removed != null) {
                 removed.add(value(r));
@@ -333,7 +390,7 @@ public final class Headers {
      */
     public boolean setIfAbsent(String headerName, String value) {
         Objects.requireNonNull(value, "value");
-        String normalName = HeaderName.normalize(Objects.requireNonNull(headerName, "headerName"));
+        String normalName = normalize(Objects.requireNonNull(headerName, "headerName"));
         return setIfAbsentNormal(headerName, normalName, value);
     }
 
@@ -368,7 +425,7 @@ public final class Headers {
         Objects.requireNonNull(value, "value");
         Objects.requireNonNull(headerName, "headerName");
         if (isValid(headerName) && isValid(value)) {
-            String normalName = HeaderName.normalize(headerName);
+            String normalName = normalize(headerName);
             return setIfAbsentNormal(headerName, normalName, value);
         }
         return false;
@@ -394,7 +451,7 @@ public final class Headers {
      * Adds the name and value to the headers.
      */
     public void add(String headerName, String value) {
-        String normalName = HeaderName.normalize(Objects.requireNonNull(headerName, "headerName"));
+        String normalName = normalize(Objects.requireNonNull(headerName, "headerName"));
         Objects.requireNonNull(value, "value");
         addNormal(headerName, normalName, value);
     }
@@ -414,7 +471,7 @@ public final class Headers {
      * @throws ZuulException on invalid name or value
      */
     public void addAndValidate(String headerName, String value) {
-        String normalName = HeaderName.normalize(Objects.requireNonNull(headerName, "headerName"));
+        String normalName = normalize(Objects.requireNonNull(headerName, "headerName"));
         Objects.requireNonNull(value, "value");
         addNormal(validateField(headerName), validateField(normalName), validateField(value));
     }
@@ -437,7 +494,7 @@ public final class Headers {
         Objects.requireNonNull(headerName, "headerName");
         Objects.requireNonNull(value, "value");
         if (isValid(headerName) && isValid(value)) {
-            String normalName = HeaderName.normalize(headerName);
+            String normalName = normalize(headerName);
             addNormal(headerName, normalName, value);
         }
     }
@@ -459,7 +516,29 @@ public final class Headers {
      */
     public void putAll(Headers headers) {
         for (int i = 0; i < headers.size(); i++) {
-            addNormal(headers.originalName(i), headers.name(i), headers.value(i));
+            addNormal(headers.originalNames.get(i), headers.names.get(i), headers.values.get(i));
+        }
+    }
+
+    /**
+     * Adds all the Netty headers into this headers object. Names and values are kept as Netty holds them, e.g. as
+     * {@link AsciiString}s for HTTP/2, and are only turned into Strings when read.
+     */
+    public void addAll(HttpHeaders headers) {
+        for (Iterator<Map.Entry<CharSequence, CharSequence>> it = headers.iteratorCharSequence(); it.hasNext(); ) {
+            Map.Entry<CharSequence, CharSequence> header = it.next();
+            CharSequence name = header.getKey();
+            addNormal(name, normalize(name), header.getValue());
+        }
+    }
+
+    /**
+     * Adds all these headers, with their original names, to the Netty headers. Names and values that were never read
+     * are passed on as they were added, without turning them into Strings.
+     */
+    public void copyTo(HttpHeaders headers) {
+        for (int i = 0; i < size(); i++) {
+            headers.add(originalNames.get(i), values.get(i));
         }
     }
 
@@ -472,7 +551,7 @@ public final class Headers {
         int existing = size();
         Set<String> replacedNames = new HashSet<>();
         for (Map.Entry<String, String> entry : entries) {
-            String normalName = HeaderName.normalize(entry.getKey());
+            String normalName = normalize(entry.getKey());
             replacedNames.add(normalName);
             addNormal(entry.getKey(), normalName, entry.getValue());
         }
@@ -488,9 +567,7 @@ public final class Headers {
                 continue;
             }
 
-            originalName(w, originalName(r));
-            name(w, name(r));
-            value(w, value(r));
+            move(r, w);
             w++;
         }
 
@@ -508,12 +585,10 @@ public final class Headers {
         for (int i = 0; i < size(); i++) {
             int seen = findNormal(name(i), distinct);
             if (seen == ABSENT) {
-                originalName(distinct, originalName(i));
-                name(distinct, name(i));
-                value(distinct, value(i));
+                move(i, distinct);
                 distinct++;
             } else {
-                value(seen, value(i)); // last value wins
+                values.set(seen, values.get(i)); // last value wins
             }
         }
 
@@ -526,7 +601,7 @@ public final class Headers {
      * Removes the header entries that match the given header name, and returns them as a list.
      */
     public List<String> remove(String headerName) {
-        String normalName = HeaderName.normalize(Objects.requireNonNull(headerName, "headerName"));
+        String normalName = normalize(Objects.requireNonNull(headerName, "headerName"));
         return removeNormal(normalName);
     }
 
@@ -539,6 +614,10 @@ public final class Headers {
     }
 
     private List<String> removeNormal(String normalName) {
+        NameIndex index = index();
+        if (index != null && index.first(normalName, names) == ABSENT) {
+            return Collections.emptyList();
+        }
         List<String> removed = new ArrayList<>();
         clearMatchingStartingAt(0, normalName, removed);
         return Collections.unmodifiableList(removed);
@@ -558,9 +637,7 @@ public final class Headers {
             if (filter.test(new SimpleImmutableEntry<>(new HeaderName(originalName(r), name(r)), value(r)))) {
                 removed = true;
             } else {
-                originalName(w, originalName(r));
-                name(w, name(r));
-                value(w, value(r));
+                move(r, w);
                 w++;
             }
         }
@@ -583,9 +660,7 @@ public final class Headers {
             if (filter.test(name(r), value(r))) {
                 removed = true;
             } else {
-                originalName(w, originalName(r));
-                name(w, name(r));
-                value(w, value(r));
+                move(r, w);
                 w++;
             }
         }
@@ -625,7 +700,7 @@ public final class Headers {
      * Returns if there is a header entry that matches the given name.
      */
     public boolean contains(String headerName) {
-        String normalName = HeaderName.normalize(Objects.requireNonNull(headerName, "headerName"));
+        String normalName = normalize(Objects.requireNonNull(headerName, "headerName"));
         return findNormal(normalName) != ABSENT;
     }
 
@@ -641,7 +716,7 @@ public final class Headers {
      * Returns if there is a header entry that matches the given name and value.
      */
     public boolean contains(String headerName, String value) {
-        String normalName = HeaderName.normalize(Objects.requireNonNull(headerName, "headerName"));
+        String normalName = normalize(Objects.requireNonNull(headerName, "headerName"));
         Objects.requireNonNull(value, "value");
         return containsNormal(normalName, value);
     }
@@ -656,8 +731,18 @@ public final class Headers {
     }
 
     private boolean containsNormal(String normalName, String value) {
+        NameIndex index = index();
+        if (index != null) {
+            for (int i = index.first(normalName, names); i != ABSENT; i = index.next(i)) {
+                if (value(i).equals(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         for (int i = 0; i < size(); i++) {
-            if (name(i).equals(normalName) && value(i).equals(value)) {
+            if (nameEquals(i, normalName) && value(i).equals(value)) {
                 return true;
             }
         }
@@ -716,7 +801,7 @@ public final class Headers {
     }
 
     private String originalName(int i) {
-        return originalNames.get(i);
+        return string(originalNames, i);
     }
 
     private void originalName(int i, String originalName) {
@@ -724,31 +809,98 @@ public final class Headers {
     }
 
     private String name(int i) {
-        return names.get(i);
+        return string(names, i);
     }
 
-    private void name(int i, String name) {
-        names.set(i, name);
+    private boolean nameEquals(int i, String normalName) {
+        return contentEquals(names.get(i), normalName);
     }
 
     private String value(int i) {
-        return values.get(i);
+        return string(values, i);
     }
 
     private void value(int i, String val) {
         values.set(i, val);
     }
 
-    private void addNormal(String originalName, String normalName, String value) {
+    /**
+     * Moves the entry at {@code from} to {@code to}, as is.
+     */
+    private void move(int from, int to) {
+        originalNames.set(to, originalNames.get(from));
+        names.set(to, names.get(from));
+        values.set(to, values.get(from));
+    }
+
+    /**
+     * Returns the element as a String, replacing it with that String so that it is only converted once.
+     */
+    private static String string(List<CharSequence> list, int i) {
+        CharSequence element = list.get(i);
+        if (element instanceof String string) {
+            return string;
+        }
+        String string = element.toString();
+        list.set(i, string);
+        return string;
+    }
+
+    private static boolean contentEquals(CharSequence a, CharSequence b) {
+        if (a instanceof String && b instanceof String) {
+            return a.equals(b);
+        }
+        return AsciiString.contentEquals(a, b);
+    }
+
+    /**
+     * Same as {@link String#hashCode()}, for any kind of CharSequence, so that equal names hash alike.
+     */
+    private static int hash(CharSequence name) {
+        if (name instanceof String) {
+            return name.hashCode();
+        }
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+        return hash;
+    }
+
+    private static String normalize(String name) {
+        HeaderName known = KnownHeaderNames.get(name);
+        return known != null ? known.getNormalised() : HeaderName.normalize(name);
+    }
+
+    private static CharSequence normalize(CharSequence name) {
+        HeaderName known = KnownHeaderNames.get(name);
+        if (known != null) {
+            return known.getNormalised();
+        }
+        if (name instanceof AsciiString asciiName) {
+            // Doesn't copy if already lower case, as HTTP/2 header names must be.
+            return asciiName.toLowerCase();
+        }
+        return HeaderName.normalize(name.toString());
+    }
+
+    private void addNormal(CharSequence originalName, CharSequence normalName, CharSequence value) {
         originalNames.add(originalName);
         names.add(normalName);
         values.add(value);
+        if (index != null && !index.add(size() - 1, normalName, names)) {
+            index = null;
+        }
     }
 
     /**
      * Removes all elements at and after the given index.
      */
     private void truncate(int i) {
+        if (i < size()) {
+            // Entries have moved, so the index would have to be rebuilt anyway.
+            index = null;
+        }
         for (int k = size() - 1; k >= i; k--) {
             originalNames.remove(k);
             names.remove(k);
@@ -756,6 +908,102 @@ public final class Headers {
         }
     }
 
+    /**
+     * Returns the name index, building it if needed, or {@code null} if these headers are better off without one.
+     */
+    @Nullable
+    private NameIndex index() {
+        if (!hashIndexed || size() < MIN_INDEXED_SIZE) {
+            return null;
+        }
+        NameIndex index = this.index;
+        if (index == null) {
+            // Room to grow, so that adding a few more headers doesn't mean building it all over again.
+            index = new NameIndex(size() * 2);
+            for (int i = 0; i < size(); i++) {
+                index.add(i, names.get(i), names);
+            }
+            this.index = index;
+        }
+        return index;
+    }
+
+    /**
+     * Open-addressed hash table of the normalised names, probed linearly. Each name's slot points at its first and
+     * last entry, and the entries of a name are chained in insertion order, so that all of a name's values can be
+     * found without a scan.
+     */
+    private static final class NameIndex {
+        private final int mask;
+        private final int[] hashes;
+        private final int[] heads;
+        private final int[] tails;
+        // By entry: the next entry with the same name.
+        private final int[] next;
+
+        NameIndex(int maxEntries) {
+            // At most half full, so that probe sequences stay short.
+            int slots = Integer.highestOneBit(Math.max(maxEntries, MIN_INDEXED_SIZE) * 2 - 1) << 1;
+            mask = slots - 1;
+            hashes = new int[slots];
+            heads = new int[slots];
+            tails = new int[slots];
+            Arrays.fill(heads, ABSENT);
+            next = new int[maxEntries];
+        }
+
+        /**
+         * Indexes the entry, which must come after all of those already indexed.
+         *
+         * @return false if the index is full, and can't take the entry
+         */
+        boolean add(int entry, CharSequence normalName, List<CharSequence> names) {
+            if (entry >= next.length) {
+                return false;
+            }
+            next[entry] = ABSENT;
+            int hash = hash(normalName);
+            int slot = find(hash, normalName, names);
+            if (heads[slot] == ABSENT) {
+                hashes[slot] = hash;
+                heads[slot] = entry;
+            } else {
+                next[tails[slot]] = entry;
+            }
+            tails[slot] = entry;
+            return true;
+        }
+
+        /**
+         * Returns the first entry with the name, or {@link #ABSENT}.
+         */
+        int first(String normalName, List<CharSequence> names) {
+            return heads[find(normalName.hashCode(), normalName, names)];
+        }
+
+        /**
+         * Returns the next entry with the same name as the given one, or {@link #ABSENT}.
+         */
+        int next(int entry) {
+            return next[entry];
+        }
+
+        /**
+         * Returns the name's slot, or the empty slot it would go in.
+         */
+        private int find(int hash, CharSequence normalName, List<CharSequence> names) {
+            // Mix in the high bits, as only the low ones pick the slot.
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (heads[slot] != ABSENT) {
+                if (hashes[slot] == hash && contentEquals(names.get(heads[slot]), normalName)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
     /**
      * Checks if the given value is compliant with our RFC 7230 based check
      */
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.message;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Pre-built {@link HeaderName}s for the standard and commonly used header names, looked up case-insensitively.
+ *
+ * <p>The names are fixed, so they are laid out in a table with a hash that has no collisions between them (a perfect
+ * hash), found once when the class is loaded. A lookup then hashes the name, folding case as it goes, and compares
+ * against at most one entry. Names are read a char at a time, so they can be looked up straight from an
+ * {@link io.netty.util.AsciiString} off the wire, and nothing is lower-cased or allocated.
+ */
+public final class KnownHeaderNames {
+
+    private static final List<String> NAMES = List.of(
+            // Standard
+            "Accept",
+            "Accept-Charset",
+            "Accept-Encoding",
+            "Accept-Language",
+            "Accept-Ranges",
+            "Access-Control-Allow-Credentials",
+            "Access-Control-Allow-Headers",
+            "Access-Control-Allow-Methods",
+            "Access-Control-Allow-Origin",
+            "Access-Control-Expose-Headers",
+            "Access-Control-Max-Age",
+            "Access-Control-Request-Headers",
+            "Access-Control-Request-Method",
+            "Age",
+            "Allow",
+            "Alt-Svc",
+            "Authorization",
+            "Cache-Control",
+            "Connection",
+            "Content-Disposition",
+            "Content-Encoding",
+            "Content-Language",
+            "Content-Length",
+            "Content-Location",
+            "Content-Range",
+            "Content-Security-Policy",
+            "Content-Type",
+            "Cookie",
+            "Date",
+            "Edge-Control",
+            "ETag",
+            "Expect",
+            "Expires",
+            "Forwarded",
+            "From",
+            "Host",
+            "If-Match",
+            "If-Modified-Since",
+            "If-None-Match",
+            "If-Range",
+            "If-Unmodified-Since",
+            "Keep-Alive",
+            "Last-Modified",
+            "Link",
+            "Location",
+            "Max-Forwards",
+            "Origin",
+            "Pragma",
+            "Priority",
+            "Proxy-Authenticate",
+            "Proxy-Authorization",
+            "Proxy-Connection",
+            "Range",
+            "Referer",
+            "Referrer-Policy",
+            "Retry-After",
+            "Sec-Fetch-Dest",
+            "Sec-Fetch-Mode",
+            "Sec-Fetch-Site",
+            "Sec-WebSocket-Accept",
+            "Sec-WebSocket-Extensions",
+            "Sec-WebSocket-Key",
+            "Sec-WebSocket-Protocol",
+            "Sec-WebSocket-Version",
+            "Server",
+            "Server-Timing",
+            "Set-Cookie",
+            "Strict-Transport-Security",
+            "TE",
+            "Timing-Allow-Origin",
+            "Trailer",
+            "Transfer-Encoding",
+            "Upgrade",
+            "Upgrade-Insecure-Requests",
+            "User-Agent",
+            "Vary",
+            "Via",
+            "Warning",
+            "WWW-Authenticate",
+            // Common extensions
+            "X-Amzn-Trace-Id",
+            "X-B3-ParentSpanId",
+            "X-B3-Sampled",
+            "X-B3-SpanId",
+            "X-B3-TraceId",
+            "X-Content-Type-Options",
+            "X-Correlation-Id",
+            "X-Forwarded-For",
+            "X-Forwarded-Host",
+            "X-Forwarded-Port",
+            "X-Forwarded-Proto",
+            "X-Forwarded-Proto-Version",
+            "X-Frame-Options",
+            "X-Real-IP",
+            "X-Request-Id",
+            "X-Requested-With",
+            "X-XSS-Protection",
+            "X-Zuul",
+            "X-Zuul-Filter-Executions",
+            "X-Zuul-Instance",
+            "X-Zuul-Status",
+            "traceparent",
+            "tracestate");
+
+    private static final int MAX_SEED = 1 << 16;
+
+    private static final Table TABLE = Table.build(NAMES);
+
+    private KnownHeaderNames() {}
+
+    /**
+     * Returns the known {@link HeaderName} that matches the name regardless of case, or {@code null} if the name is
+     * not a known one. Note that the returned name keeps the standard case, which may not be the case of the given
+     * name.
+     */
+    @Nullable
+    public static HeaderName get(CharSequence name) {
+        return TABLE.get(name);
+    }
+
+    @VisibleForTesting
+    static List<String> names() {
+        return NAMES;
+    }
+
+    private static final class Table {
+        private final int seed;
+        private final int mask;
+        private final HeaderName[] entries;
+
+        private Table(int seed, int mask, HeaderName[] entries) {
+            this.seed = seed;
+            this.mask = mask;
+            this.entries = entries;
+        }
+
+        /**
+         * Tries seeds until one hashes every name to its own slot.
+         */
+        static Table build(List<String> names) {
+            // A sparse table needs few tries to find a perfect hash, and is still small.
+            int size = Integer.highestOneBit(names.size()) << 4;
+            for (int seed = 1; seed < MAX_SEED; seed++) {
+                HeaderName[] entries = new HeaderName[size];
+                if (fill(entries, seed, names)) {
+                    return new Table(seed, size - 1, entries);
+                }
+            }
+            throw new IllegalStateException("No perfect hash for the known header names");
+        }
+
+        private static boolean fill(HeaderName[] entries, int seed, List<String> names) {
+            for (String name : names) {
+                int slot = hash(seed, name) & (entries.length - 1);
+                if (entries[slot] != null) {
+                    return false;
+                }
+                entries[slot] = new HeaderName(name);
+            }
+            return true;
+        }
+
+        @Nullable
+        HeaderName get(CharSequence name) {
+            HeaderName entry = entries[hash(seed, name) & mask];
+            if (entry == null || !equalsNormalised(name, entry.getNormalised())) {
+                return null;
+            }
+            return entry;
+        }
+
+        private static int hash(int seed, CharSequence name) {
+            int hash = seed;
+            for (int i = 0; i < name.length(); i++) {
+                // Folds the case of letters. Other chars may collide with each other, but equalsNormalised()
+                // tells those apart.
+                hash = 31 * hash + (name.charAt(i) | 0x20);
+            }
+            hash *= 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean equalsNormalised(CharSequence name, String normalised) {
+            if (name.length() != normalised.length()) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c >= 'A' && c <= 'Z') {
+                    c = (char) (c + ('a' - 'A'));
+                }
+                if (c != normalised.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -31,6 +31,7 @@ import io.netty.handler.codec.http.LastHttpContent;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import javax.annotation.Nullable;
 
 /**
  * User: michaels@netflix.com
@@ -48,6 +49,12 @@ public class ZuulMessageImpl implements ZuulMessage {
     private boolean bodyBufferedCompletely;
     private final List<HttpContent> bodyChunks;
 
+    // Bytes of body buffered in memory before any of it is spilled to disk.
+    private int bodyBytesInMemory;
+
+    @Nullable
+    private BodySpill bodySpill;
+
     public ZuulMessageImpl(SessionContext context) {
         this(context, new Headers());
     }
@@ -95,6 +102,10 @@ public class ZuulMessageImpl implements ZuulMessage {
 
     @Override
     public void bufferBodyContents(HttpContent chunk) {
+        addBodyChunk(BodySpill.ENABLED.get() ? spillIfOverMemoryLimit(chunk) : chunk);
+    }
+
+    private void addBodyChunk(HttpContent chunk) {
         setHasBody(true);
         ByteBufUtil.touch(chunk, "ZuulMessage buffering body content.");
         bodyChunks.add(chunk);
@@ -104,6 +115,24 @@ public class ZuulMessageImpl implements ZuulMessage {
         }
     }
 
+    /**
+     * Once the body buffered in memory would go over the limit, moves the rest of it to a file.
+     */
+    private HttpContent spillIfOverMemoryLimit(HttpContent chunk) {
+        int length = chunk.content().readableBytes();
+        if (bodySpill == null && bodyBytesInMemory + length <= BodySpill.MEMORY_BYTES.get()) {
+            bodyBytesInMemory += length;
+            return chunk;
+        }
+        BodySpill spill = bodySpill;
+        if (spill == null) {
+            spill = new BodySpill();
+            bodySpill = spill;
+        }
+        HttpContent spilled = spill.spill(chunk);
+        return spilled != null ? spilled : chunk;
+    }
+
     private void setContentLength(int length) {
         headers.remove(HttpHeaderNames.TRANSFER_ENCODING);
         headers.set(HttpHeaderNames.CONTENT_LENGTH, Integer.toString(length));
@@ -199,6 +228,11 @@ public class ZuulMessageImpl implements ZuulMessage {
             }
         });
         bodyChunks.clear();
+        bodyBytesInMemory = 0;
+        if (bodySpill != null) {
+            bodySpill.close();
+            bodySpill = null;
+        }
     }
 
     @Override
@@ -231,7 +265,8 @@ public class ZuulMessageImpl implements ZuulMessage {
         ZuulMessageImpl copy = new ZuulMessageImpl(context.clone(), Headers.copyOf(headers));
         this.bodyChunks.forEach(chunk -> {
             chunk.retain();
-            copy.bufferBodyContents(chunk);
+            // Shares the chunks, wherever they're kept, rather than spilling them again.
+            copy.addBodyChunk(chunk);
         });
         return copy;
     }
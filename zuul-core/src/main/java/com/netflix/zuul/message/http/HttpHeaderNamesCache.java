@@ -17,6 +17,7 @@
 package com.netflix.zuul.message.http;
 
 import com.netflix.zuul.message.HeaderName;
+import com.netflix.zuul.message.KnownHeaderNames;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -38,6 +39,13 @@ public class HttpHeaderNamesCache {
     }
 
     public HeaderName get(String name) {
+        // Well known names are shared, and don't take up room in the cache. Only when the case matches though, as
+        // callers expect to get their name back from getName().
+        HeaderName known = KnownHeaderNames.get(name);
+        if (known != null && known.getName().equals(name)) {
+            return known;
+        }
+
         // Check in the static cache for this headername if available.
         // NOTE: we do this lookup case-sensitively, as doing case-INSENSITIVELY removes the purpose of
         // caching the object in the first place (ie. the expensive operation we want to avoid by caching
@@ -15,6 +15,7 @@
  */
 package com.netflix.zuul.message.http;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.Iterables;
@@ -24,14 +25,22 @@ import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import javax.annotation.Nullable;
 
 /**
+ * Query params are parsed lazily: {@link #parse(String)} only keeps the query string, which is decoded the first time
+ * the params are accessed. As long as they aren't modified, and the query string is already in the form
+ * {@link #toEncodedString()} would produce, it is also encoded back as is, so that a query that is only passed through
+ * is never decoded at all.
+ *
  * User: michaels
  * Date: 2/24/15
  * Time: 10:58 AM
@@ -41,25 +50,60 @@ public class HttpQueryParams implements Cloneable {
     private final boolean immutable;
     private final Map<String, Boolean> trailingEquals;
 
+    // The query string these params were parsed from, while they are known to still match it.
+    @Nullable
+    private String rawQuery;
+
+    // Volatile so that an immutable copy, which parses under its own lock, publishes what it parsed to every reader.
+    private volatile boolean parsed = true;
+
+    @Nullable
+    private Boolean rawQueryCanonical;
+
     public HttpQueryParams() {
         delegate = LinkedListMultimap.create();
         immutable = false;
         trailingEquals = new HashMap<>();
     }
 
-    private HttpQueryParams(ListMultimap<String, String> delegate) {
+    private HttpQueryParams(ListMultimap<String, String> delegate, boolean immutable) {
         this.delegate = delegate;
-        immutable = ImmutableListMultimap.class.isAssignableFrom(delegate.getClass());
+        this.immutable = immutable;
         trailingEquals = new HashMap<>();
     }
 
+    private static HttpQueryParams lazy(String queryString, boolean immutable) {
+        HttpQueryParams queryParams = new HttpQueryParams(LinkedListMultimap.create(), immutable);
+        queryParams.rawQuery = queryString;
+        queryParams.parsed = false;
+        return queryParams;
+    }
+
     public static HttpQueryParams parse(String queryString) {
-        HttpQueryParams queryParams = new HttpQueryParams();
         if (queryString == null) {
-            return queryParams;
+            return new HttpQueryParams();
+        }
+        return lazy(queryString, false);
+    }
+
+    private void ensureParsed() {
+        if (parsed) {
+            return;
+        }
+        if (immutable) {
+            // Immutable copies may be shared between threads, so only one of them parses.
+            synchronized (this) {
+                if (!parsed) {
+                    parseRawQuery();
+                }
+            }
+        } else {
+            parseRawQuery();
         }
+    }
 
-        StringTokenizer st = new StringTokenizer(queryString, "&");
+    private void parseRawQuery() {
+        StringTokenizer st = new StringTokenizer(rawQuery, "&");
         int i;
         while (st.hasMoreTokens()) {
             String s = st.nextToken();
@@ -76,11 +120,11 @@ public class HttpQueryParams implements Cloneable {
                     // do nothing
                 }
 
-                queryParams.add(name, value);
+                delegate.put(name, value);
 
                 // respect trailing equals for key-only params
                 if (s.endsWith("=") && value.isEmpty()) {
-                    queryParams.setTrailingEquals(name, true);
+                    trailingEquals.put(name, true);
                 }
             }
             // key only
@@ -93,11 +137,46 @@ public class HttpQueryParams implements Cloneable {
                     // do nothing
                 }
 
-                queryParams.add(name, "");
+                delegate.put(name, "");
             }
         }
+        parsed = true;
+    }
 
-        return queryParams;
+    @VisibleForTesting
+    boolean isParsed() {
+        return parsed;
+    }
+
+    /**
+     * Called before any change, after which the params no longer match the query string they were parsed from.
+     */
+    private void modifying() {
+        if (immutable) {
+            throw new UnsupportedOperationException();
+        }
+        ensureParsed();
+        rawQuery = null;
+    }
+
+    /**
+     * Whether these params were parsed from a query string, and haven't been modified since.
+     */
+    public boolean isUnmodifiedSinceParse() {
+        return rawQuery != null;
+    }
+
+    public boolean isEmpty() {
+        if (!parsed) {
+            // Every token between the '&'s becomes a param.
+            for (int i = 0; i < rawQuery.length(); i++) {
+                if (rawQuery.charAt(i) != '&') {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return delegate.isEmpty();
     }
 
     /**
@@ -105,6 +184,7 @@ public class HttpQueryParams implements Cloneable {
      * return null.
      */
     public String getFirst(String name) {
+        ensureParsed();
         List<String> values = delegate.get(name);
         if (!values.isEmpty()) {
             return values.get(0);
@@ -113,14 +193,18 @@ public class HttpQueryParams implements Cloneable {
     }
 
     public List<String> get(String name) {
-        return delegate.get(name.toLowerCase(Locale.ROOT));
+        ensureParsed();
+        List<String> values = delegate.get(name.toLowerCase(Locale.ROOT));
+        return immutable ? Collections.unmodifiableList(values) : values;
     }
 
     public boolean contains(String name) {
+        ensureParsed();
         return delegate.containsKey(name);
     }
 
     public boolean contains(String name, String value) {
+        ensureParsed();
         return delegate.containsEntry(name, value);
     }
 
@@ -129,6 +213,7 @@ public class HttpQueryParams implements Cloneable {
      * However, as a utility, this exists to allow us to do a case insensitive match on demand.
      */
     public boolean containsIgnoreCase(String name) {
+        ensureParsed();
         return delegate.containsKey(name) || delegate.containsKey(name.toLowerCase(Locale.ROOT));
     }
 
@@ -136,33 +221,63 @@ public class HttpQueryParams implements Cloneable {
      * Replace any/all entries with this key, with this single entry.
      */
     public void set(String name, String value) {
+        modifying();
         delegate.removeAll(name);
         delegate.put(name, value);
     }
 
     public void add(String name, String value) {
+        modifying();
         delegate.put(name, value);
     }
 
     public void removeAll(String name) {
+        modifying();
         delegate.removeAll(name);
     }
 
     public void clear() {
+        modifying();
         delegate.clear();
     }
 
+    /**
+     * The returned view is live, so calling this counts as modifying the params, see {@link #isUnmodifiedSinceParse()}.
+     */
     public Collection<Map.Entry<String, String>> entries() {
+        if (immutable) {
+            ensureParsed();
+            return Collections.unmodifiableCollection(delegate.entries());
+        }
+        modifying();
         return delegate.entries();
     }
 
+    /**
+     * The returned view is live, so calling this counts as modifying the params, see {@link #isUnmodifiedSinceParse()}.
+     */
     public Set<String> keySet() {
+        if (immutable) {
+            ensureParsed();
+            return Collections.unmodifiableSet(delegate.keySet());
+        }
+        modifying();
         return delegate.keySet();
     }
 
     public String toEncodedString() {
+        if (rawQuery != null) {
+            if (rawQueryCanonical == null) {
+                rawQueryCanonical = isCanonical(rawQuery);
+            }
+            if (rawQueryCanonical) {
+                return rawQuery;
+            }
+        }
+        ensureParsed();
+
         StringBuilder sb = new StringBuilder();
-        for (Map.Entry<String, String> entry : entries()) {
+        for (Map.Entry<String, String> entry : delegate.entries()) {
             sb.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8));
             if (!Strings.isNullOrEmpty(entry.getValue())) {
                 sb.append('=');
@@ -182,8 +297,9 @@ public class HttpQueryParams implements Cloneable {
 
     @Override
     public String toString() {
+        ensureParsed();
         StringBuilder sb = new StringBuilder();
-        for (Map.Entry<String, String> entry : entries()) {
+        for (Map.Entry<String, String> entry : delegate.entries()) {
             sb.append(entry.getKey());
             if (!Strings.isNullOrEmpty(entry.getValue())) {
                 sb.append('=');
@@ -201,13 +317,19 @@ public class HttpQueryParams implements Cloneable {
 
     @Override
     protected HttpQueryParams clone() {
+        if (!parsed) {
+            return lazy(rawQuery, false);
+        }
         HttpQueryParams copy = new HttpQueryParams();
         copy.delegate.putAll(this.delegate);
         return copy;
     }
 
     public HttpQueryParams immutableCopy() {
-        return new HttpQueryParams(ImmutableListMultimap.copyOf(delegate));
+        if (!parsed) {
+            return lazy(rawQuery, true);
+        }
+        return new HttpQueryParams(ImmutableListMultimap.copyOf(delegate), true);
     }
 
     public boolean isImmutable() {
@@ -215,15 +337,18 @@ public class HttpQueryParams implements Cloneable {
     }
 
     public boolean isTrailingEquals(String key) {
+        ensureParsed();
         return trailingEquals.getOrDefault(key, false);
     }
 
     public void setTrailingEquals(String key, boolean trailingEquals) {
+        modifying();
         this.trailingEquals.put(key, trailingEquals);
     }
 
     @Override
     public int hashCode() {
+        ensureParsed();
         return delegate.hashCode();
     }
 
@@ -235,7 +360,181 @@ public class HttpQueryParams implements Cloneable {
         if (!(obj instanceof HttpQueryParams hqp2)) {
             return false;
         }
+        ensureParsed();
+        hqp2.ensureParsed();
 
         return Iterables.elementsEqual(delegate.entries(), hqp2.delegate.entries());
     }
+
+    /**
+     * Whether encoding the params parsed from the query string would give back the same string. Errs on the side of
+     * false: anything out of the ordinary is left to the full decode and encode.
+     */
+    @VisibleForTesting
+    static boolean isCanonical(String query) {
+        if (query.isEmpty()) {
+            return true;
+        }
+        boolean keyOnly = false;
+        boolean trailingEquals = false;
+        int paramStart = 0;
+        int equalsIndex = -1;
+        int i = 0;
+        while (i <= query.length()) {
+            char c = i < query.length() ? query.charAt(i) : '&';
+            if (c == '&') {
+                if (i == paramStart) {
+                    // Empty params are dropped.
+                    return false;
+                }
+                if (equalsIndex < 0) {
+                    keyOnly = true;
+                } else if (equalsIndex == i - 1) {
+                    trailingEquals = true;
+                }
+                paramStart = i + 1;
+                equalsIndex = -1;
+                i++;
+            } else if (c == '=') {
+                // A leading '=' is part of the name, and any after the first part of the value, so both get encoded.
+                if (equalsIndex >= 0 || i == paramStart) {
+                    return false;
+                }
+                equalsIndex = i;
+                i++;
+            } else if (c == '%') {
+                i = skipEncodedChar(query, i);
+                if (i < 0) {
+                    return false;
+                }
+            } else if (isUnreserved(c) || c == '+') {
+                i++;
+            } else {
+                return false;
+            }
+        }
+        return !(keyOnly && trailingEquals) || !mixesTrailingEquals(query);
+    }
+
+    /**
+     * Trailing equals are tracked per name rather than per param, so a name that appears both with and without one
+     * comes out with it every time. Only called once {@link #isCanonical} has checked that every param is non-empty
+     * and has at most one '=', which isn't leading.
+     */
+    private static boolean mixesTrailingEquals(String query) {
+        Set<String> keyOnly = new HashSet<>();
+        Set<String> withTrailingEquals = new HashSet<>();
+        int start = 0;
+        while (start < query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = query.length();
+            }
+            if (query.charAt(end - 1) == '=') {
+                String name = query.substring(start, end - 1);
+                if (keyOnly.contains(name)) {
+                    return true;
+                }
+                withTrailingEquals.add(name);
+            } else if (!containsEquals(query, start, end)) {
+                String name = query.substring(start, end);
+                if (withTrailingEquals.contains(name)) {
+                    return true;
+                }
+                keyOnly.add(name);
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static boolean containsEquals(String query, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (query.charAt(i) == '=') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks that the percent-encoded UTF-8 character at {@code i} would be encoded the same way again.
+     *
+     * @return the index after the encoded character, or -1 if it wouldn't
+     */
+    private static int skipEncodedChar(String query, int i) {
+        int b = decodeByte(query, i);
+        if (b < 0) {
+            return -1;
+        }
+        if (b < 0x80) {
+            // Encoding leaves unreserved characters as they are, and turns spaces into '+'.
+            return (b == ' ' || isUnreserved((char) b)) ? -1 : i + 3;
+        }
+
+        int continuationBytes;
+        int min = 0x80;
+        int max = 0xBF;
+        if (b >= 0xC2 && b <= 0xDF) {
+            continuationBytes = 1;
+        } else if (b >= 0xE0 && b <= 0xEF) {
+            continuationBytes = 2;
+            if (b == 0xE0) {
+                min = 0xA0;
+            } else if (b == 0xED) {
+                max = 0x9F;
+            }
+        } else if (b >= 0xF0 && b <= 0xF4) {
+            continuationBytes = 3;
+            if (b == 0xF0) {
+                min = 0x90;
+            } else if (b == 0xF4) {
+                max = 0x8F;
+            }
+        } else {
+            // Malformed UTF-8 is decoded to replacement characters.
+            return -1;
+        }
+
+        i += 3;
+        for (int n = 0; n < continuationBytes; n++) {
+            int continuation = decodeByte(query, i);
+            if (continuation < min || continuation > max) {
+                return -1;
+            }
+            min = 0x80;
+            max = 0xBF;
+            i += 3;
+        }
+        return i;
+    }
+
+    private static int decodeByte(String query, int i) {
+        if (i + 2 >= query.length() || query.charAt(i) != '%') {
+            return -1;
+        }
+        int high = upperCaseHexValue(query.charAt(i + 1));
+        int low = upperCaseHexValue(query.charAt(i + 2));
+        return (high < 0 || low < 0) ? -1 : (high << 4) | low;
+    }
+
+    // Encoding always uses upper case hex digits.
+    private static int upperCaseHexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || c == '-'
+                || c == '_'
+                || c == '.'
+                || c == '*';
+    }
 }
@@ -302,7 +302,7 @@ public class HttpRequestMessageImpl implements HttpRequestMessage {
     }
 
     protected String generatePathAndQuery() {
-        if (queryParams != null && queryParams.entries().size() > 0) {
+        if (queryParams != null && !queryParams.isEmpty()) {
             return getPath() + "?" + queryParams.toEncodedString();
         } else {
             return getPath();
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.netty.connectionpool;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.netflix.config.DynamicIntProperty;
+import com.netflix.spectator.api.Clock;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Spectator;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.InetNameResolver;
+import io.netty.resolver.InetSocketAddressResolver;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Promise;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jspecify.annotations.NullMarked;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link AddressResolverGroup} that resolves origin hostnames without blocking the event loop.
+ *
+ * <p>Lookups are performed on a small dedicated thread pool and the results are cached, keyed by hostname, and
+ * shared across every connection pool using the same group. Successful lookups are cached for a positive TTL and
+ * failures for a (shorter) negative TTL. Once a positive entry has been cached for the refresh-ahead fraction of its
+ * TTL, the next access kicks off a background refresh while the current addresses keep being served, so hot hosts
+ * never see a cache miss on the request path.
+ *
+ * <p>The JDK resolver does not expose record TTLs, so the TTLs here are configured rather than taken from the DNS
+ * response. Note that the JVM's own {@code networkaddress.cache.ttl} still applies underneath this cache.
+ */
+@NullMarked
+public class CachingAddressResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+    private static final Logger LOG = LoggerFactory.getLogger(CachingAddressResolverGroup.class);
+
+    private static final DynamicIntProperty POSITIVE_TTL_MS =
+            new DynamicIntProperty("zuul.origin.dns.cache.ttl.ms", 30_000);
+    private static final DynamicIntProperty NEGATIVE_TTL_MS =
+            new DynamicIntProperty("zuul.origin.dns.cache.negative.ttl.ms", 5_000);
+    private static final DynamicIntProperty REFRESH_AHEAD_PERCENT =
+            new DynamicIntProperty("zuul.origin.dns.cache.refresh.ahead.percent", 80);
+    private static final DynamicIntProperty LOOKUP_THREADS = new DynamicIntProperty("zuul.origin.dns.threads", 2);
+
+    /**
+     * Performs a (possibly blocking) lookup of all addresses for a hostname. Never called on an event loop.
+     */
+    @FunctionalInterface
+    public interface HostLookup {
+        List<InetAddress> lookup(String host) throws UnknownHostException;
+    }
+
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+    private final HostLookup hostLookup;
+    private final Executor lookupExecutor;
+    private final Clock clock;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final long refreshAheadNanos;
+
+    private final Counter hitCounter;
+    private final Counter negativeHitCounter;
+    private final Counter missCounter;
+    private final Counter refreshCounter;
+    private final Counter failureCounter;
+
+    public CachingAddressResolverGroup(
+            Registry registry,
+            HostLookup hostLookup,
+            Executor lookupExecutor,
+            long positiveTtlMs,
+            long negativeTtlMs,
+            int refreshAheadPercent) {
+        this.hostLookup = Objects.requireNonNull(hostLookup, "hostLookup");
+        this.lookupExecutor = Objects.requireNonNull(lookupExecutor, "lookupExecutor");
+        this.clock = registry.clock();
+        this.positiveTtlNanos = TimeUnit.MILLISECONDS.toNanos(positiveTtlMs);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMs);
+        this.refreshAheadNanos = positiveTtlNanos * Math.min(Math.max(refreshAheadPercent, 0), 100) / 100;
+
+        this.hitCounter = registry.counter("connectionpool_dnsResolve", "result", "hit");
+        this.negativeHitCounter = registry.counter("connectionpool_dnsResolve", "result", "negativeHit");
+        this.missCounter = registry.counter("connectionpool_dnsResolve", "result", "miss");
+        this.refreshCounter = registry.counter("connectionpool_dnsRefresh");
+        this.failureCounter = registry.counter("connectionpool_dnsLookupFailure");
+        PolledMeter.using(registry)
+                .withName("connectionpool_dnsCacheSize")
+                .monitorValue(cache, ConcurrentHashMap::size);
+    }
+
+    /**
+     * Returns the process-wide instance, so that resolutions are shared across all origins.
+     */
+    public static CachingAddressResolverGroup shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static final class SharedHolder {
+        static final CachingAddressResolverGroup INSTANCE = new CachingAddressResolverGroup(
+                Spectator.globalRegistry(),
+                host -> List.of(InetAddress.getAllByName(host)),
+                Executors.newFixedThreadPool(
+                        Math.max(LOOKUP_THREADS.get(), 1),
+                        new ThreadFactoryBuilder()
+                                .setDaemon(true)
+                                .setNameFormat("zuul-dns-%d")
+                                .build()),
+                POSITIVE_TTL_MS.get(),
+                NEGATIVE_TTL_MS.get(),
+                REFRESH_AHEAD_PERCENT.get());
+    }
+
+    @Override
+    protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+        return new InetSocketAddressResolver(executor, new CachingNameResolver(executor));
+    }
+
+    /**
+     * Resolves all addresses for the given host. The returned future is already complete on a cache hit; otherwise
+     * it is completed from the lookup thread.
+     */
+    @VisibleForTesting
+    CompletableFuture<List<InetAddress>> resolveAll(String host) {
+        while (true) {
+            long now = clock.monotonicTime();
+            Entry entry = cache.get(host);
+            if (entry != null && now < entry.expiresAtNanos) {
+                if (entry.result.isCompletedExceptionally()) {
+                    negativeHitCounter.increment();
+                } else {
+                    hitCounter.increment();
+                    maybeRefresh(host, entry, now);
+                }
+                return entry.result;
+            }
+
+            // Expired or absent. Only the caller that manages to install the new entry performs the lookup, any
+            // concurrent callers pick up the in-flight entry on their next pass.
+            Entry fresh = new Entry();
+            boolean installed = entry == null ? cache.putIfAbsent(host, fresh) == null : cache.replace(host, entry, fresh);
+            if (installed) {
+                missCounter.increment();
+                startLookup(host, fresh);
+                return fresh.result;
+            }
+        }
+    }
+
+    private void maybeRefresh(String host, Entry entry, long now) {
+        if (now < entry.refreshAtNanos || !entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshCounter.increment();
+        Entry next = new Entry();
+        next.result.whenComplete((addresses, cause) -> {
+            if (cause == null) {
+                cache.replace(host, entry, next);
+            } else {
+                // Keep serving the current addresses until they expire, but don't retry the refresh on every access.
+                entry.refreshAtNanos = clock.monotonicTime() + negativeTtlNanos;
+                entry.refreshing.set(false);
+            }
+        });
+        startLookup(host, next);
+    }
+
+    private void startLookup(String host, Entry entry) {
+        try {
+            lookupExecutor.execute(() -> lookup(host, entry));
+        } catch (RejectedExecutionException e) {
+            failureCounter.increment();
+            entry.expiresAtNanos = clock.monotonicTime() + negativeTtlNanos;
+            entry.result.completeExceptionally(e);
+        }
+    }
+
+    private void lookup(String host, Entry entry) {
+        List<InetAddress> addresses;
+        try {
+            addresses = hostLookup.lookup(host);
+            if (addresses.isEmpty()) {
+                throw new UnknownHostException(host);
+            }
+        } catch (Throwable t) {
+            LOG.debug("Failed to resolve origin host {}", host, t);
+            failureCounter.increment();
+            entry.expiresAtNanos = clock.monotonicTime() + negativeTtlNanos;
+            entry.result.completeExceptionally(t);
+            return;
+        }
+        long now = clock.monotonicTime();
+        entry.refreshAtNanos = now + refreshAheadNanos;
+        entry.expiresAtNanos = now + positiveTtlNanos;
+        entry.result.complete(addresses);
+    }
+
+    private static final class Entry {
+        final CompletableFuture<List<InetAddress>> result = new CompletableFuture<>();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        // In-flight entries never expire, so that concurrent callers coalesce onto the same lookup.
+        volatile long expiresAtNanos = Long.MAX_VALUE;
+        volatile long refreshAtNanos = Long.MAX_VALUE;
+    }
+
+    private final class CachingNameResolver extends InetNameResolver {
+        CachingNameResolver(EventExecutor executor) {
+            super(executor);
+        }
+
+        @Override
+        protected void doResolve(String inetHost, Promise<InetAddress> promise) {
+            resolveAll(inetHost).whenComplete((addresses, cause) -> {
+                if (cause != null) {
+                    promise.tryFailure(cause);
+                } else {
+                    promise.trySuccess(addresses.get(0));
+                }
+            });
+        }
+
+        @Override
+        protected void doResolveAll(String inetHost, Promise<List<InetAddress>> promise) {
+            resolveAll(inetHost).whenComplete((addresses, cause) -> {
+                if (cause != null) {
+                    promise.tryFailure(cause);
+                } else {
+                    promise.trySuccess(addresses);
+                }
+            });
+        }
+    }
+}
@@ -19,9 +19,11 @@ package com.netflix.zuul.netty.connectionpool;
 import com.netflix.zuul.discovery.DiscoveryResult;
 import com.netflix.zuul.passport.CurrentPassport;
 import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.Promise;
 import java.net.InetAddress;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -55,6 +57,16 @@ public interface ClientChannelManager {
 
     boolean isCold();
 
+    /**
+     * Opens idle connections to every known server on each event loop of the given group, and keeps topping them up
+     * in the background as servers are added or connections are closed.
+     *
+     * @return a future that completes when the initial fill is done.
+     */
+    default CompletableFuture<Void> warmUp(EventLoopGroup eventLoopGroup) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Returns a read-only snapshot of all origin servers this manager currently load-balances over, or an
      * empty list when the manager cannot expose them. This does not pick or acquire a connection - it is a
@@ -80,4 +80,60 @@ public interface ConnectionPoolConfig {
     default boolean isCloseOnCircuitBreakerEnabled() {
         return true;
     }
+
+    /**
+     * When true, origin hostnames that are not IP literals are resolved at connect time through the shared
+     * {@link CachingAddressResolverGroup}, instead of with a blocking lookup on the event loop when the server's pool
+     * is created.
+     */
+    default boolean useAsyncAddressResolution() {
+        return false;
+    }
+
+    /**
+     * When true, and the pool for the requesting event loop has no idle connection to a server, an idle connection
+     * to the same server is borrowed from another event loop's pool and re-registered onto the requesting event
+     * loop, rather than opening a new connection.
+     */
+    default boolean isConnectionBorrowingEnabled() {
+        return false;
+    }
+
+    /**
+     * Minimum number of idle connections to keep open to each server, per event loop, once the pool has been warmed
+     * up with {@link ClientChannelManager#warmUp}. Zero disables warm-up.
+     */
+    default int getMinIdleConnectionsPerEventLoop() {
+        return 0;
+    }
+
+    /**
+     * Max rate, in connections per second, at which warm-up opens new connections for this origin.
+     */
+    default int getWarmupConnectionsPerSecond() {
+        return 100;
+    }
+
+    /**
+     * When true, requests are sent as streams multiplexed over HTTP/2 connections instead of one request at a time
+     * over pooled HTTP/1.1 connections. Secure origins must accept {@code h2} through ALPN, and plaintext origins
+     * must support HTTP/2 with prior knowledge.
+     */
+    default boolean isHttp2Enabled() {
+        return false;
+    }
+
+    /**
+     * Number of HTTP/2 connections to open to each server, per event loop, that streams are spread across.
+     */
+    default int getHttp2ConnectionsPerEventLoop() {
+        return 1;
+    }
+
+    /**
+     * Max concurrent streams to open on a single HTTP/2 connection. The limit advertised by the server applies too.
+     */
+    default int getHttp2MaxConcurrentStreams() {
+        return 100;
+    }
 }
@@ -36,6 +36,9 @@ public class ConnectionPoolConfigImpl implements ConnectionPoolConfig {
     static final int DEFAULT_PER_SERVER_WATERLINE = 4;
     static final int DEFAULT_MAX_REQUESTS_PER_CONNECTION = 1000;
     static final boolean DEFAULT_TCP_NO_DELAY = true;
+    static final int DEFAULT_WARMUP_CONNECTIONS_PER_SECOND = 100;
+    static final int DEFAULT_HTTP2_CONNECTIONS_PER_EVENT_LOOP = 1;
+    static final int DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS = 100;
 
     // TODO(argha-c): Document why these values were chosen, as opposed to defaults of 32k/64k
     static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 32 * 1024;
@@ -68,6 +71,32 @@ public class ConnectionPoolConfigImpl implements ConnectionPoolConfig {
     public static final IClientConfigKey<Boolean> USE_DEFAULT_TCP_BUFFER_SIZES =
             new CommonClientConfigKey<>("UseDefaultTcpBufferSizes") {};
 
+    public static final IClientConfigKey<Boolean> ASYNC_ADDRESS_RESOLUTION =
+            new CommonClientConfigKey<>("AsyncAddressResolution") {};
+
+    public static final IClientConfigKey<Boolean> CONNECTION_BORROWING =
+            new CommonClientConfigKey<>("ConnectionBorrowing") {};
+
+    /**
+     * NOTE that, like the waterline, this is applied per event-loop.
+     */
+    public static final IClientConfigKey<Integer> MIN_IDLE_CONNECTIONS_PER_EVENT_LOOP =
+            new CommonClientConfigKey<>("MinIdleConnectionsPerEventLoop") {};
+
+    public static final IClientConfigKey<Integer> WARMUP_CONNECTIONS_PER_SECOND =
+            new CommonClientConfigKey<>("WarmupConnectionsPerSecond") {};
+
+    public static final IClientConfigKey<Boolean> USE_HTTP2 = new CommonClientConfigKey<>("UseHttp2") {};
+
+    /**
+     * NOTE that, like the waterline, this is applied per event-loop.
+     */
+    public static final IClientConfigKey<Integer> HTTP2_CONNECTIONS_PER_EVENT_LOOP =
+            new CommonClientConfigKey<>("Http2ConnectionsPerEventLoop") {};
+
+    public static final IClientConfigKey<Integer> HTTP2_MAX_CONCURRENT_STREAMS =
+            new CommonClientConfigKey<>("Http2MaxConcurrentStreams") {};
+
     private final OriginName originName;
     private final IClientConfig clientConfig;
 
@@ -162,4 +191,40 @@ public class ConnectionPoolConfigImpl implements ConnectionPoolConfig {
     public boolean isCloseOnCircuitBreakerEnabled() {
         return clientConfig.getPropertyAsBoolean(CLOSE_ON_CIRCUIT_BREAKER, true);
     }
+
+    @Override
+    public boolean useAsyncAddressResolution() {
+        return clientConfig.getPropertyAsBoolean(ASYNC_ADDRESS_RESOLUTION, false);
+    }
+
+    @Override
+    public boolean isConnectionBorrowingEnabled() {
+        return clientConfig.getPropertyAsBoolean(CONNECTION_BORROWING, false);
+    }
+
+    @Override
+    public int getMinIdleConnectionsPerEventLoop() {
+        return clientConfig.getPropertyAsInteger(MIN_IDLE_CONNECTIONS_PER_EVENT_LOOP, 0);
+    }
+
+    @Override
+    public int getWarmupConnectionsPerSecond() {
+        return clientConfig.getPropertyAsInteger(WARMUP_CONNECTIONS_PER_SECOND, DEFAULT_WARMUP_CONNECTIONS_PER_SECOND);
+    }
+
+    @Override
+    public boolean isHttp2Enabled() {
+        return clientConfig.getPropertyAsBoolean(USE_HTTP2, false);
+    }
+
+    @Override
+    public int getHttp2ConnectionsPerEventLoop() {
+        return clientConfig.getPropertyAsInteger(
+                HTTP2_CONNECTIONS_PER_EVENT_LOOP, DEFAULT_HTTP2_CONNECTIONS_PER_EVENT_LOOP);
+    }
+
+    @Override
+    public int getHttp2MaxConcurrentStreams() {
+        return clientConfig.getPropertyAsInteger(HTTP2_MAX_CONCURRENT_STREAMS, DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS);
+    }
 }
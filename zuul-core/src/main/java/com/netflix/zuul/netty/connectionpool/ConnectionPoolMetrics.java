@@ -51,7 +51,9 @@ public record ConnectionPoolMetrics(
         Counter errorCounter,
         Counter headerCloseCounter,
         Counter sslCloseCompletionCounter,
-        Counter outboundIncompleteCounter) {
+        Counter outboundIncompleteCounter,
+        Counter borrowHitCounter,
+        Counter borrowMissCounter) {
 
     public static ConnectionPoolMetrics create(OriginName originName, Registry registry) {
         Counter createNewConnCounter = newCounter("connectionpool_create", originName, registry);
@@ -79,6 +81,8 @@ public record ConnectionPoolMetrics(
         Counter headerCloseCounter = newCounter("connectionpool_headerClose", originName, registry);
         Counter sslCloseCompletionCounter = newCounter("connectionpool_sslClose", originName, registry);
         Counter outboundIncompleteCounter = newCounter("connectionpool_outboundIncomplete", originName, registry);
+        Counter borrowHitCounter = newCounter("connectionpool_borrowHit", originName, registry);
+        Counter borrowMissCounter = newCounter("connectionpool_borrowMiss", originName, registry);
 
         PercentileTimer connEstablishTimer = PercentileTimer.get(
                 registry, registry.createId("connectionpool_createTiming", "id", originName.getMetricId()));
@@ -110,7 +114,9 @@ public record ConnectionPoolMetrics(
                 errorCounter,
                 headerCloseCounter,
                 sslCloseCompletionCounter,
-                outboundIncompleteCounter);
+                outboundIncompleteCounter,
+                borrowHitCounter,
+                borrowMissCounter);
     }
 
     private static Counter newCounter(String metricName, OriginName originName, Registry registry) {
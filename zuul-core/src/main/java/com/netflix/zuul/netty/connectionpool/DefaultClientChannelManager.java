@@ -18,12 +18,15 @@ package com.netflix.zuul.netty.connectionpool;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.net.InetAddresses;
+import com.google.common.util.concurrent.RateLimiter;
 import com.netflix.client.config.IClientConfig;
+import com.netflix.config.DynamicIntProperty;
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.histogram.PercentileTimer;
 import com.netflix.zuul.discovery.DiscoveryResult;
 import com.netflix.zuul.discovery.DynamicServerResolver;
+import com.netflix.zuul.discovery.PeakEwmaServerResolver;
 import com.netflix.zuul.discovery.ResolverResult;
 import com.netflix.zuul.exception.OutboundErrorType;
 import com.netflix.zuul.netty.SpectatorUtils;
@@ -38,17 +41,23 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
 import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.Promise;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,6 +70,9 @@ import org.slf4j.LoggerFactory;
 public class DefaultClientChannelManager implements ClientChannelManager {
     public static final String IDLE_STATE_HANDLER_NAME = "idleStateHandler";
     private static final Logger LOG = LoggerFactory.getLogger(DefaultClientChannelManager.class);
+    private static final DynamicIntProperty WARMUP_INTERVAL_MS =
+            new DynamicIntProperty("zuul.origin.warmup.interval.ms", 10_000);
+    private static final long WARMUP_RATE_LIMITED_RETRY_MS = 1000;
 
     protected final Resolver<DiscoveryResult> dynamicServerResolver;
     protected final ConnectionPoolConfig connPoolConfig;
@@ -75,8 +87,11 @@ public class DefaultClientChannelManager implements ClientChannelManager {
 
     private volatile boolean shuttingDown = false;
 
+    private final AtomicBoolean warmupStarted = new AtomicBoolean();
+    private final CompletableFuture<Void> initialWarmup = new CompletableFuture<>();
+
     public DefaultClientChannelManager(OriginName originName, IClientConfig clientConfig, Registry registry) {
-        this(originName, clientConfig, new DynamicServerResolver(clientConfig), registry);
+        this(originName, clientConfig, createServerResolver(clientConfig), registry);
     }
 
     public DefaultClientChannelManager(
@@ -102,13 +117,27 @@ public class DefaultClientChannelManager implements ClientChannelManager {
         this.clientConnFactory = createNettyClientConnectionFactory(connPoolConfig, channelInitializer);
     }
 
+    private static Resolver<DiscoveryResult> createServerResolver(IClientConfig clientConfig) {
+        if (clientConfig.getPropertyAsBoolean(PeakEwmaServerResolver.LATENCY_AWARE_SERVER_SELECTION, false)) {
+            return new PeakEwmaServerResolver(clientConfig);
+        }
+        return new DynamicServerResolver(clientConfig);
+    }
+
     protected OriginChannelInitializer createChannelInitializer(
             IClientConfig clientConfig, ConnectionPoolConfig connPoolConfig, Registry registry) {
+        if (connPoolConfig.isHttp2Enabled()) {
+            return new Http2OriginChannelInitializer(connPoolConfig, registry);
+        }
         return new DefaultOriginChannelInitializer(connPoolConfig, registry);
     }
 
     protected NettyClientConnectionFactory createNettyClientConnectionFactory(
             ConnectionPoolConfig connPoolConfig, ChannelInitializer<? extends Channel> clientConnInitializer) {
+        if (connPoolConfig.useAsyncAddressResolution()) {
+            return new NettyClientConnectionFactory(
+                    connPoolConfig, clientConnInitializer, CachingAddressResolverGroup.shared());
+        }
         return new NettyClientConnectionFactory(connPoolConfig, clientConnInitializer);
     }
 
@@ -132,6 +161,72 @@ public class DefaultClientChannelManager implements ClientChannelManager {
         return false;
     }
 
+    @Override
+    public CompletableFuture<Void> warmUp(EventLoopGroup eventLoopGroup) {
+        if (connPoolConfig.getMinIdleConnectionsPerEventLoop() <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (warmupStarted.compareAndSet(false, true)) {
+            RateLimiter connectRateLimiter =
+                    RateLimiter.create(Math.max(connPoolConfig.getWarmupConnectionsPerSecond(), 1));
+            eventLoopGroup.next().execute(() -> runWarmupRound(eventLoopGroup, connectRateLimiter));
+        }
+        return initialWarmup;
+    }
+
+    /**
+     * Tops up the idle connections for every current server on every event loop. Rounds repeat for as long as this
+     * manager is alive, which also picks up servers newly added by discovery. The initial warm-up is complete after
+     * the first round that wasn't cut short by the rate limit.
+     */
+    private void runWarmupRound(EventLoopGroup eventLoopGroup, RateLimiter connectRateLimiter) {
+        if (shuttingDown) {
+            initialWarmup.complete(null);
+            return;
+        }
+
+        int minIdle = connPoolConfig.getMinIdleConnectionsPerEventLoop();
+        AtomicBoolean rateLimited = new AtomicBoolean();
+        BooleanSupplier connectPermit = () -> {
+            if (connectRateLimiter.tryAcquire()) {
+                return true;
+            }
+            rateLimited.set(true);
+            return false;
+        };
+
+        List<CompletableFuture<Void>> fills = new ArrayList<>();
+        try {
+            for (DiscoveryResult server : getServers()) {
+                if (server.isCircuitBreakerTripped()) {
+                    continue;
+                }
+                IConnectionPool pool = getOrCreatePool(server);
+                for (EventExecutor executor : eventLoopGroup) {
+                    if (executor instanceof EventLoop eventLoop) {
+                        fills.add(pool.fillIdle(eventLoop, minIdle, connectPermit));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Error warming connection pools for origin {}", originName, e);
+        }
+
+        CompletableFuture.allOf(fills.toArray(new CompletableFuture<?>[0])).whenComplete((v, t) -> {
+            if (!rateLimited.get()) {
+                initialWarmup.complete(null);
+            }
+            if (shuttingDown) {
+                initialWarmup.complete(null);
+                return;
+            }
+            long delayMs = rateLimited.get() ? WARMUP_RATE_LIMITED_RETRY_MS : WARMUP_INTERVAL_MS.get();
+            eventLoopGroup
+                    .next()
+                    .schedule(() -> runWarmupRound(eventLoopGroup, connectRateLimiter), delayMs, TimeUnit.MILLISECONDS);
+        });
+    }
+
     @Override
     public int getInflightRequestsCount() {
         return this.channelInitializer.getHttpMetricsHandler().getInflightRequestsCount();
@@ -239,13 +334,19 @@ public class DefaultClientChannelManager implements ClientChannelManager {
     protected void releaseHandlers(PooledConnection conn) {
         ChannelPipeline pipeline = conn.getChannel().pipeline();
         removeHandlerFromPipeline(OriginResponseReceiver.CHANNEL_HANDLER_NAME, pipeline);
+        addIdleStateHandler(pipeline, connPoolConfig.getIdleTimeout());
+    }
+
+    static void addIdleStateHandler(ChannelPipeline pipeline, int idleTimeoutMillis) {
         // The Outbound handler is always after the inbound handler, so look for it.
         ChannelHandlerContext passportStateHttpClientHandlerCtx =
                 pipeline.context(PassportStateHttpClientHandler.OutboundHandler.class);
-        pipeline.addAfter(
-                passportStateHttpClientHandlerCtx.name(),
-                IDLE_STATE_HANDLER_NAME,
-                new IdleStateHandler(0, 0, connPoolConfig.getIdleTimeout(), TimeUnit.MILLISECONDS));
+        IdleStateHandler idleStateHandler = new IdleStateHandler(0, 0, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+        if (passportStateHttpClientHandlerCtx != null) {
+            pipeline.addAfter(passportStateHttpClientHandlerCtx.name(), IDLE_STATE_HANDLER_NAME, idleStateHandler);
+        } else {
+            pipeline.addLast(IDLE_STATE_HANDLER_NAME, idleStateHandler);
+        }
     }
 
     public static void removeHandlerFromPipeline(String handlerName, ChannelPipeline pipeline) {
@@ -308,7 +409,13 @@ public class DefaultClientChannelManager implements ClientChannelManager {
         }
 
         // Now get the connection-pool for this server.
-        IConnectionPool pool = perServerPools.computeIfAbsent(chosenServer, s -> {
+        IConnectionPool pool = getOrCreatePool(chosenServer);
+
+        return pool.acquire(eventLoop, passport, selectedHostAddr);
+    }
+
+    protected IConnectionPool getOrCreatePool(DiscoveryResult chosenServer) {
+        return perServerPools.computeIfAbsent(chosenServer, s -> {
             SocketAddress finalServerAddr = pickAddress(chosenServer);
             ClientChannelManager clientChannelMgr = this;
             PooledConnectionFactory pcf = createPooledConnectionFactory(
@@ -334,8 +441,6 @@ public class DefaultClientChannelManager implements ClientChannelManager {
                     metrics.connsInPool(),
                     metrics.connsInUse());
         });
-
-        return pool.acquire(eventLoop, passport, selectedHostAddr);
     }
 
     protected PooledConnectionFactory createPooledConnectionFactory(
@@ -365,6 +470,27 @@ public class DefaultClientChannelManager implements ClientChannelManager {
             PercentileTimer connEstablishTimer,
             AtomicInteger connsInPool,
             AtomicInteger connsInUse) {
+        if (channelInitializer instanceof Http2OriginChannelInitializer http2ChannelInitializer) {
+            return new PerServerHttp2ConnectionPool(
+                    discoveryResult,
+                    serverAddr,
+                    clientConnFactory,
+                    pcf,
+                    connPoolConfig,
+                    clientConfig,
+                    createNewConnCounter,
+                    createConnSucceededCounter,
+                    createConnFailedCounter,
+                    requestConnCounter,
+                    reuseConnCounter,
+                    connTakenFromPoolIsNotOpen,
+                    closeAbovePoolHighWaterMarkCounter,
+                    maxConnsPerHostExceededCounter,
+                    connEstablishTimer,
+                    connsInPool,
+                    connsInUse,
+                    http2ChannelInitializer);
+        }
         return new PerServerConnectionPool(
                 discoveryResult,
                 serverAddr,
@@ -382,7 +508,9 @@ public class DefaultClientChannelManager implements ClientChannelManager {
                 maxConnsPerHostExceededCounter,
                 connEstablishTimer,
                 connsInPool,
-                connsInUse);
+                connsInUse,
+                metrics.borrowHitCounter(),
+                metrics.borrowMissCounter());
     }
 
     final class ServerPoolListener implements ResolverListener<DiscoveryResult> {
@@ -419,6 +547,16 @@ public class DefaultClientChannelManager implements ClientChannelManager {
 
     @VisibleForTesting
     static SocketAddress pickAddressInternal(ResolverResult chosenServer, @Nullable OriginName originName) {
+        return pickAddressInternal(chosenServer, originName, false);
+    }
+
+    /**
+     * @param deferResolution when true, hostnames that are not IP literals are returned as unresolved addresses, to be
+     *                        resolved asynchronously at connect time, rather than being looked up (blocking) here.
+     */
+    @VisibleForTesting
+    static SocketAddress pickAddressInternal(
+            ResolverResult chosenServer, @Nullable OriginName originName, boolean deferResolution) {
         String rawHost;
         int port;
         rawHost = chosenServer.getHost();
@@ -428,10 +566,14 @@ public class DefaultClientChannelManager implements ClientChannelManager {
             InetAddress ipAddr = InetAddresses.forString(rawHost);
             serverAddr = new InetSocketAddress(ipAddr, port);
         } catch (IllegalArgumentException e1) {
-            LOG.warn("NettyClientConnectionFactory got an unresolved address, addr: {}", rawHost);
             Counter unresolvedDiscoveryHost = SpectatorUtils.newCounter(
                     "unresolvedDiscoveryHost", originName == null ? "unknownOrigin" : originName.getTarget());
             unresolvedDiscoveryHost.increment();
+            if (deferResolution) {
+                LOG.debug("Deferring resolution of origin address, addr: {}", rawHost);
+                return InetSocketAddress.createUnresolved(rawHost, port);
+            }
+            LOG.warn("NettyClientConnectionFactory got an unresolved address, addr: {}", rawHost);
             try {
                 serverAddr = new InetSocketAddress(rawHost, port);
             } catch (RuntimeException e2) {
@@ -447,6 +589,7 @@ public class DefaultClientChannelManager implements ClientChannelManager {
      * Given a server chosen from the load balancer, pick the appropriate address to connect to.
      */
     protected SocketAddress pickAddress(DiscoveryResult chosenServer) {
-        return pickAddressInternal(chosenServer, connPoolConfig.getOriginName());
+        return pickAddressInternal(
+                chosenServer, connPoolConfig.getOriginName(), connPoolConfig.useAsyncAddressResolution());
     }
 }
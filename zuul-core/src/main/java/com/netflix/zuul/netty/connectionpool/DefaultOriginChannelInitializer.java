@@ -40,8 +40,8 @@ public class DefaultOriginChannelInitializer extends OriginChannelInitializer {
 
     public static final String ORIGIN_NETTY_LOGGER = "originNettyLogger";
     public static final String CONNECTION_POOL_HANDLER = "connectionPoolHandler";
-    private final ConnectionPoolConfig connectionPoolConfig;
-    private final SslContext sslContext;
+    protected final ConnectionPoolConfig connectionPoolConfig;
+    protected final SslContext sslContext;
     protected final ConnectionPoolHandler connectionPoolHandler;
     protected final HttpMetricsChannelHandler httpMetricsHandler;
     protected final LoggingHandler nettyLogger;
@@ -75,6 +75,13 @@ public class DefaultOriginChannelInitializer extends OriginChannelInitializer {
                         BaseZuulChannelInitializer.MAX_CHUNK_SIZE.get(),
                         false,
                         false));
+        addHttpClientHandlers(pipeline);
+    }
+
+    /**
+     * Adds the handlers that sit after the HTTP codec, i.e. that deal in {@link io.netty.handler.codec.http.HttpObject}s.
+     */
+    protected void addHttpClientHandlers(ChannelPipeline pipeline) {
         pipeline.addLast(new PassportStateHttpClientHandler.InboundHandler());
         pipeline.addLast(new PassportStateHttpClientHandler.OutboundHandler());
         pipeline.addLast(ORIGIN_NETTY_LOGGER, nettyLogger);
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.netty.connectionpool;
+
+import com.netflix.spectator.api.Registry;
+import com.netflix.zuul.netty.insights.PassportStateOriginHandler;
+import com.netflix.zuul.netty.server.BaseZuulChannelInitializer;
+import com.netflix.zuul.netty.ssl.ClientSslContextFactory;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.handler.ssl.SslContext;
+import io.netty.util.ReferenceCountUtil;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Initializes HTTP/2 connections to an origin, see {@link PerServerHttp2ConnectionPool}.
+ *
+ * <p>The connection channel itself only carries the frame codec and multiplexer. Each request is sent on its own
+ * stream channel, initialized by {@link #getStreamChannelInitializer()} with the same handlers as an HTTP/1.1 origin
+ * channel, so that the rest of the proxy keeps dealing in {@link io.netty.handler.codec.http.HttpObject}s. Secure
+ * origins negotiate {@code h2} with ALPN, others are assumed to speak HTTP/2 with prior knowledge.
+ */
+@NullMarked
+public class Http2OriginChannelInitializer extends DefaultOriginChannelInitializer {
+
+    public static final String HTTP2_FRAME_CODEC_HANDLER_NAME = "http2FrameCodec";
+    public static final String HTTP2_MULTIPLEX_HANDLER_NAME = "http2MultiplexHandler";
+
+    private final ChannelInitializer<Channel> streamChannelInitializer = new ChannelInitializer<>() {
+        @Override
+        protected void initChannel(Channel ch) {
+            initStreamChannel(ch);
+        }
+    };
+
+    public Http2OriginChannelInitializer(ConnectionPoolConfig connPoolConfig, Registry spectatorRegistry) {
+        super(connPoolConfig, spectatorRegistry);
+    }
+
+    @Override
+    protected void initChannel(Channel ch) throws Exception {
+        ChannelPipeline pipeline = ch.pipeline();
+
+        pipeline.addLast(new PassportStateOriginHandler.InboundHandler());
+        pipeline.addLast(new PassportStateOriginHandler.OutboundHandler());
+
+        if (connectionPoolConfig.isSecure()) {
+            pipeline.addLast("ssl", sslContext.newHandler(ch.alloc()));
+        }
+
+        pipeline.addLast(
+                HTTP2_FRAME_CODEC_HANDLER_NAME,
+                Http2FrameCodecBuilder.forClient()
+                        .initialSettings(Http2Settings.defaultSettings()
+                                .pushEnabled(false)
+                                .maxHeaderListSize(BaseZuulChannelInitializer.MAX_HEADER_SIZE.get()))
+                        .build());
+        pipeline.addLast(HTTP2_MULTIPLEX_HANDLER_NAME, new Http2MultiplexHandler(RejectInboundStreamHandler.INSTANCE));
+    }
+
+    /**
+     * Adds the handlers for a single request stream.
+     */
+    protected void initStreamChannel(Channel ch) {
+        ChannelPipeline pipeline = ch.pipeline();
+        pipeline.addLast(BaseZuulChannelInitializer.HTTP_CODEC_HANDLER_NAME, new Http2StreamFrameToHttpObjectCodec(false));
+        addHttpClientHandlers(pipeline);
+    }
+
+    public ChannelInitializer<Channel> getStreamChannelInitializer() {
+        return streamChannelInitializer;
+    }
+
+    @Override
+    protected SslContext getClientSslContext(Registry spectatorRegistry) {
+        return new ClientSslContextFactory(spectatorRegistry).getHttp2ClientSslContext();
+    }
+
+    /**
+     * Push is disabled in our settings, so any stream the origin opens towards us is a protocol violation.
+     */
+    @ChannelHandler.Sharable
+    private static final class RejectInboundStreamHandler extends ChannelInboundHandlerAdapter {
+        static final RejectInboundStreamHandler INSTANCE = new RejectInboundStreamHandler();
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ReferenceCountUtil.release(msg);
+            ctx.close();
+        }
+    }
+}
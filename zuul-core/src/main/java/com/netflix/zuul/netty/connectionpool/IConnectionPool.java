@@ -20,7 +20,9 @@ import com.netflix.zuul.passport.CurrentPassport;
 import io.netty.channel.EventLoop;
 import io.netty.util.concurrent.Promise;
 import java.net.InetAddress;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 
 /**
  * User: michaels@netflix.com
@@ -41,6 +43,17 @@ public interface IConnectionPool {
         shutdown();
     }
 
+    /**
+     * Opens new connections on the given event loop, and adds them to its pool as idle, until it holds at least
+     * {@code minIdle} connections. {@code connectPermit} is consulted before each new connection and may block; once
+     * it returns false no further connections are opened in this call.
+     *
+     * @return a future that completes once every opened connection has either been pooled or failed.
+     */
+    default CompletableFuture<Void> fillIdle(EventLoop eventLoop, int minIdle, BooleanSupplier connectPermit) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     boolean isAvailable();
 
     int getConnsInUse();
@@ -26,10 +26,12 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoop;
 import io.netty.channel.WriteBufferWaterMark;
+import io.netty.resolver.AddressResolverGroup;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.Objects;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Created by saroskar on 3/16/16.
@@ -40,16 +42,31 @@ public class NettyClientConnectionFactory {
     private final ConnectionPoolConfig connPoolConfig;
     private final ChannelInitializer<? extends Channel> channelInitializer;
 
+    @Nullable
+    private final AddressResolverGroup<? extends SocketAddress> resolverGroup;
+
     public NettyClientConnectionFactory(
             ConnectionPoolConfig connPoolConfig, ChannelInitializer<? extends Channel> channelInitializer) {
+        this(connPoolConfig, channelInitializer, null);
+    }
+
+    /**
+     * @param resolverGroup used to resolve unresolved addresses at connect time. When null, all addresses passed to
+     *                      {@link #connect} must already be resolved.
+     */
+    public NettyClientConnectionFactory(
+            ConnectionPoolConfig connPoolConfig,
+            ChannelInitializer<? extends Channel> channelInitializer,
+            @Nullable AddressResolverGroup<? extends SocketAddress> resolverGroup) {
         this.connPoolConfig = connPoolConfig;
         this.channelInitializer = channelInitializer;
+        this.resolverGroup = resolverGroup;
     }
 
     public ChannelFuture connect(
             EventLoop eventLoop, SocketAddress socketAddress, CurrentPassport passport, IConnectionPool pool) {
         Objects.requireNonNull(socketAddress, "socketAddress");
-        if (socketAddress instanceof InetSocketAddress inetSocketAddress) {
+        if (resolverGroup == null && socketAddress instanceof InetSocketAddress inetSocketAddress) {
             // This should be checked by the ClientConnectionManager
             assert !inetSocketAddress.isUnresolved() : socketAddress;
         }
@@ -76,6 +93,10 @@ public class NettyClientConnectionFactory {
                 .option(ChannelOption.AUTO_READ, connPoolConfig.getNettyAutoRead())
                 .remoteAddress(socketAddress);
 
+        if (resolverGroup != null) {
+            bootstrap.resolver(resolverGroup);
+        }
+
         if (!connPoolConfig.useDefaultTcpBufferSizes()) {
             bootstrap.option(ChannelOption.SO_SNDBUF, connPoolConfig.getTcpSendBufferSize());
             bootstrap.option(ChannelOption.SO_RCVBUF, connPoolConfig.getTcpReceiveBufferSize());
@@ -18,11 +18,13 @@ package com.netflix.zuul.netty.connectionpool;
 
 import com.netflix.client.config.IClientConfig;
 import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.NoopRegistry;
 import com.netflix.spectator.api.Timer;
 import com.netflix.zuul.discovery.DiscoveryResult;
 import com.netflix.zuul.exception.OutboundErrorType;
 import com.netflix.zuul.passport.CurrentPassport;
 import com.netflix.zuul.passport.PassportState;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoop;
 import io.netty.handler.codec.DecoderException;
@@ -31,12 +33,17 @@ import io.netty.util.concurrent.Promise;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +56,7 @@ import org.slf4j.LoggerFactory;
 public class PerServerConnectionPool implements IConnectionPool {
     private static final Logger LOG = LoggerFactory.getLogger(PerServerConnectionPool.class);
     public static final AttributeKey<IConnectionPool> CHANNEL_ATTR = AttributeKey.newInstance("_connection_pool");
+    private static final NoopRegistry NOOP_REGISTRY = new NoopRegistry();
     protected final ConcurrentHashMap<EventLoop, Deque<PooledConnection>> connectionsPerEventLoop =
             new ConcurrentHashMap<>();
     protected final PooledConnectionFactory pooledConnectionFactory;
@@ -71,6 +79,8 @@ public class PerServerConnectionPool implements IConnectionPool {
     protected final Timer connEstablishTimer;
     protected final AtomicInteger connsInPool;
     protected final AtomicInteger connsInUse;
+    protected final Counter borrowHitCounter;
+    protected final Counter borrowMissCounter;
 
     /**
      * This is the count of connections currently in progress of being established.
@@ -78,6 +88,9 @@ public class PerServerConnectionPool implements IConnectionPool {
      */
     protected final AtomicInteger connCreationsInProgress;
 
+    // Idle connections being opened by fillIdle() for each event loop, which count towards its target.
+    private final Map<EventLoop, AtomicInteger> idleConnectsInProgress = new ConcurrentHashMap<>();
+
     protected volatile boolean draining;
 
     public PerServerConnectionPool(
@@ -98,6 +111,48 @@ public class PerServerConnectionPool implements IConnectionPool {
             Timer connEstablishTimer,
             AtomicInteger connsInPool,
             AtomicInteger connsInUse) {
+        this(
+                server,
+                serverAddr,
+                connectionFactory,
+                pooledConnectionFactory,
+                config,
+                niwsClientConfig,
+                createNewConnCounter,
+                createConnSucceededCounter,
+                createConnFailedCounter,
+                requestConnCounter,
+                reuseConnCounter,
+                connTakenFromPoolIsNotOpen,
+                closeAboveHighWaterMarkCounter,
+                maxConnsPerHostExceededCounter,
+                connEstablishTimer,
+                connsInPool,
+                connsInUse,
+                NOOP_REGISTRY.counter("connectionpool_borrowHit"),
+                NOOP_REGISTRY.counter("connectionpool_borrowMiss"));
+    }
+
+    public PerServerConnectionPool(
+            DiscoveryResult server,
+            SocketAddress serverAddr,
+            NettyClientConnectionFactory connectionFactory,
+            PooledConnectionFactory pooledConnectionFactory,
+            ConnectionPoolConfig config,
+            IClientConfig niwsClientConfig,
+            Counter createNewConnCounter,
+            Counter createConnSucceededCounter,
+            Counter createConnFailedCounter,
+            Counter requestConnCounter,
+            Counter reuseConnCounter,
+            Counter connTakenFromPoolIsNotOpen,
+            Counter closeAboveHighWaterMarkCounter,
+            Counter maxConnsPerHostExceededCounter,
+            Timer connEstablishTimer,
+            AtomicInteger connsInPool,
+            AtomicInteger connsInUse,
+            Counter borrowHitCounter,
+            Counter borrowMissCounter) {
         this.server = server;
         // Note: child classes can sometimes connect to different addresses than
         this.serverAddr = Objects.requireNonNull(serverAddr, "serverAddr");
@@ -116,6 +171,8 @@ public class PerServerConnectionPool implements IConnectionPool {
         this.connEstablishTimer = connEstablishTimer;
         this.connsInPool = connsInPool;
         this.connsInUse = connsInUse;
+        this.borrowHitCounter = borrowHitCounter;
+        this.borrowMissCounter = borrowMissCounter;
 
         this.connCreationsInProgress = new AtomicInteger(0);
     }
@@ -167,6 +224,9 @@ public class PerServerConnectionPool implements IConnectionPool {
         if (conn != null) {
             // There was a pooled connection available, so use this one.
             reusePooledConnection(passport, selectedHostAddr, conn, promise);
+        } else if (config.isConnectionBorrowingEnabled()
+                && borrowFromOtherEventLoop(eventLoop, passport, selectedHostAddr, promise)) {
+            // Another event loop has idle connections to this server, and hands one over rather than opening one.
         } else {
             // connection pool empty, create new connection using client connection factory.
             tryMakingNewConnection(eventLoop, promise, passport, selectedHostAddr);
@@ -185,7 +245,8 @@ public class PerServerConnectionPool implements IConnectionPool {
         conn.getChannel().read();
         onAcquire(conn, passport);
         initPooledConnection(conn, promise);
-        selectedHostAddr.set(getSelectedHostString(serverAddr));
+        selectedHostAddr.set(getSelectedHostString(
+                isUnresolved(serverAddr) ? conn.getChannel().remoteAddress() : serverAddr));
     }
 
     protected void updateServerStatsOnAcquire() {
@@ -214,6 +275,82 @@ public class PerServerConnectionPool implements IConnectionPool {
         return null;
     }
 
+    /**
+     * Asks an event loop, other than the given one, that has idle connections to this server to hand one over. The
+     * owning event loop takes the connection from the head of its own pool, i.e. the one idle the longest, and
+     * deregisters its channel, so that pools and channels are only ever touched by the event loop they belong to. The
+     * channel is then registered on the given event loop and handed out as a normal reuse. If the owning event loop
+     * has run out of valid idle connections by then, a new connection is made instead.
+     *
+     * <p>Moving a channel keeps its pipeline. The idle timeout handler is removed on the owning event loop before the
+     * move, so that its timer doesn't fire there, and idle connections have no other pending work: the TLS handshake
+     * has completed, and the handlers look up their executor from the channel, so they follow it to its new event
+     * loop.
+     *
+     * @return false if no other event loop has idle connections to this server
+     */
+    protected boolean borrowFromOtherEventLoop(
+            EventLoop eventLoop,
+            CurrentPassport passport,
+            AtomicReference<? super InetAddress> selectedHostAddr,
+            Promise<PooledConnection> promise) {
+        for (Map.Entry<EventLoop, Deque<PooledConnection>> entry : connectionsPerEventLoop.entrySet()) {
+            EventLoop owner = entry.getKey();
+            if (owner != eventLoop && !entry.getValue().isEmpty()) {
+                owner.execute(() -> handOverBorrowedConnection(owner, eventLoop, passport, selectedHostAddr, promise));
+                return true;
+            }
+        }
+        borrowMissCounter.increment();
+        return false;
+    }
+
+    /**
+     * Runs on the owning event loop, see {@link #borrowFromOtherEventLoop}.
+     */
+    private void handOverBorrowedConnection(
+            EventLoop owner,
+            EventLoop eventLoop,
+            CurrentPassport passport,
+            AtomicReference<? super InetAddress> selectedHostAddr,
+            Promise<PooledConnection> promise) {
+        PooledConnection conn = tryGettingFromConnectionPool(owner);
+        if (conn == null) {
+            borrowMissCounter.increment();
+            eventLoop.execute(() -> tryMakingNewConnection(eventLoop, promise, passport, selectedHostAddr));
+            return;
+        }
+        borrowHitCounter.increment();
+        removeIdleStateHandler(conn);
+
+        Channel channel = conn.getChannel();
+        channel.deregister().addListener(deregistered -> {
+            if (!deregistered.isSuccess()) {
+                abandonBorrowedConnection(eventLoop, passport, selectedHostAddr, conn, promise);
+                return;
+            }
+            eventLoop.register(channel).addListener(registered -> {
+                if (registered.isSuccess() && isValidFromPool(conn)) {
+                    reusePooledConnection(passport, selectedHostAddr, conn, promise);
+                } else {
+                    abandonBorrowedConnection(eventLoop, passport, selectedHostAddr, conn, promise);
+                }
+            });
+        });
+    }
+
+    private void abandonBorrowedConnection(
+            EventLoop eventLoop,
+            CurrentPassport passport,
+            AtomicReference<? super InetAddress> selectedHostAddr,
+            PooledConnection conn,
+            Promise<PooledConnection> promise) {
+        LOG.debug("[{}] failed to move borrowed connection, closing", conn.getChannel().id());
+        connsInUse.decrementAndGet();
+        conn.close();
+        eventLoop.execute(() -> tryMakingNewConnection(eventLoop, promise, passport, selectedHostAddr));
+    }
+
     protected boolean isValidFromPool(PooledConnection conn) {
         return conn.isActive() && conn.getChannel().isOpen();
     }
@@ -254,6 +391,15 @@ public class PerServerConnectionPool implements IConnectionPool {
 
             ChannelFuture cf = connectToServer(eventLoop, passport, serverAddr);
 
+            if (isUnresolved(serverAddr)) {
+                // The address is only known once the connection factory has resolved it.
+                cf.addListener(future -> {
+                    if (future.isSuccess()) {
+                        selectedHostAddr.set(getSelectedHostString(cf.channel().remoteAddress()));
+                    }
+                });
+            }
+
             if (cf.isDone()) {
                 handleConnectCompletion(cf, promise, passport);
             } else {
@@ -330,12 +476,16 @@ public class PerServerConnectionPool implements IConnectionPool {
         if (cf.isSuccess()) {
             server.incrementOpenConnectionsCount();
         } else {
-            server.incrementSuccessiveConnectionFailureCount();
-            server.addToFailureCount();
+            updateServerStatsOnConnectFailure();
             server.decrementActiveRequestsCount();
         }
     }
 
+    protected void updateServerStatsOnConnectFailure() {
+        server.incrementSuccessiveConnectionFailureCount();
+        server.addToFailureCount();
+    }
+
     protected void createConnection(
             ChannelFuture cf, Promise<PooledConnection> callerPromise, CurrentPassport passport) {
         PooledConnection conn = pooledConnectionFactory.create(cf.channel());
@@ -391,6 +541,74 @@ public class PerServerConnectionPool implements IConnectionPool {
         }
     }
 
+    @Override
+    public CompletableFuture<Void> fillIdle(EventLoop eventLoop, int minIdle, BooleanSupplier connectPermit) {
+        int waterline = config.perServerWaterline();
+        int target = waterline > -1 ? Math.min(minIdle, waterline) : minIdle;
+        AtomicInteger inProgress = idleConnectsInProgress.computeIfAbsent(eventLoop, k -> new AtomicInteger());
+        // Connects still in flight from an earlier round will land in the pool too.
+        int missing = target - getPoolForEventLoop(eventLoop).size() - inProgress.get();
+
+        List<CompletableFuture<Void>> opened = new ArrayList<>(Math.max(missing, 0));
+        for (int i = 0; i < missing && !draining; i++) {
+            int maxConnectionsPerHost = config.maxConnectionsPerHost();
+            if (maxConnectionsPerHost != -1
+                    && server.getOpenConnectionsCount() + connCreationsInProgress.get() >= maxConnectionsPerHost) {
+                break;
+            }
+            if (!connectPermit.getAsBoolean()) {
+                break;
+            }
+            inProgress.incrementAndGet();
+            opened.add(openIdleConnection(eventLoop).whenComplete((ignored, ex) -> inProgress.decrementAndGet()));
+        }
+        return CompletableFuture.allOf(opened.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Opens a connection without a caller waiting on it, and adds it straight to the pool of the event loop as idle.
+     */
+    protected CompletableFuture<Void> openIdleConnection(EventLoop eventLoop) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CurrentPassport passport = CurrentPassport.create();
+        createNewConnCounter.increment();
+        connCreationsInProgress.incrementAndGet();
+        passport.add(PassportState.ORIGIN_CH_CONNECTING);
+
+        connectToServer(eventLoop, passport, serverAddr).addListener((ChannelFuture cf) -> {
+            try {
+                connCreationsInProgress.decrementAndGet();
+                if (!cf.isSuccess()) {
+                    // Same accounting as for a request's connection, except that there is no active request to end.
+                    createConnFailedCounter.increment();
+                    updateServerStatsOnConnectFailure();
+                    LOG.debug(
+                            "Failed to open idle connection, origin={}, host={}",
+                            config.getOriginName(),
+                            server.getServerId(),
+                            cf.cause());
+                    return;
+                }
+                passport.add(PassportState.ORIGIN_CH_CONNECTED);
+                createConnSucceededCounter.increment();
+                server.incrementOpenConnectionsCount();
+
+                PooledConnection conn = pooledConnectionFactory.create(cf.channel());
+                DefaultClientChannelManager.addIdleStateHandler(conn.getChannel().pipeline(), config.getIdleTimeout());
+                if (draining || !getPoolForEventLoop(eventLoop).offer(conn)) {
+                    conn.close();
+                    return;
+                }
+                conn.setInPool(true);
+                connsInPool.incrementAndGet();
+                passport.add(PassportState.ORIGIN_CH_POOL_RETURNED);
+            } finally {
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+
     protected boolean isOverPerServerWaterline(int connectionsInPool) {
         int poolWaterline = config.perServerWaterline();
         return poolWaterline > -1 && connectionsInPool >= poolWaterline;
@@ -448,8 +666,12 @@ public class PerServerConnectionPool implements IConnectionPool {
         return connsInUse.get();
     }
 
+    private static boolean isUnresolved(SocketAddress addr) {
+        return addr instanceof InetSocketAddress inetSocketAddress && inetSocketAddress.isUnresolved();
+    }
+
     @Nullable
-    protected InetAddress getSelectedHostString(SocketAddress addr) {
+    protected InetAddress getSelectedHostString(@Nullable SocketAddress addr) {
         if (addr instanceof InetSocketAddress inetSocketAddress) {
             return inetSocketAddress.getAddress();
         } else {
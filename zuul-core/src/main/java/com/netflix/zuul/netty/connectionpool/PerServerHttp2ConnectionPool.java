@@ -0,0 +1,399 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.netty.connectionpool;
+
+import com.netflix.client.config.IClientConfig;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Timer;
+import com.netflix.zuul.discovery.DiscoveryResult;
+import com.netflix.zuul.exception.OutboundErrorType;
+import com.netflix.zuul.passport.CurrentPassport;
+import com.netflix.zuul.passport.PassportState;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import java.net.InetAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A connection pool that multiplexes requests as streams over a few long-lived HTTP/2 connections per event loop,
+ * rather than pooling one HTTP/1.1 connection per in-flight request.
+ *
+ * <p>Each acquired {@link PooledConnection} wraps a single stream channel. Streams are never reused, so releasing one
+ * closes it, and the stream counts as an open connection to the server while it is in flight, so that
+ * MaxConnectionsPerHost bounds concurrent requests just as it does for HTTP/1.1.
+ *
+ * <p>All state about the underlying connections of an event loop is only ever touched on that event loop. Callbacks
+ * that may run elsewhere hop over to it first.
+ */
+public class PerServerHttp2ConnectionPool extends PerServerConnectionPool {
+    private static final Logger LOG = LoggerFactory.getLogger(PerServerHttp2ConnectionPool.class);
+
+    private final ConcurrentHashMap<EventLoop, List<MultiplexedConnection>> multiplexedPerEventLoop =
+            new ConcurrentHashMap<>();
+    private final Http2OriginChannelInitializer channelInitializer;
+
+    public PerServerHttp2ConnectionPool(
+            DiscoveryResult server,
+            SocketAddress serverAddr,
+            NettyClientConnectionFactory connectionFactory,
+            PooledConnectionFactory pooledConnectionFactory,
+            ConnectionPoolConfig config,
+            IClientConfig niwsClientConfig,
+            Counter createNewConnCounter,
+            Counter createConnSucceededCounter,
+            Counter createConnFailedCounter,
+            Counter requestConnCounter,
+            Counter reuseConnCounter,
+            Counter connTakenFromPoolIsNotOpen,
+            Counter closeAboveHighWaterMarkCounter,
+            Counter maxConnsPerHostExceededCounter,
+            Timer connEstablishTimer,
+            AtomicInteger connsInPool,
+            AtomicInteger connsInUse,
+            Http2OriginChannelInitializer channelInitializer) {
+        super(
+                server,
+                serverAddr,
+                connectionFactory,
+                pooledConnectionFactory,
+                config,
+                niwsClientConfig,
+                createNewConnCounter,
+                createConnSucceededCounter,
+                createConnFailedCounter,
+                requestConnCounter,
+                reuseConnCounter,
+                connTakenFromPoolIsNotOpen,
+                closeAboveHighWaterMarkCounter,
+                maxConnsPerHostExceededCounter,
+                connEstablishTimer,
+                connsInPool,
+                connsInUse);
+        this.channelInitializer = channelInitializer;
+    }
+
+    @Override
+    public Promise<PooledConnection> acquire(
+            EventLoop eventLoop, CurrentPassport passport, AtomicReference<? super InetAddress> selectedHostAddr) {
+
+        if (draining) {
+            throw new IllegalStateException("Attempt to acquire connection while draining");
+        }
+
+        requestConnCounter.increment();
+        updateServerStatsOnAcquire();
+
+        Promise<PooledConnection> promise = eventLoop.newPromise();
+        if (eventLoop.inEventLoop()) {
+            acquireStream(eventLoop, promise, passport, selectedHostAddr);
+        } else {
+            eventLoop.execute(() -> acquireStream(eventLoop, promise, passport, selectedHostAddr));
+        }
+        return promise;
+    }
+
+    private void acquireStream(
+            EventLoop eventLoop,
+            Promise<PooledConnection> promise,
+            CurrentPassport passport,
+            AtomicReference<? super InetAddress> selectedHostAddr) {
+        if (!isWithinConnectionLimit(promise)) {
+            return;
+        }
+
+        List<MultiplexedConnection> connections = getMultiplexedForEventLoop(eventLoop);
+        MultiplexedConnection connection = leastLoaded(connections);
+        if (connection == null
+                || (connection.activeStreams > 0 && connections.size() < config.getHttp2ConnectionsPerEventLoop())) {
+            // Spread streams over the configured number of connections first, and open an extra one only once all
+            // the existing connections are at their stream limit.
+            connection = openMultiplexedConnection(eventLoop, passport);
+        } else {
+            reuseConnCounter.increment();
+        }
+
+        MultiplexedConnection chosen = connection;
+        chosen.activeStreams++;
+        connCreationsInProgress.incrementAndGet();
+        chosen.ready.addListener(ready -> {
+            if (ready.isSuccess()) {
+                openStream(chosen, promise, passport, selectedHostAddr);
+            } else {
+                connCreationsInProgress.decrementAndGet();
+                chosen.activeStreams--;
+                server.decrementActiveRequestsCount();
+                promise.setFailure(new OriginConnectException(
+                        String.valueOf(ready.cause().getMessage()), ready.cause(), OutboundErrorType.CONNECT_ERROR));
+            }
+        });
+    }
+
+    @Nullable
+    private MultiplexedConnection leastLoaded(List<MultiplexedConnection> connections) {
+        MultiplexedConnection best = null;
+        for (MultiplexedConnection connection : connections) {
+            if (connection.isUsable()
+                    && connection.activeStreams < connection.maxStreams()
+                    && (best == null || connection.activeStreams < best.activeStreams)) {
+                best = connection;
+            }
+        }
+        return best;
+    }
+
+    private void openStream(
+            MultiplexedConnection connection,
+            Promise<PooledConnection> promise,
+            CurrentPassport passport,
+            AtomicReference<? super InetAddress> selectedHostAddr) {
+        Future<Http2StreamChannel> streamFuture = new Http2StreamChannelBootstrap(connection.channel)
+                .option(ChannelOption.AUTO_READ, config.getNettyAutoRead())
+                .attr(CurrentPassport.CHANNEL_ATTR, passport)
+                .attr(PerServerConnectionPool.CHANNEL_ATTR, this)
+                .handler(channelInitializer.getStreamChannelInitializer())
+                .open();
+
+        streamFuture.addListener(future -> onOwningEventLoop(connection, () -> {
+            connCreationsInProgress.decrementAndGet();
+            if (!streamFuture.isSuccess()) {
+                connection.activeStreams--;
+                server.decrementActiveRequestsCount();
+                promise.setFailure(new OriginConnectException(
+                        String.valueOf(streamFuture.cause().getMessage()),
+                        streamFuture.cause(),
+                        OutboundErrorType.CONNECT_ERROR));
+                return;
+            }
+
+            Http2StreamChannel stream = streamFuture.getNow();
+            stream.closeFuture().addListener(closed -> onOwningEventLoop(connection, () -> onStreamClosed(connection)));
+
+            server.incrementOpenConnectionsCount();
+            connsInUse.incrementAndGet();
+            PooledConnection conn = pooledConnectionFactory.create(stream);
+            conn.incrementUsageCount();
+            conn.startRequestTimer();
+            conn.getChannel().read();
+            onAcquire(conn, passport);
+            selectedHostAddr.set(getSelectedHostString(connection.channel.remoteAddress()));
+            promise.setSuccess(conn);
+        }));
+    }
+
+    /**
+     * Runs the task on the event loop that owns the connection, i.e. the one that opened it.
+     */
+    private static void onOwningEventLoop(MultiplexedConnection connection, Runnable task) {
+        if (connection.eventLoop.inEventLoop()) {
+            task.run();
+        } else {
+            connection.eventLoop.execute(task);
+        }
+    }
+
+    private void onStreamClosed(MultiplexedConnection connection) {
+        connection.activeStreams--;
+        if (connection.activeStreams > 0) {
+            return;
+        }
+        List<MultiplexedConnection> connections = getMultiplexedForEventLoop(connection.eventLoop);
+        if (draining || connections.size() > config.getHttp2ConnectionsPerEventLoop()) {
+            // Extra connections opened under load are closed once they become idle again.
+            LOG.debug("[{}] closing idle HTTP/2 connection", connection.channel.id());
+            connection.channel.close();
+        }
+    }
+
+    private MultiplexedConnection openMultiplexedConnection(EventLoop eventLoop, CurrentPassport passport) {
+        createNewConnCounter.increment();
+        passport.add(PassportState.ORIGIN_CH_CONNECTING);
+
+        ChannelFuture cf = connectToServer(eventLoop, passport, serverAddr);
+        MultiplexedConnection connection = new MultiplexedConnection(eventLoop, cf.channel(), eventLoop.newPromise());
+        List<MultiplexedConnection> connections = getMultiplexedForEventLoop(eventLoop);
+        connections.add(connection);
+        cf.channel()
+                .closeFuture()
+                .addListener(closed -> onOwningEventLoop(connection, () -> connections.remove(connection)));
+
+        cf.addListener((ChannelFuture future) -> {
+            if (!future.isSuccess()) {
+                onConnectFailure(connection, future.cause());
+                return;
+            }
+            passport.add(PassportState.ORIGIN_CH_CONNECTED);
+
+            Channel ch = future.channel();
+            // The connection channel is only ever read by the multiplexer, which hands frames to the stream channels.
+            ch.config().setAutoRead(true);
+
+            SslHandler sslHandler = ch.pipeline().get(SslHandler.class);
+            if (sslHandler == null) {
+                onConnectSuccess(connection);
+                return;
+            }
+            sslHandler.handshakeFuture().addListener(handshake -> {
+                if (!handshake.isSuccess()) {
+                    onConnectFailure(connection, handshake.cause());
+                } else if (!ApplicationProtocolNames.HTTP_2.equals(sslHandler.applicationProtocol())) {
+                    ch.close();
+                    onConnectFailure(
+                            connection,
+                            new OriginConnectException(
+                                    "Origin did not negotiate h2, protocol=" + sslHandler.applicationProtocol(),
+                                    OutboundErrorType.CONNECT_ERROR));
+                } else {
+                    onConnectSuccess(connection);
+                }
+            });
+        });
+        return connection;
+    }
+
+    private void onConnectSuccess(MultiplexedConnection connection) {
+        createConnSucceededCounter.increment();
+        connection.ready.setSuccess(connection.channel);
+    }
+
+    private void onConnectFailure(MultiplexedConnection connection, Throwable cause) {
+        createConnFailedCounter.increment();
+        server.incrementSuccessiveConnectionFailureCount();
+        server.addToFailureCount();
+        LOG.debug(
+                "Failed to open HTTP/2 connection, origin={}, host={}",
+                config.getOriginName(),
+                server.getServerId(),
+                cause);
+        connection.ready.tryFailure(cause);
+    }
+
+    @Override
+    public boolean release(PooledConnection conn) {
+        if (conn == null) {
+            return false;
+        }
+        // Streams are single use.
+        conn.setInPool(false);
+        conn.close();
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<Void> fillIdle(EventLoop eventLoop, int minIdle, BooleanSupplier connectPermit) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        eventLoop.execute(() -> {
+            int target = Math.min(minIdle, config.getHttp2ConnectionsPerEventLoop());
+            List<MultiplexedConnection> connections = getMultiplexedForEventLoop(eventLoop);
+            List<CompletableFuture<Void>> opened = new ArrayList<>();
+            for (int i = connections.size(); i < target && !draining && connectPermit.getAsBoolean(); i++) {
+                CompletableFuture<Void> connected = new CompletableFuture<>();
+                openMultiplexedConnection(eventLoop, CurrentPassport.create())
+                        .ready
+                        .addListener(ready -> connected.complete(null));
+                opened.add(connected);
+            }
+            CompletableFuture.allOf(opened.toArray(new CompletableFuture<?>[0]))
+                    .whenComplete((ignored, t) -> done.complete(null));
+        });
+        return done;
+    }
+
+    @Override
+    public void shutdown() {
+        multiplexedPerEventLoop.forEach((eventLoop, connections) -> eventLoop.execute(() -> {
+            for (MultiplexedConnection connection : new ArrayList<>(connections)) {
+                connection.channel.close();
+            }
+        }));
+    }
+
+    @Override
+    public void drain() {
+        if (draining) {
+            throw new IllegalStateException("Already draining");
+        }
+
+        draining = true;
+        // Connections with streams still in flight are closed by onStreamClosed() once the last one completes.
+        multiplexedPerEventLoop.forEach((eventLoop, connections) -> eventLoop.execute(() -> {
+            for (MultiplexedConnection connection : new ArrayList<>(connections)) {
+                if (connection.activeStreams == 0) {
+                    connection.channel.close();
+                }
+            }
+        }));
+    }
+
+    private List<MultiplexedConnection> getMultiplexedForEventLoop(EventLoop eventLoop) {
+        // Only ever called on the event loop itself, so only the map needs to be thread safe.
+        return multiplexedPerEventLoop.computeIfAbsent(eventLoop, ignored -> new ArrayList<>());
+    }
+
+    private final class MultiplexedConnection {
+        final EventLoop eventLoop;
+        final Channel channel;
+        final Promise<Channel> ready;
+        /** Streams that are open, or waiting for this connection to become ready. Only touched on the event loop. */
+        int activeStreams;
+
+        MultiplexedConnection(EventLoop eventLoop, Channel channel, Promise<Channel> ready) {
+            this.eventLoop = eventLoop;
+            this.channel = channel;
+            this.ready = ready;
+        }
+
+        boolean isUsable() {
+            if (ready.isDone() && !ready.isSuccess()) {
+                return false;
+            }
+            if (!channel.isOpen()) {
+                return false;
+            }
+            Http2FrameCodec codec = channel.pipeline().get(Http2FrameCodec.class);
+            return codec == null || !codec.connection().goAwayReceived();
+        }
+
+        int maxStreams() {
+            int max = config.getHttp2MaxConcurrentStreams();
+            Http2FrameCodec codec = channel.pipeline().get(Http2FrameCodec.class);
+            if (codec != null) {
+                // Reflects the SETTINGS_MAX_CONCURRENT_STREAMS the origin sent us, once it has.
+                max = Math.min(max, codec.connection().local().maxActiveStreams());
+            }
+            return max;
+        }
+    }
+}
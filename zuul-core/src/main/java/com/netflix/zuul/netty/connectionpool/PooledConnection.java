@@ -63,7 +63,8 @@ public class PooledConnection {
     private ConnectionState connectionState;
     private long usageCount = 0;
     private long reqStartTime;
-    private boolean inPool = false;
+    // Written by the event loop the connection is pooled on, which changes if another event loop borrows it.
+    private volatile boolean inPool = false;
     private boolean shouldClose = false;
     protected boolean released = false;
 
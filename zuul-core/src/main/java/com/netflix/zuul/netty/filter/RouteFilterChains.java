@@ -0,0 +1,295 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.netty.filter;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.netflix.zuul.filters.FilterType;
+import com.netflix.zuul.filters.ZuulFilter;
+import com.netflix.zuul.message.ZuulMessage;
+import com.netflix.zuul.message.http.HttpRequestInfo;
+import com.netflix.zuul.message.http.HttpRequestMessage;
+import com.netflix.zuul.message.http.HttpResponseMessage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Compiles a filter chain into the chains for each class of routes, where a route class is the set of path-scoped
+ * filters (see {@link com.netflix.zuul.Filter#pathPrefixes()}) that apply to a request path. A route's chain leaves
+ * out the scoped filters that don't apply, so that its requests never visit them.
+ *
+ * <p>Paths are matched after resolving {@code .} and {@code ..} segments and collapsing repeated slashes, and a prefix
+ * only matches whole segments, so {@code /admin} matches {@code /admin} and {@code /admin/x}, but not
+ * {@code /adminfoo}, and {@code /x/../admin} is matched as {@code /admin}.
+ *
+ * <p>Each route class's chain is built once, when first seen, and kept for the life of the filter chain. Chains are
+ * only ever added, copy on write, so lookups take no locks, and one instance is meant to be shared by the runners of
+ * every channel using the same filters, see {@link #isFor(ZuulFilter[])}. Along with its filters, a chain knows which
+ * of them process body chunks, so that chunks only visit those.
+ */
+public final class RouteFilterChains<T extends ZuulMessage> {
+
+    private static final int MAX_CACHED_CHAINS = 256;
+
+    private final ZuulFilter<T, T>[] filters;
+    private final Chain<T> fullChain;
+    private final int[] scopedIndexes;
+    private final String[][] scopedPrefixes;
+
+    @SuppressWarnings("unchecked")
+    private volatile CachedChain<T>[] chains = new CachedChain[0];
+
+    public RouteFilterChains(ZuulFilter<T, T>[] filters) {
+        this.filters = filters;
+        this.fullChain = new Chain<>(filters);
+        int[] indexes = new int[filters.length];
+        String[][] prefixes = new String[filters.length][];
+        int scoped = 0;
+        for (int i = 0; i < filters.length; i++) {
+            String[] filterPrefixes = filters[i].pathPrefixes();
+            if (filterPrefixes != null && filterPrefixes.length > 0) {
+                indexes[scoped] = i;
+                prefixes[scoped++] = segmentPrefixes(filterPrefixes);
+            }
+        }
+        this.scopedIndexes = Arrays.copyOf(indexes, scoped);
+        this.scopedPrefixes = Arrays.copyOf(prefixes, scoped);
+    }
+
+    /**
+     * Whether this was compiled from the same filters, in the same order, so that it can be used in place of compiling
+     * them again.
+     */
+    public boolean isFor(ZuulFilter<T, T>[] filters) {
+        return Arrays.equals(this.filters, filters);
+    }
+
+    FilterType filterType() {
+        return filters[0].filterType();
+    }
+
+    Chain<T> fullChain() {
+        return fullChain;
+    }
+
+    /**
+     * Returns the chain of filters that apply to the message's request path. This is the full chain if no filters
+     * are scoped to paths, or if the path isn't known.
+     */
+    Chain<T> forMessage(T msg) {
+        if (scopedIndexes.length == 0) {
+            return fullChain;
+        }
+        String path = requestPath(msg);
+        if (path == null) {
+            return fullChain;
+        }
+        path = normalizePath(path);
+        if (scopedIndexes.length > Long.SIZE) {
+            // Too many route classes to key them by a mask, so build the chain each time.
+            return build(path);
+        }
+
+        long routeClass = 0;
+        for (int i = 0; i < scopedIndexes.length; i++) {
+            if (matches(scopedPrefixes[i], path)) {
+                routeClass |= 1L << i;
+            }
+        }
+        CachedChain<T>[] current = chains;
+        for (CachedChain<T> cached : current) {
+            if (cached.routeClass == routeClass) {
+                return cached.chain;
+            }
+        }
+
+        Chain<T> built = build(path);
+        if (current.length < MAX_CACHED_CHAINS) {
+            // Racing adds may lose a chain, which is then just built again.
+            CachedChain<T>[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = new CachedChain<>(routeClass, built);
+            chains = updated;
+        }
+        return built;
+    }
+
+    private Chain<T> build(String path) {
+        ZuulFilter<T, T>[] chain = Arrays.copyOf(filters, filters.length);
+        int length = 0;
+        int scoped = 0;
+        for (int i = 0; i < filters.length; i++) {
+            if (scoped < scopedIndexes.length && scopedIndexes[scoped] == i) {
+                boolean applies = matches(scopedPrefixes[scoped++], path);
+                if (!applies) {
+                    continue;
+                }
+            }
+            chain[length++] = filters[i];
+        }
+        return new Chain<>(Arrays.copyOf(chain, length));
+    }
+
+    private static boolean matches(String[] prefixes, String path) {
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the trailing slashes, so that a prefix given as {@code /api/} also matches {@code /api}, and matching only
+     * has to check for a slash after it. A prefix of {@code /} becomes empty, and so matches every path.
+     */
+    private static String[] segmentPrefixes(String[] prefixes) {
+        String[] trimmed = new String[prefixes.length];
+        for (int i = 0; i < prefixes.length; i++) {
+            String prefix = prefixes[i];
+            int end = prefix.length();
+            while (end > 0 && prefix.charAt(end - 1) == '/') {
+                end--;
+            }
+            trimmed[i] = prefix.substring(0, end);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Resolves {@code .} and {@code ..} segments, including percent-encoded dots, and collapses repeated slashes, as
+     * the origin is likely to. Paths that need none of that, which is nearly all of them, are returned as is.
+     */
+    @VisibleForTesting
+    static String normalizePath(String path) {
+        if (path.isEmpty() || path.charAt(0) != '/' || !needsNormalizing(path)) {
+            return path;
+        }
+        List<String> segments = new ArrayList<>();
+        boolean trailingSlash = false;
+        int start = 1;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            int dots = dotSegment(path, start, end);
+            if (dots == 2) {
+                if (!segments.isEmpty()) {
+                    segments.remove(segments.size() - 1);
+                }
+                trailingSlash = true;
+            } else if (dots == 1 || start == end) {
+                trailingSlash = true;
+            } else {
+                segments.add(path.substring(start, end));
+                trailingSlash = false;
+            }
+            start = end + 1;
+        }
+        StringBuilder normalized = new StringBuilder(path.length());
+        for (String segment : segments) {
+            normalized.append('/').append(segment);
+        }
+        if (trailingSlash || segments.isEmpty()) {
+            normalized.append('/');
+        }
+        return normalized.toString();
+    }
+
+    private static boolean needsNormalizing(String path) {
+        int start = 1;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if ((start == end && end < path.length()) || dotSegment(path, start, end) > 0) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * @return 1 for a {@code .} segment, 2 for a {@code ..} segment, or 0 for any other
+     */
+    private static int dotSegment(String path, int start, int end) {
+        int dots = 0;
+        int i = start;
+        while (i < end) {
+            if (path.charAt(i) == '.') {
+                i++;
+            } else if (end - i >= 3 && path.regionMatches(true, i, "%2e", 0, 3)) {
+                i += 3;
+            } else {
+                return 0;
+            }
+            if (++dots > 2) {
+                return 0;
+            }
+        }
+        return dots;
+    }
+
+    @Nullable
+    private static String requestPath(ZuulMessage msg) {
+        HttpRequestInfo request = null;
+        if (msg instanceof HttpRequestMessage requestMessage) {
+            request = requestMessage.getInboundRequest() != null ? requestMessage.getInboundRequest() : requestMessage;
+        } else if (msg instanceof HttpResponseMessage responseMessage) {
+            request = responseMessage.getInboundRequest();
+        }
+        return request != null ? request.getPath() : null;
+    }
+
+    /**
+     * A compiled filter chain.
+     */
+    static final class Chain<T extends ZuulMessage> {
+        final ZuulFilter<T, T>[] filters;
+
+        /**
+         * The indexes, in order, of the filters that process body chunks (see
+         * {@link ZuulFilter#processesContentChunks()}). Most filters don't, so this is often empty.
+         */
+        final int[] chunkFilterIndexes;
+
+        Chain(ZuulFilter<T, T>[] filters) {
+            this.filters = filters;
+            int[] indexes = new int[filters.length];
+            int count = 0;
+            for (int i = 0; i < filters.length; i++) {
+                if (filters[i].processesContentChunks()) {
+                    indexes[count++] = i;
+                }
+            }
+            this.chunkFilterIndexes = Arrays.copyOf(indexes, count);
+        }
+    }
+
+    private static final class CachedChain<T extends ZuulMessage> {
+        final long routeClass;
+        final Chain<T> chain;
+
+        CachedChain(long routeClass, Chain<T> chain) {
+            this.routeClass = routeClass;
+            this.chain = chain;
+        }
+    }
+}
@@ -34,6 +34,7 @@ import com.netflix.zuul.netty.server.ClientRequestReceiver;
 import com.netflix.zuul.stats.status.StatusCategory;
 import com.netflix.zuul.stats.status.StatusCategoryUtils;
 import com.netflix.zuul.stats.status.ZuulStatusCategory;
+import com.netflix.zuul.util.ContentEncoder;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.unix.Errors;
@@ -135,9 +136,25 @@ public class ZuulFilterChainHandler extends ChannelInboundHandlerAdapter {
         if (endpoint instanceof EndpointLifecycle lifecycleEndpoint) {
             lifecycleEndpoint.finish(error);
         }
+        if (zuulRequest != null) {
+            closeContentEncoders(zuulRequest.getContext());
+        }
         zuulRequest = null;
     }
 
+    /**
+     * Frees the body encoders of the compression filters, which would otherwise hold on to native memory if the
+     * response ended without its last chunk, e.g. because the client went away.
+     */
+    private static void closeContentEncoders(SessionContext zuulCtx) {
+        if (zuulCtx.get(CommonContextKeys.GZIPPER) instanceof ContentEncoder gzipper) {
+            gzipper.close();
+        }
+        if (zuulCtx.get(CommonContextKeys.CONTENT_ENCODER) instanceof ContentEncoder encoder) {
+            encoder.close();
+        }
+    }
+
     private void finishResponseFilters(ChannelHandlerContext ctx) {
         // check if there are any response filters awaiting a buffered body
         if (zuulRequest != null && responseFilterChain.isFilterAwaitingBody(zuulRequest.getContext())) {
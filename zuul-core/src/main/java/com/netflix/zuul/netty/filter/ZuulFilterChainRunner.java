@@ -19,28 +19,50 @@ package com.netflix.zuul.netty.filter;
 import com.netflix.netty.common.ByteBufUtil;
 import com.netflix.spectator.api.Registry;
 import com.netflix.zuul.FilterUsageNotifier;
+import com.netflix.zuul.context.SessionContext;
+import com.netflix.zuul.filters.FilterType;
 import com.netflix.zuul.filters.ZuulFilter;
 import com.netflix.zuul.message.ZuulMessage;
 import com.netflix.zuul.message.http.HttpRequestMessage;
 import com.netflix.zuul.message.http.HttpResponseMessage;
+import com.netflix.zuul.netty.filter.RouteFilterChains.Chain;
 import com.netflix.zuul.passport.CurrentPassport;
 import com.netflix.zuul.passport.PassportState;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.util.ReferenceCountUtil;
 import io.perfmark.PerfMark;
 import io.perfmark.TaskCloseable;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * This class is supposed to be thread safe
+ *
+ * <p>Each message runs through the chain for its route, i.e. without the filters scoped to other paths (see
+ * {@link com.netflix.zuul.Filter#pathPrefixes()}). The chain is picked when the message enters the runner, and kept in
+ * its context for the body chunks and for resuming after async filters. Body chunks only visit the chain's filters
+ * that process chunks, and go straight to the next stage if there are none.
+ *
  * Created by saroskar on 5/17/17.
  */
 @ThreadSafe
 public class ZuulFilterChainRunner<T extends ZuulMessage> extends BaseZuulFilterRunner<T, T> {
 
-    private final ZuulFilter<T, T>[] filters;
+    private static final Map<FilterType, SessionContext.Key<Chain<?>>> ROUTE_CHAIN_KEYS;
+
+    static {
+        Map<FilterType, SessionContext.Key<Chain<?>>> routeChainKeys = new EnumMap<>(FilterType.class);
+        for (FilterType type : FilterType.values()) {
+            routeChainKeys.put(type, SessionContext.newKey(type + "_RouteFilterChain"));
+        }
+        ROUTE_CHAIN_KEYS = Map.copyOf(routeChainKeys);
+    }
+
+    private final RouteFilterChains<T> routeChains;
+    private final SessionContext.Key<Chain<?>> routeChainKey;
 
     public ZuulFilterChainRunner(
             ZuulFilter<T, T>[] zuulFilters,
@@ -48,8 +70,21 @@ public class ZuulFilterChainRunner<T extends ZuulMessage> extends BaseZuulFilter
             FilterRunner<T, ?> nextStage,
             FilterConstraints filterConstraints,
             Registry registry) {
-        super(zuulFilters[0].filterType(), usageNotifier, nextStage, filterConstraints, registry);
-        this.filters = zuulFilters;
+        this(new RouteFilterChains<>(zuulFilters), usageNotifier, nextStage, filterConstraints, registry);
+    }
+
+    /**
+     * @param routeChains the compiled filters, which can be shared with the runners of other channels
+     */
+    public ZuulFilterChainRunner(
+            RouteFilterChains<T> routeChains,
+            FilterUsageNotifier usageNotifier,
+            FilterRunner<T, ?> nextStage,
+            FilterConstraints filterConstraints,
+            Registry registry) {
+        super(routeChains.filterType(), usageNotifier, nextStage, filterConstraints, registry);
+        this.routeChains = routeChains;
+        this.routeChainKey = ROUTE_CHAIN_KEYS.get(routeChains.filterType());
     }
 
     public ZuulFilterChainRunner(
@@ -64,7 +99,12 @@ public class ZuulFilterChainRunner<T extends ZuulMessage> extends BaseZuulFilter
     public void filter(T inMesg) {
         try (TaskCloseable ignored = PerfMark.traceTask(this, s -> s.getClass().getSimpleName() + ".filter")) {
             addPerfMarkTags(inMesg);
-            runFilters(inMesg, initRunningFilterIndex(inMesg));
+            Chain<T> chain = routeChains.forMessage(inMesg);
+            // Messages that get the full chain don't need to carry it, unless replacing one from an earlier run.
+            if (chain != routeChains.fullChain() || inMesg.getContext().containsKey(routeChainKey)) {
+                inMesg.getContext().put(routeChainKey, chain);
+            }
+            runFilters(inMesg, chain, initRunningFilterIndex(inMesg));
         }
     }
 
@@ -76,14 +116,22 @@ public class ZuulFilterChainRunner<T extends ZuulMessage> extends BaseZuulFilter
             addPerfMarkTags(inMesg);
             Objects.requireNonNull(inMesg, "input message");
 
+            Chain<T> chain = getRouteChain(inMesg);
             AtomicInteger runningFilterIdx = getRunningFilterIndex(inMesg);
             int limit = runningFilterIdx.get();
-            for (int i = 0; i < limit; i++) {
-                ZuulFilter<T, T> filter = filters[i];
-                if (!filter.processesContentChunks()) {
-                    continue;
-                }
+            if (chain.chunkFilterIndexes.length == 0 && limit >= chain.filters.length) {
+                // No filter touches chunks, and the chain has run to end
+                ByteBufUtil.touch(chunk, "Filter runner chain complete, message: ", inMesg);
+                invokeNextStage(inMesg, chunk);
+                return;
+            }
 
+            // Only filters that have already run on the message see its chunks
+            for (int i : chain.chunkFilterIndexes) {
+                if (i >= limit) {
+                    break;
+                }
+                ZuulFilter<T, T> filter = chain.filters[i];
                 filterName = filter.filterName();
                 if (!filter.isDisabled() && !shouldSkipFilter(inMesg, filter)) {
                     ByteBufUtil.touch(chunk, "Filter runner processing chunk, filter: ", filterName);
@@ -101,7 +149,7 @@ public class ZuulFilterChainRunner<T extends ZuulMessage> extends BaseZuulFilter
                 }
             }
 
-            if (limit >= filters.length) {
+            if (limit >= chain.filters.length) {
                 // Filter chain has run to end, pass down the channel pipeline
                 ByteBufUtil.touch(chunk, "Filter runner chain complete, message: ", inMesg);
                 invokeNextStage(inMesg, chunk);
@@ -132,7 +180,7 @@ public class ZuulFilterChainRunner<T extends ZuulMessage> extends BaseZuulFilter
                 if (isAwaitingBody && inMesg.hasCompleteBody()) {
                     // whole body has arrived, resume filter chain
                     ByteBufUtil.touch(chunk, "Filter body complete, resume chain, ZuulMessage: ", inMesg);
-                    runFilters(inMesg, runningFilterIdx);
+                    runFilters(inMesg, chain, runningFilterIdx);
                 }
             }
         } catch (Exception ex) {
@@ -146,17 +194,24 @@ public class ZuulFilterChainRunner<T extends ZuulMessage> extends BaseZuulFilter
         try (TaskCloseable ignored = PerfMark.traceTask(this, s -> s.getClass().getSimpleName() + ".resume")) {
             AtomicInteger runningFilterIdx = getRunningFilterIndex(inMesg);
             runningFilterIdx.incrementAndGet();
-            runFilters(inMesg, runningFilterIdx);
+            runFilters(inMesg, getRouteChain(inMesg), runningFilterIdx);
         }
     }
 
-    private final void runFilters(T mesg, AtomicInteger runningFilterIdx) {
+    @SuppressWarnings("unchecked")
+    private Chain<T> getRouteChain(T inMesg) {
+        Chain<?> chain = inMesg.getContext().get(routeChainKey);
+        return chain != null ? (Chain<T>) chain : routeChains.fullChain();
+    }
+
+    private final void runFilters(T mesg, Chain<T> chain, AtomicInteger runningFilterIdx) {
         T inMesg = mesg;
         String filterName = "-";
         try {
             Objects.requireNonNull(mesg, "Input message");
             int i = runningFilterIdx.get();
 
+            ZuulFilter<T, T>[] filters = chain.filters;
             while (i < filters.length) {
                 ZuulFilter<T, T> filter = filters[i];
                 filterName = filter.filterName();
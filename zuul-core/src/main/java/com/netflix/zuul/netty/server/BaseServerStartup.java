@@ -38,6 +38,7 @@ import com.netflix.zuul.FilterUsageNotifier;
 import com.netflix.zuul.RequestCompleteHandler;
 import com.netflix.zuul.context.SessionContextDecorator;
 import com.netflix.zuul.netty.ratelimiting.NullChannelHandlerProvider;
+import com.netflix.zuul.origins.NettyOrigin;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
@@ -47,6 +48,8 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 import jakarta.inject.Inject;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
@@ -123,6 +126,19 @@ public abstract class BaseServerStartup {
                 clientConnectionsShutdown,
                 eventLoopGroupMetrics,
                 eventLoopConfig);
+
+        for (NettyOrigin origin : chooseOriginsToWarm()) {
+            server.addWarmupTask(origin::warmUp);
+        }
+    }
+
+    /**
+     * Origins whose connection pools should be warmed up before the server goes in-service. See
+     * {@link com.netflix.zuul.netty.connectionpool.ConnectionPoolConfig#getMinIdleConnectionsPerEventLoop()}.
+     */
+    @ForOverride
+    protected Collection<? extends NettyOrigin> chooseOriginsToWarm() {
+        return List.of();
     }
 
     // TODO(carl-mastrangelo): remove this after 2.1.7
@@ -43,6 +43,7 @@ import com.netflix.zuul.FilterLoader;
 import com.netflix.zuul.FilterUsageNotifier;
 import com.netflix.zuul.RequestCompleteHandler;
 import com.netflix.zuul.context.SessionContextDecorator;
+import com.netflix.zuul.filters.FilterType;
 import com.netflix.zuul.filters.ZuulFilter;
 import com.netflix.zuul.filters.passport.InboundPassportStampingFilter;
 import com.netflix.zuul.filters.passport.OutboundPassportStampingFilter;
@@ -51,6 +52,7 @@ import com.netflix.zuul.message.http.HttpRequestMessage;
 import com.netflix.zuul.message.http.HttpResponseMessage;
 import com.netflix.zuul.netty.filter.FilterConstraints;
 import com.netflix.zuul.netty.filter.FilterRunner;
+import com.netflix.zuul.netty.filter.RouteFilterChains;
 import com.netflix.zuul.netty.filter.ZuulEndPointRunner;
 import com.netflix.zuul.netty.filter.ZuulFilterChainHandler;
 import com.netflix.zuul.netty.filter.ZuulFilterChainRunner;
@@ -71,7 +73,9 @@ import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.util.AttributeKey;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import lombok.NonNull;
 
@@ -152,6 +156,18 @@ public abstract class BaseZuulChannelInitializer extends ChannelInitializer<Chan
     protected final SourceAddressChannelHandler sourceAddressChannelHandler;
     protected final FilterConstraints filterConstraints;
 
+    // The same instances for every channel, so that unchanged filters compile to the same chains, see
+    // getRouteFilterChains().
+    private final InboundPassportStampingFilter inboundFiltersStart =
+            new InboundPassportStampingFilter(PassportState.FILTERS_INBOUND_START);
+    private final InboundPassportStampingFilter inboundFiltersEnd =
+            new InboundPassportStampingFilter(PassportState.FILTERS_INBOUND_END);
+    private final OutboundPassportStampingFilter outboundFiltersStart =
+            new OutboundPassportStampingFilter(PassportState.FILTERS_OUTBOUND_START);
+    private final OutboundPassportStampingFilter outboundFiltersEnd =
+            new OutboundPassportStampingFilter(PassportState.FILTERS_OUTBOUND_END);
+    private final Map<FilterType, RouteFilterChains<?>> routeFilterChains = new ConcurrentHashMap<>();
+
     /** A collection of all the active channels that we can use to things like graceful shutdown */
     protected final ChannelGroup channels;
 
@@ -339,9 +355,8 @@ public abstract class BaseZuulChannelInitializer extends ChannelInitializer<Chan
     }
 
     protected void addZuulFilterChainHandler(ChannelPipeline pipeline) {
-        ZuulFilter<HttpResponseMessage, HttpResponseMessage>[] responseFilters = getFilters(
-                new OutboundPassportStampingFilter(PassportState.FILTERS_OUTBOUND_START),
-                new OutboundPassportStampingFilter(PassportState.FILTERS_OUTBOUND_END));
+        ZuulFilter<HttpResponseMessage, HttpResponseMessage>[] responseFilters =
+                getFilters(outboundFiltersStart, outboundFiltersEnd);
 
         // response filter chain
         ZuulFilterChainRunner<HttpResponseMessage> responseFilterChain =
@@ -351,9 +366,8 @@ public abstract class BaseZuulChannelInitializer extends ChannelInitializer<Chan
         FilterRunner<HttpRequestMessage, HttpResponseMessage> endPoint =
                 getEndpointRunner(responseFilterChain, filterUsageNotifier, filterLoader);
 
-        ZuulFilter<HttpRequestMessage, HttpRequestMessage>[] requestFilters = getFilters(
-                new InboundPassportStampingFilter(PassportState.FILTERS_INBOUND_START),
-                new InboundPassportStampingFilter(PassportState.FILTERS_INBOUND_END));
+        ZuulFilter<HttpRequestMessage, HttpRequestMessage>[] requestFilters =
+                getFilters(inboundFiltersStart, inboundFiltersEnd);
 
         // request filter chain | end point | response filter chain
         ZuulFilterChainRunner<HttpRequestMessage> requestFilterChain =
@@ -372,12 +386,31 @@ public abstract class BaseZuulChannelInitializer extends ChannelInitializer<Chan
 
     protected <T extends ZuulMessage> ZuulFilterChainRunner<T> getFilterChainRunner(
             ZuulFilter<T, T>[] filters, FilterUsageNotifier filterUsageNotifier) {
-        return new ZuulFilterChainRunner<>(filters, filterUsageNotifier, filterConstraints, registry);
+        return new ZuulFilterChainRunner<>(
+                getRouteFilterChains(filters), filterUsageNotifier, null, filterConstraints, registry);
     }
 
     protected <T extends ZuulMessage, R extends ZuulMessage> ZuulFilterChainRunner<T> getFilterChainRunner(
             ZuulFilter<T, T>[] filters, FilterUsageNotifier filterUsageNotifier, FilterRunner<T, R> filterRunner) {
-        return new ZuulFilterChainRunner<>(filters, filterUsageNotifier, filterRunner, filterConstraints, registry);
+        return new ZuulFilterChainRunner<>(
+                getRouteFilterChains(filters), filterUsageNotifier, filterRunner, filterConstraints, registry);
+    }
+
+    /**
+     * Returns the compiled chains for the filters, shared by every channel for as long as the filters stay the same.
+     * They are compiled again once the filter loader's filters of that type change.
+     */
+    @SuppressWarnings("unchecked") // The chains for a filter type are only ever compiled from filters of that type.
+    protected <T extends ZuulMessage> RouteFilterChains<T> getRouteFilterChains(ZuulFilter<T, T>[] filters) {
+        FilterType filterType = filters[0].filterType();
+        RouteFilterChains<T> current = (RouteFilterChains<T>) routeFilterChains.get(filterType);
+        if (current != null && current.isFor(filters)) {
+            return current;
+        }
+        RouteFilterChains<T> compiled = new RouteFilterChains<>(filters);
+        // Channels racing to compile a new set of filters may each compile it, but end up sharing one of them.
+        routeFilterChains.put(filterType, compiled);
+        return compiled;
     }
 
     @SuppressWarnings("unchecked") // For the conversion from getFiltersByType.  It's not safe, sorry.
@@ -19,6 +19,7 @@ package com.netflix.zuul.netty.server;
 import static com.netflix.netty.common.HttpLifecycleChannelHandler.CompleteEvent;
 import static com.netflix.netty.common.HttpLifecycleChannelHandler.CompleteReason;
 
+import com.netflix.config.CachedDynamicIntProperty;
 import com.netflix.netty.common.SourceAddressChannelHandler;
 import com.netflix.netty.common.ssl.SslHandshakeInfo;
 import com.netflix.netty.common.throttle.RejectionUtils;
@@ -69,10 +70,8 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import javax.net.ssl.SSLException;
 import lombok.NonNull;
@@ -93,6 +92,10 @@ public class ClientRequestReceiver extends ChannelDuplexHandler {
     private static final String SCHEME_HTTP = "http";
     private static final String SCHEME_HTTPS = "https";
 
+    // Requests with at least this many headers get hash indexed ones. Off by default.
+    private static final CachedDynamicIntProperty HASH_INDEXED_HEADERS_MIN_COUNT =
+            new CachedDynamicIntProperty("zuul.request.headers.hashIndexed.minCount", Integer.MAX_VALUE);
+
     private final SessionContextDecorator decorator;
 
     private HttpRequestMessage zuulRequest;
@@ -444,11 +447,10 @@ public class ClientRequestReceiver extends ChannelDuplexHandler {
     }
 
     private static Headers copyHeaders(HttpRequest req) {
-        Headers headers = new Headers(req.headers().size());
-        for (Iterator<Entry<String, String>> it = req.headers().iteratorAsString(); it.hasNext(); ) {
-            Entry<String, String> header = it.next();
-            headers.add(header.getKey(), header.getValue());
-        }
+        int size = req.headers().size();
+        Headers headers =
+                size >= HASH_INDEXED_HEADERS_MIN_COUNT.get() ? Headers.hashIndexed(size) : new Headers(size);
+        headers.addAll(req.headers());
         return headers;
     }
 
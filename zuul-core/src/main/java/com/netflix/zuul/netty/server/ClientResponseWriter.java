@@ -185,7 +185,7 @@ public class ClientResponseWriter extends ChannelInboundHandlerAdapter {
 
         // Now set all of the response headers - note this is a multi-set in keeping with HTTP semantics
         HttpHeaders nativeHeaders = nativeResponse.headers();
-        zuulResp.getHeaders().forEach((name, value) -> nativeHeaders.add(name, value));
+        zuulResp.getHeaders().copyTo(nativeHeaders);
 
         // Netty does not automatically add Content-Length or Transfer-Encoding: chunked. So we add here if missing.
         if (!HttpUtil.isContentLengthSet(nativeResponse) && !HttpUtil.isTransferEncodingChunked(nativeResponse)) {
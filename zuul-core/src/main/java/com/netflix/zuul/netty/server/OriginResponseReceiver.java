@@ -72,6 +72,14 @@ public class OriginResponseReceiver extends ChannelDuplexHandler {
         edgeProxy = null;
     }
 
+    /**
+     * Links a receiver back to a request after {@link #unlinkFromClientRequest()}, e.g. once a hedged attempt's
+     * response wins.
+     */
+    public void linkToClientRequest(ProxyEndpoint edgeProxy) {
+        this.edgeProxy = edgeProxy;
+    }
+
     @Override
     public final void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         try (TaskCloseable a = PerfMark.traceTask("ORR.channelRead")) {
@@ -181,7 +189,7 @@ public class OriginResponseReceiver extends ChannelDuplexHandler {
         DefaultHttpRequest nettyReq =
                 new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.valueOf(method), uri, false);
         // Copy headers across.
-        zuulRequest.getHeaders().forEach((name, value) -> nettyReq.headers().add(name, value));
+        zuulRequest.getHeaders().copyTo(nettyReq.headers());
 
         return nettyReq;
     }
@@ -194,14 +202,20 @@ public class OriginResponseReceiver extends ChannelDuplexHandler {
     protected void customRequestProcessing(HttpRequestMessage headers) {}
 
     private static String pathAndQueryString(HttpRequestMessage request) {
-        // parsing the params cleans up any empty/null params using the logic of the HttpQueryParams class
-        HttpQueryParams cleanParams =
-                HttpQueryParams.parse(request.getQueryParams().toEncodedString());
-        String cleanQueryStr = cleanParams.toEncodedString();
+        HttpQueryParams params = request.getQueryParams();
+        String cleanQueryStr;
+        if (params.isUnmodifiedSinceParse()) {
+            // Params straight from a query string are already clean, and an untouched query is usually passed on
+            // as is without being decoded at all.
+            cleanQueryStr = params.toEncodedString();
+        } else {
+            // parsing the params cleans up any empty/null params using the logic of the HttpQueryParams class
+            cleanQueryStr = HttpQueryParams.parse(params.toEncodedString()).toEncodedString();
+        }
         if (cleanQueryStr == null || cleanQueryStr.isEmpty()) {
             return request.getPath();
         } else {
-            return request.getPath() + "?" + cleanParams.toEncodedString();
+            return request.getPath() + "?" + cleanQueryStr;
         }
     }
 
@@ -19,6 +19,7 @@ package com.netflix.zuul.netty.server;
 import com.google.common.annotations.VisibleForTesting;
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.config.DynamicBooleanProperty;
+import com.netflix.config.DynamicIntProperty;
 import com.netflix.netty.common.CategorizedThreadFactory;
 import com.netflix.netty.common.metrics.EventLoopGroupMetrics;
 import com.netflix.netty.common.status.ServerStatusManager;
@@ -70,12 +71,16 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import lombok.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -113,6 +118,9 @@ public class Server {
     private static final DynamicBooleanProperty MANUAL_DISCOVERY_STATUS =
             new DynamicBooleanProperty("zuul.server.netty.manual.discovery.status", true);
 
+    private static final DynamicIntProperty WARMUP_TIMEOUT_MS =
+            new DynamicIntProperty("zuul.server.warmup.timeout.ms", 30_000);
+
     @Nullable
     private final Thread jvmShutdownHook;
 
@@ -128,6 +136,8 @@ public class Server {
 
     private final EventLoopConfig eventLoopConfig;
     private final Map<Integer, Counter> acceptCountersByPort = new ConcurrentHashMap<>();
+    private final List<Function<EventLoopGroup, ? extends CompletableFuture<?>>> warmupTasks =
+            new CopyOnWriteArrayList<>();
 
     /**
      * This is a hack to expose the channel type to the origin channel.  It is NOT API stable and should not be
@@ -226,6 +236,7 @@ public class Server {
 
         serverGroup = new ServerGroup("Salamander", eventLoopConfig.acceptorCount(), eventLoopConfig.eventLoopCount());
         serverGroup.initializeTransport();
+        awaitWarmup(serverGroup.clientToProxyWorkerPool);
         List<ChannelFuture> allBindFutures = new ArrayList<>(addressesToInitializers.size());
 
         // Setup each of the channel initializers on requested ports.
@@ -254,6 +265,36 @@ public class Server {
         }
     }
 
+    /**
+     * Adds a task to run once the worker event loops exist, but before any address is bound and the server is marked
+     * UP, e.g. to warm origin connection pools. Start-up waits up to {@code zuul.server.warmup.timeout.ms} for all
+     * tasks to complete. Must be called before {@link #start()}.
+     */
+    public void addWarmupTask(Function<EventLoopGroup, ? extends CompletableFuture<?>> task) {
+        warmupTasks.add(task);
+    }
+
+    private void awaitWarmup(EventLoopGroup clientToProxyWorkerPool) {
+        if (warmupTasks.isEmpty()) {
+            return;
+        }
+        LOG.info("Waiting for {} warm-up tasks", warmupTasks.size());
+        CompletableFuture<?>[] warmups = warmupTasks.stream()
+                .map(task -> task.apply(clientToProxyWorkerPool))
+                .toArray(CompletableFuture<?>[]::new);
+        try {
+            CompletableFuture.allOf(warmups).get(WARMUP_TIMEOUT_MS.get(), TimeUnit.MILLISECONDS);
+            LOG.info("Warm-up complete");
+        } catch (TimeoutException e) {
+            LOG.warn("Warm-up did not complete within {}ms, continuing start-up", WARMUP_TIMEOUT_MS.get());
+        } catch (ExecutionException e) {
+            LOG.warn("Warm-up failed, continuing start-up", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while waiting for warm-up, continuing start-up");
+        }
+    }
+
     public final void awaitTermination() throws InterruptedException {
         for (Channel chan : addressesToChannels.values()) {
             chan.closeFuture().sync();
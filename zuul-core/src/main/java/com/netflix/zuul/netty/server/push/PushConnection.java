@@ -25,6 +25,7 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketCloseStatus;
+import io.netty.util.concurrent.EventExecutor;
 
 /**
  * Author: Susheel Aroskar
@@ -84,6 +85,13 @@ public class PushConnection {
         return false;
     }
 
+    /**
+     * The event loop the connection's channel is handled on.
+     */
+    public EventExecutor getExecutor() {
+        return ctx.executor();
+    }
+
     public ChannelFuture sendPushMessage(ByteBuf mesg) {
         return pushProtocol.sendPushMessage(ctx, mesg);
     }
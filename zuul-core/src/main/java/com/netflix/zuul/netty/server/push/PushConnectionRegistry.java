@@ -15,27 +15,44 @@
  */
 package com.netflix.zuul.netty.server.push;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ImmediateEventExecutor;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Maintains client identity to web socket or SSE channel mapping.
  *
+ * <p>Besides the lookup by client identity, each connection is kept in a shard for the event loop its channel is
+ * handled on, guarded by a lock of its own. That lets {@link #broadcast} and {@link #multicast} hand each event loop
+ * one task that writes the message to all of its own connections, rather than making a cross-thread write for every
+ * connection.
+ *
  * Created by saroskar on 9/26/16.
  */
 @Singleton
 public class PushConnectionRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(PushConnectionRegistry.class);
 
     private final ConcurrentMap<String, PushConnection> clientPushConnectionMap;
+    private final ConcurrentMap<EventExecutor, Shard> shards = new ConcurrentHashMap<>();
     private final SecureRandom secureTokenGenerator;
 
     @Inject
@@ -65,15 +82,128 @@ public class PushConnectionRegistry {
 
     public void put(String clientId, PushConnection pushConnection) {
         pushConnection.setSecureToken(mintNewSecureToken());
-        clientPushConnectionMap.put(clientId, pushConnection);
+        PushConnection replaced = clientPushConnectionMap.put(clientId, pushConnection);
+        if (replaced != null && replaced != pushConnection) {
+            shard(replaced).remove(replaced);
+        }
+        Shard shard = shard(pushConnection);
+        shard.add(pushConnection);
+        if (clientPushConnectionMap.get(clientId) != pushConnection) {
+            // Removed or replaced in between, by a caller that may have gone to the shard before this put did.
+            shard.remove(pushConnection);
+        }
     }
 
     public PushConnection remove(String clientId) {
         PushConnection pc = clientPushConnectionMap.remove(clientId);
+        if (pc != null) {
+            shard(pc).remove(pc);
+        }
         return pc;
     }
 
     public int size() {
         return clientPushConnectionMap.size();
     }
+
+    /**
+     * Sends the message to every connection, with one task per event loop. The message is released once it has been
+     * handed to every event loop.
+     */
+    public void broadcast(ByteBuf message) {
+        try {
+            for (Shard shard : shards.values()) {
+                shard.send(shard.connections(), message);
+            }
+        } finally {
+            message.release();
+        }
+    }
+
+    /**
+     * Sends the message to those of the clients that are connected, with one task per event loop. The message is
+     * released once it has been handed to every event loop.
+     */
+    public void multicast(Collection<String> clientIds, ByteBuf message) {
+        try {
+            Map<Shard, List<PushConnection>> byShard = new HashMap<>();
+            for (String clientId : clientIds) {
+                PushConnection pc = clientPushConnectionMap.get(clientId);
+                if (pc != null) {
+                    byShard.computeIfAbsent(shard(pc), shard -> new ArrayList<>()).add(pc);
+                }
+            }
+            for (Map.Entry<Shard, List<PushConnection>> entry : byShard.entrySet()) {
+                Shard shard = entry.getKey();
+                List<PushConnection> connections = entry.getValue();
+                shard.send(connections.toArray(new PushConnection[0]), message);
+            }
+        } finally {
+            message.release();
+        }
+    }
+
+    private Shard shard(PushConnection pushConnection) {
+        EventExecutor executor = pushConnection.getExecutor();
+        if (executor == null) {
+            // Not bound to an event loop, so writes go straight out from the caller.
+            executor = ImmediateEventExecutor.INSTANCE;
+        }
+        return shards.computeIfAbsent(executor, Shard::new);
+    }
+
+    private static final class Shard {
+        private final EventExecutor executor;
+        // Keyed by connection rather than client id, so that racing puts for one client can't displace each other.
+        private final Set<PushConnection> connections = new HashSet<>();
+
+        Shard(EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        synchronized void add(PushConnection pushConnection) {
+            connections.add(pushConnection);
+        }
+
+        synchronized void remove(PushConnection pushConnection) {
+            connections.remove(pushConnection);
+        }
+
+        /**
+         * Copied, as writing may close a connection, which removes it from the shard.
+         */
+        synchronized PushConnection[] connections() {
+            return connections.toArray(new PushConnection[0]);
+        }
+
+        void send(PushConnection[] targets, ByteBuf message) {
+            if (targets.length == 0) {
+                return;
+            }
+            ByteBuf local = message.retainedDuplicate();
+            try {
+                executor.execute(() -> {
+                    try {
+                        for (PushConnection target : targets) {
+                            // Each write gets its own indexes, as the protocol may read the message out.
+                            ByteBuf duplicate = local.retainedDuplicate();
+                            try {
+                                target.sendPushMessage(duplicate);
+                            } catch (RuntimeException e) {
+                                // Only this connection misses out, the others still get the message.
+                                ReferenceCountUtil.safeRelease(duplicate);
+                                logger.warn("Failed to send push message to {}", target, e);
+                            }
+                        }
+                    } finally {
+                        local.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // e.g. the event loop is shutting down, along with its connections.
+                local.release();
+                logger.warn("Failed to hand push message to {} for {} connections", executor, targets.length, e);
+            }
+        }
+    }
 }
@@ -19,6 +19,8 @@ package com.netflix.zuul.netty.ssl;
 import com.netflix.config.DynamicBooleanProperty;
 import com.netflix.netty.common.ssl.ServerSslConfig;
 import com.netflix.spectator.api.Registry;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import org.slf4j.Logger;
@@ -52,17 +54,39 @@ public final class ClientSslContextFactory extends BaseSslContextFactory {
 
     public SslContext getClientSslContext() {
         try {
-            return SslContextBuilder.forClient()
-                    .sslProvider(chooseSslProvider())
-                    .ciphers(getCiphers(), getCiphersFilter())
-                    .protocols(getProtocols())
-                    .build();
+            return newClientSslContextBuilder().build();
         } catch (Exception e) {
             log.error("Error loading SslContext client request.", e);
             throw new RuntimeException("Error configuring SslContext for client request!", e);
         }
     }
 
+    /**
+     * Like {@link #getClientSslContext()}, but offering only {@code h2} through ALPN. Callers must check the
+     * negotiated protocol, as not every provider can fail the handshake when the server doesn't select it.
+     */
+    public SslContext getHttp2ClientSslContext() {
+        try {
+            return newClientSslContextBuilder()
+                    .applicationProtocolConfig(new ApplicationProtocolConfig(
+                            ApplicationProtocolConfig.Protocol.ALPN,
+                            ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                            ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                            ApplicationProtocolNames.HTTP_2))
+                    .build();
+        } catch (Exception e) {
+            log.error("Error loading HTTP/2 SslContext client request.", e);
+            throw new RuntimeException("Error configuring HTTP/2 SslContext for client request!", e);
+        }
+    }
+
+    private SslContextBuilder newClientSslContextBuilder() {
+        return SslContextBuilder.forClient()
+                .sslProvider(chooseSslProvider())
+                .ciphers(getCiphers(), getCiphersFilter())
+                .protocols(getProtocols());
+    }
+
     static String[] maybeAddTls13(boolean enableTls13, String... defaultProtocols) {
         if (enableTls13) {
             String[] protocols = new String[defaultProtocols.length + 1];
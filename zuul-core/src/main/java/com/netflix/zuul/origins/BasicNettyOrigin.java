@@ -16,13 +16,16 @@
 
 package com.netflix.zuul.origins;
 
+import com.netflix.client.ClientException;
 import com.netflix.client.config.CommonClientConfigKey;
 import com.netflix.client.config.DefaultClientConfigImpl;
 import com.netflix.client.config.IClientConfig;
 import com.netflix.config.CachedDynamicBooleanProperty;
 import com.netflix.config.CachedDynamicIntProperty;
+import com.netflix.config.DynamicStringProperty;
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
 import com.netflix.zuul.context.CommonContextKeys;
 import com.netflix.zuul.context.SessionContext;
 import com.netflix.zuul.discovery.DiscoveryResult;
@@ -35,15 +38,24 @@ import com.netflix.zuul.netty.connectionpool.ClientChannelManager;
 import com.netflix.zuul.netty.connectionpool.DefaultClientChannelManager;
 import com.netflix.zuul.netty.connectionpool.PooledConnection;
 import com.netflix.zuul.niws.RequestAttempt;
+import com.netflix.zuul.niws.RequestAttempts;
+import com.netflix.zuul.origins.limit.AimdConcurrencyLimit;
+import com.netflix.zuul.origins.limit.ConcurrencyLimit;
+import com.netflix.zuul.origins.limit.ConcurrencyLimiter;
+import com.netflix.zuul.origins.limit.FixedConcurrencyLimit;
+import com.netflix.zuul.origins.limit.GradientConcurrencyLimit;
 import com.netflix.zuul.passport.CurrentPassport;
 import com.netflix.zuul.stats.status.StatusCategory;
 import com.netflix.zuul.stats.status.StatusCategoryUtils;
 import com.netflix.zuul.stats.status.ZuulStatusCategory;
 import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.Promise;
 import java.net.InetAddress;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -62,10 +74,13 @@ public class BasicNettyOrigin implements NettyOrigin {
     private final ClientChannelManager clientChannelManager;
     private final NettyRequestAttemptFactory requestAttemptFactory;
 
-    private final AtomicInteger concurrentRequests;
+    private final ConcurrencyLimiter concurrencyLimiter;
     private final Counter rejectedRequests;
     private final CachedDynamicIntProperty concurrencyMax;
     private final CachedDynamicBooleanProperty concurrencyProtectionEnabled;
+    private final DynamicStringProperty concurrencyLimitAlgorithm;
+    private final CachedDynamicIntProperty concurrencyLimitMin;
+    private final CachedDynamicIntProperty concurrencyLimitMax;
 
     public BasicNettyOrigin(OriginName originName, Registry registry) {
         this.originName = Objects.requireNonNull(originName, "originName");
@@ -76,13 +91,53 @@ public class BasicNettyOrigin implements NettyOrigin {
         this.requestAttemptFactory = new NettyRequestAttemptFactory();
 
         String niwsClientName = getName().getNiwsClientName();
-        this.concurrentRequests =
+        AtomicInteger concurrentRequests =
                 SpectatorUtils.newGauge("zuul.origin.concurrent.requests", niwsClientName, new AtomicInteger(0));
         this.rejectedRequests = SpectatorUtils.newCounter("zuul.origin.rejected.requests", niwsClientName);
         this.concurrencyMax =
                 new CachedDynamicIntProperty("zuul.origin." + niwsClientName + ".concurrency.max.requests", 200);
         this.concurrencyProtectionEnabled = new CachedDynamicBooleanProperty(
                 "zuul.origin." + niwsClientName + ".concurrency.protect.enabled", true);
+        String limitPrefix = "zuul.origin." + niwsClientName + ".concurrency.limit.";
+        this.concurrencyLimitAlgorithm = new DynamicStringProperty(limitPrefix + "algorithm", "fixed");
+        this.concurrencyLimitMin = new CachedDynamicIntProperty(limitPrefix + "min", 10);
+        this.concurrencyLimitMax = new CachedDynamicIntProperty(limitPrefix + "max", 1000);
+        this.concurrencyLimiter =
+                new ConcurrencyLimiter(createConcurrencyLimit(niwsClientName, concurrencyMax), concurrentRequests);
+        // Changing the algorithm or its bounds starts a new limit, from concurrency.max.requests again.
+        Runnable rebuildLimit =
+                () -> concurrencyLimiter.setLimit(createConcurrencyLimit(niwsClientName, concurrencyMax));
+        concurrencyLimitAlgorithm.addCallback(rebuildLimit);
+        concurrencyLimitMin.addCallback(rebuildLimit);
+        concurrencyLimitMax.addCallback(rebuildLimit);
+        PolledMeter.using(registry)
+                .withName("zuul.origin.concurrency.limit")
+                .withTag("id", niwsClientName)
+                .monitorValue(concurrencyLimiter, ConcurrencyLimiter::getLimit);
+    }
+
+    /**
+     * Factory method to create the limit on concurrent requests to this origin, chosen by the
+     * {@code zuul.origin.<name>.concurrency.limit.algorithm} property: {@code fixed} (the default) applies
+     * {@code concurrency.max.requests} as is, while {@code aimd} and {@code gradient} adapt the limit to the origin's
+     * measured latency and errors, starting from {@code concurrency.max.requests} and staying between
+     * {@code concurrency.limit.min} and {@code concurrency.limit.max}. It is called again to replace the limit whenever
+     * one of those three properties changes.
+     * Override this method in subclasses to provide a custom limit.
+     *
+     * @param niwsClientName the origin's client name
+     * @param concurrencyMax the configured static max concurrent requests
+     * @return a ConcurrencyLimit instance
+     */
+    protected ConcurrencyLimit createConcurrencyLimit(String niwsClientName, CachedDynamicIntProperty concurrencyMax) {
+        String algorithm = concurrencyLimitAlgorithm.get();
+        int minLimit = concurrencyLimitMin.get();
+        int maxLimit = concurrencyLimitMax.get();
+        return switch (algorithm.toLowerCase(Locale.ROOT)) {
+            case "aimd" -> new AimdConcurrencyLimit(concurrencyMax.get(), minLimit, maxLimit, 0.9);
+            case "gradient" -> new GradientConcurrencyLimit(concurrencyMax.get(), minLimit, maxLimit, 1.5, 0.2);
+            default -> new FixedConcurrencyLimit(concurrencyMax::get);
+        };
     }
 
     protected IClientConfig setupClientConfig(OriginName originName) {
@@ -123,6 +178,11 @@ public class BasicNettyOrigin implements NettyOrigin {
         return clientChannelManager.isCold();
     }
 
+    @Override
+    public CompletableFuture<Void> warmUp(EventLoopGroup eventLoopGroup) {
+        return clientChannelManager.warmUp(eventLoopGroup);
+    }
+
     @Override
     public Promise<PooledConnection> connectToOrigin(
             HttpRequestMessage zuulReq,
@@ -204,17 +264,60 @@ public class BasicNettyOrigin implements NettyOrigin {
 
     @Override
     public void preRequestChecks(HttpRequestMessage zuulRequest) {
-        if (concurrencyProtectionEnabled.get() && concurrentRequests.get() > concurrencyMax.get()) {
+        if (!concurrencyProtectionEnabled.get()) {
+            concurrencyLimiter.acquire();
+        } else if (!concurrencyLimiter.tryAcquire()) {
             rejectedRequests.increment();
             throw new OriginConcurrencyExceededException(getName());
         }
-
-        concurrentRequests.incrementAndGet();
     }
 
     @Override
     public void recordProxyRequestEnd() {
-        concurrentRequests.decrementAndGet();
+        concurrencyLimiter.release();
+    }
+
+    @Override
+    public void onRequestExceptionWithServer(
+            HttpRequestMessage zuulReq, DiscoveryResult discoveryResult, int attemptNum, Throwable t) {
+        if (isOverloaded(t)) {
+            concurrencyLimiter.onSample(getAttemptDuration(zuulReq, attemptNum), true);
+        }
+    }
+
+    @Override
+    public void onRequestExecutionSuccess(
+            HttpRequestMessage zuulReq,
+            HttpResponseMessage zuulResp,
+            DiscoveryResult discoveryResult,
+            int attemptNum) {
+        concurrencyLimiter.onSample(getAttemptDuration(zuulReq, attemptNum), false);
+    }
+
+    /**
+     * The duration of the given attempt, which isn't necessarily the last one made, e.g. when a hedged attempt was
+     * still in flight as it completed.
+     */
+    private static long getAttemptDuration(HttpRequestMessage zuulReq, int attemptNum) {
+        RequestAttempts attempts = RequestAttempts.getFromSessionContext(zuulReq.getContext());
+        if (attempts != null) {
+            for (int i = attempts.size() - 1; i >= 0; i--) {
+                RequestAttempt attempt = attempts.get(i);
+                if (attempt.getAttempt() == attemptNum) {
+                    return attempt.getDuration();
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Timeouts and throttling mean the origin has more requests than it can handle, unlike e.g. connect errors.
+     */
+    private static boolean isOverloaded(Throwable t) {
+        return t instanceof ClientException ce
+                && (ce.getErrorType() == ClientException.ErrorType.READ_TIMEOUT_EXCEPTION
+                        || ce.getErrorType() == ClientException.ErrorType.SERVER_THROTTLED);
     }
 
     /* Not required for basic operation */
@@ -235,17 +338,6 @@ public class BasicNettyOrigin implements NettyOrigin {
     @Override
     public void onRequestStartWithServer(HttpRequestMessage zuulReq, DiscoveryResult discoveryResult, int attemptNum) {}
 
-    @Override
-    public void onRequestExceptionWithServer(
-            HttpRequestMessage zuulReq, DiscoveryResult discoveryResult, int attemptNum, Throwable t) {}
-
-    @Override
-    public void onRequestExecutionSuccess(
-            HttpRequestMessage zuulReq,
-            HttpResponseMessage zuulResp,
-            DiscoveryResult discoveryResult,
-            int attemptNum) {}
-
     @Override
     public void onRequestExecutionFailed(
             HttpRequestMessage zuulReq, DiscoveryResult discoveryResult, int attemptNum, Throwable t) {}
@@ -26,9 +26,11 @@ import com.netflix.zuul.netty.connectionpool.PooledConnection;
 import com.netflix.zuul.niws.RequestAttempt;
 import com.netflix.zuul.passport.CurrentPassport;
 import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.util.concurrent.Promise;
 import java.net.InetAddress;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -75,5 +77,14 @@ public interface NettyOrigin extends InstrumentedOrigin {
 
     Registry getSpectatorRegistry();
 
+    /**
+     * Pre-opens idle connections to this origin on each event loop of the given group.
+     *
+     * @return a future that completes when the initial warm-up is done.
+     */
+    default CompletableFuture<Void> warmUp(EventLoopGroup eventLoopGroup) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     default void originRetryPolicyAdjustmentIfNeeded(HttpRequestMessage zuulReq, HttpResponse nettyResponse) {}
 }
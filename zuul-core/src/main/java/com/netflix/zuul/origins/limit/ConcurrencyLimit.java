@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.origins.limit;
+
+/**
+ * Decides how many requests may be in flight to an origin at once. Adaptive implementations adjust the limit from the
+ * samples they are given, and must be safe to call concurrently.
+ */
+public interface ConcurrencyLimit {
+
+    /**
+     * @return the current max number of in-flight requests
+     */
+    int getLimit();
+
+    /**
+     * Called as each request attempt to the origin completes.
+     *
+     * @param rttMs    time from sending the request until the response (or failure) arrived
+     * @param inflight number of requests in flight when this one completed, including itself
+     * @param dropped  true if the attempt failed in a way that indicates the origin is overloaded, i.e. it timed out
+     *                 or throttled us
+     */
+    void onSample(long rttMs, int inflight, boolean dropped);
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.origins.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts in-flight requests against a {@link ConcurrencyLimit}. Checking the limit and counting the new request is a
+ * single atomic step, so concurrent callers can't overshoot the limit between the two.
+ */
+public final class ConcurrencyLimiter {
+
+    private volatile ConcurrencyLimit limit;
+    private final AtomicInteger inflight;
+
+    /**
+     * @param inflight the counter to track in-flight requests with, so that callers can publish it as a gauge
+     */
+    public ConcurrencyLimiter(ConcurrencyLimit limit, AtomicInteger inflight) {
+        this.limit = limit;
+        this.inflight = inflight;
+    }
+
+    /**
+     * Counts a new request if doing so keeps within the limit.
+     *
+     * @return false if the limit has been reached, in which case the request is not counted
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.getLimit()) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Counts a new request regardless of the limit.
+     */
+    public void acquire() {
+        inflight.incrementAndGet();
+    }
+
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    public void onSample(long rttMs, boolean dropped) {
+        limit.onSample(rttMs, inflight.get(), dropped);
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    /**
+     * Replaces the limit, e.g. when its configuration changes. Requests already in flight stay counted.
+     */
+    public void setLimit(ConcurrencyLimit limit) {
+        this.limit = limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
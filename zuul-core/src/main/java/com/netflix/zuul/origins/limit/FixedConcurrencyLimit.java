@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.origins.limit;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A limit that ignores samples, and is just whatever the supplier (usually a dynamic property) returns.
+ */
+public final class FixedConcurrencyLimit implements ConcurrencyLimit {
+
+    private final IntSupplier limit;
+
+    public FixedConcurrencyLimit(IntSupplier limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit.getAsInt();
+    }
+
+    @Override
+    public void onSample(long rttMs, int inflight, boolean dropped) {}
+}
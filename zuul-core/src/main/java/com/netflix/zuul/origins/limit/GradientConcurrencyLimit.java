@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.origins.limit;
+
+/**
+ * Adjusts the limit by the gradient between the origin's long-term average RTT and the latest RTT.
+ *
+ * <p>While the latest RTT stays within {@code tolerance} times the long-term average, the limit grows by roughly its
+ * square root per sample, leaving room for a queue to form. Once RTTs rise above that, the origin is queueing
+ * requests, and the limit shrinks in proportion, down to half per sample. Timeouts and throttling halve it outright.
+ * Changes are smoothed, so that a single outlier doesn't swing the limit.
+ *
+ * <p>The long-term average slowly follows the origin's latency, so a permanent change in latency becomes the new
+ * baseline rather than holding the limit down forever.
+ */
+public final class GradientConcurrencyLimit implements ConcurrencyLimit {
+
+    private static final int LONG_RTT_WINDOW = 600;
+    private static final double LONG_RTT_FACTOR = 2.0 / (LONG_RTT_WINDOW + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    // Guarded by this.
+    private double estimatedLimit;
+    private double longRtt;
+
+    private volatile int limit;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limits, min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Tolerance must be at least 1, was " + tolerance);
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Smoothing must be in (0, 1], was " + smoothing);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttMs, int inflight, boolean dropped) {
+        double shortRtt = Math.max(rttMs, 1);
+        longRtt = longRtt == 0 ? shortRtt : longRtt * (1 - LONG_RTT_FACTOR) + shortRtt * LONG_RTT_FACTOR;
+
+        // The origin has recovered from a period of high latency, so bring the baseline back down quickly rather than
+        // over the whole window.
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // The limit isn't being tested, so the sample says nothing about whether it is too high or too low.
+        if (!dropped && inflight < estimatedLimit / 2) {
+            return;
+        }
+
+        double target;
+        if (dropped) {
+            target = estimatedLimit / 2;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+            target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        }
+
+        double smoothed = estimatedLimit * (1 - smoothing) + target * smoothing;
+        estimatedLimit = Math.min(Math.max(smoothed, minLimit), maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
@@ -18,7 +18,6 @@ package com.netflix.zuul.passport;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Ticker;
-import com.google.common.collect.Sets;
 import com.netflix.config.CachedDynamicBooleanProperty;
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Spectator;
@@ -29,18 +28,28 @@ import io.netty.util.AttributeKey;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.ConcurrentModificationException;
 import java.util.Deque;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * The states a request has been through, and when.
+ *
+ * <p>Adding takes no lock: the history is a pair of growable arrays of state ordinals and ticker times, and an entry
+ * is published to other threads by the volatile write of the size that follows it. Entries are never changed once
+ * added, so readers on any thread see a consistent prefix of the history.
+ *
+ * <p>This relies on there being a single writer. {@link #add(PassportState)} and
+ * {@link #addIfNotAlready(PassportState)} must only be called by one thread at a time, normally the channel's event
+ * loop, and handing over to another thread has to go through something that orders the two, such as
+ * {@code EventLoop.execute()}. Concurrent adds are not detected, and can lose or overwrite entries.
+ */
 public class CurrentPassport {
     protected static final Logger logger = LoggerFactory.getLogger(CurrentPassport.class);
 
@@ -49,7 +58,7 @@ public class CurrentPassport {
 
     public static final AttributeKey<CurrentPassport> CHANNEL_ATTR = AttributeKey.newInstance("_current_passport");
     private static final Ticker SYSTEM_TICKER = Ticker.systemTicker();
-    private static final Set<PassportState> CONTENT_STATES = Sets.newHashSet(
+    private static final Set<PassportState> CONTENT_STATES = EnumSet.of(
             PassportState.IN_REQ_CONTENT_RECEIVED,
             PassportState.IN_RESP_CONTENT_RECEIVED,
             PassportState.OUT_REQ_CONTENT_SENDING,
@@ -59,45 +68,42 @@ public class CurrentPassport {
     private static final CachedDynamicBooleanProperty CONTENT_STATE_ENABLED =
             new CachedDynamicBooleanProperty("zuul.passport.state.content.enabled", false);
 
+    private static final PassportState[] STATES = PassportState.values();
+    private static final int INITIAL_CAPACITY = 32;
+
+    static {
+        if (STATES.length > 256) {
+            throw new IllegalStateException("PassportState ordinals no longer fit in a byte");
+        }
+    }
+
     private final Ticker ticker;
-    private final ArrayDeque<PassportItem> history;
-    private final HashSet<PassportState> statesAdded;
     private final long creationTimeSinceEpochMs;
 
-    private final IntrospectiveReentrantLock historyLock = new IntrospectiveReentrantLock();
-    private final Unlocker unlocker = new Unlocker();
-
-    private final class Unlocker implements AutoCloseable {
+    // Only ever replaced by a larger copy, before the size that needs it is published.
+    private volatile History history = new History(INITIAL_CAPACITY);
+    private volatile int size;
 
-        @Override
-        public void close() {
-            historyLock.unlock();
-        }
-    }
+    // Only used by the writer.
+    private final EnumSet<PassportState> statesAdded = EnumSet.noneOf(PassportState.class);
 
-    private static final class IntrospectiveReentrantLock extends ReentrantLock {
+    private static final class History {
+        final byte[] states;
+        final long[] times;
 
-        @Override
-        protected Thread getOwner() {
-            return super.getOwner();
+        History(int capacity) {
+            states = new byte[capacity];
+            times = new long[capacity];
         }
-    }
 
-    private Unlocker lock() {
-        boolean locked = false;
-        if ((historyLock.isLocked() && !historyLock.isHeldByCurrentThread()) || !(locked = historyLock.tryLock())) {
-            Thread owner = historyLock.getOwner();
-            String ownerStack = String.valueOf(owner != null ? Arrays.asList(owner.getStackTrace()) : historyLock);
-            logger.warn(
-                    "CurrentPassport already locked!, other={}, self={}",
-                    ownerStack,
-                    Thread.currentThread(),
-                    new ConcurrentModificationException());
+        History(History old) {
+            states = Arrays.copyOf(old.states, old.states.length * 2);
+            times = Arrays.copyOf(old.times, old.times.length * 2);
         }
-        if (!locked) {
-            historyLock.lock();
+
+        PassportState state(int i) {
+            return STATES[states[i] & 0xFF];
         }
-        return unlocker;
     }
 
     CurrentPassport() {
@@ -107,8 +113,6 @@ public class CurrentPassport {
     @VisibleForTesting
     public CurrentPassport(Ticker ticker) {
         this.ticker = ticker;
-        this.history = new ArrayDeque<>();
-        this.statesAdded = new HashSet<>();
         this.creationTimeSinceEpochMs = System.currentTimeMillis();
     }
 
@@ -151,20 +155,28 @@ public class CurrentPassport {
     }
 
     public PassportState getState() {
-        try (Unlocker ignored = lock()) {
-            PassportItem passportItem = history.peekLast();
-            return passportItem != null ? passportItem.getState() : null;
-        }
+        // Read the size first: the history read after it is at least as new.
+        int size = this.size;
+        return size > 0 ? history.state(size - 1) : null;
     }
 
+    /**
+     * Returns a copy of the history so far.
+     */
     @VisibleForTesting
     public Deque<PassportItem> getHistory() {
-        try (Unlocker ignored = lock()) {
-            // best effort, but doesn't actually protect anything
-            return history;
+        int size = this.size;
+        History history = this.history;
+        Deque<PassportItem> items = new ArrayDeque<>(size);
+        for (int i = 0; i < size; i++) {
+            items.addLast(new PassportItem(history.state(i), history.times[i]));
         }
+        return items;
     }
 
+    /**
+     * Must only be called by the single writer, see the class comment.
+     */
     public void add(PassportState state) {
         if (!CONTENT_STATE_ENABLED.get()) {
             if (CONTENT_STATES.contains(state)) {
@@ -173,25 +185,39 @@ public class CurrentPassport {
             }
         }
 
-        try (Unlocker ignored = lock()) {
-            history.addLast(new PassportItem(state, now()));
-        }
+        append(state, now());
         statesAdded.add(state);
     }
 
+    /**
+     * Must only be called by the single writer, see the class comment.
+     */
     public void addIfNotAlready(PassportState state) {
         if (!statesAdded.contains(state)) {
             add(state);
         }
     }
 
+    private void append(PassportState state, long time) {
+        int size = this.size;
+        History history = this.history;
+        if (size == history.states.length) {
+            history = new History(history);
+            this.history = history;
+        }
+        history.states[size] = (byte) state.ordinal();
+        history.times[size] = time;
+        // Publishes the entry.
+        this.size = size + 1;
+    }
+
     public long calculateTimeBetweenFirstAnd(PassportState endState) {
         long startTime = firstTime();
-        try (Unlocker ignored = lock()) {
-            for (PassportItem item : history) {
-                if (item.getState() == endState) {
-                    return item.getTime() - startTime;
-                }
+        int size = this.size;
+        History history = this.history;
+        for (int i = 0; i < size; i++) {
+            if (history.state(i) == endState) {
+                return history.times[i] - startTime;
             }
         }
         return now() - startTime;
@@ -201,9 +227,10 @@ public class CurrentPassport {
      * NOTE: This is NOT nanos since epoch. It's just since an arbitrary point in time. So only use relatively.
      */
     public long firstTime() {
-        try (Unlocker ignored = lock()) {
-            return history.getFirst().getTime();
+        if (size == 0) {
+            throw new NoSuchElementException();
         }
+        return history.times[0];
     }
 
     public long creationTimeSinceEpochMs() {
@@ -232,13 +259,14 @@ public class CurrentPassport {
 
     public StartAndEnd findStartAndEndStates(PassportState startState, PassportState endState) {
         StartAndEnd sae = new StartAndEnd();
-        try (Unlocker ignored = lock()) {
-            for (PassportItem item : history) {
-                if (item.getState() == startState) {
-                    sae.startTime = item.getTime();
-                } else if (item.getState() == endState) {
-                    sae.endTime = item.getTime();
-                }
+        int size = this.size;
+        History history = this.history;
+        for (int i = 0; i < size; i++) {
+            PassportState state = history.state(i);
+            if (state == startState) {
+                sae.startTime = history.times[i];
+            } else if (state == endState) {
+                sae.endTime = history.times[i];
             }
         }
 
@@ -247,13 +275,14 @@ public class CurrentPassport {
 
     public StartAndEnd findFirstStartAndLastEndStates(PassportState startState, PassportState endState) {
         StartAndEnd sae = new StartAndEnd();
-        try (Unlocker ignored = lock()) {
-            for (PassportItem item : history) {
-                if (sae.startNotFound() && item.getState() == startState) {
-                    sae.startTime = item.getTime();
-                } else if (item.getState() == endState) {
-                    sae.endTime = item.getTime();
-                }
+        int size = this.size;
+        History history = this.history;
+        for (int i = 0; i < size; i++) {
+            PassportState state = history.state(i);
+            if (sae.startNotFound() && state == startState) {
+                sae.startTime = history.times[i];
+            } else if (state == endState) {
+                sae.endTime = history.times[i];
             }
         }
         return sae;
@@ -261,13 +290,14 @@ public class CurrentPassport {
 
     public StartAndEnd findLastStartAndFirstEndStates(PassportState startState, PassportState endState) {
         StartAndEnd sae = new StartAndEnd();
-        try (Unlocker ignored = lock()) {
-            for (PassportItem item : history) {
-                if (item.getState() == startState) {
-                    sae.startTime = item.getTime();
-                } else if (sae.endNotFound() && item.getState() == endState) {
-                    sae.endTime = item.getTime();
-                }
+        int size = this.size;
+        History history = this.history;
+        for (int i = 0; i < size; i++) {
+            PassportState state = history.state(i);
+            if (state == startState) {
+                sae.startTime = history.times[i];
+            } else if (sae.endNotFound() && state == endState) {
+                sae.endTime = history.times[i];
             }
         }
         return sae;
@@ -278,20 +308,20 @@ public class CurrentPassport {
 
         StartAndEnd currentPair = null;
 
-        try (Unlocker ignored = lock()) {
-            for (PassportItem item : history) {
-
-                if (item.getState() == startState) {
-                    if (currentPair == null) {
-                        currentPair = new StartAndEnd();
-                        currentPair.startTime = item.getTime();
-                    }
-                } else if (item.getState() == endState) {
-                    if (currentPair != null) {
-                        currentPair.endTime = item.getTime();
-                        items.add(currentPair);
-                        currentPair = null;
-                    }
+        int size = this.size;
+        History history = this.history;
+        for (int i = 0; i < size; i++) {
+            PassportState state = history.state(i);
+            if (state == startState) {
+                if (currentPair == null) {
+                    currentPair = new StartAndEnd();
+                    currentPair.startTime = history.times[i];
+                }
+            } else if (state == endState) {
+                if (currentPair != null) {
+                    currentPair.endTime = history.times[i];
+                    items.add(currentPair);
+                    currentPair = null;
                 }
             }
         }
@@ -300,24 +330,22 @@ public class CurrentPassport {
     }
 
     public PassportItem findState(PassportState state) {
-        try (Unlocker ignored = lock()) {
-            for (PassportItem item : history) {
-                if (item.getState() == state) {
-                    return item;
-                }
+        int size = this.size;
+        History history = this.history;
+        for (int i = 0; i < size; i++) {
+            if (history.state(i) == state) {
+                return new PassportItem(state, history.times[i]);
             }
         }
         return null;
     }
 
     public PassportItem findStateBackwards(PassportState state) {
-        try (Unlocker ignored = lock()) {
-            Iterator itr = history.descendingIterator();
-            while (itr.hasNext()) {
-                PassportItem item = (PassportItem) itr.next();
-                if (item.getState() == state) {
-                    return item;
-                }
+        int size = this.size;
+        History history = this.history;
+        for (int i = size - 1; i >= 0; i--) {
+            if (history.state(i) == state) {
+                return new PassportItem(state, history.times[i]);
             }
         }
         return null;
@@ -325,11 +353,11 @@ public class CurrentPassport {
 
     public List<PassportItem> findStates(PassportState state) {
         ArrayList<PassportItem> items = new ArrayList<>();
-        try (Unlocker ignored = lock()) {
-            for (PassportItem item : history) {
-                if (item.getState() == state) {
-                    items.add(item);
-                }
+        int size = this.size;
+        History history = this.history;
+        for (int i = 0; i < size; i++) {
+            if (history.state(i) == state) {
+                items.add(new PassportItem(state, history.times[i]));
             }
         }
         return items;
@@ -338,11 +366,11 @@ public class CurrentPassport {
     public List<Long> findTimes(PassportState state) {
         long startTick = firstTime();
         ArrayList<Long> items = new ArrayList<>();
-        try (Unlocker ignored = lock()) {
-            for (PassportItem item : history) {
-                if (item.getState() == state) {
-                    items.add(item.getTime() - startTick);
-                }
+        int size = this.size;
+        History history = this.history;
+        for (int i = 0; i < size; i++) {
+            if (history.state(i) == state) {
+                items.add(history.times[i] - startTick);
             }
         }
         return items;
@@ -360,29 +388,29 @@ public class CurrentPassport {
 
     @Override
     public String toString() {
-        try (Unlocker ignored = lock()) {
-            long startTime = history.size() > 0 ? firstTime() : 0;
-            long now = now();
-
-            StringBuilder sb = new StringBuilder();
-            sb.append("CurrentPassport {");
-            sb.append("start_ms=").append(creationTimeSinceEpochMs()).append(", ");
-
-            sb.append('[');
-            for (PassportItem item : history) {
-                sb.append('+')
-                        .append(item.getTime() - startTime)
-                        .append('=')
-                        .append(item.getState().name())
-                        .append(", ");
-            }
-            sb.append('+').append(now - startTime).append('=').append("NOW");
-            sb.append(']');
+        int size = this.size;
+        History history = this.history;
+        long startTime = size > 0 ? history.times[0] : 0;
+        long now = now();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("CurrentPassport {");
+        sb.append("start_ms=").append(creationTimeSinceEpochMs()).append(", ");
+
+        sb.append('[');
+        for (int i = 0; i < size; i++) {
+            sb.append('+')
+                    .append(history.times[i] - startTime)
+                    .append('=')
+                    .append(history.state(i).name())
+                    .append(", ");
+        }
+        sb.append('+').append(now - startTime).append('=').append("NOW");
+        sb.append(']');
 
-            sb.append('}');
+        sb.append('}');
 
-            return sb.toString();
-        }
+        return sb.toString();
     }
 
     @VisibleForTesting
@@ -395,20 +423,17 @@ public class CurrentPassport {
             String[] stateStrs = m.group(1).split(", ", -1);
             MockTicker ticker = new MockTicker();
             passport = new CurrentPassport(ticker);
-            try (Unlocker ignored = passport.lock()) {
-                for (String stateStr : stateStrs) {
-                    Matcher stateMatch = ptnState.matcher(stateStr);
-                    if (stateMatch.matches()) {
-                        String stateName = stateMatch.group(2);
-                        if (stateName.equals("NOW")) {
-                            long startTime = passport.history.size() > 0 ? passport.firstTime() : 0;
-                            long now = Long.parseLong(stateMatch.group(1)) + startTime;
-                            ticker.setNow(now);
-                        } else {
-                            PassportState state = PassportState.valueOf(stateName);
-                            PassportItem item = new PassportItem(state, Long.parseLong(stateMatch.group(1)));
-                            passport.history.add(item);
-                        }
+            for (String stateStr : stateStrs) {
+                Matcher stateMatch = ptnState.matcher(stateStr);
+                if (stateMatch.matches()) {
+                    String stateName = stateMatch.group(2);
+                    if (stateName.equals("NOW")) {
+                        long startTime = passport.size > 0 ? passport.firstTime() : 0;
+                        long now = Long.parseLong(stateMatch.group(1)) + startTime;
+                        ticker.setNow(now);
+                    } else {
+                        PassportState state = PassportState.valueOf(stateName);
+                        passport.append(state, Long.parseLong(stateMatch.group(1)));
                     }
                 }
             }
@@ -19,7 +19,7 @@ import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Spectator;
 import com.netflix.spectator.api.patterns.PolledMeter;
 import com.netflix.zuul.stats.monitoring.NamedCount;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Implementation of a Named counter to monitor and count error causes by route. Route is a defined zuul concept to
@@ -32,7 +32,7 @@ public class ErrorStatsData implements NamedCount {
     private final String id;
 
     private final String errorCause;
-    private final AtomicLong count = new AtomicLong();
+    private final LongAdder count = new LongAdder();
 
     /**
      * create a counter by route and cause of error
@@ -73,7 +73,7 @@ public class ErrorStatsData implements NamedCount {
      * increments the counter
      */
     public void update() {
-        count.incrementAndGet();
+        count.increment();
     }
 
     @Override
@@ -83,6 +83,6 @@ public class ErrorStatsData implements NamedCount {
 
     @Override
     public long getCount() {
-        return count.get();
+        return count.sum();
     }
 }
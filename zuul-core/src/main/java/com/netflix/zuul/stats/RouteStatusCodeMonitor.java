@@ -21,11 +21,13 @@ import com.netflix.spectator.api.Spectator;
 import com.netflix.spectator.api.patterns.PolledMeter;
 import com.netflix.zuul.stats.monitoring.NamedCount;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.Nullable;
 
 /**
- * counter for per route/status code counting
+ * counter for per route/status code counting. {@link RouteStatusCounters} counts every route and status code in one
+ * table, and bounds the number of routes counted.
+ *
  * @author Mikey Cohen
  * Date: 2/3/12
  * Time: 3:04 PM
@@ -38,7 +40,7 @@ public class RouteStatusCodeMonitor implements NamedCount {
 
     private final int statusCode;
 
-    private final AtomicLong count = new AtomicLong();
+    private final LongAdder count = new LongAdder();
 
     public RouteStatusCodeMonitor(@Nullable String route, int statusCode) {
         if (route == null) {
@@ -86,13 +88,13 @@ public class RouteStatusCodeMonitor implements NamedCount {
 
     @Override
     public long getCount() {
-        return count.get();
+        return count.sum();
     }
 
     /**
      * increment the count
      */
     public void update() {
-        count.incrementAndGet();
+        count.increment();
     }
 }
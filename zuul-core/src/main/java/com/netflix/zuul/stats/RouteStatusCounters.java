@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.stats;
+
+import com.netflix.config.DynamicIntProperty;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.zuul.stats.status.StatusCategory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+
+/**
+ * Counts responses by route, {@link StatusCategory} and status code, in one table, rather than a
+ * {@link RouteStatusCodeMonitor} per combination kept in a map of the caller's.
+ *
+ * <p>Each combination is counted with a {@link LongAdder}, so that a busy route doesn't have every event loop
+ * contending for the one count, and is registered as a {@code zuul.route.status} counter tagged with the route,
+ * category, group and status the first time it's seen. Once {@code zuul.stats.route.status.max.routes} routes have
+ * been seen, any others are counted under the {@value #OTHER_ROUTE} route, so that a client making up routes can't
+ * grow the meters without bound.
+ *
+ * <p>Counting a combination that has been seen before takes no locks, and allocates nothing.
+ */
+public final class RouteStatusCounters {
+    public static final String OTHER_ROUTE = "other";
+    public static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private static final DynamicIntProperty MAX_ROUTES =
+            new DynamicIntProperty("zuul.stats.route.status.max.routes", 1000);
+
+    private final Registry registry;
+    private final Id id;
+    private final int maxRoutes;
+    private final ConcurrentHashMap<String, Route> routes = new ConcurrentHashMap<>();
+    private final AtomicInteger routeCount = new AtomicInteger();
+    private final Route other;
+
+    public RouteStatusCounters(Registry registry) {
+        this(registry, MAX_ROUTES.get());
+    }
+
+    public RouteStatusCounters(Registry registry, int maxRoutes) {
+        this.registry = registry;
+        this.id = registry.createId("zuul.route.status");
+        this.maxRoutes = maxRoutes;
+        this.other = new Route(OTHER_ROUTE);
+    }
+
+    /**
+     * Counts one response for the route.
+     */
+    public void increment(@Nullable String route, StatusCategory category, int statusCode) {
+        route(route).cell(category, statusCode).count.increment();
+    }
+
+    /**
+     * Returns the counts so far, for each combination that has been seen.
+     */
+    public List<Entry> snapshot() {
+        List<Entry> entries = new ArrayList<>();
+        for (Route route : routes.values()) {
+            route.snapshot(entries);
+        }
+        other.snapshot(entries);
+        return entries;
+    }
+
+    private Route route(@Nullable String name) {
+        if (name == null || name.isEmpty()) {
+            name = UNKNOWN_ROUTE;
+        }
+        Route route = routes.get(name);
+        if (route != null) {
+            return route;
+        }
+        // Threads adding routes at the same time may take it a few over the limit, which is fine.
+        if (routeCount.get() >= maxRoutes) {
+            return other;
+        }
+        return routes.computeIfAbsent(name, key -> {
+            routeCount.incrementAndGet();
+            return new Route(key);
+        });
+    }
+
+    /**
+     * The count of one route, category and status code combination.
+     */
+    public record Entry(String route, StatusCategory category, int statusCode, long count) {}
+
+    private final class Route {
+        private final String name;
+
+        // Copied on write. There are few combinations per route, so a scan is as quick as a lookup.
+        private volatile Cell[] cells = new Cell[0];
+
+        Route(String name) {
+            this.name = name;
+        }
+
+        Cell cell(StatusCategory category, int statusCode) {
+            Cell cell = find(cells, category, statusCode);
+            return cell != null ? cell : add(category, statusCode);
+        }
+
+        private synchronized Cell add(StatusCategory category, int statusCode) {
+            Cell[] current = cells;
+            Cell cell = find(current, category, statusCode);
+            if (cell != null) {
+                return cell;
+            }
+            cell = new Cell(category, statusCode);
+            PolledMeter.using(registry)
+                    .withId(id.withTags(
+                            "route", name,
+                            "category", category.name(),
+                            "group", category.getGroup().name(),
+                            "status", Integer.toString(statusCode)))
+                    .monitorMonotonicCounter(cell.count, LongAdder::sum);
+
+            Cell[] grown = new Cell[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            grown[current.length] = cell;
+            cells = grown;
+            return cell;
+        }
+
+        void snapshot(List<Entry> entries) {
+            for (Cell cell : cells) {
+                entries.add(new Entry(name, cell.category, cell.statusCode, cell.count.sum()));
+            }
+        }
+    }
+
+    @Nullable
+    private static Cell find(Cell[] cells, StatusCategory category, int statusCode) {
+        for (Cell cell : cells) {
+            if (cell.statusCode == statusCode && Objects.equals(cell.category, category)) {
+                return cell;
+            }
+        }
+        return null;
+    }
+
+    private static final class Cell {
+        final StatusCategory category;
+        final int statusCode;
+        final LongAdder count = new LongAdder();
+
+        Cell(StatusCategory category, int statusCode) {
+            this.category = category;
+            this.statusCode = statusCode;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpContent;
+
+/**
+ * Compresses a body one chunk at a time. Whatever has been written so far is flushed after each chunk, so that a
+ * streamed body reaches the client as it arrives rather than once the encoder's buffers fill up.
+ *
+ * <p>Not thread safe.
+ */
+public interface ContentEncoder {
+
+    /**
+     * The value of the Content-Encoding header for the encoded body, e.g. "gzip".
+     */
+    String getContentEncoding();
+
+    /**
+     * Encodes the chunk, and releases it.
+     */
+    void write(HttpContent chunk);
+
+    /**
+     * Ends the encoded stream. Nothing can be written afterwards.
+     */
+    void finish();
+
+    /**
+     * Returns the output encoded since the last call. The caller takes ownership of the returned buffer.
+     */
+    ByteBuf getByteBuf();
+
+    /**
+     * Frees the encoder's resources, e.g. when the response is aborted before its last chunk. Any output not yet taken
+     * is discarded. Does nothing if already closed, and may be called after {@link #finish()}.
+     */
+    default void close() {}
+}
@@ -16,74 +16,195 @@
 
 package com.netflix.zuul.util;
 
-import com.netflix.zuul.exception.ZuulException;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpContent;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.util.zip.GZIPOutputStream;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.util.concurrent.FastThreadLocal;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import javax.annotation.Nullable;
 
 /**
  * Refactored this out of our GZipResponseFilter
  *
+ * <p>Deflates straight from each chunk's buffer into a buffer from the same allocator, so a chunk is never copied
+ * onto the heap, and the compressed output is handed out as is. Each written chunk is sync-flushed, so that the client
+ * can decompress everything received so far, e.g. for event streams.
+ *
+ * <p>{@link Deflater}s are expensive to create, and hold native memory until ended, so they are recycled per thread
+ * (i.e. per event loop) once the stream is finished or the encoder is closed. Not thread safe.
+ *
  * User: michaels@netflix.com
  * Date: 5/10/16
  * Time: 12:31 PM
  */
-public class Gzipper {
-    private final ByteArrayOutputStream baos;
-    private final GZIPOutputStream gzos;
+public class Gzipper implements ContentEncoder {
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int GZIP_TRAILER_LENGTH = 8;
+    private static final int MIN_WRITABLE_BYTES = 64;
+    private static final int MAX_RECYCLED_DEFLATERS = 32;
 
-    public Gzipper() throws RuntimeException {
-        try {
-            baos = new ByteArrayOutputStream(256);
-            gzos = new GZIPOutputStream(baos, true);
-        } catch (IOException e) {
-            throw new RuntimeException("Error finalizing the GzipOutputstream", e);
+    private static final FastThreadLocal<ArrayDeque<Deflater>> RECYCLED_DEFLATERS = new FastThreadLocal<>() {
+        @Override
+        protected ArrayDeque<Deflater> initialValue() {
+            return new ArrayDeque<>();
         }
-    }
 
-    private void write(ByteBuf bb) throws IOException {
-        byte[] bytes;
-        int offset;
-        int length = bb.readableBytes();
-        if (bb.hasArray()) {
-            /* avoid memory copy if possible */
-            bytes = bb.array();
-            offset = bb.arrayOffset();
-        } else {
-            bytes = new byte[length];
-            bb.getBytes(bb.readerIndex(), bytes);
-            offset = 0;
+        @Override
+        protected void onRemoval(ArrayDeque<Deflater> deflaters) {
+            deflaters.forEach(Deflater::end);
         }
-        gzos.write(bytes, offset, length);
+    };
+
+    private final CRC32 crc = new CRC32();
+
+    @Nullable
+    private Deflater deflater;
+
+    @Nullable
+    private ByteBuf out;
+
+    private ByteBufAllocator alloc = ByteBufAllocator.DEFAULT;
+    private boolean headerWritten;
+
+    public Gzipper() {
+        this(Deflater.DEFAULT_COMPRESSION);
     }
 
+    /**
+     * @param level the compression level, 0-9 or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public Gzipper(int level) {
+        this.deflater = acquireDeflater(level);
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return HttpHeaderValues.GZIP.toString();
+    }
+
+    @Override
     public void write(HttpContent chunk) {
         try {
-            write(chunk.content());
-            gzos.flush();
-        } catch (IOException ioEx) {
-            throw new ZuulException(ioEx, "Error Gzipping response content chunk", true);
+            Deflater deflater = deflater();
+            ByteBuf content = chunk.content();
+            alloc = content.alloc();
+            ByteBuf buf = outputBuffer(content.readableBytes() / 2);
+            if (content.isReadable()) {
+                if (content.nioBufferCount() > 1) {
+                    for (ByteBuffer nio : content.nioBuffers()) {
+                        deflate(deflater, nio, buf);
+                    }
+                } else {
+                    deflate(deflater, content.nioBuffer(), buf);
+                }
+            }
+            // A full output buffer may mean there is more output pending.
+            while (deflateInto(deflater, buf, Deflater.SYNC_FLUSH)) {}
         } finally {
             chunk.release();
         }
     }
 
-    public void finish() throws RuntimeException {
-        try {
-            gzos.finish();
-            gzos.flush();
-            gzos.close();
-        } catch (IOException ioEx) {
-            throw new ZuulException(ioEx, "Error finalizing the GzipOutputStream", true);
+    @Override
+    public void finish() {
+        Deflater deflater = deflater();
+        ByteBuf buf = outputBuffer(GZIP_TRAILER_LENGTH);
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflateInto(deflater, buf, Deflater.NO_FLUSH);
         }
+        buf.writeIntLE((int) crc.getValue());
+        buf.writeIntLE((int) deflater.getBytesRead());
+
+        this.deflater = null;
+        releaseDeflater(deflater);
     }
 
+    @Override
     public ByteBuf getByteBuf() {
-        ByteBuf copy = Unpooled.copiedBuffer(baos.toByteArray());
-        baos.reset();
-        return copy;
+        ByteBuf buf = out;
+        out = null;
+        return buf != null ? buf : Unpooled.EMPTY_BUFFER;
+    }
+
+    @Override
+    public void close() {
+        if (out != null) {
+            out.release();
+            out = null;
+        }
+        Deflater deflater = this.deflater;
+        if (deflater != null) {
+            this.deflater = null;
+            releaseDeflater(deflater);
+        }
+    }
+
+    private void deflate(Deflater deflater, ByteBuffer nio, ByteBuf buf) {
+        int position = nio.position();
+        crc.update(nio);
+        nio.position(position);
+
+        deflater.setInput(nio);
+        while (!deflater.needsInput()) {
+            deflateInto(deflater, buf, Deflater.NO_FLUSH);
+        }
+    }
+
+    /**
+     * @return true if the output filled all of the buffer's writable space
+     */
+    private static boolean deflateInto(Deflater deflater, ByteBuf buf, int flush) {
+        if (buf.writableBytes() < MIN_WRITABLE_BYTES) {
+            buf.ensureWritable(Math.max(buf.capacity(), MIN_WRITABLE_BYTES));
+        }
+        int writable = buf.writableBytes();
+        int written = deflater.deflate(buf.internalNioBuffer(buf.writerIndex(), writable), flush);
+        buf.writerIndex(buf.writerIndex() + written);
+        return written == writable;
+    }
+
+    private ByteBuf outputBuffer(int expectedBytes) {
+        if (out == null) {
+            out = alloc.directBuffer(Math.max(expectedBytes, MIN_WRITABLE_BYTES) + GZIP_HEADER.length);
+        }
+        if (!headerWritten) {
+            out.writeBytes(GZIP_HEADER);
+            headerWritten = true;
+        }
+        return out;
+    }
+
+    private Deflater deflater() {
+        if (deflater == null) {
+            throw new IllegalStateException("Gzipper already finished or closed");
+        }
+        return deflater;
+    }
+
+    private static Deflater acquireDeflater(int level) {
+        Deflater deflater = RECYCLED_DEFLATERS.get().poll();
+        if (deflater == null) {
+            // nowrap, as we write the gzip header and trailer ourselves.
+            deflater = new Deflater(level, true);
+        } else {
+            deflater.setLevel(level);
+        }
+        return deflater;
+    }
+
+    private static void releaseDeflater(Deflater deflater) {
+        ArrayDeque<Deflater> recycled = RECYCLED_DEFLATERS.get();
+        if (recycled.size() < MAX_RECYCLED_DEFLATERS) {
+            deflater.reset();
+            recycled.push(deflater);
+        } else {
+            deflater.end();
+        }
     }
 }
@@ -25,6 +25,8 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http2.Http2StreamChannel;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
@@ -83,6 +85,7 @@ public class HttpUtils {
         return contentEncoding.contains(HttpHeaderValues.GZIP.toString())
                 || contentEncoding.contains(HttpHeaderValues.DEFLATE.toString())
                 || contentEncoding.contains(HttpHeaderValues.BR.toString())
+                || contentEncoding.contains(HttpHeaderValues.ZSTD.toString())
                 || contentEncoding.contains(HttpHeaderValues.COMPRESS.toString());
     }
 
@@ -96,6 +99,70 @@ public class HttpUtils {
         return ae != null && ae.contains(HttpHeaderValues.GZIP.toString());
     }
 
+    /**
+     * Picks the content coding to respond with, going by the q-values in the request's Accept-Encoding headers. Ties
+     * are broken by the order of {@code supported}, so it should list the codings in order of preference.
+     *
+     * @return the chosen coding, or null if the client accepts none of them or didn't send Accept-Encoding at all
+     */
+    @Nullable
+    public static String negotiateContentEncoding(Headers headers, List<String> supported) {
+        List<String> acceptEncodings = headers.getAll(HttpHeaderNames.ACCEPT_ENCODING);
+        if (acceptEncodings.isEmpty() || supported.isEmpty()) {
+            return null;
+        }
+
+        // A negative q-value means the coding wasn't listed, as opposed to listed as not acceptable with q=0.
+        double[] qValues = new double[supported.size()];
+        Arrays.fill(qValues, -1);
+        double wildcardQValue = -1;
+        for (String acceptEncoding : acceptEncodings) {
+            for (String coding : acceptEncoding.split(",", -1)) {
+                int paramsIndex = coding.indexOf(';');
+                String name = (paramsIndex < 0 ? coding : coding.substring(0, paramsIndex)).trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                double qValue = paramsIndex < 0 ? 1.0 : parseQValue(coding.substring(paramsIndex + 1));
+                if (name.equals("*")) {
+                    wildcardQValue = qValue;
+                    continue;
+                }
+                for (int i = 0; i < supported.size(); i++) {
+                    if (supported.get(i).equalsIgnoreCase(name)) {
+                        qValues[i] = qValue;
+                    }
+                }
+            }
+        }
+
+        String best = null;
+        double bestQValue = 0;
+        for (int i = 0; i < supported.size(); i++) {
+            double qValue = qValues[i] >= 0 ? qValues[i] : wildcardQValue;
+            if (qValue > bestQValue) {
+                bestQValue = qValue;
+                best = supported.get(i);
+            }
+        }
+        return best;
+    }
+
+    private static double parseQValue(String params) {
+        for (String param : params.split(";", -1)) {
+            param = param.trim();
+            if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                try {
+                    return Math.min(Double.parseDouble(param.substring(2).trim()), 1.0);
+                } catch (NumberFormatException e) {
+                    // Treat a malformed q-value as not acceptable, rather than guess.
+                    return 0;
+                }
+            }
+        }
+        return 1.0;
+    }
+
     /**
      * Ensure decoded new lines are not propagated in headers, in order to prevent XSS
      *
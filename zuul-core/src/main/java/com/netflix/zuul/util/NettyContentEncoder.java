@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.util;
+
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.BrotliEncoder;
+import io.netty.handler.codec.compression.Zstd;
+import io.netty.handler.codec.compression.ZstdEncoder;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import javax.annotation.Nullable;
+
+/**
+ * Runs one of Netty's compression codecs over the body, the same way Netty's own HttpContentCompressor does. Used for
+ * the codings that need a native library, i.e. Brotli and zstd, so check {@link #isBrotliAvailable()} and
+ * {@link #isZstdAvailable()} before creating one.
+ */
+public final class NettyContentEncoder implements ContentEncoder {
+
+    // Netty's defaults, see ZstdConstants.
+    private static final int ZSTD_BLOCK_SIZE = 64 * 1024;
+    private static final int ZSTD_MAX_ENCODE_SIZE = 32 * 1024 * 1024;
+
+    private final String contentEncoding;
+    private final EmbeddedChannel channel;
+
+    @Nullable
+    private CompositeByteBuf out;
+
+    private boolean finished;
+
+    private NettyContentEncoder(String contentEncoding, ChannelHandler encoder) {
+        this.contentEncoding = contentEncoding;
+        this.channel = new EmbeddedChannel(encoder);
+    }
+
+    public static boolean isBrotliAvailable() {
+        return Brotli.isAvailable();
+    }
+
+    public static boolean isZstdAvailable() {
+        return Zstd.isAvailable();
+    }
+
+    /**
+     * @param quality the Brotli quality, 0-11
+     */
+    public static NettyContentEncoder brotli(int quality) {
+        return new NettyContentEncoder(
+                HttpHeaderValues.BR.toString(), new BrotliEncoder(new Encoder.Parameters().setQuality(quality)));
+    }
+
+    /**
+     * @param level the zstd compression level, 1-22
+     */
+    public static NettyContentEncoder zstd(int level) {
+        return new NettyContentEncoder(
+                HttpHeaderValues.ZSTD.toString(), new ZstdEncoder(level, ZSTD_BLOCK_SIZE, ZSTD_MAX_ENCODE_SIZE));
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    @Override
+    public void write(HttpContent chunk) {
+        try {
+            if (finished) {
+                throw new IllegalStateException("Encoder already finished or closed");
+            }
+            if (chunk.content().isReadable()) {
+                // writeOutbound() also flushes, so the codec hands over everything encoded so far.
+                channel.writeOutbound(chunk.content().retain());
+                readOutbound();
+            }
+        } finally {
+            chunk.release();
+        }
+    }
+
+    @Override
+    public void finish() {
+        if (finished) {
+            throw new IllegalStateException("Encoder already finished");
+        }
+        finished = true;
+        // Closing the channel makes the codec write out the end of the stream.
+        channel.finish();
+        readOutbound();
+    }
+
+    @Override
+    public ByteBuf getByteBuf() {
+        ByteBuf buf = out;
+        out = null;
+        return buf != null ? buf : Unpooled.EMPTY_BUFFER;
+    }
+
+    @Override
+    public void close() {
+        if (out != null) {
+            out.release();
+            out = null;
+        }
+        if (!finished) {
+            finished = true;
+            // Closes the codec, freeing its native state, and drops whatever it wrote out.
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    private void readOutbound() {
+        ByteBuf buf;
+        while ((buf = channel.readOutbound()) != null) {
+            if (!buf.isReadable()) {
+                buf.release();
+                continue;
+            }
+            if (out == null) {
+                out = buf.alloc().compositeBuffer();
+            }
+            out.addComponent(true, buf);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.netty.common.accesslog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.spectator.api.DefaultRegistry;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AccessLogEncoderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void textMatchesPublisherFormat() throws Exception {
+        AccessLogRecord record = record();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new TextAccessLogEncoder().encode(record, out);
+
+        StringBuilder expected = new StringBuilder();
+        AccessLogPublisher.format(record, expected);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(expected.append('\n').toString());
+    }
+
+    @Test
+    void jsonWritesOneObjectPerLine() throws Exception {
+        JsonLinesAccessLogEncoder encoder = new JsonLinesAccessLogEncoder();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        encoder.encode(record(), out);
+        encoder.encode(new AccessLogRecord(null, null, null, -1, null, -1, -1, -1, null), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[2]).isEmpty();
+
+        JsonNode json = MAPPER.readTree(lines[0]);
+        assertThat(json.get("time").asText()).isEqualTo("2026-01-02T03:04:05.5");
+        assertThat(json.get("remoteIp").asText()).isEqualTo("10.0.0.1");
+        assertThat(json.get("localPort").asLong()).isEqualTo(7001);
+        assertThat(json.get("method").asText()).isEqualTo("GET");
+        assertThat(json.get("uri").asText()).isEqualTo("/päth?a=b");
+        assertThat(json.get("status").asInt()).isEqualTo(200);
+        assertThat(json.get("durationUs").asLong()).isEqualTo(1500);
+        assertThat(json.get("responseBodySize").asLong()).isEqualTo(42);
+        assertThat(json.get("requestId").asText()).isEqualTo("req-1");
+        assertThat(json.get("requestBodySize").asLong()).isEqualTo(0);
+        assertThat(json.get("requestHeaders").get("host").get(0).asText()).isEqualTo("example.com");
+        JsonNode forwardedFor = json.get("requestHeaders").get("x-forwarded-for");
+        assertThat(forwardedFor.size()).isEqualTo(2);
+        assertThat(forwardedFor.get(0).asText()).isEqualTo("1.1.1.1");
+        assertThat(forwardedFor.get(1).asText()).isEqualTo("2.2.2.2");
+        assertThat(json.get("requestHeaders").has("user-agent")).isFalse();
+        assertThat(json.get("responseHeaders").get("server").get(0).asText()).isEqualTo("zuul");
+
+        assertThat(MAPPER.readTree(lines[1]).size()).isZero();
+    }
+
+    @Test
+    void jsonLeavesNothingOfAFailedRecord() throws Exception {
+        JsonLinesAccessLogEncoder encoder = new JsonLinesAccessLogEncoder();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HttpResponse failing = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK) {
+            @Override
+            public HttpResponseStatus status() {
+                throw new IllegalStateException("boom");
+            }
+        };
+        // Bigger than the generator's own buffer, so it would have been flushed part way through.
+        String remoteIp = "1".repeat(64 * 1024);
+
+        assertThatThrownBy(() -> encoder.encode(
+                        new AccessLogRecord(null, failing, null, -1, remoteIp, -1, -1, -1, null), out))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(out.size()).isZero();
+
+        encoder.encode(record(), out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(lines).hasSize(2);
+        assertThat(MAPPER.readTree(lines[0]).get("requestId").asText()).isEqualTo("req-1");
+    }
+
+    @Test
+    void binaryIsLengthPrefixed() throws Exception {
+        BinaryAccessLogEncoder encoder = new BinaryAccessLogEncoder();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        encoder.encode(record(), out);
+        encoder.encode(new AccessLogRecord(null, null, null, -1, null, -1, -1, -1, null), out);
+
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+        int length = in.getInt();
+        int end = in.position() + length;
+        assertThat(in.get()).isEqualTo((byte) BinaryAccessLogEncoder.VERSION);
+        assertThat(in.get())
+                .isEqualTo((byte) (BinaryAccessLogEncoder.HAS_TIME
+                        | BinaryAccessLogEncoder.HAS_REQUEST
+                        | BinaryAccessLogEncoder.HAS_RESPONSE));
+        long zigZagSeconds = readVarint(in);
+        assertThat((zigZagSeconds >>> 1) ^ -(zigZagSeconds & 1))
+                .isEqualTo(LocalDateTime.of(2026, 1, 2, 3, 4, 5).toEpochSecond(ZoneOffset.UTC));
+        assertThat(readVarint(in)).isEqualTo(500_000_000);
+        assertThat(readString(in)).isEqualTo("10.0.0.1");
+        assertThat(readNumber(in)).isEqualTo(7001);
+        assertThat(readString(in)).isEqualTo("GET");
+        assertThat(readString(in)).isEqualTo("/päth?a=b");
+        assertThat(readVarint(in)).isEqualTo(200);
+        assertThat(readNumber(in)).isEqualTo(1_500_000);
+        assertThat(readNumber(in)).isEqualTo(42);
+        assertThat(readString(in)).isEqualTo("req-1");
+        assertThat(readNumber(in)).isEqualTo(0);
+
+        List<List<String>> requestHeaders = readHeaders(in);
+        assertThat(requestHeaders).hasSize(AccessLogPublisher.LOG_REQ_HEADERS.size());
+        assertThat(requestHeaders.get(0)).containsExactly("example.com");
+        assertThat(requestHeaders.get(1)).containsExactly("1.1.1.1", "2.2.2.2");
+        List<List<String>> responseHeaders = readHeaders(in);
+        assertThat(responseHeaders).hasSize(AccessLogPublisher.LOG_RESP_HEADERS.size());
+        assertThat(responseHeaders.get(0)).containsExactly("zuul");
+        assertThat(in.position()).isEqualTo(end);
+
+        // Nothing known: the version, no flags, and zero for each of the six numbers and strings.
+        assertThat(in.getInt()).isEqualTo(8);
+        assertThat(in.get()).isEqualTo((byte) BinaryAccessLogEncoder.VERSION);
+        for (int i = 0; i < 7; i++) {
+            assertThat(in.get()).isZero();
+        }
+        assertThat(in.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void asyncWritesJsonLinesToFile() throws Exception {
+        Path file = dir.resolve("access.json");
+        AsyncAccessLogPublisher publisher = new AsyncAccessLogPublisher(
+                file, (channel, request) -> "id", new DefaultRegistry(), new JsonLinesAccessLogEncoder(), 1024, 64);
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/ünïcode");
+
+        for (int i = 0; i < 100; i++) {
+            publisher.log(null, request, null, null, 7001, "10.0.0.1", 1000L, 10L, null);
+        }
+        publisher.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(100);
+        for (String line : lines) {
+            JsonNode json = MAPPER.readTree(line);
+            assertThat(json.get("uri").asText()).isEqualTo("/ünïcode");
+            assertThat(json.get("requestId").asText()).isEqualTo("id");
+        }
+    }
+
+    @Test
+    void forFormat() {
+        assertThat(AccessLogEncoder.forFormat("text")).isInstanceOf(TextAccessLogEncoder.class);
+        assertThat(AccessLogEncoder.forFormat("json")).isInstanceOf(JsonLinesAccessLogEncoder.class);
+        assertThat(AccessLogEncoder.forFormat("binary")).isInstanceOf(BinaryAccessLogEncoder.class);
+        assertThatThrownBy(() -> AccessLogEncoder.forFormat("xml")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AccessLogRecord record() {
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/päth?a=b");
+        request.headers().add("Host", "example.com");
+        request.headers().add("X-Forwarded-For", "1.1.1.1");
+        request.headers().add("X-Forwarded-For", "2.2.2.2");
+        HttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        response.headers().add("Server", "zuul");
+        return new AccessLogRecord(
+                request,
+                response,
+                LocalDateTime.of(2026, 1, 2, 3, 4, 5, 500_000_000),
+                7001,
+                "10.0.0.1",
+                1_500_000,
+                0,
+                42,
+                "req-1");
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static long readNumber(ByteBuffer in) {
+        return readVarint(in) - 1;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarint(in) - 1;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<List<String>> readHeaders(ByteBuffer in) {
+        int names = (int) readVarint(in);
+        List<List<String>> headers = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) {
+            int count = (int) readVarint(in);
+            List<String> values = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                values.add(readString(in));
+            }
+            headers.add(values);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.netty.common.accesslog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AccessLogPublisherTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendDateTimeMatchesIsoFormatter() {
+        List<LocalDateTime> dateTimes = List.of(
+                LocalDateTime.of(2026, 1, 2, 3, 4, 5),
+                LocalDateTime.of(2026, 12, 31, 23, 59, 59, 100_000_000),
+                LocalDateTime.of(999, 10, 11, 12, 13, 14, 123_456_789),
+                LocalDateTime.of(2026, 6, 7, 8, 9, 10, 1_000),
+                LocalDateTime.of(12026, 6, 7, 8, 9, 10));
+
+        for (LocalDateTime dateTime : dateTimes) {
+            StringBuilder sb = new StringBuilder();
+            AccessLogPublisher.appendDateTime(dateTime, sb);
+            assertThat(sb.toString()).isEqualTo(dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+    }
+
+    @Test
+    void formatsLine() {
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/path?a=b");
+        request.headers().add("Host", "example.com");
+        request.headers().add("X-Forwarded-For", "1.1.1.1");
+        request.headers().add("X-Forwarded-For", "2.2.2.2");
+        HttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+
+        StringBuilder sb = new StringBuilder();
+        AccessLogPublisher.format(
+                new AccessLogRecord(
+                        request,
+                        response,
+                        LocalDateTime.of(2026, 1, 2, 3, 4, 5),
+                        7001,
+                        "10.0.0.1",
+                        1_500_000,
+                        0,
+                        42,
+                        "req-1"),
+                sb);
+
+        assertThat(sb.toString())
+                .isEqualTo("2026-01-02T03:04:05\t10.0.0.1\t7001\tGET\t/path?a=b\t200\t1500\t42\treq-1\t-"
+                        + "\t\"example.com\"\t\"1.1.1.1,2.2.2.2\"\t\"-\"\t\"-\"\t\"-\"\t\"-\""
+                        + "\t\"-\"\t\"-\"\t\"-\"");
+    }
+
+    @Test
+    void asyncWritesLinesToFile() throws Exception {
+        Path file = dir.resolve("access.log");
+        DefaultRegistry registry = new DefaultRegistry();
+        AsyncAccessLogPublisher publisher = new AsyncAccessLogPublisher(
+                file, (channel, request) -> "id", registry, new TextAccessLogEncoder(), 1024, 64);
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/ünïcode");
+
+        for (int i = 0; i < 100; i++) {
+            publisher.log(null, request, null, null, 7001, "10.0.0.1", 1000L, 10L, null);
+        }
+        publisher.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(100);
+        assertThat(lines.get(0)).startsWith("-----T-:-:-\t10.0.0.1\t7001\tPOST\t/ünïcode\t-\t1\t-\tid\t10");
+        assertThat(registry.counter("zuul.access.log.written").count()).isEqualTo(100);
+        assertThat(registry.counter("zuul.access.log.dropped").count()).isEqualTo(0);
+    }
+
+    @Test
+    void asyncDropsAfterClose() throws Exception {
+        DefaultRegistry registry = new DefaultRegistry();
+        AsyncAccessLogPublisher publisher = new AsyncAccessLogPublisher(
+                dir.resolve("access.log"),
+                (channel, request) -> "id",
+                registry,
+                new TextAccessLogEncoder(),
+                16,
+                1024);
+        publisher.close();
+
+        publisher.log(null, null, null, null, null, null, null, null, null);
+
+        assertThat(registry.counter("zuul.access.log.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void ringRejectsWhenFull() {
+        MpscRing<String> ring = new MpscRing<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer("e" + i)).isTrue();
+        }
+        assertThat(ring.offer("full")).isFalse();
+        assertThat(ring.poll()).isEqualTo("e0");
+        assertThat(ring.offer("e4")).isTrue();
+        assertThat(ring.size()).isEqualTo(4);
+        for (int i = 1; i <= 4; i++) {
+            assertThat(ring.poll()).isEqualTo("e" + i);
+        }
+        assertThat(ring.poll()).isNull();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.netty.common.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import org.junit.jupiter.api.Test;
+
+class EventLoopMetricsTest {
+
+    @Test
+    void gaugesReadCounts() {
+        DefaultRegistry registry = new DefaultRegistry();
+        EventLoopMetrics metrics = new EventLoopMetrics(registry, "loop-1");
+
+        metrics.incrementCurrentConnections();
+        metrics.incrementCurrentRequests();
+        metrics.incrementCurrentRequests();
+        metrics.decrementCurrentRequests();
+        PolledMeter.update(registry);
+
+        assertThat(metrics.currentConnectionsCount()).isEqualTo(1);
+        assertThat(metrics.currentHttpRequestsCount()).isEqualTo(1);
+        assertThat(registry.gauge(registry.createId("server.eventloop.connections.current")
+                                .withTag("eventloop", "loop-1"))
+                        .value())
+                .isEqualTo(1);
+        assertThat(registry.gauge(registry.createId("server.eventloop.http.requests.current")
+                                .withTag("eventloop", "loop-1"))
+                        .value())
+                .isEqualTo(1);
+
+        metrics.decrementCurrentConnections();
+        PolledMeter.update(registry);
+
+        assertThat(registry.gauge(registry.createId("server.eventloop.connections.current")
+                                .withTag("eventloop", "loop-1"))
+                        .value())
+                .isEqualTo(0);
+    }
+
+    @Test
+    void groupKeepsOnePerThread() throws Exception {
+        EventLoopGroupMetrics group = new EventLoopGroupMetrics(new DefaultRegistry());
+        EventLoopMetrics metrics = group.getForCurrentEventLoop();
+        metrics.incrementCurrentConnections();
+
+        Thread other = new Thread(() -> group.getForCurrentEventLoop().incrementCurrentRequests());
+        other.start();
+        other.join();
+
+        assertThat(group.getForCurrentEventLoop()).isSameAs(metrics);
+        assertThat(group.connectionsPerEventLoop())
+                .containsEntry(Thread.currentThread(), 1)
+                .containsEntry(other, 0);
+        assertThat(group.httpRequestsPerEventLoop())
+                .containsEntry(Thread.currentThread(), 0)
+                .containsEntry(other, 1);
+    }
+}
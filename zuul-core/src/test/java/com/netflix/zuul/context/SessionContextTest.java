@@ -266,4 +266,45 @@ class SessionContextTest {
         assertThat(context.isInBrownoutMode()).isTrue();
         assertThat(context.getBrownoutReason()).isEqualTo("High CPU usage");
     }
+
+    @Test
+    void keyCreatedAfterContext() {
+        SessionContext context = new SessionContext();
+        SessionContext.Key<String> key = SessionContext.newKey("late");
+
+        assertThat(context.get(key)).isNull();
+        assertThat(context.containsKey(key)).isFalse();
+        context.put(key, "bar");
+
+        assertThat(context.get(key)).isEqualTo("bar");
+        assertThat(context.size()).isEqualTo(1);
+    }
+
+    @Test
+    void cloneCopiesTypedValues() {
+        SessionContext context = new SessionContext();
+        SessionContext.Key<String> key = SessionContext.newKey("foo");
+        context.put(key, "bar");
+        context.put("baz", "qux");
+
+        SessionContext copy = context.clone();
+        copy.remove(key);
+
+        assertThat(context.get(key)).isEqualTo("bar");
+        assertThat(copy.get(key)).isNull();
+        assertThat(copy.get("baz")).isEqualTo("qux");
+        assertThat(copy.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeTypedKeyOnlyWhenValueMatches() {
+        SessionContext context = new SessionContext();
+        SessionContext.Key<String> key = SessionContext.newKey("foo");
+        context.put(key, "bar");
+
+        assertThat(context.remove(key, "other")).isFalse();
+        assertThat(context.remove(key, "bar")).isTrue();
+        assertThat(context.keys()).isEmpty();
+        assertThat(context.size()).isZero();
+    }
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.filters.common;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.hash.HashCode;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.zuul.context.CommonContextKeys;
+import com.netflix.zuul.context.SessionContext;
+import com.netflix.zuul.message.ZuulMessage;
+import com.netflix.zuul.message.ZuulMessageImpl;
+import com.netflix.zuul.util.ContentEncoder;
+import com.netflix.zuul.util.Gzipper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.handler.codec.http.HttpContent;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CompressedResponseCacheTest {
+    private final Registry registry = new DefaultRegistry();
+    private final CompressedResponseCache cache =
+            new CompressedResponseCache(() -> 100, () -> 60, PooledByteBufAllocator.DEFAULT, registry);
+
+    @AfterEach
+    void cleanup() {
+        cache.clear();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverMaxBytes() {
+        CompressedResponseCache.Key a = key("a");
+        CompressedResponseCache.Key b = key("b");
+        CompressedResponseCache.Key c = key("c");
+        ByteBuf bufA = bytes(40);
+        ByteBuf bufB = bytes(40);
+        cache.put(a, bufA);
+        cache.put(b, bufB);
+        cache.get(a).release();
+
+        cache.put(c, bytes(40));
+
+        assertThat(cache.getSizeBytes()).isEqualTo(80);
+        assertThat(bufB.refCnt()).isZero();
+        assertThat(cache.get(b)).isNull();
+        ByteBuf hit = cache.get(a);
+        assertThat(hit).isNotNull();
+        hit.release();
+        assertThat(registry.counter("zuul.compression.cache.evictions").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void getSharesCachedMemory() {
+        CompressedResponseCache.Key key = key("a");
+        ByteBuf cached = bytes(10);
+        cache.put(key, cached);
+
+        ByteBuf hit = cache.get(key);
+
+        assertThat(hit.readableBytes()).isEqualTo(10);
+        assertThat(hit.unwrap()).isSameAs(cached);
+        assertThat(cached.refCnt()).isEqualTo(2);
+        hit.release();
+        assertThat(cached.refCnt()).isEqualTo(1);
+    }
+
+    @Test
+    void compressesOnceForSameBody() throws IOException {
+        AtomicInteger encodersCreated = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            ZuulMessage response = cacheableResponse("healthy");
+            ContentEncoder encoder = cache.getEncoder(response, "gzip", Deflater.DEFAULT_COMPRESSION, () -> {
+                encodersCreated.incrementAndGet();
+                return new Gzipper();
+            });
+
+            assertThat(gunzip(encodeBody(response, encoder))).isEqualTo("healthy");
+        }
+
+        assertThat(encodersCreated.get()).isEqualTo(1);
+        assertThat(registry.counter("zuul.compression.cache", "result", "hit").count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void differentBodyMisses() throws IOException {
+        AtomicInteger encodersCreated = new AtomicInteger();
+        for (String body : new String[] {"healthy", "unhealthy"}) {
+            ZuulMessage response = cacheableResponse(body);
+            ContentEncoder encoder = cache.getEncoder(response, "gzip", Deflater.DEFAULT_COMPRESSION, () -> {
+                encodersCreated.incrementAndGet();
+                return new Gzipper();
+            });
+            assertThat(gunzip(encodeBody(response, encoder))).isEqualTo(body);
+        }
+
+        assertThat(encodersCreated.get()).isEqualTo(2);
+    }
+
+    @Test
+    void notCachedWithoutOptIn() {
+        ZuulMessage response = new ZuulMessageImpl(new SessionContext());
+        response.setBodyAsText("healthy");
+
+        encodeBody(response, cache.getEncoder(response, "gzip", Deflater.DEFAULT_COMPRESSION, Gzipper::new));
+
+        assertThat(cache.getSizeBytes()).isZero();
+    }
+
+    @Test
+    void tooBigToCache() {
+        ZuulMessage response = cacheableResponse("a".repeat(200));
+        // Level 0 stores the body as is, so the output can't come in under the limit.
+        ContentEncoder encoder = cache.getEncoder(response, "gzip", 0, () -> new Gzipper(0));
+
+        encodeBody(response, encoder);
+
+        assertThat(cache.getSizeBytes()).isZero();
+    }
+
+    @Test
+    void differentLevelMisses() throws IOException {
+        AtomicInteger encodersCreated = new AtomicInteger();
+        for (int level : new int[] {1, 9}) {
+            ZuulMessage response = cacheableResponse("healthy");
+            ContentEncoder encoder = cache.getEncoder(response, "gzip", level, () -> {
+                encodersCreated.incrementAndGet();
+                return new Gzipper(level);
+            });
+            assertThat(gunzip(encodeBody(response, encoder))).isEqualTo("healthy");
+        }
+
+        assertThat(encodersCreated.get()).isEqualTo(2);
+    }
+
+    @Test
+    void closeBeforeFinishCachesNothing() {
+        ZuulMessage response = cacheableResponse("healthy");
+        ContentEncoder encoder = cache.getEncoder(response, "gzip", Deflater.DEFAULT_COMPRESSION, Gzipper::new);
+        encoder.write(response.getBodyContents().iterator().next().retain());
+        encoder.getByteBuf().release();
+
+        encoder.close();
+        encoder.close();
+
+        assertThat(cache.getSizeBytes()).isZero();
+        response.disposeBufferedBody();
+    }
+
+    private static ZuulMessage cacheableResponse(String body) {
+        SessionContext context = new SessionContext();
+        context.put(CommonContextKeys.COMPRESSED_RESPONSE_CACHE_ID, "healthcheck");
+        ZuulMessage response = new ZuulMessageImpl(context);
+        response.setBodyAsText(body);
+        return response;
+    }
+
+    private static byte[] encodeBody(ZuulMessage response, ContentEncoder encoder) {
+        HttpContent chunk = response.getBodyContents().iterator().next();
+        encoder.write(chunk.retain());
+        encoder.finish();
+        ByteBuf buf = encoder.getByteBuf();
+        try {
+            return ByteBufUtil.getBytes(buf);
+        } finally {
+            buf.release();
+            response.disposeBufferedBody();
+        }
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), UTF_8);
+        }
+    }
+
+    private static CompressedResponseCache.Key key(String cacheId) {
+        return new CompressedResponseCache.Key(cacheId, HashCode.fromInt(1), "gzip", Deflater.DEFAULT_COMPRESSION);
+    }
+
+    private static ByteBuf bytes(int length) {
+        return PooledByteBufAllocator.DEFAULT.directBuffer(length).writeZero(length);
+    }
+}
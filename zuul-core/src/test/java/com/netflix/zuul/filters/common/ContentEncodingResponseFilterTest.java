@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.filters.common;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.zuul.context.CommonContextKeys;
+import com.netflix.zuul.context.SessionContext;
+import com.netflix.zuul.message.Headers;
+import com.netflix.zuul.message.http.HttpHeaderNames;
+import com.netflix.zuul.message.http.HttpRequestMessage;
+import com.netflix.zuul.message.http.HttpResponseMessage;
+import com.netflix.zuul.message.http.HttpResponseMessageImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.BrotliDecoder;
+import io.netty.handler.codec.compression.JdkZlibDecoder;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.handler.codec.compression.ZstdDecoder;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ContentEncodingResponseFilterTest {
+    private final SessionContext context = new SessionContext();
+    private final Headers originalRequestHeaders = new Headers();
+
+    @Mock
+    private HttpRequestMessage request;
+
+    @Mock
+    private HttpRequestMessage originalRequest;
+
+    private ContentEncodingResponseFilter filter;
+    private HttpResponseMessage response;
+
+    @BeforeEach
+    void setup() {
+        // Not every test gets as far as negotiating.
+        Mockito.lenient().when(originalRequest.getHeaders()).thenReturn(originalRequestHeaders);
+
+        filter = new ContentEncodingResponseFilter();
+        response = new HttpResponseMessageImpl(context, request, 200);
+        response.getHeaders().set(HttpHeaderNames.CONTENT_TYPE, "application/json; charset=utf-8");
+        response.getHeaders().set(HttpHeaderNames.TRANSFER_ENCODING, "chunked");
+        response.setHasBody(true);
+        Mockito.lenient().when(response.getInboundRequest()).thenReturn(originalRequest);
+    }
+
+    @Test
+    void supportsAllEncodingsWhenNativeLibrariesPresent() {
+        assertThat(filter.getSupportedEncodings()).containsExactly("br", "zstd", "gzip");
+    }
+
+    @Test
+    void brotli() {
+        assertRoundTrips("gzip, deflate, br, zstd", "br", new BrotliDecoder());
+    }
+
+    @Test
+    void zstd() {
+        assertRoundTrips("gzip;q=0.8, zstd", "zstd", new ZstdDecoder());
+    }
+
+    @Test
+    void gzip() {
+        assertRoundTrips("gzip, br;q=0.5", "gzip", new JdkZlibDecoder(ZlibWrapper.GZIP));
+    }
+
+    @Test
+    void notAcceptable() {
+        originalRequestHeaders.set("Accept-Encoding", "deflate, br;q=0");
+
+        assertThat(filter.shouldFilter(response)).isFalse();
+    }
+
+    @Test
+    void overrideGzipRequested() {
+        context.set(CommonContextKeys.OVERRIDE_GZIP_REQUESTED, true);
+
+        assertThat(filter.shouldFilter(response)).isTrue();
+        assertThat(filter.apply(response).getHeaders().getFirst("Content-Encoding"))
+                .isEqualTo("gzip");
+    }
+
+    @Test
+    void alreadyCompressed() {
+        response.getHeaders().set("Content-Encoding", "zstd");
+
+        assertThat(filter.shouldFilter(response)).isFalse();
+    }
+
+    @Test
+    void notCompressibleContentType() {
+        response.getHeaders().set(HttpHeaderNames.CONTENT_TYPE, "image/png");
+
+        assertThat(filter.shouldFilter(response)).isFalse();
+    }
+
+    @Test
+    void tooSmall() {
+        response.getHeaders().remove(HttpHeaderNames.TRANSFER_ENCODING);
+        response.getHeaders().set("Content-Length", "4");
+
+        assertThat(filter.shouldFilter(response)).isFalse();
+    }
+
+    @Test
+    void keepsExistingVary() {
+        originalRequestHeaders.set("Accept-Encoding", "gzip");
+        response.getHeaders().set("Vary", "Origin");
+
+        assertThat(filter.shouldFilter(response)).isTrue();
+        HttpResponseMessage result = filter.apply(response);
+
+        assertThat(result.getHeaders().getAll("Vary")).containsExactly("Origin", "Accept-Encoding");
+    }
+
+    private void assertRoundTrips(String acceptEncoding, String expectedEncoding, ChannelHandler decoder) {
+        originalRequestHeaders.set("Accept-Encoding", acceptEncoding);
+        response.getHeaders().set("Content-Length", "2048");
+        response.getHeaders().remove(HttpHeaderNames.TRANSFER_ENCODING);
+
+        assertThat(filter.shouldFilter(response)).isTrue();
+        HttpResponseMessage result = filter.apply(response);
+        assertThat(result.getHeaders().getFirst("Content-Encoding")).isEqualTo(expectedEncoding);
+        assertThat(result.getHeaders().getAll("Content-Length")).isEmpty();
+        assertThat(result.getHeaders().getFirst("Vary")).isEqualTo("Accept-Encoding");
+
+        String first = "{\"hello\": \"" + "world ".repeat(100) + "\", ";
+        String second = "\"goodbye\": \"" + "world ".repeat(100) + "\"}";
+        List<HttpContent> encoded = new ArrayList<>();
+        encoded.add(filter.processContentChunk(
+                response, new DefaultHttpContent(Unpooled.copiedBuffer(first, UTF_8))));
+        encoded.add(filter.processContentChunk(
+                response, new DefaultLastHttpContent(Unpooled.copiedBuffer(second, UTF_8))));
+
+        // Each chunk is flushed, so the first can be decoded without waiting for the rest of the body.
+        EmbeddedChannel channel = new EmbeddedChannel(decoder);
+        try {
+            assertThat(decode(channel, encoded.get(0))).isEqualTo(first);
+            assertThat(decode(channel, encoded.get(1))).isEqualTo(second);
+        } finally {
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    private static String decode(EmbeddedChannel channel, HttpContent chunk) {
+        channel.writeInbound(chunk.content());
+        StringBuilder decoded = new StringBuilder();
+        ByteBuf buf;
+        while ((buf = channel.readInbound()) != null) {
+            decoded.append(buf.toString(UTF_8));
+            buf.release();
+        }
+        return decoded.toString();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+
+package com.netflix.zuul.filters.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import org.junit.jupiter.api.Test;
+
+class HedgePolicyTest {
+
+    private final Registry registry = new DefaultRegistry();
+    private final HedgePolicy policy = new HedgePolicy(registry, "origin");
+
+    @Test
+    void noDelayUntilSamplesFilled() {
+        for (int i = 0; i < HedgePolicy.SAMPLES - 1; i++) {
+            policy.recordResponseTime(100);
+        }
+        assertThat(policy.hedgeDelayMs()).isEqualTo(-1);
+
+        policy.recordResponseTime(100);
+        assertThat(policy.hedgeDelayMs()).isEqualTo(100);
+    }
+
+    @Test
+    void delayIsPercentileOfResponseTimes() {
+        for (int i = 1; i <= HedgePolicy.SAMPLES; i++) {
+            policy.recordResponseTime(1000L * i / HedgePolicy.SAMPLES);
+        }
+
+        // The 95th percentile of 256 evenly spread samples up to 1000ms.
+        assertThat(policy.hedgeDelayMs()).isEqualTo(1000L * 244 / HedgePolicy.SAMPLES);
+    }
+
+    @Test
+    void delayIsAtLeastMinimum() {
+        for (int i = 0; i < HedgePolicy.SAMPLES; i++) {
+            policy.recordResponseTime(1);
+        }
+
+        assertThat(policy.hedgeDelayMs()).isEqualTo(10);
+    }
+
+    @Test
+    void budgetIsPercentageOfRequests() {
+        assertThat(policy.tryAcquire()).isFalse();
+
+        for (int i = 0; i < 20; i++) {
+            policy.recordRequest();
+        }
+        assertThat(policy.tryAcquire()).isTrue();
+        assertThat(policy.tryAcquire()).isFalse();
+
+        assertThat(registry.counter("zuul.origin.hedge", "id", "origin", "result", "sent")
+                        .count())
+                .isEqualTo(1);
+        assertThat(registry.counter("zuul.origin.hedge", "id", "origin", "result", "budgetExhausted")
+                        .count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void budgetIsCapped() {
+        for (int i = 0; i < 1000; i++) {
+            policy.recordRequest();
+        }
+
+        int hedges = 0;
+        while (policy.tryAcquire()) {
+            hedges++;
+        }
+        assertThat(hedges).isEqualTo(10);
+    }
+}
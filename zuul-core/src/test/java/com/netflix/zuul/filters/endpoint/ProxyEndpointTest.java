@@ -30,6 +30,8 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.netflix.appinfo.InstanceInfo;
+import com.netflix.config.ConfigurationManager;
+import com.netflix.spectator.api.DefaultRegistry;
 import com.netflix.spectator.api.Spectator;
 import com.netflix.zuul.context.CommonContextKeys;
 import com.netflix.zuul.context.SessionContext;
@@ -43,11 +45,13 @@ import com.netflix.zuul.netty.NettyRequestAttemptFactory;
 import com.netflix.zuul.netty.connectionpool.DefaultOriginChannelInitializer;
 import com.netflix.zuul.netty.connectionpool.PooledConnection;
 import com.netflix.zuul.netty.server.MethodBinding;
+import com.netflix.zuul.netty.server.OriginResponseReceiver;
 import com.netflix.zuul.netty.timeouts.OriginTimeoutManager;
 import com.netflix.zuul.niws.RequestAttempt;
 import com.netflix.zuul.niws.RequestAttempts;
 import com.netflix.zuul.origins.BasicNettyOriginManager;
 import com.netflix.zuul.origins.NettyOrigin;
+import com.netflix.zuul.origins.OriginName;
 import com.netflix.zuul.passport.CurrentPassport;
 import com.netflix.zuul.passport.PassportItem;
 import com.netflix.zuul.passport.PassportState;
@@ -65,6 +69,10 @@ import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.Promise;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.configuration.AbstractConfiguration;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -73,6 +81,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.mockito.stubbing.Answer;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -134,6 +143,15 @@ class ProxyEndpointTest {
         doNothing().when(proxyEndpoint).invokeNext((HttpResponseMessage) any());
     }
 
+    @AfterEach
+    void clearHedgeProperties() {
+        AbstractConfiguration config = ConfigurationManager.getConfigInstance();
+        config.clearProperty("zuul.origin.hedge.enabled");
+        config.clearProperty("zuul.origin.hedge.min.delay.ms");
+        config.clearProperty("zuul.origin.retry.budget.enabled");
+        config.clearProperty("zuul.origin.retry.budget.min.per.second");
+    }
+
     @Test
     void testRecordProxyRequestEndIsCalledOnce() {
         proxyEndpoint.apply(request);
@@ -224,6 +242,31 @@ class ProxyEndpointTest {
         validateNoRetry();
     }
 
+    @Test
+    void noRetryWhenRetryBudgetExhausted() {
+        AbstractConfiguration config = ConfigurationManager.getConfigInstance();
+        config.setProperty("zuul.origin.retry.budget.enabled", true);
+        config.setProperty("zuul.origin.retry.budget.min.per.second", 0);
+        doReturn(OriginName.fromVip("retry-budget")).when(nettyOrigin).getName();
+        doReturn(new DefaultRegistry()).when(nettyOrigin).getSpectatorRegistry();
+        doReturn(1).when(nettyOrigin).getMaxRetriesForRequest(context);
+        createResponse(HttpResponseStatus.SERVICE_UNAVAILABLE);
+
+        proxyEndpoint.handleOriginNonSuccessResponse(response, createDiscoveryResult());
+        validateNoRetry();
+    }
+
+    @Test
+    void retryLimitCheckLeavesRetryBudgetAlone() {
+        AbstractConfiguration config = ConfigurationManager.getConfigInstance();
+        config.setProperty("zuul.origin.retry.budget.enabled", true);
+        config.setProperty("zuul.origin.retry.budget.min.per.second", 0);
+        doReturn(1).when(nettyOrigin).getMaxRetriesForRequest(context);
+
+        assertThat(proxyEndpoint.isBelowRetryLimit()).isTrue();
+        assertThat(proxyEndpoint.isBelowRetryLimit()).isTrue();
+    }
+
     @Test
     void noRetryAdjustmentOnNonRetriableStatusCode() {
         createResponse(HttpResponseStatus.BAD_REQUEST);
@@ -407,9 +450,13 @@ class ProxyEndpointTest {
     }
 
     private static DiscoveryResult createDiscoveryResult() {
+        return createDiscoveryResult("localhost");
+    }
+
+    private static DiscoveryResult createDiscoveryResult(String hostName) {
         InstanceInfo instanceInfo = InstanceInfo.Builder.newBuilder()
                 .setAppName("app")
-                .setHostName("localhost")
+                .setHostName(hostName)
                 .setPort(443)
                 .build();
         return DiscoveryResult.from(instanceInfo, true);
@@ -464,6 +511,128 @@ class ProxyEndpointTest {
         verify(chc, never()).fireChannelRead(any());
     }
 
+    // --- hedging tests ---
+
+    @Test
+    void hedgeThatRespondsFirstWinsAndOriginalAttemptIsClosed() {
+        ConfigurationManager.getConfigInstance().setProperty("zuul.origin.hedge.enabled", true);
+        HedgedRequest hedged = startHedgedRequest("hedge-wins");
+
+        hedged.hedgeChannel().writeInbound(new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+
+        verify(proxyEndpoint, times(1)).invokeNext(any(HttpResponseMessage.class));
+        assertThat(hedged.primaryChannel().isOpen()).isFalse();
+        assertThat(hedged.hedgeChannel().isOpen()).isTrue();
+        assertThat(hedged.hedgeChannel().pipeline().get(OriginResponseReceiver.CHANNEL_HANDLER_NAME))
+                .isNotNull();
+        assertThat(hedged.hedgeChannel().pipeline().get("_origin_hedge")).isNull();
+        assertThat(context.get(CommonContextKeys.ORIGIN_CHANNEL)).isSameAs(hedged.hedgeChannel());
+        verify(nettyOrigin, times(1)).recordProxyRequestEnd();
+    }
+
+    @Test
+    void originalAttemptThatRespondsFirstCancelsHedge() {
+        ConfigurationManager.getConfigInstance().setProperty("zuul.origin.hedge.enabled", true);
+        HedgedRequest hedged = startHedgedRequest("original-wins");
+
+        hedged.primaryChannel().writeInbound(new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+
+        verify(proxyEndpoint, times(1)).invokeNext(any(HttpResponseMessage.class));
+        assertThat(hedged.primaryChannel().isOpen()).isTrue();
+        assertThat(hedged.hedgeChannel().isOpen()).isFalse();
+        assertThat(context.get(CommonContextKeys.ORIGIN_CHANNEL)).isSameAs(hedged.primaryChannel());
+        verify(nettyOrigin, times(1)).recordProxyRequestEnd();
+    }
+
+    @Test
+    void noHedgeWhenDisabled() {
+        HedgedRequest hedged = startHedgedRequest("disabled");
+
+        assertThat(hedged.hedgeChannel().pipeline().get(OriginResponseReceiver.CHANNEL_HANDLER_NAME))
+                .isNull();
+        verify(nettyOrigin, times(1)).connectToOrigin(any(), any(), anyInt(), any(), any(), any());
+    }
+
+    private record HedgedRequest(EmbeddedChannel primaryChannel, EmbeddedChannel hedgeChannel) {}
+
+    /**
+     * Sends a GET to one server, and lets the hedge delay elapse so that a hedge is sent to another.
+     */
+    private HedgedRequest startHedgedRequest(String originName) {
+        ConfigurationManager.getConfigInstance().setProperty("zuul.origin.hedge.min.delay.ms", 0);
+
+        doReturn(OriginName.fromVip(originName)).when(nettyOrigin).getName();
+        doReturn(new DefaultRegistry()).when(nettyOrigin).getSpectatorRegistry();
+        doReturn(1).when(nettyOrigin).getMaxRetriesForRequest(any());
+        doReturn(Duration.ofSeconds(1)).when(timeoutManager).computeReadTimeout(any(), anyInt());
+        doReturn(Mockito.mock(RequestAttempt.class)).when(nettyOrigin).newRequestAttempt(any(), any(), any(), anyInt());
+
+        // Every GET to this origin responds in no time, so the hedge delay is 0.
+        HedgePolicy policy = HedgePolicy.forOrigin(nettyOrigin);
+        for (int i = 0; i < HedgePolicy.SAMPLES; i++) {
+            policy.recordResponseTime(0);
+            policy.recordRequest();
+        }
+
+        DiscoveryResult primaryServer = createDiscoveryResult("server1");
+        DiscoveryResult hedgeServer = createDiscoveryResult("server2");
+        EmbeddedChannel primaryChannel = newOriginChannel();
+        EmbeddedChannel hedgeChannel = newOriginChannel();
+        Promise<PooledConnection> primaryPromise = connectedPromise(primaryChannel, primaryServer);
+        Promise<PooledConnection> hedgePromise = connectedPromise(hedgeChannel, hedgeServer);
+        doAnswer(connectTo(primaryServer, primaryPromise))
+                .doAnswer(connectTo(hedgeServer, hedgePromise))
+                .when(nettyOrigin)
+                .connectToOrigin(any(), any(), anyInt(), any(), any(), any());
+
+        request = createRequest(context, "GET", "/some/where");
+        request.storeInboundRequest();
+        request.bufferBodyContents(new DefaultLastHttpContent());
+        proxyEndpoint = spy(new ProxyEndpoint(request, chc, null, MethodBinding.NO_OP_BINDING, attemptFactory) {
+            @Override
+            public NettyOrigin getOrigin(HttpRequestMessage request) {
+                return nettyOrigin;
+            }
+
+            @Override
+            protected OriginTimeoutManager getTimeoutManager(NettyOrigin origin) {
+                return timeoutManager;
+            }
+        });
+        doNothing().when(proxyEndpoint).invokeNext((HttpResponseMessage) any());
+
+        proxyEndpoint.apply(request);
+        channel.runScheduledPendingTasks();
+
+        return new HedgedRequest(primaryChannel, hedgeChannel);
+    }
+
+    private static EmbeddedChannel newOriginChannel() {
+        EmbeddedChannel originChannel = new EmbeddedChannel();
+        originChannel
+                .pipeline()
+                .addLast(DefaultOriginChannelInitializer.CONNECTION_POOL_HANDLER, new ChannelInboundHandlerAdapter());
+        return originChannel;
+    }
+
+    private Promise<PooledConnection> connectedPromise(EmbeddedChannel originChannel, DiscoveryResult server) {
+        PooledConnection conn = Mockito.mock(PooledConnection.class);
+        doReturn(originChannel).when(conn).getChannel();
+        doReturn(server).when(conn).getServer();
+        Promise<PooledConnection> promise = channel.eventLoop().newPromise();
+        promise.setSuccess(conn);
+        return promise;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Answer<Promise<PooledConnection>> connectTo(
+            DiscoveryResult server, Promise<PooledConnection> promise) {
+        return invocation -> {
+            ((AtomicReference<DiscoveryResult>) invocation.getArgument(4)).set(server);
+            return promise;
+        };
+    }
+
     private void createResponse(HttpResponseStatus status) {
         response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, status);
     }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+
+package com.netflix.zuul.filters.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.config.ConfigurationManager;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+    private final Registry registry = new DefaultRegistry();
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final RetryBudget budget = new RetryBudget(registry, "origin", clock::get);
+
+    @BeforeEach
+    void noMinimumRetries() {
+        ConfigurationManager.getConfigInstance().setProperty("zuul.origin.retry.budget.min.per.second", 0);
+    }
+
+    @AfterEach
+    void resetProperties() {
+        ConfigurationManager.getConfigInstance().clearProperty("zuul.origin.retry.budget.min.per.second");
+    }
+
+    @Test
+    void retriesArePercentageOfFirstAttempts() {
+        recordFirstAttempts(20);
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+
+        assertThat(count("retried")).isEqualTo(2);
+        assertThat(count("exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void firstAttemptsExpireAfterWindow() {
+        recordFirstAttempts(10);
+
+        clock.addAndGet((RetryBudget.WINDOW_SECONDS - 1) * 1000L);
+        assertThat(budget.tryAcquire()).isTrue();
+
+        clock.addAndGet(1000L);
+        recordFirstAttempts(9);
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void retriesExpireAfterWindow() {
+        recordFirstAttempts(10);
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+
+        clock.addAndGet(RetryBudget.WINDOW_SECONDS * 1000L);
+        recordFirstAttempts(10);
+        assertThat(budget.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void minimumRetriesAllowedWithoutTraffic() {
+        ConfigurationManager.getConfigInstance().setProperty("zuul.origin.retry.budget.min.per.second", 1);
+
+        for (int i = 0; i < RetryBudget.WINDOW_SECONDS; i++) {
+            assertThat(budget.tryAcquire()).isTrue();
+        }
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    private void recordFirstAttempts(int count) {
+        for (int i = 0; i < count; i++) {
+            budget.recordFirstAttempt();
+        }
+    }
+
+    private long count(String result) {
+        return registry.counter("zuul.origin.retry.budget", "id", "origin", "result", result)
+                .count();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.message;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.config.ConfigurationManager;
+import com.netflix.zuul.context.SessionContext;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.commons.configuration.AbstractConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BodySpillTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        AbstractConfiguration config = ConfigurationManager.getConfigInstance();
+        config.setProperty("zuul.message.body.spill.enabled", true);
+        config.setProperty("zuul.message.body.spill.memory.bytes", 8);
+        config.setProperty("zuul.message.body.spill.dir", dir.toString());
+    }
+
+    @AfterEach
+    void resetProperties() {
+        AbstractConfiguration config = ConfigurationManager.getConfigInstance();
+        config.clearProperty("zuul.message.body.spill.enabled");
+        config.clearProperty("zuul.message.body.spill.memory.bytes");
+        config.clearProperty("zuul.message.body.spill.dir");
+    }
+
+    @Test
+    void spillsBodyPastMemoryLimit() throws Exception {
+        long mappedBefore = BodySpill.mappedBytes();
+        ZuulMessage msg = new ZuulMessageImpl(new SessionContext(), new Headers());
+        ByteBuf inMemory = Unpooled.copiedBuffer("Hello ", UTF_8);
+        ByteBuf spilled = Unpooled.directBuffer().writeBytes("big World".getBytes(UTF_8));
+
+        msg.bufferBodyContents(new DefaultHttpContent(inMemory));
+        msg.bufferBodyContents(new DefaultHttpContent(spilled));
+        msg.bufferBodyContents(new DefaultLastHttpContent(Unpooled.copiedBuffer("!", UTF_8)));
+
+        assertThat(msg.hasCompleteBody()).isTrue();
+        assertThat(msg.getBodyAsText()).isEqualTo("Hello big World!");
+        assertThat(msg.getBodyLength()).isEqualTo(16);
+        assertThat(inMemory.refCnt()).isEqualTo(1);
+        // The spilled chunk's own buffer is released, as its content is now in the file.
+        assertThat(spilled.refCnt()).isZero();
+        assertThat(BodySpill.mappedBytes()).isGreaterThan(mappedBefore);
+        assertThat(files()).hasSize(1);
+
+        List<HttpContent> chunks = new ArrayList<>();
+        msg.getBodyContents().forEach(chunks::add);
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.get(2)).isInstanceOf(LastHttpContent.class);
+
+        // Replaying, as for a retry, reads each chunk independently.
+        for (int attempt = 0; attempt < 2; attempt++) {
+            StringBuilder replayed = new StringBuilder();
+            for (HttpContent chunk : msg.getBodyContents()) {
+                ByteBuf dup = chunk.content().retainedDuplicate();
+                replayed.append(dup.toString(UTF_8));
+                dup.release();
+            }
+            assertThat(replayed.toString()).isEqualTo("Hello big World!");
+        }
+
+        msg.disposeBufferedBody();
+
+        assertThat(files()).isEmpty();
+        assertThat(BodySpill.mappedBytes()).isEqualTo(mappedBefore);
+    }
+
+    @Test
+    void cloneSharesSpilledChunks() throws Exception {
+        long mappedBefore = BodySpill.mappedBytes();
+        ZuulMessage msg = new ZuulMessageImpl(new SessionContext(), new Headers());
+        msg.bufferBodyContents(new DefaultHttpContent(Unpooled.copiedBuffer("0123456789", UTF_8)));
+        msg.bufferBodyContents(new DefaultLastHttpContent(Unpooled.copiedBuffer("abc", UTF_8)));
+
+        ZuulMessage copy = msg.clone();
+        msg.disposeBufferedBody();
+
+        assertThat(copy.hasCompleteBody()).isTrue();
+        assertThat(copy.getBodyAsText()).isEqualTo("0123456789abc");
+        assertThat(files()).isEmpty();
+
+        copy.disposeBufferedBody();
+        assertThat(BodySpill.mappedBytes()).isEqualTo(mappedBefore);
+    }
+
+    @Test
+    void smallBodyStaysInMemory() throws Exception {
+        ZuulMessage msg = new ZuulMessageImpl(new SessionContext(), new Headers());
+        msg.bufferBodyContents(new DefaultLastHttpContent(Unpooled.copiedBuffer("small", UTF_8)));
+
+        assertThat(msg.getBodyAsText()).isEqualTo("small");
+        assertThat(files()).isEmpty();
+        msg.disposeBufferedBody();
+    }
+
+    private List<Path> files() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.toList();
+        }
+    }
+}
@@ -21,6 +21,9 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 
 import com.netflix.zuul.exception.ZuulException;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.AsciiString;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,6 +31,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 
@@ -1092,4 +1096,154 @@ class HeadersTest {
         assertThat(headers.getAll("B")).containsExactly("b2");
         assertThat(headers.getAll("C")).containsExactly("c2");
     }
+
+    @Test
+    void hashIndexed_lookupsAcrossManyHeaders() {
+        Headers headers = Headers.hashIndexed(0);
+        for (int i = 0; i < 50; i++) {
+            headers.add("X-Header-" + i, "v" + i);
+        }
+        headers.add("x-header-7", "again");
+
+        assertThat(headers.getFirst("X-HEADER-7")).isEqualTo("v7");
+        assertThat(headers.getAll("x-header-7")).containsExactly("v7", "again");
+        assertThat(headers.contains("x-header-7", "again")).isTrue();
+        assertThat(headers.contains("x-header-50")).isFalse();
+
+        headers.remove("X-Header-3");
+        headers.set("X-Header-7", "set");
+
+        assertThat(headers.getAll("x-header-3")).isEmpty();
+        assertThat(headers.getAll("x-header-7")).containsExactly("set");
+        assertThat(headers.getFirst("x-header-49")).isEqualTo("v49");
+        assertThat(headers.size()).isEqualTo(49);
+    }
+
+    @Test
+    void hashIndexed_keepsOrderAndOriginalNames() {
+        Headers headers = Headers.hashIndexed(0);
+        for (int i = 0; i < 20; i++) {
+            headers.add("X-Header-" + (i % 4), "v" + i);
+        }
+        headers.set("x-HEADER-2", "set");
+
+        List<String> names = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        headers.forEach((name, value) -> {
+            names.add(name);
+            values.add(value);
+        });
+
+        assertThat(names).containsExactly("X-Header-0", "X-Header-1", "x-HEADER-2", "X-Header-3", "X-Header-0",
+                "X-Header-1", "X-Header-3", "X-Header-0", "X-Header-1", "X-Header-3", "X-Header-0", "X-Header-1",
+                "X-Header-3", "X-Header-0", "X-Header-1", "X-Header-3");
+        assertThat(values.get(2)).isEqualTo("set");
+    }
+
+    @Test
+    void hashIndexed_copyOfKeepsMode() {
+        Headers headers = Headers.hashIndexed(10);
+
+        assertThat(Headers.copyOf(headers).isHashIndexed()).isTrue();
+        assertThat(Headers.copyOf(new Headers()).isHashIndexed()).isFalse();
+    }
+
+    @Test
+    void hashIndexed_behavesLikeDefault() {
+        Random random = new Random(42);
+        Headers plain = new Headers();
+        Headers indexed = Headers.hashIndexed(0);
+
+        for (int op = 0; op < 5000; op++) {
+            String name = "Name-" + random.nextInt(40);
+            String value = "v" + random.nextInt(5);
+            switch (random.nextInt(8)) {
+                case 0, 1, 2 -> {
+                    plain.add(name, value);
+                    indexed.add(name, value);
+                }
+                case 3 -> {
+                    plain.set(name, value);
+                    indexed.set(name, value);
+                }
+                case 4 -> assertThat(indexed.setIfAbsent(name, value)).isEqualTo(plain.setIfAbsent(name, value));
+                case 5 -> assertThat(indexed.remove(name)).isEqualTo(plain.remove(name));
+                case 6 -> {
+                    if (random.nextInt(50) == 0) {
+                        assertThat(indexed.collapseMultiValuedHeaders())
+                                .isEqualTo(plain.collapseMultiValuedHeaders());
+                    }
+                }
+                default -> {
+                    assertThat(indexed.getFirst(name)).isEqualTo(plain.getFirst(name));
+                    assertThat(indexed.contains(name, value)).isEqualTo(plain.contains(name, value));
+                }
+            }
+            assertThat(indexed.getAll(name)).isEqualTo(plain.getAll(name));
+        }
+
+        assertThat(indexed.entries()).containsExactlyElementsOf(plain.entries());
+    }
+
+    @Test
+    void addAll_fromNetty() {
+        HttpHeaders nettyHeaders = new DefaultHttpHeaders();
+        nettyHeaders.add(AsciiString.of("x-ascii"), AsciiString.of("a1"));
+        nettyHeaders.add("X-String", "s1");
+        nettyHeaders.add(AsciiString.of("X-Ascii"), AsciiString.of("a2"));
+
+        Headers headers = new Headers();
+        headers.addAll(nettyHeaders);
+
+        assertThat(headers.size()).isEqualTo(3);
+        assertThat(headers.getAll("X-ASCII")).containsExactly("a1", "a2");
+        assertThat(headers.getFirst("x-string")).isEqualTo("s1");
+        assertThat(headers.contains("x-ascii", "a2")).isTrue();
+
+        List<String> names = new ArrayList<>();
+        headers.forEach((name, value) -> names.add(name));
+        assertThat(names).containsExactly("x-ascii", "X-String", "X-Ascii");
+    }
+
+    @Test
+    void copyTo_passesUnreadHeadersThrough() {
+        HttpHeaders nettyHeaders = new DefaultHttpHeaders();
+        AsciiString untouched = AsciiString.of("untouched");
+        nettyHeaders.add(AsciiString.of("x-untouched"), untouched);
+        nettyHeaders.add(AsciiString.of("x-read"), AsciiString.of("read"));
+        nettyHeaders.add(AsciiString.of("x-removed"), AsciiString.of("removed"));
+
+        Headers headers = new Headers();
+        headers.addAll(nettyHeaders);
+        assertThat(headers.getFirst("x-read")).isEqualTo("read");
+        headers.remove("x-removed");
+        headers.add("X-Added", "added");
+
+        HttpHeaders copied = new DefaultHttpHeaders();
+        headers.copyTo(copied);
+
+        List<Map.Entry<CharSequence, CharSequence>> entries = new ArrayList<>();
+        copied.iteratorCharSequence().forEachRemaining(entries::add);
+        assertThat(entries).hasSize(3);
+        assertThat(entries.get(0).getValue()).isSameAs(untouched);
+        assertThat(copied.get("x-read")).isEqualTo("read");
+        assertThat(copied.get("x-added")).isEqualTo("added");
+        assertThat(copied.contains("x-removed")).isFalse();
+    }
+
+    @Test
+    void addAll_fromNettyHashIndexed() {
+        HttpHeaders nettyHeaders = new DefaultHttpHeaders();
+        for (int i = 0; i < 20; i++) {
+            nettyHeaders.add(AsciiString.of("x-header-" + i), AsciiString.of("v" + i));
+        }
+
+        Headers headers = Headers.hashIndexed(20);
+        headers.addAll(nettyHeaders);
+
+        assertThat(headers.getFirst("X-Header-17")).isEqualTo("v17");
+        assertThat(headers.contains("x-header-20")).isFalse();
+        headers.set("x-header-3", "set");
+        assertThat(headers.getAll("x-header-3")).containsExactly("set");
+    }
 }
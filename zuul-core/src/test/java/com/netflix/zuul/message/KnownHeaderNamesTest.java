@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.zuul.message.http.HttpHeaderNames;
+import io.netty.util.AsciiString;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class KnownHeaderNamesTest {
+
+    @Test
+    void findsEveryNameInAnyCase() {
+        for (String name : KnownHeaderNames.names()) {
+            HeaderName known = KnownHeaderNames.get(name);
+            assertThat(known).isNotNull();
+            assertThat(known.getName()).isEqualTo(name);
+            assertThat(KnownHeaderNames.get(name.toLowerCase(Locale.ROOT))).isSameAs(known);
+            assertThat(KnownHeaderNames.get(name.toUpperCase(Locale.ROOT))).isSameAs(known);
+            assertThat(KnownHeaderNames.get(AsciiString.of(name.toLowerCase(Locale.ROOT))))
+                    .isSameAs(known);
+        }
+    }
+
+    @Test
+    void unknownNames() {
+        assertThat(KnownHeaderNames.get("")).isNull();
+        assertThat(KnownHeaderNames.get("Content-Typ")).isNull();
+        assertThat(KnownHeaderNames.get("Content_Type")).isNull();
+        assertThat(KnownHeaderNames.get("X-Custom-Header")).isNull();
+        assertThat(KnownHeaderNames.get(AsciiString.of("x-custom-header"))).isNull();
+    }
+
+    @Test
+    void sharedWithHttpHeaderNames() {
+        assertThat(HttpHeaderNames.get("Content-Type")).isSameAs(KnownHeaderNames.get("content-type"));
+        assertThat(HttpHeaderNames.CONTENT_TYPE).isSameAs(KnownHeaderNames.get("content-type"));
+
+        // Keeps the caller's case.
+        assertThat(HttpHeaderNames.get("content-type").getName()).isEqualTo("content-type");
+    }
+
+    @Test
+    void headersKeepOriginalCase() {
+        Headers headers = new Headers();
+        headers.add("CONTENT-type", "text/plain");
+
+        assertThat(headers.getFirst(HttpHeaderNames.CONTENT_TYPE)).isEqualTo("text/plain");
+        assertThat(headers.keySet().iterator().next().getName()).isEqualTo("CONTENT-type");
+    }
+}
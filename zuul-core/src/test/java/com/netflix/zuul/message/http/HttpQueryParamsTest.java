@@ -17,6 +17,7 @@
 package com.netflix.zuul.message.http;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.List;
 import java.util.Locale;
@@ -168,4 +169,89 @@ class HttpQueryParamsTest {
         assertThat(queryParams.toString()).isEqualTo(queryString);
         assertThat(queryParams.immutableCopy().toString()).isEqualTo(queryString);
     }
+
+    @Test
+    void untouchedQueryEncodedAsIs() {
+        String queryString = "k1=v1&k2=a+b%2Fc%C3%A9&k3=&k4=%F0%9F%98%80";
+        HttpQueryParams queryParams = HttpQueryParams.parse(queryString);
+
+        assertThat(queryParams.isUnmodifiedSinceParse()).isTrue();
+        assertThat(queryParams.toEncodedString()).isSameAs(queryString);
+        assertThat(queryParams.getFirst("k2")).isEqualTo("a b/c\u00e9");
+        assertThat(queryParams.toEncodedString()).isSameAs(queryString);
+    }
+
+    @Test
+    void modifiedQueryReencoded() {
+        HttpQueryParams queryParams = HttpQueryParams.parse("k1=v1&k2=v2");
+
+        queryParams.set("k2", "v 3");
+
+        assertThat(queryParams.isUnmodifiedSinceParse()).isFalse();
+        assertThat(queryParams.toEncodedString()).isEqualTo("k1=v1&k2=v+3");
+    }
+
+    @Test
+    void nonCanonicalQueryStillCleanedUp() {
+        assertThat(HttpQueryParams.parse("&k1=v1&&k2=%7e%20&").toEncodedString())
+                .isEqualTo("k1=v1&k2=%7E+");
+    }
+
+    @Test
+    void isCanonical() {
+        assertThat(HttpQueryParams.isCanonical("")).isTrue();
+        assertThat(HttpQueryParams.isCanonical("a=b&c&d=")).isTrue();
+        assertThat(HttpQueryParams.isCanonical("a=%2F%3D%26&b=%E2%82%AC")).isTrue();
+
+        // Each of these would come out differently after decoding and encoding.
+        assertThat(HttpQueryParams.isCanonical("a=b&")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a&&b")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("=a")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a=b=c")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a=%2f")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a=%41")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a=%20")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a=%C3")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a=%C0%80")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a=%ED%A0%80")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a=%2")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a=~")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a&a=")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("a=&b&a")).isFalse();
+        assertThat(HttpQueryParams.isCanonical("ab&a=&a=b")).isTrue();
+        assertThat(HttpQueryParams.isCanonical("a&ab=")).isTrue();
+    }
+
+    @Test
+    void canonicalMatchesEncoding() {
+        for (String queryString : List.of("a=b&c&d=", "a=%2F%3D%26&b=%E2%82%AC", "x=1&y=+", "k=%F4%8F%BF%BF")) {
+            HttpQueryParams queryParams = HttpQueryParams.parse(queryString);
+            queryParams.add("z", "1");
+            queryParams.removeAll("z");
+
+            assertThat(queryParams.toEncodedString()).isEqualTo(queryString);
+        }
+    }
+
+    @Test
+    void isEmpty() {
+        assertThat(HttpQueryParams.parse("&&").isEmpty()).isTrue();
+        assertThat(HttpQueryParams.parse("").isEmpty()).isTrue();
+        assertThat(HttpQueryParams.parse("&a").isEmpty()).isFalse();
+        assertThat(new HttpQueryParams().isEmpty()).isTrue();
+    }
+
+    @Test
+    void immutableCopyOfUnparsedParams() {
+        HttpQueryParams queryParams = HttpQueryParams.parse("k1=v1&k2=v2");
+        HttpQueryParams copy = queryParams.immutableCopy();
+
+        queryParams.set("k1", "changed");
+
+        assertThat(copy.isImmutable()).isTrue();
+        assertThat(copy.getFirst("k1")).isEqualTo("v1");
+        assertThat(copy.toEncodedString()).isEqualTo("k1=v1&k2=v2");
+        assertThatThrownBy(() -> copy.add("k3", "v3")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> copy.entries().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
 }
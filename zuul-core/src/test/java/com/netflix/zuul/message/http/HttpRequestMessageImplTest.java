@@ -95,6 +95,34 @@ class HttpRequestMessageImplTest {
         assertThat(originalRequest.getHeaders().getFirst("Host")).isEqualTo("blah.netflix.com");
     }
 
+    @Test
+    void storeInboundRequestLeavesQueryParamsUnparsed() {
+        HttpQueryParams queryParams = HttpQueryParams.parse("flag=5&other");
+        request = new HttpRequestMessageImpl(
+                new SessionContext(),
+                "HTTP/1.1",
+                "GET",
+                "/some/where",
+                queryParams,
+                new Headers(),
+                "192.168.0.2",
+                "https",
+                7002,
+                "localhost",
+                new LocalAddress("777"),
+                false);
+
+        request.storeInboundRequest();
+        HttpQueryParams inboundQueryParams = request.getInboundRequest().getQueryParams();
+
+        assertThat(queryParams.isParsed()).isFalse();
+        assertThat(inboundQueryParams.isParsed()).isFalse();
+        assertThat(inboundQueryParams.toEncodedString()).isEqualTo("flag=5&other");
+        assertThat(inboundQueryParams.isParsed()).isFalse();
+        assertThat(inboundQueryParams.getFirst("flag")).isEqualTo("5");
+        assertThat(queryParams.isParsed()).isFalse();
+    }
+
     @Test
     void testReconstructURI() {
         HttpQueryParams queryParams = new HttpQueryParams();
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.netty.connectionpool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.net.InetAddresses;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.ManualClock;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.resolver.AddressResolver;
+import io.netty.util.concurrent.Future;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachingAddressResolverGroupTest {
+
+    private static final InetAddress ADDR_1 = InetAddresses.forString("10.0.0.1");
+    private static final InetAddress ADDR_2 = InetAddresses.forString("10.0.0.2");
+
+    private final ManualClock clock = new ManualClock();
+    private final Queue<Runnable> pendingLookups = new ArrayDeque<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private volatile InetAddress nextAddress = ADDR_1;
+    private volatile boolean failLookups;
+
+    private CachingAddressResolverGroup group;
+
+    @BeforeEach
+    void setup() {
+        group = new CachingAddressResolverGroup(
+                new DefaultRegistry(clock),
+                host -> {
+                    lookups.incrementAndGet();
+                    if (failLookups) {
+                        throw new UnknownHostException(host);
+                    }
+                    return List.of(nextAddress);
+                },
+                pendingLookups::add,
+                1000,
+                100,
+                80);
+    }
+
+    private void runPendingLookups() {
+        Runnable r;
+        while ((r = pendingLookups.poll()) != null) {
+            r.run();
+        }
+    }
+
+    private void advanceMillis(long millis) {
+        clock.setMonotonicTime(clock.monotonicTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void cachesPositiveResults() {
+        CompletableFuture<List<InetAddress>> first = group.resolveAll("origin");
+        assertThat(first).isNotDone();
+        runPendingLookups();
+        assertThat(first).isCompletedWithValue(List.of(ADDR_1));
+
+        CompletableFuture<List<InetAddress>> second = group.resolveAll("origin");
+        assertThat(second).isCompletedWithValue(List.of(ADDR_1));
+        assertThat(pendingLookups).isEmpty();
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void coalescesConcurrentLookups() {
+        CompletableFuture<List<InetAddress>> first = group.resolveAll("origin");
+        CompletableFuture<List<InetAddress>> second = group.resolveAll("origin");
+
+        assertThat(second).isSameAs(first);
+        assertThat(pendingLookups).hasSize(1);
+    }
+
+    @Test
+    void cachesNegativeResultsForNegativeTtl() {
+        failLookups = true;
+        CompletableFuture<List<InetAddress>> first = group.resolveAll("origin");
+        runPendingLookups();
+        assertThat(first).isCompletedExceptionally();
+
+        advanceMillis(50);
+        assertThat(group.resolveAll("origin")).isCompletedExceptionally();
+        assertThat(pendingLookups).isEmpty();
+
+        failLookups = false;
+        advanceMillis(51);
+        CompletableFuture<List<InetAddress>> retry = group.resolveAll("origin");
+        runPendingLookups();
+        assertThat(retry).isCompletedWithValue(List.of(ADDR_1));
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void refreshesInBackgroundBeforeExpiry() {
+        group.resolveAll("origin");
+        runPendingLookups();
+
+        nextAddress = ADDR_2;
+        advanceMillis(850);
+        // Past the refresh-ahead point, the current addresses are still served while the refresh runs.
+        assertThat(group.resolveAll("origin")).isCompletedWithValue(List.of(ADDR_1));
+        assertThat(group.resolveAll("origin")).isCompletedWithValue(List.of(ADDR_1));
+        assertThat(pendingLookups).hasSize(1);
+
+        runPendingLookups();
+        assertThat(group.resolveAll("origin")).isCompletedWithValue(List.of(ADDR_2));
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failedRefreshKeepsServingUntilExpiry() {
+        group.resolveAll("origin");
+        runPendingLookups();
+
+        failLookups = true;
+        advanceMillis(850);
+        group.resolveAll("origin");
+        runPendingLookups();
+
+        assertThat(group.resolveAll("origin")).isCompletedWithValue(List.of(ADDR_1));
+        assertThat(pendingLookups).isEmpty();
+
+        advanceMillis(200);
+        CompletableFuture<List<InetAddress>> expired = group.resolveAll("origin");
+        runPendingLookups();
+        assertThat(expired).isCompletedExceptionally();
+    }
+
+    @Test
+    void resolvesSocketAddressesThroughNetty() throws Exception {
+        DefaultEventLoop eventLoop = new DefaultEventLoop();
+        try {
+            AddressResolver<InetSocketAddress> resolver = group.getResolver(eventLoop);
+
+            Future<InetSocketAddress> future = resolver.resolve(InetSocketAddress.createUnresolved("origin", 7001));
+            assertThat(future.isDone()).isFalse();
+            runPendingLookups();
+
+            InetSocketAddress resolved = future.get(5, TimeUnit.SECONDS);
+            assertThat(resolved.getAddress()).isEqualTo(ADDR_1);
+            assertThat(resolved.getPort()).isEqualTo(7001);
+        } finally {
+            eventLoop.shutdownGracefully();
+        }
+    }
+}
@@ -225,4 +225,66 @@ class ConnectionPoolConfigImplTest {
         clientConfig.set(ConnectionPoolConfigImpl.CLOSE_ON_CIRCUIT_BREAKER, false);
         assertThat(connectionPoolConfig.isCloseOnCircuitBreakerEnabled()).isFalse();
     }
+
+    @Test
+    void testUseAsyncAddressResolution() {
+        assertThat(connectionPoolConfig.useAsyncAddressResolution()).isFalse();
+    }
+
+    @Test
+    void testUseAsyncAddressResolutionOverride() {
+        clientConfig.set(ConnectionPoolConfigImpl.ASYNC_ADDRESS_RESOLUTION, true);
+        assertThat(connectionPoolConfig.useAsyncAddressResolution()).isTrue();
+    }
+
+    @Test
+    void testIsConnectionBorrowingEnabled() {
+        assertThat(connectionPoolConfig.isConnectionBorrowingEnabled()).isFalse();
+    }
+
+    @Test
+    void testIsConnectionBorrowingEnabledOverride() {
+        clientConfig.set(ConnectionPoolConfigImpl.CONNECTION_BORROWING, true);
+        assertThat(connectionPoolConfig.isConnectionBorrowingEnabled()).isTrue();
+    }
+
+    @Test
+    void testGetMinIdleConnectionsPerEventLoop() {
+        assertThat(connectionPoolConfig.getMinIdleConnectionsPerEventLoop()).isEqualTo(0);
+    }
+
+    @Test
+    void testGetMinIdleConnectionsPerEventLoopOverride() {
+        clientConfig.set(ConnectionPoolConfigImpl.MIN_IDLE_CONNECTIONS_PER_EVENT_LOOP, 2);
+        assertThat(connectionPoolConfig.getMinIdleConnectionsPerEventLoop()).isEqualTo(2);
+    }
+
+    @Test
+    void testGetWarmupConnectionsPerSecond() {
+        assertThat(connectionPoolConfig.getWarmupConnectionsPerSecond())
+                .isEqualTo(ConnectionPoolConfigImpl.DEFAULT_WARMUP_CONNECTIONS_PER_SECOND);
+    }
+
+    @Test
+    void testIsHttp2Enabled() {
+        assertThat(connectionPoolConfig.isHttp2Enabled()).isFalse();
+    }
+
+    @Test
+    void testIsHttp2EnabledOverride() {
+        clientConfig.set(ConnectionPoolConfigImpl.USE_HTTP2, true);
+        assertThat(connectionPoolConfig.isHttp2Enabled()).isTrue();
+    }
+
+    @Test
+    void testGetHttp2ConnectionsPerEventLoop() {
+        assertThat(connectionPoolConfig.getHttp2ConnectionsPerEventLoop())
+                .isEqualTo(ConnectionPoolConfigImpl.DEFAULT_HTTP2_CONNECTIONS_PER_EVENT_LOOP);
+    }
+
+    @Test
+    void testGetHttp2MaxConcurrentStreamsOverride() {
+        clientConfig.set(ConnectionPoolConfigImpl.HTTP2_MAX_CONCURRENT_STREAMS, 10);
+        assertThat(connectionPoolConfig.getHttp2MaxConcurrentStreams()).isEqualTo(10);
+    }
 }
@@ -61,6 +61,8 @@ class ConnectionPoolMetricsTest {
         validateCounter("connectionpool_headerClose", metrics.headerCloseCounter());
         validateCounter("connectionpool_sslClose", metrics.sslCloseCompletionCounter());
         validateCounter("connectionpool_outboundIncomplete", metrics.outboundIncompleteCounter());
+        validateCounter("connectionpool_borrowHit", metrics.borrowHitCounter());
+        validateCounter("connectionpool_borrowMiss", metrics.borrowMissCounter());
     }
 
     private void validateCounter(String name, Counter counter) {
@@ -123,6 +123,30 @@ class DefaultClientChannelManagerTest {
         assertThat(socketAddress.getPort()).isEqualTo(443);
     }
 
+    @Test
+    void pickAddressInternal_deferredResolution() {
+        NonDiscoveryServer s = new NonDiscoveryServer("localhost", 443);
+
+        SocketAddress addr = DefaultClientChannelManager.pickAddressInternal(s, OriginName.fromVip("vip"), true);
+
+        assertThat(addr).isInstanceOf(InetSocketAddress.class);
+        InetSocketAddress socketAddress = (InetSocketAddress) addr;
+        assertThat(socketAddress.isUnresolved()).isTrue();
+        assertThat(socketAddress.getHostString()).isEqualTo("localhost");
+        assertThat(socketAddress.getPort()).isEqualTo(443);
+    }
+
+    @Test
+    void pickAddressInternal_deferredResolution_ipLiteral() {
+        NonDiscoveryServer s = new NonDiscoveryServer("192.168.0.1", 443);
+
+        SocketAddress addr = DefaultClientChannelManager.pickAddressInternal(s, OriginName.fromVip("vip"), true);
+
+        InetSocketAddress socketAddress = (InetSocketAddress) addr;
+        assertThat(socketAddress.isUnresolved()).isFalse();
+        assertThat(socketAddress.getAddress()).isEqualTo(InetAddresses.forString("192.168.0.1"));
+    }
+
     @Test
     void getServersDelegatesToResolver() {
         OriginName originName = OriginName.fromVip("vip", "test");
@@ -18,7 +18,11 @@ package com.netflix.zuul.netty.connectionpool;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.client.config.DefaultClientConfigImpl;
@@ -36,6 +40,7 @@ import com.netflix.zuul.passport.PassportState;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoop;
 import io.netty.channel.MultiThreadIoEventLoopGroup;
 import io.netty.channel.MultithreadEventLoopGroup;
@@ -46,7 +51,9 @@ import io.netty.channel.local.LocalIoHandler;
 import io.netty.channel.local.LocalServerChannel;
 import io.netty.handler.codec.DecoderException;
 import io.netty.util.concurrent.Promise;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -92,6 +99,8 @@ class PerServerConnectionPoolTest {
     private Timer connEstablishTimer;
     private AtomicInteger connsInPool;
     private AtomicInteger connsInUse;
+    private Counter borrowHitCounter;
+    private Counter borrowMissCounter;
 
     @BeforeAll
     @SuppressWarnings("deprecation")
@@ -141,6 +150,8 @@ class PerServerConnectionPoolTest {
         connTakenFromPoolIsNotOpen = registry.counter("fake_counter" + index++);
         closeAboveHighWaterMarkCounter = registry.counter("fake_counter" + index++);
         maxConnsPerHostExceededCounter = registry.counter("fake_counter" + index++);
+        borrowHitCounter = registry.counter("fake_counter" + index++);
+        borrowMissCounter = registry.counter("fake_counter" + index++);
         connEstablishTimer = registry.timer("fake_timer");
         connsInPool = new AtomicInteger();
         connsInUse = new AtomicInteger();
@@ -182,7 +193,9 @@ class PerServerConnectionPoolTest {
                 maxConnsPerHostExceededCounter,
                 connEstablishTimer,
                 connsInPool,
-                connsInUse);
+                connsInUse,
+                borrowHitCounter,
+                borrowMissCounter);
     }
 
     @Test
@@ -251,6 +264,133 @@ class PerServerConnectionPoolTest {
                 .sync();
     }
 
+    @Test
+    void acquireBorrowsIdleConnectionFromOtherEventLoop() throws InterruptedException, ExecutionException {
+        clientConfig.set(ConnectionPoolConfigImpl.CONNECTION_BORROWING, true);
+        MultithreadEventLoopGroup otherGroup = new MultiThreadIoEventLoopGroup(1, LocalIoHandler.newFactory());
+        try {
+            EventLoop otherEventLoop = otherGroup.next();
+            PooledConnection connection = pool.acquire(
+                            CLIENT_EVENT_LOOP, CurrentPassport.create(), new AtomicReference<>())
+                    .sync()
+                    .get();
+            CLIENT_EVENT_LOOP.submit(() -> pool.release(connection)).sync();
+            assertThat(connsInPool.get()).isEqualTo(1);
+
+            CurrentPassport newPassport = CurrentPassport.create();
+            PooledConnection borrowed = pool.acquire(otherEventLoop, newPassport, new AtomicReference<>())
+                    .sync()
+                    .get();
+
+            assertThat(borrowed).isEqualTo(connection);
+            assertThat(borrowed.getChannel().eventLoop()).isSameAs(otherEventLoop);
+            assertThat(borrowHitCounter.count()).isEqualTo(1);
+            assertThat(createNewConnCounter.count()).isEqualTo(1);
+            assertThat(connsInPool.get()).isEqualTo(0);
+            assertThat(connsInUse.get()).isEqualTo(1);
+
+            otherEventLoop
+                    .submit(() -> {
+                        checkChannelState(borrowed, newPassport, 2);
+                    })
+                    .sync();
+        } finally {
+            otherGroup.shutdownGracefully();
+        }
+    }
+
+    @Test
+    void acquireWithBorrowingAndNoIdleConnectionsCreatesNew() throws InterruptedException, ExecutionException {
+        clientConfig.set(ConnectionPoolConfigImpl.CONNECTION_BORROWING, true);
+
+        pool.acquire(CLIENT_EVENT_LOOP, CurrentPassport.create(), new AtomicReference<>())
+                .sync()
+                .get();
+
+        assertThat(borrowMissCounter.count()).isEqualTo(1);
+        assertThat(borrowHitCounter.count()).isEqualTo(0);
+        assertThat(createNewConnCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void fillIdleOpensConnectionsUpToMinIdle() throws Exception {
+        pool.fillIdle(CLIENT_EVENT_LOOP, 3, () -> true).get(5, TimeUnit.SECONDS);
+
+        assertThat(createNewConnCounter.count()).isEqualTo(3);
+        assertThat(createConnSucceededCounter.count()).isEqualTo(3);
+        assertThat(connsInPool.get()).isEqualTo(3);
+        assertThat(connsInUse.get()).isEqualTo(0);
+        assertThat(pool.getPoolForEventLoop(CLIENT_EVENT_LOOP)).hasSize(3);
+
+        // Already at the minimum, so nothing more is opened.
+        pool.fillIdle(CLIENT_EVENT_LOOP, 3, () -> true).get(5, TimeUnit.SECONDS);
+        assertThat(createNewConnCounter.count()).isEqualTo(3);
+
+        PooledConnection connection = pool.acquire(CLIENT_EVENT_LOOP, CurrentPassport.create(), new AtomicReference<>())
+                .sync()
+                .get();
+        assertThat(connection.getUsageCount()).isEqualTo(1);
+        assertThat(reuseConnCounter.count()).isEqualTo(1);
+        assertThat(connsInPool.get()).isEqualTo(2);
+    }
+
+    @Test
+    void fillIdleStopsWhenPermitDenied() throws Exception {
+        AtomicInteger permits = new AtomicInteger(2);
+        pool.fillIdle(CLIENT_EVENT_LOOP, 4, () -> permits.getAndDecrement() > 0).get(5, TimeUnit.SECONDS);
+
+        assertThat(createNewConnCounter.count()).isEqualTo(2);
+        assertThat(connsInPool.get()).isEqualTo(2);
+    }
+
+    @Test
+    void fillIdleIsCappedByWaterline() throws Exception {
+        clientConfig.set(ConnectionPoolConfigImpl.PER_SERVER_WATERLINE, 1);
+        pool.fillIdle(CLIENT_EVENT_LOOP, 4, () -> true).get(5, TimeUnit.SECONDS);
+
+        assertThat(createNewConnCounter.count()).isEqualTo(1);
+        assertThat(connsInPool.get()).isEqualTo(1);
+    }
+
+    @Test
+    void fillIdleRecordsConnectFailures() throws Exception {
+        PerServerConnectionPool failingPool = spy(pool);
+        EmbeddedChannel channel = new EmbeddedChannel();
+        doReturn(channel.newFailedFuture(new RuntimeException("connect failure")))
+                .when(failingPool)
+                .connectToServer(any(), any(), any());
+
+        failingPool.fillIdle(CLIENT_EVENT_LOOP, 1, () -> true).get(5, TimeUnit.SECONDS);
+
+        assertThat(createConnFailedCounter.count()).isEqualTo(1);
+        verify(failingPool).updateServerStatsOnConnectFailure();
+        assertThat(discoveryResult.getActiveRequestsCount()).isEqualTo(0);
+        assertThat(connsInPool.get()).isEqualTo(0);
+    }
+
+    @Test
+    void fillIdleCountsConnectsStillInFlight() throws Exception {
+        PerServerConnectionPool slowPool = spy(pool);
+        EmbeddedChannel channel = new EmbeddedChannel();
+        List<ChannelPromise> connects = new ArrayList<>();
+        doAnswer(invocation -> {
+                    ChannelPromise connect = channel.newPromise();
+                    connects.add(connect);
+                    return connect;
+                })
+                .when(slowPool)
+                .connectToServer(any(), any(), any());
+
+        slowPool.fillIdle(CLIENT_EVENT_LOOP, 2, () -> true);
+        // The first round's connects are still pending, so this one has nothing to add.
+        slowPool.fillIdle(CLIENT_EVENT_LOOP, 2, () -> true);
+        assertThat(createNewConnCounter.count()).isEqualTo(2);
+
+        connects.forEach(connect -> connect.setFailure(new RuntimeException("connect failure")));
+        slowPool.fillIdle(CLIENT_EVENT_LOOP, 2, () -> true);
+        assertThat(createNewConnCounter.count()).isEqualTo(4);
+    }
+
     @Test
     void releaseFromPoolButAlreadyClosed() throws InterruptedException, ExecutionException {
         CurrentPassport currentPassport = CurrentPassport.create();
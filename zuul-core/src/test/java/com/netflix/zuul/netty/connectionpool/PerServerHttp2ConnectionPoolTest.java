@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.netty.connectionpool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.client.config.DefaultClientConfigImpl;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.zuul.discovery.DiscoveryResult;
+import com.netflix.zuul.netty.server.Server;
+import com.netflix.zuul.origins.OriginName;
+import com.netflix.zuul.passport.CurrentPassport;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoop;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.MultithreadEventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalIoHandler;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PerServerHttp2ConnectionPoolTest {
+
+    private static LocalAddress LOCAL_ADDRESS;
+    private static MultithreadEventLoopGroup ORIGIN_EVENT_LOOP_GROUP;
+    private static MultithreadEventLoopGroup CLIENT_EVENT_LOOP_GROUP;
+    private static EventLoop CLIENT_EVENT_LOOP;
+    private static Class<? extends Channel> PREVIOUS_CHANNEL_TYPE;
+
+    private Registry registry;
+    private DiscoveryResult discoveryResult;
+    private DefaultClientConfigImpl clientConfig;
+    private AtomicInteger connsInUse;
+    private PerServerHttp2ConnectionPool pool;
+
+    @BeforeAll
+    @SuppressWarnings("deprecation")
+    static void staticSetup() throws InterruptedException {
+        LOCAL_ADDRESS = new LocalAddress(UUID.randomUUID().toString());
+
+        CLIENT_EVENT_LOOP_GROUP = new MultiThreadIoEventLoopGroup(1, LocalIoHandler.newFactory());
+        CLIENT_EVENT_LOOP = CLIENT_EVENT_LOOP_GROUP.next();
+
+        ORIGIN_EVENT_LOOP_GROUP = new MultiThreadIoEventLoopGroup(1, LocalIoHandler.newFactory());
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(ORIGIN_EVENT_LOOP_GROUP)
+                .localAddress(LOCAL_ADDRESS)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(LocalChannel ch) {
+                        ch.pipeline().addLast(Http2FrameCodecBuilder.forServer().build());
+                        ch.pipeline().addLast(new Http2MultiplexHandler(new ChannelInitializer<Channel>() {
+                            @Override
+                            protected void initChannel(Channel stream) {}
+                        }));
+                    }
+                });
+
+        bootstrap.bind().sync();
+        PREVIOUS_CHANNEL_TYPE = Server.defaultOutboundChannelType.getAndSet(LocalChannel.class);
+    }
+
+    @AfterAll
+    @SuppressWarnings("deprecation")
+    static void staticCleanup() {
+        ORIGIN_EVENT_LOOP_GROUP.shutdownGracefully();
+        CLIENT_EVENT_LOOP_GROUP.shutdownGracefully();
+
+        if (PREVIOUS_CHANNEL_TYPE != null) {
+            Server.defaultOutboundChannelType.set(PREVIOUS_CHANNEL_TYPE);
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        registry = new DefaultRegistry();
+        connsInUse = new AtomicInteger();
+
+        OriginName originName = OriginName.fromVipAndApp("whatever", "whatever");
+        InstanceInfo instanceInfo = InstanceInfo.Builder.newBuilder()
+                .setIPAddr("175.45.176.0")
+                .setPort(7001)
+                .setAppName("whatever")
+                .build();
+        discoveryResult = DiscoveryResult.from(instanceInfo, true);
+
+        clientConfig = new DefaultClientConfigImpl();
+        clientConfig.set(ConnectionPoolConfigImpl.USE_HTTP2, true);
+        ConnectionPoolConfig connectionPoolConfig = new ConnectionPoolConfigImpl(originName, clientConfig);
+        Http2OriginChannelInitializer channelInitializer =
+                new Http2OriginChannelInitializer(connectionPoolConfig, registry);
+        ClientChannelManager channelManager = mock(ClientChannelManager.class);
+
+        pool = new PerServerHttp2ConnectionPool(
+                discoveryResult,
+                LOCAL_ADDRESS,
+                new NettyClientConnectionFactory(connectionPoolConfig, channelInitializer),
+                ch -> new PooledConnection(
+                        ch,
+                        discoveryResult,
+                        channelManager,
+                        registry.counter("fake_close_counter"),
+                        registry.counter("fake_close_wrt_counter")),
+                connectionPoolConfig,
+                clientConfig,
+                registry.counter("createNewConn"),
+                registry.counter("createConnSucceeded"),
+                registry.counter("createConnFailed"),
+                registry.counter("requestConn"),
+                registry.counter("reuseConn"),
+                registry.counter("connTakenFromPoolIsNotOpen"),
+                registry.counter("closeAboveHighWaterMark"),
+                registry.counter("maxConnsPerHostExceeded"),
+                registry.timer("connEstablish"),
+                new AtomicInteger(),
+                connsInUse,
+                channelInitializer);
+    }
+
+    @Test
+    void acquireMultiplexesStreamsOverOneConnection() throws Exception {
+        PooledConnection first = acquire();
+        PooledConnection second = acquire();
+
+        assertThat(first.getChannel()).isInstanceOf(Http2StreamChannel.class);
+        assertThat(second.getChannel()).isInstanceOf(Http2StreamChannel.class);
+        assertThat(first.getChannel().parent()).isSameAs(second.getChannel().parent());
+        assertThat(registry.counter("createNewConn").count()).isEqualTo(1);
+        assertThat(registry.counter("createConnSucceeded").count()).isEqualTo(1);
+        assertThat(registry.counter("reuseConn").count()).isEqualTo(1);
+        assertThat(connsInUse.get()).isEqualTo(2);
+        assertThat(discoveryResult.getOpenConnectionsCount()).isEqualTo(2);
+    }
+
+    @Test
+    void acquireSpreadsStreamsOverConfiguredConnections() throws Exception {
+        clientConfig.set(ConnectionPoolConfigImpl.HTTP2_CONNECTIONS_PER_EVENT_LOOP, 2);
+
+        PooledConnection first = acquire();
+        PooledConnection second = acquire();
+        PooledConnection third = acquire();
+
+        assertThat(first.getChannel().parent()).isNotSameAs(second.getChannel().parent());
+        assertThat(third.getChannel().parent()).isIn(first.getChannel().parent(), second.getChannel().parent());
+        assertThat(registry.counter("createNewConn").count()).isEqualTo(2);
+    }
+
+    @Test
+    void acquireOpensExtraConnectionWhenStreamsExhausted() throws Exception {
+        clientConfig.set(ConnectionPoolConfigImpl.HTTP2_MAX_CONCURRENT_STREAMS, 1);
+
+        PooledConnection first = acquire();
+        PooledConnection second = acquire();
+
+        assertThat(first.getChannel().parent()).isNotSameAs(second.getChannel().parent());
+
+        // The extra connection is closed once its last stream is done.
+        CLIENT_EVENT_LOOP.submit(() -> pool.release(second)).sync();
+        second.getChannel().parent().closeFuture().sync();
+        assertThat(first.getChannel().parent().isActive()).isTrue();
+    }
+
+    @Test
+    void releaseClosesStream() throws Exception {
+        PooledConnection conn = acquire();
+
+        boolean released = CLIENT_EVENT_LOOP.submit(() -> pool.release(conn)).get();
+
+        assertThat(released).isFalse();
+        conn.getChannel().closeFuture().sync();
+        assertThat(conn.getChannel().parent().isActive()).isTrue();
+        assertThat(discoveryResult.getOpenConnectionsCount()).isEqualTo(0);
+
+        PooledConnection next = acquire();
+        assertThat(next.getChannel().parent()).isSameAs(conn.getChannel().parent());
+    }
+
+    private PooledConnection acquire() throws InterruptedException {
+        return pool.acquire(CLIENT_EVENT_LOOP, CurrentPassport.create(), new AtomicReference<>())
+                .sync()
+                .getNow();
+    }
+}
@@ -173,6 +173,34 @@ class ZuulFilterChainRunnerTest {
         assertThat((HttpContent) channel.readInbound()).isSameAs(transformer.replacement);
     }
 
+    @Test
+    void chainKnowsWhichFiltersProcessChunks() {
+        ZuulFilter[] filters = new ZuulFilter[] {
+            new SimpleOutboundFilter(true), new ChunkTransformingOutboundFilter(), new SimpleOutboundFilter(true)
+        };
+
+        assertThat(new RouteFilterChains.Chain<HttpResponseMessage>(filters).chunkFilterIndexes)
+                .containsExactly(1);
+    }
+
+    @Test
+    void chunkSkipsChunkFiltersThatHaveNotRunYet() {
+        ChunkTransformingOutboundFilter transformer = spy(new ChunkTransformingOutboundFilter());
+
+        ZuulFilter[] filters = new ZuulFilter[] {transformer};
+        ZuulFilterChainRunner runner = new ZuulFilterChainRunner(
+                filters, mock(FilterUsageNotifier.class), new FilterConstraints(List.of()), mock(Registry.class));
+
+        runner.initRunningFilterIndex(response);
+        HttpContent chunk = new DefaultHttpContent(Unpooled.copiedBuffer("data".getBytes(UTF_8)));
+        runner.filter(response, chunk);
+
+        verify(transformer, never()).processContentChunk(any(), any());
+        assertThat((Object) channel.readInbound()).isNull();
+        assertThat(response.getBodyContents()).containsExactly(chunk);
+        response.disposeBufferedBody();
+    }
+
     @Test
     void mixedChainWithLegacyAndAsyncFilters() {
         SimpleInboundFilter legacyFilter = spy(new SimpleInboundFilter(true));
@@ -192,6 +220,160 @@ class ZuulFilterChainRunnerTest {
         verifyNoMoreInteractions(notifier);
     }
 
+    @Test
+    void pathScopedFiltersOnlyRunForMatchingRequests() {
+        SimpleInboundFilter unscoped = new SimpleInboundFilter(true);
+        FooInboundFilter matching = new FooInboundFilter();
+        OtherInboundFilter other = new OtherInboundFilter();
+
+        ZuulFilter[] filters = new ZuulFilter[] {unscoped, other, matching};
+        FilterUsageNotifier notifier = mock(FilterUsageNotifier.class);
+
+        ZuulFilterChainRunner runner =
+                new ZuulFilterChainRunner(filters, notifier, new FilterConstraints(List.of()), mock(Registry.class));
+        runner.filter(request);
+
+        verify(notifier).notify(eq(unscoped), eq(ExecutionStatus.SUCCESS));
+        verify(notifier).notify(eq(matching), eq(ExecutionStatus.SUCCESS));
+        verifyNoMoreInteractions(notifier);
+        assertThat((HttpRequestMessage) channel.readInbound()).isSameAs(request);
+    }
+
+    @Test
+    void pathScopedOutboundFiltersUseInboundRequestPath() {
+        request.setPath("/other/rewritten");
+        SimpleOutboundFilter outbound = new SimpleOutboundFilter(true);
+        OtherOutboundFilter other = new OtherOutboundFilter();
+
+        ZuulFilter[] filters = new ZuulFilter[] {other, outbound};
+        FilterUsageNotifier notifier = mock(FilterUsageNotifier.class);
+
+        ZuulFilterChainRunner runner =
+                new ZuulFilterChainRunner(filters, notifier, new FilterConstraints(List.of()), mock(Registry.class));
+        runner.filter(response);
+
+        verify(notifier).notify(eq(outbound), eq(ExecutionStatus.SUCCESS));
+        verifyNoMoreInteractions(notifier);
+    }
+
+    @Test
+    void routeChainsAreBuiltOncePerRouteClass() {
+        SimpleInboundFilter unscoped = new SimpleInboundFilter(true);
+        FooInboundFilter foo = new FooInboundFilter();
+        OtherInboundFilter other = new OtherInboundFilter();
+        ZuulFilter[] filters = new ZuulFilter[] {unscoped, foo, other};
+        RouteFilterChains<HttpRequestMessage> chains = new RouteFilterChains<>(filters);
+
+        RouteFilterChains.Chain<HttpRequestMessage> chain = chains.forMessage(request);
+        assertThat(chain.filters).containsExactly(unscoped, foo);
+        assertThat(chains.forMessage(request)).isSameAs(chain);
+
+        HttpRequestMessage otherRequest = new HttpRequestMessageImpl(
+                new SessionContext(),
+                "http",
+                "GET",
+                "/bar/baz",
+                new HttpQueryParams(),
+                new Headers(),
+                "127.0.0.1",
+                "http",
+                8080,
+                "server123");
+        otherRequest.storeInboundRequest();
+        assertThat(chains.forMessage(otherRequest).filters).containsExactly(unscoped, other);
+    }
+
+    @Test
+    void unscopedChainIsUsedAsIs() {
+        ZuulFilter[] filters = new ZuulFilter[] {new SimpleInboundFilter(true), new SimpleInboundFilter(false)};
+        RouteFilterChains<HttpRequestMessage> chains = new RouteFilterChains<>(filters);
+
+        assertThat(chains.forMessage(request).filters).isSameAs(filters);
+    }
+
+    @Test
+    void prefixesOnlyMatchWholeSegmentsOfTheNormalizedPath() {
+        SimpleInboundFilter unscoped = new SimpleInboundFilter(true);
+        OtherInboundFilter other = new OtherInboundFilter();
+        ZuulFilter[] filters = new ZuulFilter[] {unscoped, other};
+        RouteFilterChains<HttpRequestMessage> chains = new RouteFilterChains<>(filters);
+
+        assertThat(chains.forMessage(requestFor("/other")).filters).containsExactly(unscoped, other);
+        assertThat(chains.forMessage(requestFor("/other/x")).filters).containsExactly(unscoped, other);
+        assertThat(chains.forMessage(requestFor("/bar")).filters).containsExactly(unscoped, other);
+        assertThat(chains.forMessage(requestFor("/x/../other")).filters).containsExactly(unscoped, other);
+        assertThat(chains.forMessage(requestFor("//bar//y")).filters).containsExactly(unscoped, other);
+        assertThat(chains.forMessage(requestFor("/otherfoo")).filters).containsExactly(unscoped);
+        assertThat(chains.forMessage(requestFor("/other/../x")).filters).containsExactly(unscoped);
+        assertThat(chains.forMessage(requestFor("/barn/")).filters).containsExactly(unscoped);
+    }
+
+    @Test
+    void normalizePath() {
+        assertThat(RouteFilterChains.normalizePath("/a/b")).isEqualTo("/a/b");
+        assertThat(RouteFilterChains.normalizePath("/a/b/")).isEqualTo("/a/b/");
+        assertThat(RouteFilterChains.normalizePath("/")).isEqualTo("/");
+        assertThat(RouteFilterChains.normalizePath("/a//b")).isEqualTo("/a/b");
+        assertThat(RouteFilterChains.normalizePath("/a/./b")).isEqualTo("/a/b");
+        assertThat(RouteFilterChains.normalizePath("/a/../b")).isEqualTo("/b");
+        assertThat(RouteFilterChains.normalizePath("/a/%2E%2e/b")).isEqualTo("/b");
+        assertThat(RouteFilterChains.normalizePath("/../../a")).isEqualTo("/a");
+        assertThat(RouteFilterChains.normalizePath("/a/b/..")).isEqualTo("/a/");
+        assertThat(RouteFilterChains.normalizePath("/a/..")).isEqualTo("/");
+        assertThat(RouteFilterChains.normalizePath("/a/.../b")).isEqualTo("/a/.../b");
+        assertThat(RouteFilterChains.normalizePath("/a/.b")).isEqualTo("/a/.b");
+    }
+
+    @Test
+    void compiledChainsAreForTheSameFilters() {
+        SimpleInboundFilter first = new SimpleInboundFilter(true);
+        FooInboundFilter foo = new FooInboundFilter();
+        ZuulFilter[] filters = new ZuulFilter[] {first, foo};
+        RouteFilterChains<HttpRequestMessage> chains = new RouteFilterChains<>(filters);
+
+        assertThat(chains.isFor(new ZuulFilter[] {first, foo})).isTrue();
+        assertThat(chains.isFor(new ZuulFilter[] {foo, first})).isFalse();
+        assertThat(chains.isFor(new ZuulFilter[] {first, new FooInboundFilter()}))
+                .isFalse();
+    }
+
+    private static HttpRequestMessage requestFor(String path) {
+        HttpRequestMessage request = new HttpRequestMessageImpl(
+                new SessionContext(),
+                "http",
+                "GET",
+                path,
+                new HttpQueryParams(),
+                new Headers(),
+                "127.0.0.1",
+                "http",
+                8080,
+                "server123");
+        request.storeInboundRequest();
+        return request;
+    }
+
+    @Filter(order = 1, pathPrefixes = "/foo/")
+    class FooInboundFilter extends SimpleInboundFilter {
+        FooInboundFilter() {
+            super(true);
+        }
+    }
+
+    @Filter(order = 1, pathPrefixes = {"/other", "/bar/"})
+    class OtherInboundFilter extends SimpleInboundFilter {
+        OtherInboundFilter() {
+            super(true);
+        }
+    }
+
+    @Filter(order = 1, pathPrefixes = "/other")
+    class OtherOutboundFilter extends SimpleOutboundFilter {
+        OtherOutboundFilter() {
+            super(true);
+        }
+    }
+
     class AsyncInboundFilter extends HttpInboundFilter {
         private final boolean shouldFilter;
 
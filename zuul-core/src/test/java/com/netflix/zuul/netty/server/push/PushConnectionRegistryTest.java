@@ -17,11 +17,26 @@
 package com.netflix.zuul.netty.server.push;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
-
+import static org.mockito.Mockito.when;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -86,4 +101,122 @@ class PushConnectionRegistryTest {
 
         assertThat(pushConnectionRegistry.size()).isEqualTo(1);
     }
+
+    @Test
+    void testBroadcastSendsToEveryConnection() {
+        List<ByteBuf> sent = Collections.synchronizedList(new ArrayList<>());
+        PushConnection conn1 = connection(ImmediateEventExecutor.INSTANCE, sent, null);
+        PushConnection conn2 = connection(ImmediateEventExecutor.INSTANCE, sent, null);
+        PushConnection removed = connection(ImmediateEventExecutor.INSTANCE, sent, null);
+        pushConnectionRegistry.put("clientId1", conn1);
+        pushConnectionRegistry.put("clientId2", conn2);
+        pushConnectionRegistry.put("clientId3", removed);
+        pushConnectionRegistry.remove("clientId3");
+
+        ByteBuf message = Unpooled.copiedBuffer("hello", StandardCharsets.UTF_8);
+        pushConnectionRegistry.broadcast(message);
+
+        verify(conn1).sendPushMessage(any(ByteBuf.class));
+        verify(conn2).sendPushMessage(any(ByteBuf.class));
+        verify(removed, never()).sendPushMessage(any(ByteBuf.class));
+        assertThat(sent).hasSize(2);
+        for (ByteBuf buf : sent) {
+            assertThat(buf.toString(StandardCharsets.UTF_8)).isEqualTo("hello");
+            buf.release();
+        }
+        assertThat(message.refCnt()).isZero();
+    }
+
+    @Test
+    void testMulticastSendsToNamedClients() {
+        List<ByteBuf> sent = Collections.synchronizedList(new ArrayList<>());
+        PushConnection conn1 = connection(ImmediateEventExecutor.INSTANCE, sent, null);
+        PushConnection conn2 = connection(ImmediateEventExecutor.INSTANCE, sent, null);
+        pushConnectionRegistry.put("clientId1", conn1);
+        pushConnectionRegistry.put("clientId2", conn2);
+
+        ByteBuf message = Unpooled.copiedBuffer("hello", StandardCharsets.UTF_8);
+        pushConnectionRegistry.multicast(List.of("clientId2", "unknown"), message);
+
+        verify(conn1, never()).sendPushMessage(any(ByteBuf.class));
+        verify(conn2).sendPushMessage(any(ByteBuf.class));
+        assertThat(sent).hasSize(1);
+        sent.get(0).release();
+        assertThat(message.refCnt()).isZero();
+    }
+
+    @Test
+    void testBroadcastCarriesOnPastFailingConnection() {
+        List<ByteBuf> sent = Collections.synchronizedList(new ArrayList<>());
+        PushConnection conn1 = connection(ImmediateEventExecutor.INSTANCE, sent, null);
+        PushConnection failing = mock(PushConnection.class);
+        when(failing.getExecutor()).thenReturn(ImmediateEventExecutor.INSTANCE);
+        when(failing.sendPushMessage(any(ByteBuf.class))).thenThrow(new IllegalStateException("boom"));
+        PushConnection conn2 = connection(ImmediateEventExecutor.INSTANCE, sent, null);
+        pushConnectionRegistry.put("clientId1", conn1);
+        pushConnectionRegistry.put("clientId2", failing);
+        pushConnectionRegistry.put("clientId3", conn2);
+
+        ByteBuf message = Unpooled.copiedBuffer("hello", StandardCharsets.UTF_8);
+        pushConnectionRegistry.broadcast(message);
+
+        verify(conn1).sendPushMessage(any(ByteBuf.class));
+        verify(conn2).sendPushMessage(any(ByteBuf.class));
+        assertThat(sent).hasSize(2);
+        for (ByteBuf buf : sent) {
+            buf.release();
+        }
+        // The copy handed to the failed write was released too, so nothing holds on to the message.
+        assertThat(message.refCnt()).isZero();
+    }
+
+    @Test
+    void testBroadcastWritesOnEachConnectionsEventLoop() throws Exception {
+        DefaultEventLoop loop1 = new DefaultEventLoop();
+        DefaultEventLoop loop2 = new DefaultEventLoop();
+        try {
+            List<ByteBuf> sent = Collections.synchronizedList(new ArrayList<>());
+            Set<String> wrongThread = ConcurrentHashMap.newKeySet();
+            CountDownLatch latch = new CountDownLatch(4);
+            for (int i = 0; i < 4; i++) {
+                EventExecutor loop = i % 2 == 0 ? loop1 : loop2;
+                PushConnection conn = connection(loop, sent, () -> {
+                    if (!loop.inEventLoop()) {
+                        wrongThread.add(Thread.currentThread().getName());
+                    }
+                    latch.countDown();
+                });
+                pushConnectionRegistry.put("clientId" + i, conn);
+            }
+
+            ByteBuf message = Unpooled.copiedBuffer("hello", StandardCharsets.UTF_8);
+            pushConnectionRegistry.broadcast(message);
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(wrongThread).isEmpty();
+            for (ByteBuf buf : sent) {
+                buf.release();
+            }
+            // The event loops let go of the message once they are done with it.
+            loop1.submit(() -> {}).sync();
+            loop2.submit(() -> {}).sync();
+            assertThat(message.refCnt()).isZero();
+        } finally {
+            loop1.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+            loop2.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+        }
+    }
+
+    private static PushConnection connection(EventExecutor executor, List<ByteBuf> sent, Runnable onSend) {
+        PushConnection conn = mock(PushConnection.class);
+        when(conn.getExecutor()).thenReturn(executor);
+        when(conn.sendPushMessage(any(ByteBuf.class))).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            if (onSend != null) {
+                onSend.run();
+            }
+            return null;
+        });
+        return conn;
+    }
 }
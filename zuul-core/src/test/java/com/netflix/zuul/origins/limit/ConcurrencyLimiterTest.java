@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.origins.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void tryAcquireStopsAtLimit() {
+        AtomicInteger inflight = new AtomicInteger();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new FixedConcurrencyLimit(() -> 2), inflight);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(inflight.get()).isEqualTo(2);
+
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void tryAcquireNeverOvershootsUnderContention() throws Exception {
+        AtomicInteger inflight = new AtomicInteger();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new FixedConcurrencyLimit(() -> 50), inflight);
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int j = 0; j < 1000; j++) {
+                        if (limiter.tryAcquire()) {
+                            acquired.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(acquired.get()).isEqualTo(50);
+        assertThat(inflight.get()).isEqualTo(50);
+    }
+
+    @Test
+    void replacedLimitAppliesToRequestsAlreadyInFlight() {
+        AtomicInteger inflight = new AtomicInteger();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new FixedConcurrencyLimit(() -> 2), inflight);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+
+        limiter.setLimit(new FixedConcurrencyLimit(() -> 3));
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void acquireIgnoresLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new FixedConcurrencyLimit(() -> 0), new AtomicInteger());
+
+        limiter.acquire();
+
+        assertThat(limiter.getInflight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void aimdGrowsWhenUsedAndBacksOffOnDrop() {
+        AimdConcurrencyLimit limit = new AimdConcurrencyLimit(20, 10, 100, 0.9);
+
+        // Barely used, so no reason to grow.
+        limit.onSample(5, 2, false);
+        assertThat(limit.getLimit()).isEqualTo(20);
+
+        limit.onSample(5, 10, false);
+        assertThat(limit.getLimit()).isEqualTo(21);
+
+        limit.onSample(5, 10, true);
+        assertThat(limit.getLimit()).isEqualTo(18);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(5, 18, true);
+        }
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void gradientGrowsWhileLatencyIsSteady() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 10, 1000, 1.5, 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10, limit.getLimit(), false);
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(100);
+    }
+
+    @Test
+    void gradientShrinksWhenLatencyRises() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(200, 10, 1000, 1.5, 0.2);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10, 100, false);
+        }
+        int steady = limit.getLimit();
+
+        // The origin is queueing: latency has gone up five-fold.
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(50, steady, false);
+        }
+
+        assertThat(limit.getLimit()).isLessThan(steady / 2);
+    }
+
+    @Test
+    void gradientIgnoresSamplesWhileLimitIsNotTested() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(200, 10, 1000, 1.5, 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10, 5, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(200);
+    }
+
+    @Test
+    void gradientHalvesOnDrop() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(200, 10, 1000, 1.5, 1.0);
+
+        limit.onSample(10, 5, true);
+
+        assertThat(limit.getLimit()).isEqualTo(100);
+    }
+}
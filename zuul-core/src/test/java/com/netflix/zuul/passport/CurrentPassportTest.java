@@ -18,7 +18,12 @@ package com.netflix.zuul.passport;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.google.common.base.Ticker;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 
 class CurrentPassportTest {
@@ -97,4 +102,82 @@ class CurrentPassportTest {
     void testGetStateWithNoHistory() {
         assertThat(CurrentPassport.create().getState()).isNull();
     }
+
+    @Test
+    void toStringRoundTrips() {
+        String text = "CurrentPassport {start_ms=0, [+0=IN_REQ_HEADERS_RECEIVED, +5=FILTERS_INBOUND_START,"
+                + " +50=IN_REQ_LAST_CONTENT_RECEIVED, +350=FILTERS_INBOUND_END, +400=NOW]}";
+
+        CurrentPassport passport = CurrentPassport.parseFromToString(text);
+
+        assertThat(passport.toString()).isEqualTo(text);
+        assertThat(passport.getState()).isEqualTo(PassportState.FILTERS_INBOUND_END);
+        assertThat(passport.calculateTimeBetween(passport.findStartAndEndStates(
+                        PassportState.FILTERS_INBOUND_START, PassportState.FILTERS_INBOUND_END)))
+                .isEqualTo(345);
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        AtomicLong now = new AtomicLong();
+        CurrentPassport passport = new CurrentPassport(new Ticker() {
+            @Override
+            public long read() {
+                return now.getAndIncrement();
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            passport.add(i % 2 == 0 ? PassportState.MISC_IO_START : PassportState.MISC_IO_STOP);
+        }
+
+        assertThat(passport.getHistory()).hasSize(100);
+        assertThat(passport.findEachPairOf(PassportState.MISC_IO_START, PassportState.MISC_IO_STOP))
+                .hasSize(50);
+        assertThat(passport.findStateBackwards(PassportState.MISC_IO_START).getTime())
+                .isEqualTo(98);
+        assertThat(passport.getState()).isEqualTo(PassportState.MISC_IO_STOP);
+    }
+
+    @Test
+    void addIfNotAlready() {
+        CurrentPassport passport = CurrentPassport.create();
+
+        passport.addIfNotAlready(PassportState.IN_REQ_HEADERS_RECEIVED);
+        passport.addIfNotAlready(PassportState.IN_REQ_HEADERS_RECEIVED);
+
+        assertThat(passport.findStates(PassportState.IN_REQ_HEADERS_RECEIVED)).hasSize(1);
+    }
+
+    @Test
+    void readsFromOtherThreadSeeConsistentHistory() throws Exception {
+        CurrentPassport passport = CurrentPassport.create();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    Deque<PassportItem> history = passport.getHistory();
+                    int i = 0;
+                    for (PassportItem item : history) {
+                        PassportState expected =
+                                i++ % 2 == 0 ? PassportState.MISC_IO_START : PassportState.MISC_IO_STOP;
+                        assertThat(item.getState()).isEqualTo(expected);
+                    }
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 10_000; i++) {
+            passport.add(i % 2 == 0 ? PassportState.MISC_IO_START : PassportState.MISC_IO_STOP);
+        }
+        done.set(true);
+        reader.join();
+
+        assertThat(failure.get()).isNull();
+        assertThat(passport.getHistory()).hasSize(10_000);
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.zuul.stats.RouteStatusCounters.Entry;
+import com.netflix.zuul.stats.status.ZuulStatusCategory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RouteStatusCountersTest {
+
+    @Test
+    void countsByRouteCategoryAndStatus() {
+        DefaultRegistry registry = new DefaultRegistry();
+        RouteStatusCounters counters = new RouteStatusCounters(registry, 10);
+
+        counters.increment("api", ZuulStatusCategory.SUCCESS, 200);
+        counters.increment("api", ZuulStatusCategory.SUCCESS, 200);
+        counters.increment("api", ZuulStatusCategory.FAILURE_ORIGIN, 503);
+        counters.increment("api", ZuulStatusCategory.FAILURE_LOCAL_THROTTLED_ORIGIN_CONCURRENCY, 503);
+        counters.increment(null, ZuulStatusCategory.SUCCESS_NOT_FOUND, 404);
+
+        assertThat(counters.snapshot())
+                .containsExactlyInAnyOrder(
+                        new Entry("api", ZuulStatusCategory.SUCCESS, 200, 2),
+                        new Entry("api", ZuulStatusCategory.FAILURE_ORIGIN, 503, 1),
+                        new Entry("api", ZuulStatusCategory.FAILURE_LOCAL_THROTTLED_ORIGIN_CONCURRENCY, 503, 1),
+                        new Entry(RouteStatusCounters.UNKNOWN_ROUTE, ZuulStatusCategory.SUCCESS_NOT_FOUND, 404, 1));
+
+        PolledMeter.update(registry);
+        Id id = registry.createId("zuul.route.status")
+                .withTags("route", "api", "category", "SUCCESS", "group", "SUCCESS", "status", "200");
+        assertThat(registry.counters().map(Counter::id)).contains(id);
+    }
+
+    @Test
+    void routesOverTheLimitAreOther() {
+        RouteStatusCounters counters = new RouteStatusCounters(new DefaultRegistry(), 2);
+
+        counters.increment("a", ZuulStatusCategory.SUCCESS, 200);
+        counters.increment("b", ZuulStatusCategory.SUCCESS, 200);
+        counters.increment("c", ZuulStatusCategory.SUCCESS, 200);
+        counters.increment("d", ZuulStatusCategory.SUCCESS, 200);
+        counters.increment("a", ZuulStatusCategory.SUCCESS, 200);
+
+        assertThat(counters.snapshot())
+                .containsExactlyInAnyOrder(
+                        new Entry("a", ZuulStatusCategory.SUCCESS, 200, 2),
+                        new Entry("b", ZuulStatusCategory.SUCCESS, 200, 1),
+                        new Entry(RouteStatusCounters.OTHER_ROUTE, ZuulStatusCategory.SUCCESS, 200, 2));
+    }
+
+    @Test
+    void countsFromManyThreads() throws Exception {
+        RouteStatusCounters counters = new RouteStatusCounters(new DefaultRegistry(), 100);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counters.increment("route" + (i % 8), ZuulStatusCategory.SUCCESS, 200 + (i % 3));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<Entry> entries = counters.snapshot();
+        assertThat(entries).hasSize(8 * 3);
+        assertThat(entries.stream().mapToLong(Entry::count).sum()).isEqualTo(40_000);
+    }
+}
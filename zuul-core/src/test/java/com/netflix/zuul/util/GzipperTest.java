@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+class GzipperTest {
+
+    @Test
+    void roundTripsChunks() throws IOException {
+        Gzipper gzipper = new Gzipper();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        gzipper.write(new DefaultHttpContent(Unpooled.copiedBuffer("Hello ", StandardCharsets.UTF_8)));
+        drain(gzipper, compressed);
+        gzipper.write(new DefaultHttpContent(Unpooled.copiedBuffer("world", StandardCharsets.UTF_8)));
+        drain(gzipper, compressed);
+        gzipper.finish();
+        drain(gzipper, compressed);
+
+        assertThat(new String(gunzip(compressed.toByteArray()), StandardCharsets.UTF_8))
+                .isEqualTo("Hello world");
+    }
+
+    @Test
+    void flushesEachChunk() throws IOException {
+        Gzipper gzipper = new Gzipper();
+        gzipper.write(new DefaultHttpContent(Unpooled.copiedBuffer("partial", StandardCharsets.UTF_8)));
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        drain(gzipper, compressed);
+
+        // Without the trailer the stream is truncated, but everything written so far can already be decompressed.
+        GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()));
+        byte[] partial = new byte[7];
+        int read = 0;
+        while (read < partial.length) {
+            read += in.read(partial, read, partial.length - read);
+        }
+        assertThat(new String(partial, StandardCharsets.UTF_8)).isEqualTo("partial");
+    }
+
+    @Test
+    void roundTripsLargePooledDirectAndCompositeInput() throws IOException {
+        byte[] body = new byte[256 * 1024];
+        new Random(42).nextBytes(body);
+        PooledByteBufAllocator alloc = PooledByteBufAllocator.DEFAULT;
+
+        ByteBuf direct = alloc.directBuffer(body.length / 2).writeBytes(body, 0, body.length / 2);
+        CompositeByteBuf composite = alloc.compositeBuffer()
+                .addComponent(true, Unpooled.wrappedBuffer(body, body.length / 2, body.length / 4))
+                .addComponent(
+                        true, alloc.directBuffer().writeBytes(body, body.length * 3 / 4, body.length / 4));
+
+        Gzipper gzipper = new Gzipper(Deflater.BEST_SPEED);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        gzipper.write(new DefaultHttpContent(direct));
+        drain(gzipper, compressed);
+        gzipper.write(new DefaultLastHttpContent(composite));
+        gzipper.finish();
+        drain(gzipper, compressed);
+
+        assertThat(direct.refCnt()).isZero();
+        assertThat(composite.refCnt()).isZero();
+        assertThat(gunzip(compressed.toByteArray())).isEqualTo(body);
+    }
+
+    @Test
+    void emptyBody() throws IOException {
+        Gzipper gzipper = new Gzipper();
+        gzipper.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        drain(gzipper, compressed);
+
+        assertThat(gunzip(compressed.toByteArray())).isEmpty();
+    }
+
+    @Test
+    void nothingPendingAfterDrain() {
+        Gzipper gzipper = new Gzipper();
+        gzipper.write(new DefaultHttpContent(Unpooled.copiedBuffer("body", StandardCharsets.UTF_8)));
+        gzipper.getByteBuf().release();
+
+        assertThat(gzipper.getByteBuf().readableBytes()).isZero();
+    }
+
+    @Test
+    void recycledDeflaterStartsFresh() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            Gzipper gzipper = new Gzipper();
+            gzipper.write(new DefaultHttpContent(Unpooled.copiedBuffer("body " + i, StandardCharsets.UTF_8)));
+            gzipper.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            drain(gzipper, compressed);
+
+            assertThat(new String(gunzip(compressed.toByteArray()), StandardCharsets.UTF_8))
+                    .isEqualTo("body " + i);
+        }
+    }
+
+    @Test
+    void writeAfterFinishFails() {
+        Gzipper gzipper = new Gzipper();
+        gzipper.finish();
+        gzipper.getByteBuf().release();
+
+        assertThatThrownBy(() -> gzipper.write(new DefaultHttpContent(Unpooled.buffer())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void closeReleasesPendingOutput() {
+        Gzipper gzipper = new Gzipper();
+        gzipper.write(new DefaultHttpContent(Unpooled.copiedBuffer("body", StandardCharsets.UTF_8)));
+
+        gzipper.close();
+        gzipper.close();
+
+        assertThat(gzipper.getByteBuf().readableBytes()).isZero();
+        assertThatThrownBy(() -> gzipper.write(new DefaultHttpContent(Unpooled.buffer())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void closeAfterFinishIsHarmless() throws IOException {
+        Gzipper gzipper = new Gzipper();
+        gzipper.write(new DefaultHttpContent(Unpooled.copiedBuffer("body", StandardCharsets.UTF_8)));
+        gzipper.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        drain(gzipper, compressed);
+
+        gzipper.close();
+
+        assertThat(new String(gunzip(compressed.toByteArray()), StandardCharsets.UTF_8))
+                .isEqualTo("body");
+    }
+
+    private static void drain(Gzipper gzipper, ByteArrayOutputStream out) {
+        ByteBuf buf = gzipper.getByteBuf();
+        try {
+            out.writeBytes(ByteBufUtil.getBytes(buf));
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
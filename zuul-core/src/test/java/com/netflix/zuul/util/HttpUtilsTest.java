@@ -27,6 +27,7 @@ import com.netflix.zuul.message.http.HttpRequestMessage;
 import com.netflix.zuul.message.http.HttpRequestMessageImpl;
 import com.netflix.zuul.message.http.HttpResponseMessage;
 import com.netflix.zuul.message.http.HttpResponseMessageImpl;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -78,6 +79,68 @@ class HttpUtilsTest {
         assertThat(HttpUtils.acceptsGzip(headers)).isFalse();
     }
 
+    @Test
+    void detectsZstd() {
+        assertThat(HttpUtils.isCompressed("zstd")).isTrue();
+    }
+
+    @Test
+    void negotiateContentEncoding_prefersHighestQValue() {
+        Headers headers = new Headers();
+        headers.add("Accept-Encoding", "gzip;q=1.0, br;q=0.8, zstd;q=0.5");
+        assertThat(HttpUtils.negotiateContentEncoding(headers, List.of("br", "zstd", "gzip")))
+                .isEqualTo("gzip");
+    }
+
+    @Test
+    void negotiateContentEncoding_breaksTiesBySupportedOrder() {
+        Headers headers = new Headers();
+        headers.add("Accept-Encoding", "gzip, deflate, br, zstd");
+        assertThat(HttpUtils.negotiateContentEncoding(headers, List.of("br", "zstd", "gzip")))
+                .isEqualTo("br");
+        assertThat(HttpUtils.negotiateContentEncoding(headers, List.of("zstd", "gzip")))
+                .isEqualTo("zstd");
+    }
+
+    @Test
+    void negotiateContentEncoding_excludesZeroQValue() {
+        Headers headers = new Headers();
+        headers.add("Accept-Encoding", "br;q=0, GZIP");
+        assertThat(HttpUtils.negotiateContentEncoding(headers, List.of("br", "gzip")))
+                .isEqualTo("gzip");
+    }
+
+    @Test
+    void negotiateContentEncoding_wildcard() {
+        Headers headers = new Headers();
+        headers.add("Accept-Encoding", "*;q=0.5, gzip;q=0.6, br;q=0");
+        assertThat(HttpUtils.negotiateContentEncoding(headers, List.of("br", "zstd", "gzip")))
+                .isEqualTo("gzip");
+
+        headers.set("Accept-Encoding", "*");
+        assertThat(HttpUtils.negotiateContentEncoding(headers, List.of("br", "gzip")))
+                .isEqualTo("br");
+    }
+
+    @Test
+    void negotiateContentEncoding_acrossHeaderLines() {
+        Headers headers = new Headers();
+        headers.add("Accept-Encoding", "gzip;q=0.5");
+        headers.add("Accept-Encoding", "zstd");
+        assertThat(HttpUtils.negotiateContentEncoding(headers, List.of("br", "gzip", "zstd")))
+                .isEqualTo("zstd");
+    }
+
+    @Test
+    void negotiateContentEncoding_noneAcceptable() {
+        Headers headers = new Headers();
+        assertThat(HttpUtils.negotiateContentEncoding(headers, List.of("gzip"))).isNull();
+
+        headers.add("Accept-Encoding", "identity, deflate, gzip;q=bogus");
+        assertThat(HttpUtils.negotiateContentEncoding(headers, List.of("br", "gzip")))
+                .isNull();
+    }
+
     @Test
     void stripMaliciousHeaderChars() {
         assertThat(HttpUtils.stripMaliciousHeaderChars("some\r\nthing")).isEqualTo("something");
@@ -38,6 +38,9 @@ public final class DiscoveryResult implements ResolverResult {
 
     private final DiscoveryEnabledServer server;
     private final ServerStats serverStats;
+
+    @Nullable
+    private final PeakEwma latency;
     /**
      * This exists to allow for a semblance of type safety, and encourages avoiding null checks on the underlying Server,
      * thus representing a sentinel value for an empty resolution result.
@@ -51,9 +54,17 @@ public final class DiscoveryResult implements ResolverResult {
             false);
 
     public DiscoveryResult(DiscoveryEnabledServer server, LoadBalancerStats lbStats) {
+        this(server, lbStats, null);
+    }
+
+    /**
+     * @param latency if set, also receives every response time noted for this server.
+     */
+    public DiscoveryResult(DiscoveryEnabledServer server, LoadBalancerStats lbStats, @Nullable PeakEwma latency) {
         this.server = server;
         Objects.requireNonNull(lbStats, "Loadbalancer stats must be a valid instance");
         this.serverStats = lbStats.getSingleServerStat(server);
+        this.latency = latency;
     }
 
     /**
@@ -68,6 +79,7 @@ public final class DiscoveryResult implements ResolverResult {
                 return "no stats configured for server";
             }
         };
+        this.latency = null;
     }
 
     /**
@@ -167,6 +179,9 @@ public final class DiscoveryResult implements ResolverResult {
 
     public void noteResponseTime(double msecs) {
         serverStats.noteResponseTime(msecs);
+        if (latency != null) {
+            latency.observe(msecs);
+        }
     }
 
     public boolean isCircuitBreakerTripped() {
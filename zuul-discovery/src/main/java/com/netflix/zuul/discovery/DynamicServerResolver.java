@@ -97,6 +97,10 @@ public class DynamicServerResolver implements Resolver<DiscoveryResult> {
                 .collect(Collectors.toList());
     }
 
+    protected DynamicServerListLoadBalancer<?> getLoadBalancer() {
+        return loadBalancer;
+    }
+
     @Override
     public void shutdown() {
         loadBalancer.shutdown();
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.discovery;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * A peak-sensitive, exponentially weighted moving average of response times for a single server.
+ *
+ * <p>A sample above the current average replaces it outright, so a server that turns slow is penalized on its first
+ * slow response. Samples below it are blended in, weighted by the time since the previous sample, so the average
+ * recovers over roughly the decay time once the server is fast again. Reads decay the average in the same way, so a
+ * server that stops receiving traffic because it was slow is eventually tried again.
+ *
+ * <p>Updates and reads are lock-free.
+ */
+public final class PeakEwma {
+
+    private final long decayNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<Sample> sample;
+
+    public PeakEwma(long decayTimeMs, LongSupplier nanoClock) {
+        this.decayNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(decayTimeMs), 1);
+        this.nanoClock = nanoClock;
+        this.sample = new AtomicReference<>(new Sample(0, nanoClock.getAsLong()));
+    }
+
+    /**
+     * Records a response time, in milliseconds.
+     */
+    public void observe(double msecs) {
+        long now = nanoClock.getAsLong();
+        Sample prev;
+        Sample next;
+        do {
+            prev = sample.get();
+            double ewma;
+            if (msecs > prev.ewma) {
+                ewma = msecs;
+            } else {
+                double weight = decayWeight(prev, now);
+                ewma = prev.ewma * weight + msecs * (1 - weight);
+            }
+            next = new Sample(ewma, Math.max(now, prev.stampNanos));
+        } while (!sample.compareAndSet(prev, next));
+    }
+
+    /**
+     * Returns the average response time in milliseconds, decayed up to now, or zero if nothing has been observed.
+     */
+    public double get() {
+        Sample current = sample.get();
+        return current.ewma * decayWeight(current, nanoClock.getAsLong());
+    }
+
+    private double decayWeight(Sample sample, long now) {
+        long elapsed = Math.max(now - sample.stampNanos, 0);
+        return Math.exp(-(double) elapsed / decayNanos);
+    }
+
+    private record Sample(double ewma, long stampNanos) {}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.discovery;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.netflix.client.config.CommonClientConfigKey;
+import com.netflix.client.config.IClientConfig;
+import com.netflix.client.config.IClientConfigKey;
+import com.netflix.loadbalancer.DynamicServerListLoadBalancer;
+import com.netflix.loadbalancer.LoadBalancerStats;
+import com.netflix.loadbalancer.Server;
+import com.netflix.loadbalancer.ServerStats;
+import com.netflix.niws.loadbalancer.DiscoveryEnabledServer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
+
+/**
+ * A resolver that picks servers by latency and load, rather than with the ribbon load-balancer's rule.
+ * <p>
+ * Each resolution samples two reachable servers at random and picks the one with the lower cost, where the cost is
+ * the server's {@link PeakEwma peak-EWMA} response time multiplied by its outstanding requests plus one. Because the
+ * EWMA jumps to any slower sample, a server that slows down (e.g. while GC-ing) is de-weighted after its first slow
+ * response rather than after an average catches up. Picking the better of two random servers, rather than the best
+ * of all, keeps resolution lock-free and O(1), and avoids every caller herding onto the same server.
+ * <p>
+ * The ribbon load-balancer still supplies the list of reachable servers, but its rule, including any zone affinity, is
+ * bypassed.
+ */
+public class PeakEwmaServerResolver extends DynamicServerResolver {
+
+    public static final IClientConfigKey<Boolean> LATENCY_AWARE_SERVER_SELECTION =
+            new CommonClientConfigKey<>("LatencyAwareServerSelection") {};
+
+    public static final IClientConfigKey<Integer> PEAK_EWMA_DECAY_TIME_MS =
+            new CommonClientConfigKey<>("PeakEwmaDecayTimeMs") {};
+
+    static final int DEFAULT_DECAY_TIME_MS = 10_000;
+
+    /**
+     * Cost of a server that has requests outstanding but has never reported a response time. Large enough to prefer
+     * any server with a known latency, so that a new server isn't flooded before its first response.
+     */
+    private static final double UNKNOWN_LATENCY_PENALTY = 1e6;
+
+    // Server list updates only reach onUpdate() once setListener() registers for them, after construction, so this is
+    // always initialised by then. Don't register in the constructor, as it would run before this initialiser.
+    private final ConcurrentHashMap<Server, PeakEwma> latencies = new ConcurrentHashMap<>();
+    private final long decayTimeMs;
+    private final LongSupplier nanoClock;
+
+    public PeakEwmaServerResolver(IClientConfig clientConfig) {
+        super(clientConfig);
+        this.decayTimeMs = clientConfig.getPropertyAsInteger(PEAK_EWMA_DECAY_TIME_MS, DEFAULT_DECAY_TIME_MS);
+        this.nanoClock = System::nanoTime;
+    }
+
+    public PeakEwmaServerResolver(
+            DynamicServerListLoadBalancer<?> loadBalancer, long decayTimeMs, LongSupplier nanoClock) {
+        super(loadBalancer);
+        this.decayTimeMs = decayTimeMs;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public DiscoveryResult resolve(@Nullable Object key) {
+        List<Server> servers = getLoadBalancer().getReachableServers();
+        int size = servers.size();
+        if (size == 0) {
+            return DiscoveryResult.EMPTY;
+        }
+
+        LoadBalancerStats lbStats = getLoadBalancer().getLoadBalancerStats();
+        Server chosen;
+        if (size == 1) {
+            chosen = servers.get(0);
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            Server a = servers.get(first);
+            Server b = servers.get(second);
+            chosen = cost(b, lbStats) < cost(a, lbStats) ? b : a;
+        }
+
+        if (!(chosen instanceof DiscoveryEnabledServer discoveryServer)) {
+            return DiscoveryResult.EMPTY;
+        }
+        return new DiscoveryResult(discoveryServer, lbStats, latencyFor(chosen));
+    }
+
+    /**
+     * Like {@link DynamicServerResolver#getServers()}, but each result carries the server's {@link PeakEwma}, as
+     * {@link #resolve} does. Connection pools are keyed by the first result seen for a server, which may come from here
+     * (e.g. when pools are warmed up), and response times are reported through that result.
+     */
+    @Override
+    public List<DiscoveryResult> getServers() {
+        LoadBalancerStats lbStats = getLoadBalancer().getLoadBalancerStats();
+        List<Server> servers = getLoadBalancer().getAllServers();
+        List<DiscoveryResult> results = new ArrayList<>(servers.size());
+        for (Server server : servers) {
+            if (server instanceof DiscoveryEnabledServer discoveryServer) {
+                results.add(new DiscoveryResult(discoveryServer, lbStats, latencyFor(server)));
+            }
+        }
+        return results;
+    }
+
+    @VisibleForTesting
+    double cost(Server server, LoadBalancerStats lbStats) {
+        ServerStats stats = lbStats.getSingleServerStat(server);
+        if (stats.isCircuitBreakerTripped()) {
+            return Double.MAX_VALUE;
+        }
+        int outstanding = Math.max(stats.getActiveRequestsCount(), 0);
+        double latency = latencyFor(server).get();
+        if (latency == 0) {
+            return outstanding == 0 ? 0 : UNKNOWN_LATENCY_PENALTY + outstanding;
+        }
+        return latency * (outstanding + 1);
+    }
+
+    private PeakEwma latencyFor(Server server) {
+        // Avoid computeIfAbsent() so that the common case, of the server already being known, never takes a lock.
+        PeakEwma latency = latencies.get(server);
+        if (latency == null) {
+            latency = new PeakEwma(decayTimeMs, nanoClock);
+            PeakEwma existing = latencies.putIfAbsent(server, latency);
+            if (existing != null) {
+                latency = existing;
+            }
+        }
+        return latency;
+    }
+
+    @Override
+    void onUpdate(List<Server> oldList, List<Server> newList) {
+        super.onUpdate(oldList, newList);
+        latencies.keySet().retainAll(new HashSet<>(newList));
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ *      Licensed under the Apache License, Version 2.0 (the "License");
+ *      you may not use this file except in compliance with the License.
+ *      You may obtain a copy of the License at
+ *
+ *          http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *      Unless required by applicable law or agreed to in writing, software
+ *      distributed under the License is distributed on an "AS IS" BASIS,
+ *      WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *      See the License for the specific language governing permissions and
+ *      limitations under the License.
+ */
+
+package com.netflix.zuul.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.loadbalancer.DynamicServerListLoadBalancer;
+import com.netflix.loadbalancer.LoadBalancerStats;
+import com.netflix.loadbalancer.Server;
+import com.netflix.loadbalancer.ServerListChangeListener;
+import com.netflix.niws.loadbalancer.DiscoveryEnabledServer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PeakEwmaServerResolverTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private DiscoveryEnabledServer fast;
+    private DiscoveryEnabledServer slow;
+    private LoadBalancerStats lbStats;
+    private PeakEwmaServerResolver resolver;
+
+    @BeforeEach
+    void setup() {
+        fast = server("100.10.10.1");
+        slow = server("100.10.10.2");
+        lbStats = new LoadBalancerStats("test");
+
+        @SuppressWarnings("unchecked")
+        DynamicServerListLoadBalancer<Server> loadBalancer = mock(DynamicServerListLoadBalancer.class);
+        when(loadBalancer.getReachableServers()).thenReturn(List.of(fast, slow));
+        when(loadBalancer.getAllServers()).thenReturn(List.of(fast, slow));
+        when(loadBalancer.getLoadBalancerStats()).thenReturn(lbStats);
+
+        resolver = new PeakEwmaServerResolver(loadBalancer, 10_000, nanoTime::get);
+    }
+
+    @Test
+    void prefersServerWithLowerLatency() {
+        noteResponseTimes(10, 500);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(resolver.resolve(null).getServer()).isEqualTo(fast);
+        }
+    }
+
+    @Test
+    void prefersServerWithFewerOutstandingRequests() {
+        noteResponseTimes(10, 10);
+        lbStats.getSingleServerStat(fast).incrementActiveRequestsCount();
+        lbStats.getSingleServerStat(fast).incrementActiveRequestsCount();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(resolver.resolve(null).getServer()).isEqualTo(slow);
+        }
+    }
+
+    @Test
+    void avoidsServerWithTrippedCircuitBreaker() {
+        noteResponseTimes(10, 500);
+        for (int i = 0; i < 10; i++) {
+            lbStats.getSingleServerStat(fast).incrementSuccessiveConnectionFailureCount();
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(resolver.resolve(null).getServer()).isEqualTo(slow);
+        }
+    }
+
+    @Test
+    void singleSlowResponseDeweightsServer() {
+        noteResponseTimes(10, 20);
+        assertThat(resolver.cost(fast, lbStats)).isLessThan(resolver.cost(slow, lbStats));
+
+        resolveUntil(fast).noteResponseTime(1000);
+
+        assertThat(resolver.cost(fast, lbStats)).isCloseTo(1000, within(0.001));
+        assertThat(resolver.resolve(null).getServer()).isEqualTo(slow);
+    }
+
+    @Test
+    void responseTimesNotedOnListedServersMoveTheCost() {
+        // Pools warmed up from getServers() keep those results, so their response times must reach the EWMA too.
+        DiscoveryResult listedFast = resolver.getServers().stream()
+                .filter(result -> result.getServer().equals(fast))
+                .findFirst()
+                .orElseThrow();
+        assertThat(resolver.cost(fast, lbStats)).isZero();
+
+        listedFast.noteResponseTime(250);
+
+        assertThat(resolver.cost(fast, lbStats)).isCloseTo(250, within(0.001));
+    }
+
+    @Test
+    void peakDecaysOverTime() {
+        PeakEwma ewma = new PeakEwma(10_000, nanoTime::get);
+        ewma.observe(100);
+        ewma.observe(10);
+
+        // A faster sample straight after the peak barely moves it.
+        assertThat(ewma.get()).isCloseTo(100, within(0.001));
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(ewma.get()).isCloseTo(100 / Math.E, within(0.001));
+
+        ewma.observe(10);
+        assertThat(ewma.get()).isCloseTo(100 / Math.E + 10 * (1 - 1 / Math.E), within(0.001));
+    }
+
+    @Test
+    void emptyWhenNoReachableServers() {
+        @SuppressWarnings("unchecked")
+        DynamicServerListLoadBalancer<Server> loadBalancer = mock(DynamicServerListLoadBalancer.class);
+        when(loadBalancer.getReachableServers()).thenReturn(List.of());
+        when(loadBalancer.getLoadBalancerStats()).thenReturn(lbStats);
+
+        PeakEwmaServerResolver emptyResolver = new PeakEwmaServerResolver(loadBalancer, 10_000, nanoTime::get);
+
+        assertThat(emptyResolver.resolve(null)).isSameAs(DiscoveryResult.EMPTY);
+    }
+
+    @Test
+    void serverListUpdateAsSoonAsListenerIsRegisteredIsHandled() {
+        @SuppressWarnings("unchecked")
+        DynamicServerListLoadBalancer<Server> loadBalancer = mock(DynamicServerListLoadBalancer.class);
+        when(loadBalancer.getLoadBalancerStats()).thenReturn(lbStats);
+        doAnswer(invocation -> {
+                    ServerListChangeListener listener = invocation.getArgument(0);
+                    listener.serverListChanged(List.of(fast, slow), List.of(fast));
+                    return null;
+                })
+                .when(loadBalancer)
+                .addServerListChangeListener(any());
+
+        PeakEwmaServerResolver updatedResolver = new PeakEwmaServerResolver(loadBalancer, 10_000, nanoTime::get);
+        verify(loadBalancer, never()).addServerListChangeListener(any());
+
+        List<List<DiscoveryResult>> removed = new ArrayList<>();
+        updatedResolver.setListener(removed::add);
+
+        assertThat(removed).hasSize(1);
+        assertThat(removed.get(0)).extracting(DiscoveryResult::getServer).containsExactly(slow);
+    }
+
+    private void noteResponseTimes(double fastMs, double slowMs) {
+        resolveUntil(fast).noteResponseTime(fastMs);
+        resolveUntil(slow).noteResponseTime(slowMs);
+    }
+
+    private DiscoveryResult resolveUntil(DiscoveryEnabledServer server) {
+        // With two servers, both are always candidates, so this only loops until the costs favour the given one.
+        // Outstanding requests are used to steer the choice while no latency is known.
+        DiscoveryEnabledServer other = server == fast ? slow : fast;
+        lbStats.getSingleServerStat(other).incrementActiveRequestsCount();
+        try {
+            DiscoveryResult result = resolver.resolve(null);
+            assertThat(result.getServer()).isEqualTo(server);
+            return result;
+        } finally {
+            lbStats.getSingleServerStat(other).decrementActiveRequestsCount();
+        }
+    }
+
+    private static DiscoveryEnabledServer server(String ip) {
+        InstanceInfo instanceInfo = InstanceInfo.Builder.newBuilder()
+                .setAppName("zuul-discovery")
+                .setHostName(ip)
+                .setIPAddr(ip)
+                .setPort(443)
+                .build();
+        return new DiscoveryEnabledServer(instanceInfo, true);
+    }
+}